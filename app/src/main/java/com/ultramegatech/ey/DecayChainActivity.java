@@ -0,0 +1,227 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey;
+
+import android.os.Bundle;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import android.widget.SeekBar;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.ultramegatech.ey.chem.DecayChain;
+import com.ultramegatech.ey.provider.NuclideTable;
+import com.ultramegatech.ey.provider.Nuclides;
+import com.ultramegatech.ey.util.CommonMenuHandler;
+import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.widget.DecayPlotView;
+
+import java.text.DecimalFormat;
+
+/**
+ * This Activity plots the amounts of the members of the decay chain of a nuclide over a time
+ * range chosen with a slider. The chain is solved once, and every change of the range evaluates
+ * it again into the same arrays.
+ *
+ * @author Steve Guidetti
+ */
+public class DecayChainActivity extends AppCompatActivity
+        implements SeekBar.OnSeekBarChangeListener {
+    /**
+     * Intent extra for the index of the parent nuclide in the NuclideTable
+     */
+    public static final String EXTRA_NUCLIDE = "nuclide";
+
+    /**
+     * The number of time samples
+     */
+    private static final int SAMPLES = 2048;
+
+    /**
+     * The shortest and longest time ranges, as powers of 10 seconds
+     */
+    private static final int MIN_DECADE = 0;
+    private static final int MAX_DECADE = 18;
+
+    /**
+     * The number of slider steps per power of 10
+     */
+    private static final int STEPS_PER_DECADE = 10;
+
+    /**
+     * The initial time range as a multiple of the half-life of the parent
+     */
+    private static final double DEFAULT_HALF_LIVES = 10;
+
+    /**
+     * Format for amounts
+     */
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.####");
+
+    /**
+     * Format for small amounts
+     */
+    private static final DecimalFormat SCIENTIFIC_FORMAT = new DecimalFormat("0.###E0");
+
+    /**
+     * The View plotting the amounts
+     */
+    private DecayPlotView mPlot;
+
+    /**
+     * The TextView displaying the time range
+     */
+    private TextView mTxtRange;
+
+    /**
+     * The TextView displaying the amounts at the end of the time range
+     */
+    private TextView mTxtLegend;
+
+    /**
+     * The table of nuclides
+     */
+    private NuclideTable mTable;
+
+    /**
+     * The decay chain
+     */
+    private DecayChain mChain;
+
+    /**
+     * The time of each sample
+     */
+    private final double[] mTimes = new double[SAMPLES];
+
+    /**
+     * The amount of each member at each sample
+     */
+    private double[][] mAmounts;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
+
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_decay_chain);
+
+        mPlot = findViewById(R.id.plot);
+        mTxtRange = findViewById(R.id.range);
+        mTxtLegend = findViewById(R.id.legend);
+
+        final int nuclide = getIntent().getIntExtra(EXTRA_NUCLIDE, -1);
+        mTable = Nuclides.getTable();
+        if(nuclide < 0 || nuclide >= mTable.getCount()) {
+            finish();
+            return;
+        }
+        setTitle(getString(R.string.titleDecayChainOf, NuclideChartActivity.getName(mTable,
+                nuclide)));
+        mChain = new DecayChain(mTable, nuclide);
+        mAmounts = new double[mChain.size()][SAMPLES];
+
+        final SeekBar rangeBar = findViewById(R.id.rangeBar);
+        rangeBar.setMax((MAX_DECADE - MIN_DECADE) * STEPS_PER_DECADE);
+        final double range = DEFAULT_HALF_LIVES * Math.log(2) / mChain.getDecayConstant(0);
+        final int progress =
+                (int)Math.round((Math.log10(range) - MIN_DECADE) * STEPS_PER_DECADE);
+        rangeBar.setProgress(Math.max(0, Math.min(rangeBar.getMax(), progress)));
+        rangeBar.setOnSeekBarChangeListener(this);
+        update(rangeBar.getProgress());
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        final MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.common, menu);
+        return super.onCreateOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        return CommonMenuHandler.handleSelect(this, item.getItemId())
+                || super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+        update(progress);
+    }
+
+    @Override
+    public void onStartTrackingTouch(SeekBar seekBar) {
+    }
+
+    @Override
+    public void onStopTrackingTouch(SeekBar seekBar) {
+    }
+
+    /**
+     * Evaluate the chain over a new time range and update the plot and legend.
+     *
+     * @param progress The position of the range slider
+     */
+    private void update(int progress) {
+        final double end = Math.pow(10, MIN_DECADE + progress / (double)STEPS_PER_DECADE);
+        for(int i = 0; i < SAMPLES; i++) {
+            mTimes[i] = end * i / (SAMPLES - 1);
+        }
+        mChain.evaluate(mTimes, mAmounts);
+        mPlot.setData(mAmounts, SAMPLES);
+        mTxtRange.setText(getString(R.string.decayRange,
+                NuclideChartActivity.formatDuration(end)));
+
+        final SpannableStringBuilder legend = new SpannableStringBuilder();
+        for(int member = 0; member < mChain.size(); member++) {
+            if(member > 0) {
+                legend.append('\n');
+            }
+            final int start = legend.length();
+            legend.append("■ ");
+            legend.setSpan(new ForegroundColorSpan(DecayPlotView.getColor(member)), start,
+                    legend.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            legend.append(NuclideChartActivity.getName(mTable, mChain.getNuclide(member)))
+                    .append(": ").append(formatAmount(mAmounts[member][SAMPLES - 1]));
+        }
+        mTxtLegend.setText(legend);
+    }
+
+    /**
+     * Format an amount as a fraction of the initial amount of the parent.
+     *
+     * @param amount The amount
+     * @return The formatted amount
+     */
+    private static String formatAmount(double amount) {
+        if(amount <= 0) {
+            return "0";
+        }
+        return (amount >= 1e-3 ? DECIMAL_FORMAT : SCIENTIFIC_FORMAT).format(amount);
+    }
+}
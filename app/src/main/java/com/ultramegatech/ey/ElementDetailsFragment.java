@@ -27,10 +27,11 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.net.Uri;
-import android.os.Build;
 import android.os.Bundle;
-import android.text.Html;
-import android.text.TextUtils;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.method.LinkMovementMethod;
+import android.text.style.URLSpan;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -45,16 +46,24 @@ import androidx.fragment.app.DialogFragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.preference.PreferenceManager;
 
+import com.ultramegatech.ey.provider.ElectronConfiguration;
 import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSimilarity;
+import com.ultramegatech.ey.provider.ElementTable;
 import com.ultramegatech.ey.provider.Elements;
 import com.ultramegatech.ey.provider.Isotope;
 import com.ultramegatech.ey.provider.Isotopes;
+import com.ultramegatech.ey.provider.PropertyStats;
+import com.ultramegatech.ey.provider.Spectra;
+import com.ultramegatech.ey.provider.Spectrum;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
-import com.ultramegatech.ey.util.UnitUtils;
+import com.ultramegatech.ey.util.Property;
+import com.ultramegatech.ey.widget.EmissionSpectrumView;
+import com.ultramegatech.ey.widget.OrbitalBoxView;
 
 import java.text.DecimalFormat;
-import java.util.Locale;
+import java.util.List;
 
 /**
  * This Fragment displays details about a single chemical element. It can be embedded or shown as a
@@ -98,6 +107,7 @@ public class ElementDetailsFragment extends DialogFragment
     private TextView mTxtName;
     private TextView mTxtWeight;
     private TextView mTxtConfiguration;
+    private OrbitalBoxView mOrbitalView;
     private TextView mTxtElectrons;
     private TextView mTxtCategory;
     private TextView mTxtGPB;
@@ -107,17 +117,37 @@ public class ElementDetailsFragment extends DialogFragment
     private TextView mTxtHeat;
     private TextView mTxtNegativity;
     private TextView mTxtAbundance;
+    private TextView mTxtRadius;
+    private TextView mTxtCovalentRadius;
+    private TextView mTxtVdwRadius;
+    private TextView mTxtAffinity;
+    private TextView mTxtIonization;
+    private TextView mTxtOxidation;
+    private TextView mTxtSimilar;
 
     /**
      * The table for common isotopes.
      */
     private TableLayout mIsoTable;
 
+    /**
+     * Views for the emission spectrum
+     */
+    private View mSpectrumButton;
+    private TextView mTxtSpectrumUnavailable;
+    private EmissionSpectrumView mSpectrumView;
+    private TextView mTxtSpectrumNote;
+
     /**
      * Value to return for unknown values
      */
     private String mStringUnknown;
 
+    /**
+     * The number of similar elements to list
+     */
+    private static final int SIMILAR_COUNT = 5;
+
     /**
      * Format for decimal values
      */
@@ -132,6 +162,11 @@ public class ElementDetailsFragment extends DialogFragment
      */
     private Element mElement;
 
+    /**
+     * Whether to show the expanded electron configuration rather than the noble gas shorthand
+     */
+    private boolean mFullConfiguration;
+
     /**
      * Create a new instance of this Fragment.
      *
@@ -218,6 +253,11 @@ public class ElementDetailsFragment extends DialogFragment
         mTxtName = root.findViewById(R.id.name);
         mTxtWeight = root.findViewById(R.id.weight);
         mTxtConfiguration = root.findViewById(R.id.config);
+        mTxtConfiguration.setOnClickListener(v -> {
+            mFullConfiguration = !mFullConfiguration;
+            getElectronConfiguration();
+        });
+        mOrbitalView = root.findViewById(R.id.orbitals);
         mTxtElectrons = root.findViewById(R.id.electrons);
         mTxtCategory = root.findViewById(R.id.category);
         mTxtGPB = root.findViewById(R.id.gpb);
@@ -227,9 +267,23 @@ public class ElementDetailsFragment extends DialogFragment
         mTxtHeat = root.findViewById(R.id.heat);
         mTxtNegativity = root.findViewById(R.id.negativity);
         mTxtAbundance = root.findViewById(R.id.abundance);
+        mTxtRadius = root.findViewById(R.id.radius);
+        mTxtCovalentRadius = root.findViewById(R.id.covalentRadius);
+        mTxtVdwRadius = root.findViewById(R.id.vdwRadius);
+        mTxtAffinity = root.findViewById(R.id.affinity);
+        mTxtIonization = root.findViewById(R.id.ionization);
+        mTxtOxidation = root.findViewById(R.id.oxidation);
+        mTxtSimilar = root.findViewById(R.id.similar);
+        mTxtSimilar.setMovementMethod(LinkMovementMethod.getInstance());
 
         mIsoTable = root.findViewById(R.id.isoTable);
 
+        mSpectrumButton = root.findViewById(R.id.spectrumButton);
+        mSpectrumButton.setOnClickListener(v -> showSpectrum());
+        mTxtSpectrumUnavailable = root.findViewById(R.id.spectrumUnavailable);
+        mSpectrumView = root.findViewById(R.id.spectrum);
+        mTxtSpectrumNote = root.findViewById(R.id.spectrumNote);
+
         root.findViewById(R.id.videoButton).setOnClickListener(v -> showVideo());
 
         root.findViewById(R.id.wikiButton).setOnClickListener(v -> showWikipedia());
@@ -280,13 +334,22 @@ public class ElementDetailsFragment extends DialogFragment
         getCategory();
         getGPB();
         getElectronConfiguration();
+        getOrbitalDiagram();
         getElectrons();
-        mTxtDensity.setText(getDensity());
-        mTxtMelt.setText(getTemperature(mElement.melt));
-        mTxtBoil.setText(getTemperature(mElement.boil));
-        mTxtHeat.setText(getHeat());
-        mTxtNegativity.setText(getNegativity());
-        mTxtAbundance.setText(getAbundance());
+        final String tempUnit = PreferenceUtils.getPrefTempUnit();
+        mTxtDensity.setText(getValue(ElementTable.DENSITY, tempUnit));
+        mTxtMelt.setText(getValue(ElementTable.MELT, tempUnit));
+        mTxtBoil.setText(getValue(ElementTable.BOIL, tempUnit));
+        mTxtHeat.setText(getValue(ElementTable.HEAT, tempUnit));
+        mTxtNegativity.setText(getValue(ElementTable.NEGATIVITY, tempUnit));
+        mTxtAbundance.setText(getValue(ElementTable.ABUNDANCE, tempUnit));
+        mTxtRadius.setText(getValue(ElementTable.RADIUS, tempUnit));
+        mTxtCovalentRadius.setText(getValue(ElementTable.COVALENT_RADIUS, tempUnit));
+        mTxtVdwRadius.setText(getValue(ElementTable.VDW_RADIUS, tempUnit));
+        mTxtAffinity.setText(getValue(ElementTable.AFFINITY, tempUnit));
+        mTxtIonization.setText(getIonization());
+        mTxtOxidation.setText(getOxidation());
+        mTxtSimilar.setText(getSimilar());
 
         populateIsotopes();
     }
@@ -321,11 +384,10 @@ public class ElementDetailsFragment extends DialogFragment
      * returned surrounded by brackets.
      */
     private void getWeight() {
+        final Property property = Property.get(ElementTable.WEIGHT);
+        mTxtWeight.setText(property.formatFull(mElement, null));
         if(mElement.unstable) {
-            mTxtWeight.setText(String.format(Locale.getDefault(), "[%.0f]", mElement.weight));
-            mTxtWeight.setContentDescription(String.valueOf((int)mElement.weight));
-        } else {
-            mTxtWeight.setText(DECIMAL_FORMAT.format(mElement.weight));
+            mTxtWeight.setContentDescription(property.describe(mElement, null));
         }
         mTxtElementWeight.setText(mTxtWeight.getText());
     }
@@ -366,133 +428,163 @@ public class ElementDetailsFragment extends DialogFragment
     }
 
     /**
-     * Get the electron configuration.
+     * Get the electron configuration, in either the noble gas shorthand or the expanded form.
      */
     private void getElectronConfiguration() {
-        final StringBuilder builder = new StringBuilder();
-        final StringBuilder descBuilder = new StringBuilder();
-
-        if(mElement.configuration.baseElement != null) {
-            builder.append('[').append(mElement.configuration.baseElement).append("] ");
-            final Element baseElement = Elements.getElement(mElement.configuration.baseElement);
-            if(baseElement != null) {
-                descBuilder.append(getString(ElementUtils.getElementName(baseElement.number)));
-                descBuilder.append(", ");
-            }
-        }
-
-        for(Element.Orbital orbital : mElement.configuration.orbitals) {
-            builder.append(orbital.shell).append(orbital.orbital);
-            builder.append("<sup><small>").append(orbital.electrons).append("</small></sup> ");
-            descBuilder.append(orbital.shell).append(' ');
-            descBuilder.append(String.valueOf(orbital.orbital).toUpperCase()).append(' ');
-            descBuilder.append(orbital.electrons).append(", ");
+        if(mFullConfiguration) {
+            mTxtConfiguration.setText(ElectronConfiguration.getFull(mElement.number));
+            mTxtConfiguration.setContentDescription(
+                    ElectronConfiguration.getDescription(mElement.number, null));
+        } else {
+            final int core = mElement.getConfigurationCore();
+            mTxtConfiguration.setText(ElectronConfiguration.getShorthand(mElement.number));
+            mTxtConfiguration.setContentDescription(ElectronConfiguration.getDescription(
+                    mElement.number,
+                    core == 0 ? null : getString(ElementUtils.getElementName(core))));
         }
+    }
 
-        descBuilder.delete(descBuilder.length() - 2, descBuilder.length() - 1);
-
-        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            mTxtConfiguration.setText(Html.fromHtml(builder.toString().trim(), 0));
-            mTxtConfiguration.setContentDescription(Html.fromHtml(descBuilder.toString(), 0));
-        } else {
-            mTxtConfiguration.setText(Html.fromHtml(builder.toString().trim()));
-            mTxtConfiguration.setContentDescription(Html.fromHtml(descBuilder.toString()));
+    /**
+     * Get the orbital diagram of the orbitals outside the noble gas core.
+     */
+    private void getOrbitalDiagram() {
+        final int[] orbitals = new int[mElement.getOrbitalCount()];
+        for(int i = 0; i < orbitals.length; i++) {
+            orbitals[i] = mElement.getOrbital(i);
         }
+        mOrbitalView.setOrbitals(orbitals);
+        final int core = mElement.getConfigurationCore();
+        mOrbitalView.setContentDescription(ElectronConfiguration.getDescription(mElement.number,
+                core == 0 ? null : getString(ElementUtils.getElementName(core))));
     }
 
     /**
      * Get the electrons per shell.
      */
     private void getElectrons() {
-        mTxtElectrons.setText(TextUtils.join(", ", mElement.electrons));
-        mTxtElementElectrons.setText(TextUtils.join("\n", mElement.electrons));
+        final StringBuilder builder = new StringBuilder();
+        final StringBuilder blockBuilder = new StringBuilder();
+        for(int i = 0; i < mElement.getShellCount(); i++) {
+            if(i > 0) {
+                builder.append(", ");
+                blockBuilder.append('\n');
+            }
+            builder.append(mElement.getElectrons(i));
+            blockBuilder.append(mElement.getElectrons(i));
+        }
+        mTxtElectrons.setText(builder.toString());
+        mTxtElementElectrons.setText(blockBuilder.toString());
     }
 
     /**
-     * Get the density value with unit.
+     * Get the value of a property with unit and percentile rank.
      *
-     * @return The density
+     * @param property The ElementTable property ID
+     * @param tempUnit The temperature unit
+     * @return The formatted value
      */
     @NonNull
-    private String getDensity() {
-        if(mElement.density != null) {
-            return DECIMAL_FORMAT.format(mElement.density) + " g/cm³";
-        }
-        return mStringUnknown;
+    private String getValue(int property, @NonNull String tempUnit) {
+        final String value = Property.get(property).formatFull(mElement, tempUnit);
+        return value != null ? addPercentile(value, property) : mStringUnknown;
     }
 
     /**
-     * Get a value as a temperature string.
+     * Add the percentile rank of the element's value among all known values of a property to
+     * the text of the value. The rank does not depend on the display unit.
      *
-     * @param kelvin The temperature in Kelvin
-     * @return The converted temperature string
+     * @param text     The text of the value
+     * @param property The ElementTable property ID
+     * @return The text with the percentile rank, or the text alone if the value is unknown
      */
     @NonNull
-    private String getTemperature(@Nullable Double kelvin) {
-        if(kelvin != null) {
-            switch(PreferenceUtils.getPrefTempUnit()) {
-                case PreferenceUtils.TEMP_C:
-                    return String.format(Locale.getDefault(), "%.2f ℃", UnitUtils.KtoC(kelvin));
-                case PreferenceUtils.TEMP_F:
-                    return String.format(Locale.getDefault(), "%.2f ℉", UnitUtils.KtoF(kelvin));
-                default:
-                    return String.format(Locale.getDefault(), "%.2f K", kelvin);
-            }
+    private String addPercentile(@NonNull String text, int property) {
+        final float percentile = PropertyStats.get(property).getPercentile(mElement.number);
+        if(Float.isNaN(percentile)) {
+            return text;
         }
-
-        return mStringUnknown;
+        return getString(R.string.detailsPercentile, text, Math.round(percentile));
     }
 
     /**
-     * Get the heat value with unit.
+     * Get the successive ionization energies with unit.
      *
-     * @return The heat
+     * @return The list of ionization energies
      */
     @NonNull
-    private String getHeat() {
-        if(mElement.heat != null) {
-            return DECIMAL_FORMAT.format(mElement.heat) + " J/g·K";
+    private String getIonization() {
+        final int count = mElement.getIonizationCount();
+        if(count == 0) {
+            return mStringUnknown;
         }
-        return mStringUnknown;
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < count; i++) {
+            if(i > 0) {
+                builder.append(", ");
+            }
+            builder.append(DECIMAL_FORMAT.format(mElement.getIonizationEnergy(i)));
+        }
+        return builder.append(" kJ/mol").toString();
     }
 
     /**
-     * Get the electronegativity value with unit.
+     * Get the common oxidation states.
      *
-     * @return The electronegativity
+     * @return The list of oxidation states
      */
     @NonNull
-    private String getNegativity() {
-        if(mElement.negativity != null) {
-            return DECIMAL_FORMAT.format(mElement.negativity);
+    private String getOxidation() {
+        final int states = mElement.getOxidationStates();
+        if(states == 0) {
+            return mStringUnknown;
         }
-        return mStringUnknown;
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < 32; i++) {
+            if((states & (1 << i)) == 0) {
+                continue;
+            }
+            if(builder.length() > 0) {
+                builder.append(", ");
+            }
+            final int state = i + ElementTable.OXIDATION_MIN;
+            if(state > 0) {
+                builder.append('+');
+            }
+            builder.append(state);
+        }
+        return builder.toString();
     }
 
     /**
-     * Get the abundance value with unit.
+     * Get the most similar elements, each linking to its details.
      *
-     * @return The abundance
+     * @return The list of similar elements
      */
     @NonNull
-    private String getAbundance() {
-        if(mElement.abundance != null) {
-            if(mElement.abundance < 0.001) {
-                return "<0.001 mg/kg";
+    private CharSequence getSimilar() {
+        final SpannableStringBuilder builder = new SpannableStringBuilder();
+        for(int number : ElementSimilarity.getDefault().findSimilar(mElement.number,
+                SIMILAR_COUNT)) {
+            if(builder.length() > 0) {
+                builder.append(", ");
             }
-            return DECIMAL_FORMAT.format(mElement.abundance) + " mg/kg";
+            final int start = builder.length();
+            builder.append(Elements.getElement(number).symbol);
+            builder.setSpan(new URLSpan("elementary://element/" + number), start,
+                    builder.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
         }
-        return mStringUnknown;
+        return builder;
     }
 
     /**
      * Populate the table of common isotopes.
      */
     private void populateIsotopes() {
-        final Isotope[] isotopes = Isotopes.getIsotopes(mElement.number);
-        if(isotopes != null) {
+        final List<Isotope> isotopes = Isotopes.getIsotopes(mElement.number);
+        if(!isotopes.isEmpty()) {
             final LayoutInflater inflater = getLayoutInflater();
-            for(Isotope isotope : isotopes) {
+            for(int i = 0; i < isotopes.size(); i++) {
+                final Isotope isotope = isotopes.get(i);
                 final TableRow tableRow =
                         (TableRow)inflater.inflate(R.layout.isotope_table_row, mIsoTable, false);
 
@@ -512,6 +604,25 @@ public class ElementDetailsFragment extends DialogFragment
         }
     }
 
+    /**
+     * Load and show the emission spectrum. The spectrum data is only decoded at this point.
+     */
+    private void showSpectrum() {
+        if(mElement == null) {
+            return;
+        }
+        final Spectrum spectrum = Spectra.getSpectrum(mElement.number);
+        mSpectrumButton.setVisibility(View.GONE);
+        if(spectrum == null) {
+            mTxtSpectrumUnavailable.setVisibility(View.VISIBLE);
+        } else {
+            mSpectrumView.setSpectrum(spectrum);
+            mSpectrumView.setVisibility(View.VISIBLE);
+            mTxtSpectrumNote.setText(getString(R.string.spectrumNote, spectrum.size()));
+            mTxtSpectrumNote.setVisibility(View.VISIBLE);
+        }
+    }
+
     /**
      * Launch YouTube video Intent.
      */
@@ -548,8 +659,9 @@ public class ElementDetailsFragment extends DialogFragment
     public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
         if(PreferenceUtils.KEY_TEMP_UNITS.equals(key)) {
             if(mElement != null) {
-                mTxtMelt.setText(getTemperature(mElement.melt));
-                mTxtBoil.setText(getTemperature(mElement.boil));
+                final String tempUnit = PreferenceUtils.getPrefTempUnit();
+                mTxtMelt.setText(getValue(ElementTable.MELT, tempUnit));
+                mTxtBoil.setText(getValue(ElementTable.BOIL, tempUnit));
             }
         } else if(PreferenceUtils.KEY_ELEMENT_COLORS.equals(key)) {
             setBlockBackground();
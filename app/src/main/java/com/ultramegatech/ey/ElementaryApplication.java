@@ -24,6 +24,7 @@ package com.ultramegatech.ey;
 
 import android.app.Application;
 
+import com.ultramegatech.ey.provider.Dataset;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
 
@@ -38,5 +39,6 @@ public class ElementaryApplication extends Application {
         super.onCreate();
         PreferenceUtils.setup(this);
         ElementUtils.setup(this);
+        Dataset.setup(this);
     }
 }
@@ -0,0 +1,269 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.TableLayout;
+import android.widget.TableRow;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.ultramegatech.ey.chem.Equation;
+import com.ultramegatech.ey.chem.EquationBalancer;
+import com.ultramegatech.ey.chem.Formula;
+import com.ultramegatech.ey.chem.FormulaEngine;
+import com.ultramegatech.ey.chem.IsotopePattern;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.util.CommonMenuHandler;
+import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.widget.SpectrumView;
+
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This Activity calculates the molar mass, elemental composition, and isotope pattern of a
+ * chemical formula, or balances a chemical equation, as it is typed. The isotope pattern is
+ * calculated on a background thread once typing pauses, and any pending calculation is cancelled
+ * when the text changes.
+ *
+ * @author Steve Guidetti
+ */
+public class FormulaActivity extends AppCompatActivity implements TextWatcher {
+    /**
+     * Format for mass values
+     */
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat();
+
+    static {
+        DECIMAL_FORMAT.setMaximumFractionDigits(4);
+    }
+
+    /**
+     * The delay in milliseconds between the last change to the text and the isotope pattern
+     * calculation
+     */
+    private static final long PATTERN_DELAY = 300;
+
+    /**
+     * Handler for posting delayed callbacks and results
+     */
+    private final Handler mHandler = new Handler();
+
+    /**
+     * The thread used to calculate isotope patterns
+     */
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * The pending isotope pattern calculation
+     */
+    private Future<?> mPatternTask;
+
+    /**
+     * Incremented whenever the text changes, to discard results of outdated calculations
+     */
+    private int mGeneration;
+
+    /**
+     * The TextView displaying the molar mass
+     */
+    private TextView mTxtMolarMass;
+
+    /**
+     * The table displaying the composition
+     */
+    private TableLayout mTable;
+
+    /**
+     * The View displaying the isotope pattern
+     */
+    private SpectrumView mSpectrum;
+
+    /**
+     * The TextView displayed when the isotope pattern is not calculated
+     */
+    private TextView mTxtPatternUnavailable;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
+
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_formula);
+
+        mTxtMolarMass = findViewById(R.id.molarMass);
+        mTable = findViewById(R.id.composition);
+        mSpectrum = findViewById(R.id.spectrum);
+        mTxtPatternUnavailable = findViewById(R.id.patternUnavailable);
+
+        final EditText formulaText = findViewById(R.id.formula);
+        formulaText.addTextChangedListener(this);
+        update(formulaText.getText());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mHandler.removeCallbacksAndMessages(null);
+        mExecutor.shutdownNow();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        final MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.common, menu);
+        return super.onCreateOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        return CommonMenuHandler.handleSelect(this, item.getItemId())
+                || super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+        update(s);
+    }
+
+    /**
+     * Parse the formula and display the results.
+     *
+     * @param text The formula
+     */
+    private void update(@NonNull CharSequence text) {
+        cancelPattern();
+        mSpectrum.setVisibility(View.GONE);
+        mTxtPatternUnavailable.setVisibility(View.GONE);
+        if(text.length() == 0) {
+            mTable.removeAllViews();
+            mTxtMolarMass.setText(null);
+            return;
+        }
+
+        final Formula formula = FormulaEngine.parse(text);
+        if(formula == null) {
+            mTable.removeAllViews();
+            final Equation equation = EquationBalancer.balance(text);
+            if(equation != null) {
+                mTxtMolarMass.setText(equation.toString());
+            } else {
+                mTxtMolarMass.setText(R.string.formulaInvalid);
+            }
+            return;
+        }
+
+        if(formula.getAtomCount() > IsotopePattern.MAX_ATOMS) {
+            mTxtPatternUnavailable.setText(getString(R.string.patternTooLarge,
+                    IsotopePattern.MAX_ATOMS));
+            mTxtPatternUnavailable.setVisibility(View.VISIBLE);
+        } else {
+            schedulePattern(formula);
+        }
+
+        mTxtMolarMass.setText(getString(R.string.formulaMolarMass,
+                DECIMAL_FORMAT.format(formula.getMolarMass())));
+
+        final LayoutInflater inflater = getLayoutInflater();
+        for(int i = 0; i < formula.getElementCount(); i++) {
+            final TableRow row;
+            if(i < mTable.getChildCount()) {
+                row = (TableRow)mTable.getChildAt(i);
+            } else {
+                row = (TableRow)inflater.inflate(R.layout.formula_table_row, mTable, false);
+                if(i % 2 == 0) {
+                    row.setBackgroundColor(0x44888888);
+                }
+                mTable.addView(row);
+            }
+
+            ((TextView)row.findViewById(R.id.compSymbol))
+                    .setText(Elements.getElement(formula.getElementNumber(i)).symbol);
+            ((TextView)row.findViewById(R.id.compCount))
+                    .setText(String.valueOf(formula.getElementAtomCount(i)));
+            ((TextView)row.findViewById(R.id.compMass))
+                    .setText(DECIMAL_FORMAT.format(formula.getElementMass(i)));
+            ((TextView)row.findViewById(R.id.compPercent)).setText(String.format(
+                    Locale.getDefault(), "%.2f%%", formula.getElementMassPercent(i)));
+        }
+        final int rows = formula.getElementCount();
+        if(mTable.getChildCount() > rows) {
+            mTable.removeViews(rows, mTable.getChildCount() - rows);
+        }
+    }
+
+    /**
+     * Cancel any pending isotope pattern calculation and discard its result.
+     */
+    private void cancelPattern() {
+        mGeneration++;
+        mHandler.removeCallbacksAndMessages(null);
+        if(mPatternTask != null) {
+            mPatternTask.cancel(true);
+            mPatternTask = null;
+        }
+    }
+
+    /**
+     * Calculate the isotope pattern of a formula on the background thread after a delay, and
+     * display the result if the text has not changed in the meantime.
+     *
+     * @param formula The formula
+     */
+    private void schedulePattern(@NonNull final Formula formula) {
+        final int generation = mGeneration;
+        mHandler.postDelayed(() -> mPatternTask = mExecutor.submit(() -> {
+            final IsotopePattern pattern = IsotopePattern.calculate(formula);
+            mHandler.post(() -> {
+                if(generation == mGeneration) {
+                    mSpectrum.setPattern(pattern);
+                    mSpectrum.setVisibility(View.VISIBLE);
+                }
+            });
+        }), PATTERN_DELAY);
+    }
+}
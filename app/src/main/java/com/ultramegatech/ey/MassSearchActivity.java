@@ -0,0 +1,250 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.EditText;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.ultramegatech.ey.chem.FormulaSearch;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.IsotopeTable;
+import com.ultramegatech.ey.provider.Isotopes;
+import com.ultramegatech.ey.util.CommonMenuHandler;
+import com.ultramegatech.ey.util.PreferenceUtils;
+
+import java.text.DecimalFormat;
+import java.util.List;
+
+/**
+ * This Activity searches for formulas matching a measured monoisotopic mass. Results are added to
+ * the list as they are found and replaced by the final results sorted by their error when the
+ * search is complete. Single isotopes matching the mass are listed above the results.
+ *
+ * @author Steve Guidetti
+ */
+public class MassSearchActivity extends AppCompatActivity
+        implements FormulaSearch.SearchListener {
+    /**
+     * The input fields
+     */
+    private EditText mTxtMass;
+    private EditText mTxtPpm;
+    private EditText mTxtElements;
+
+    /**
+     * The TextView displaying the status of the search
+     */
+    private TextView mTxtStatus;
+
+    /**
+     * The TextView listing the isotopes matching the mass
+     */
+    private TextView mTxtIsotopes;
+
+    /**
+     * The Adapter backing the result list
+     */
+    private CandidateAdapter mAdapter;
+
+    /**
+     * The running search
+     */
+    private FormulaSearch mSearch;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
+
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_mass_search);
+
+        mTxtMass = findViewById(R.id.mass);
+        mTxtPpm = findViewById(R.id.ppm);
+        mTxtElements = findViewById(R.id.elements);
+        mTxtStatus = findViewById(R.id.status);
+        mTxtIsotopes = findViewById(R.id.isotopes);
+
+        mAdapter = new CandidateAdapter(this);
+        ((ListView)findViewById(R.id.results)).setAdapter(mAdapter);
+
+        findViewById(R.id.search).setOnClickListener(v -> startSearch());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if(mSearch != null) {
+            mSearch.cancel();
+        }
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        final MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.common, menu);
+        return super.onCreateOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        return CommonMenuHandler.handleSelect(this, item.getItemId())
+                || super.onOptionsItemSelected(item);
+    }
+
+    /**
+     * Start a new search using the values of the input fields, cancelling any running search.
+     */
+    private void startSearch() {
+        if(mSearch != null) {
+            mSearch.cancel();
+            mSearch = null;
+        }
+        mAdapter.clear();
+        mTxtIsotopes.setVisibility(View.GONE);
+
+        final double mass;
+        final double ppm;
+        try {
+            mass = Double.parseDouble(mTxtMass.getText().toString());
+            ppm = Double.parseDouble(mTxtPpm.getText().toString());
+        } catch(NumberFormatException e) {
+            mTxtStatus.setText(R.string.searchInvalid);
+            return;
+        }
+
+        final FormulaSearch search = new FormulaSearch(mass, ppm);
+        if(mass <= 0 || ppm <= 0 || !search.addElements(mTxtElements.getText())) {
+            mTxtStatus.setText(R.string.searchInvalid);
+            return;
+        }
+
+        showIsotopes(mass, mass * ppm / 1e6);
+
+        mSearch = search;
+        mTxtStatus.setText(getString(R.string.searchRunning, 0));
+        search.start(this);
+    }
+
+    /**
+     * List the isotopes with a mass within a tolerance of a value, using the mass index of the
+     * IsotopeTable.
+     *
+     * @param mass      The mass
+     * @param tolerance The maximum difference from the mass
+     */
+    private void showIsotopes(double mass, double tolerance) {
+        final IsotopeTable isotopes = Isotopes.getTable();
+        final StringBuilder builder = new StringBuilder();
+        for(int i = isotopes.findMassPosition(mass - tolerance); i < isotopes.getCount(); i++) {
+            final int index = isotopes.getByMass(i);
+            if(isotopes.getMass(index) > mass + tolerance) {
+                break;
+            }
+            if(builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(Elements.getElement(isotopes.getElement(index)).symbol).append('-')
+                    .append(isotopes.getMassNumber(index));
+        }
+
+        if(builder.length() > 0) {
+            mTxtIsotopes.setText(getString(R.string.searchIsotopes, builder));
+            mTxtIsotopes.setVisibility(View.VISIBLE);
+        }
+    }
+
+    @Override
+    public void onResults(@NonNull List<FormulaSearch.Candidate> candidates) {
+        mAdapter.setNotifyOnChange(false);
+        for(FormulaSearch.Candidate candidate : candidates) {
+            mAdapter.add(candidate);
+        }
+        mAdapter.notifyDataSetChanged();
+        mTxtStatus.setText(getString(R.string.searchRunning, mAdapter.getCount()));
+    }
+
+    @Override
+    public void onComplete(boolean cancelled) {
+        if(!cancelled) {
+            mAdapter.setNotifyOnChange(false);
+            mAdapter.clear();
+            for(FormulaSearch.Candidate candidate : mSearch.getResults()) {
+                mAdapter.add(candidate);
+            }
+            mAdapter.notifyDataSetChanged();
+            mTxtStatus.setText(getString(mSearch.isTruncated() ? R.string.searchTruncated
+                    : R.string.searchComplete, mAdapter.getCount()));
+            mSearch = null;
+        }
+    }
+
+    /**
+     * Adapter for displaying search results in a two line list item.
+     */
+    private static class CandidateAdapter extends ArrayAdapter<FormulaSearch.Candidate> {
+        /**
+         * Format for decimal values
+         */
+        private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat();
+
+        static {
+            DECIMAL_FORMAT.setMaximumFractionDigits(5);
+        }
+
+        /**
+         * @param context The Context
+         */
+        CandidateAdapter(@NonNull Context context) {
+            super(context, android.R.layout.simple_list_item_2, android.R.id.text1);
+        }
+
+        @NonNull
+        @Override
+        public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+            final View view = super.getView(position, convertView, parent);
+            final FormulaSearch.Candidate candidate = getItem(position);
+            if(candidate != null) {
+                ((TextView)view.findViewById(android.R.id.text1)).setText(candidate.getFormula());
+                final double rdbe = candidate.getRdbe();
+                ((TextView)view.findViewById(android.R.id.text2)).setText(
+                        getContext().getString(R.string.searchResult,
+                                DECIMAL_FORMAT.format(candidate.getMass()), candidate.getError(),
+                                Double.isNaN(rdbe) ? "?" : DECIMAL_FORMAT.format(rdbe)));
+            }
+            return view;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.NuclideTable;
+import com.ultramegatech.ey.provider.Nuclides;
+import com.ultramegatech.ey.util.CommonMenuHandler;
+import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.widget.NuclideChartView;
+
+import java.text.DecimalFormat;
+
+/**
+ * This Activity displays the chart of nuclides and the properties of the selected nuclide.
+ *
+ * @author Steve Guidetti
+ */
+public class NuclideChartActivity extends AppCompatActivity
+        implements NuclideChartView.NuclideChartListener {
+    /**
+     * The units used to display durations, in seconds, in ascending order
+     */
+    private static final double[] DURATION_UNITS = {
+            1e-6, 1e-3, 1, 60, 3600, 86400, 31557600
+    };
+
+    /**
+     * The symbols of the units used to display durations
+     */
+    private static final String[] DURATION_SYMBOLS = {"µs", "ms", "s", "min", "h", "d", "y"};
+
+    /**
+     * The symbols of the decay modes, in the order of the NuclideTable.DECAY_ bits
+     */
+    private static final String[] DECAY_SYMBOLS = {"α", "β−", "β+", "EC", "SF", "IT", "p", "n"};
+
+    /**
+     * Format for durations
+     */
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#,##0.###");
+
+    /**
+     * Format for very long durations
+     */
+    private static final DecimalFormat SCIENTIFIC_FORMAT = new DecimalFormat("0.###E0");
+
+    /**
+     * The TextView displaying the properties of the selected nuclide
+     */
+    private TextView mTxtInfo;
+
+    /**
+     * The button that opens the decay chain of the selected nuclide
+     */
+    private View mBtnDecayChain;
+
+    /**
+     * The index of the selected nuclide
+     */
+    private int mSelected = -1;
+
+    /**
+     * The table of nuclides
+     */
+    private NuclideTable mTable;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
+
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_nuclide_chart);
+
+        mTxtInfo = findViewById(R.id.info);
+        mBtnDecayChain = findViewById(R.id.decayChain);
+        mBtnDecayChain.setOnClickListener(v -> {
+            final Intent intent = new Intent(this, DecayChainActivity.class);
+            intent.putExtra(DecayChainActivity.EXTRA_NUCLIDE, mSelected);
+            startActivity(intent);
+        });
+        mTable = Nuclides.getTable();
+
+        final NuclideChartView chart = findViewById(R.id.chart);
+        chart.setTable(mTable);
+        chart.setNuclideChartListener(this);
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        final MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.common, menu);
+        return super.onCreateOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        return CommonMenuHandler.handleSelect(this, item.getItemId())
+                || super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    public void onNuclideClick(int index) {
+        mSelected = index;
+        mTxtInfo.setText(getString(R.string.nuclideInfo, getName(mTable, index),
+                mTable.getProtons(index), mTable.getNeutrons(index), getHalfLife(index),
+                getDecayModes(index), getSpin(index)));
+        mBtnDecayChain.setVisibility(mTable.getDecayConstant(index) > 0 ? View.VISIBLE
+                : View.GONE);
+    }
+
+    /**
+     * Get the name of a nuclide, which is the mass number followed by the element symbol.
+     *
+     * @param table The NuclideTable
+     * @param index The index of the nuclide
+     * @return The name of the nuclide
+     */
+    @NonNull
+    static String getName(@NonNull NuclideTable table, int index) {
+        final Element element = Elements.getElement(table.getProtons(index));
+        return table.getMassNumber(index) + (element != null ? element.symbol : "");
+    }
+
+    /**
+     * Format a duration in the largest unit that gives a value of at least one.
+     *
+     * @param seconds The duration in seconds
+     * @return The formatted duration
+     */
+    @NonNull
+    static String formatDuration(double seconds) {
+        int unit = DURATION_UNITS.length - 1;
+        while(unit > 0 && seconds < DURATION_UNITS[unit]) {
+            unit--;
+        }
+        final double value = seconds / DURATION_UNITS[unit];
+        final DecimalFormat format = value >= 1e6 ? SCIENTIFIC_FORMAT : DECIMAL_FORMAT;
+        return format.format(value) + " " + DURATION_SYMBOLS[unit];
+    }
+
+    /**
+     * Get the half-life of a nuclide as a string.
+     *
+     * @param index The index of the nuclide
+     * @return The half-life
+     */
+    @NonNull
+    private String getHalfLife(int index) {
+        if(mTable.isStable(index)) {
+            return getString(R.string.nuclideStable);
+        }
+        final double halfLife = mTable.getHalfLife(index);
+        if(Double.isNaN(halfLife)) {
+            return getString(R.string.unknown);
+        }
+        return formatDuration(halfLife);
+    }
+
+    /**
+     * Get the decay modes of a nuclide as a string.
+     *
+     * @param index The index of the nuclide
+     * @return The decay modes
+     */
+    @NonNull
+    private String getDecayModes(int index) {
+        final int modes = mTable.getDecayModes(index);
+        if(modes == 0) {
+            return mTable.isStable(index) ? "—" : getString(R.string.unknown);
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < DECAY_SYMBOLS.length; i++) {
+            if((modes & (1 << i)) != 0) {
+                if(builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(DECAY_SYMBOLS[i]);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Get the ground state spin and parity of a nuclide as a string.
+     *
+     * @param index The index of the nuclide
+     * @return The spin and parity
+     */
+    @NonNull
+    private String getSpin(int index) {
+        if(!mTable.hasSpin(index)) {
+            return getString(R.string.unknown);
+        }
+        final int spin = mTable.getDoubleSpin(index);
+        final String value = spin % 2 == 0 ? String.valueOf(spin / 2) : spin + "/2";
+        return value + (mTable.getParity(index) < 0 ? "−" : "+");
+    }
+}
@@ -48,13 +48,13 @@ import com.ultramegatech.ey.provider.Element;
 import com.ultramegatech.ey.provider.Elements;
 import com.ultramegatech.ey.util.CommonMenuHandler;
 import com.ultramegatech.ey.util.PreferenceUtils;
-import com.ultramegatech.ey.util.UnitUtils;
+import com.ultramegatech.ey.util.Property;
 import com.ultramegatech.ey.widget.BlockSubtextValueListAdapter;
 import com.ultramegatech.ey.widget.PeriodicTableBlock;
 import com.ultramegatech.ey.widget.PeriodicTableView;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This Activity displays the PeriodicTableView. Clicking on an element block will launch an
@@ -111,15 +111,6 @@ public class PeriodicTableActivity extends AppCompatActivity
      */
     private Spinner mSpinnerBlockColors;
 
-    /**
-     * Format for decimal values
-     */
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat();
-
-    static {
-        DECIMAL_FORMAT.setMaximumFractionDigits(4);
-    }
-
     @SuppressLint("SourceLockedOrientationActivity")
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -333,80 +324,21 @@ public class PeriodicTableActivity extends AppCompatActivity
         return CommonMenuHandler.handleSelect(this, id) || super.onOptionsItemSelected(item);
     }
 
-    /**
-     * Get the block subtext for an element block.
-     *
-     * @param element The Element
-     * @return The subtext for the element
-     */
-    @NonNull
-    private String getSubtext(@NonNull Element element) {
-        switch(PreferenceUtils.getPrefSubtextValue()) {
-            case PreferenceUtils.SUBTEXT_WEIGHT:
-                if(element.unstable) {
-                    return "[" + (int)element.weight + "]";
-                } else {
-                    return DECIMAL_FORMAT.format(element.weight);
-                }
-            case PreferenceUtils.SUBTEXT_MELT:
-            case PreferenceUtils.SUBTEXT_BOIL:
-                Double value;
-                if(PreferenceUtils.SUBTEXT_MELT.equals(PreferenceUtils.getPrefSubtextValue())) {
-                    value = element.melt;
-                } else {
-                    value = element.boil;
-                }
-                if(value != null) {
-                    switch(PreferenceUtils.getPrefTempUnit()) {
-                        case PreferenceUtils.TEMP_C:
-                            value = UnitUtils.KtoC(value);
-                            break;
-                        case PreferenceUtils.TEMP_F:
-                            value = UnitUtils.KtoF(value);
-                            break;
-                    }
-                    return DECIMAL_FORMAT.format(value);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_DENSITY:
-                if(element.density != null) {
-                    if(element.density < 0.0001) {
-                        return "<0.0001";
-                    }
-                    return DECIMAL_FORMAT.format(element.density);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_ABUNDANCE:
-                if(element.abundance != null) {
-                    if(element.abundance < 0.001) {
-                        return "<0.001";
-                    }
-                    return DECIMAL_FORMAT.format(element.abundance);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_HEAT:
-                if(element.heat != null) {
-                    return String.valueOf(element.heat);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_NEGATIVITY:
-                if(element.negativity != null) {
-                    return String.valueOf(element.negativity);
-                }
-                break;
-        }
-        return "?";
-    }
-
     /**
      * Load the Elements into PeriodicTableBlock.
      */
     private void loadElements() {
-        final ArrayList<PeriodicTableBlock> periodicTableBlocks = new ArrayList<>();
+        final List<Element> elements = Elements.getElements();
+        final ArrayList<PeriodicTableBlock> periodicTableBlocks =
+                new ArrayList<>(elements.size());
+        final Property property = PreferenceUtils.getPrefSubtextProperty();
+        final String tempUnit = PreferenceUtils.getPrefTempUnit();
         PeriodicTableBlock block;
-        for(Element element : Elements.getElements()) {
-            block = new PeriodicTableBlock(element);
-            block.subtext = getSubtext(element);
+        String subtext;
+        for(int i = 0; i < elements.size(); i++) {
+            block = new PeriodicTableBlock(elements.get(i));
+            subtext = property.format(block.element, tempUnit);
+            block.subtext = subtext != null ? subtext : "?";
 
             periodicTableBlocks.add(block);
         }
@@ -0,0 +1,612 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.NuclideTable;
+
+import java.util.Arrays;
+
+/**
+ * The decay chain of a radioactive nuclide, with the amounts of each member over time given by
+ * the Bateman equations.
+ * <p>
+ * A branching chain is split into the linear paths from the parent to each member, and the
+ * amount of a member is the sum over the paths that end at it. For a path with decay constants
+ * λ1...λn and branching ratios b1...bn-1, the amount is the product of biλi with the divided
+ * difference of exp(-λt) over λ1...λn, up to sign. The divided difference is evaluated on the
+ * sorted decay constants with the usual recurrence, except that any range of constants closer
+ * together than 1/t is evaluated directly from its Taylor series. This avoids the cancellation in
+ * the textbook form of the solution when decay constants are nearly equal, and handles equal
+ * constants and stable end members without special cases.
+ * <p>
+ * The paths are found once when the chain is created, along with the coefficients of the
+ * exponentials in the expanded form of each divided difference. When all the decay constants of a
+ * path are separated by more than 1/t, the recurrence has no cancellation to avoid, so the
+ * expanded form is used instead since it only takes linear time. Evaluation only needs the
+ * exponential of each member once per time sample, and writes into primitive arrays so that
+ * thousands of samples can be evaluated without allocation.
+ * <p>
+ * Decays by spontaneous fission, and decays to nuclides that are not in the table, leave the
+ * chain. Nuclides with unknown half-lives are treated as stable.
+ *
+ * @author Steve Guidetti
+ */
+public class DecayChain {
+    /**
+     * The maximum number of paths through the chain, beyond which further paths are ignored
+     */
+    private static final int MAX_PATHS = 4096;
+
+    /**
+     * The largest spread of a range of scaled decay constants that is evaluated from its Taylor
+     * series
+     */
+    private static final double SERIES_SPREAD = 1;
+
+    /**
+     * The maximum number of Taylor series terms, which is enough for full double precision when
+     * the spread is at most SERIES_SPREAD
+     */
+    private static final int SERIES_TERMS = 24;
+
+    /**
+     * The relative size of the first Taylor series term that is not needed
+     */
+    private static final double SERIES_EPSILON = 1e-17;
+
+    /**
+     * The decay modes that are followed, in the order of the DECAY_ bits
+     */
+    private static final int[] MODES = {
+            NuclideTable.DECAY_ALPHA, NuclideTable.DECAY_BETA_MINUS, NuclideTable.DECAY_BETA_PLUS,
+            NuclideTable.DECAY_ELECTRON_CAPTURE, NuclideTable.DECAY_PROTON,
+            NuclideTable.DECAY_NEUTRON
+    };
+
+    /**
+     * The NuclideTable index of each member, with the parent first
+     */
+    @NonNull
+    private final int[] mMembers;
+
+    /**
+     * The decay constant of each member in inverse seconds
+     */
+    @NonNull
+    private final double[] mDecayConstants;
+
+    /**
+     * The member at the end of each path
+     */
+    @NonNull
+    private final int[] mPathMembers;
+
+    /**
+     * The product of the branching ratios and decay constants of all but the last nuclide of
+     * each path
+     */
+    @NonNull
+    private final double[] mPathFactors;
+
+    /**
+     * The offset of the decay constants of each path, with an extra entry for the end
+     */
+    @NonNull
+    private final int[] mPathOffsets;
+
+    /**
+     * The decay constants of the nuclides of each path, in ascending order within each path
+     */
+    @NonNull
+    private final double[] mPathConstants;
+
+    /**
+     * The member corresponding to each entry of mPathConstants
+     */
+    @NonNull
+    private final int[] mPathConstantMembers;
+
+    /**
+     * The coefficient of the exponential of each entry of mPathConstants in the expanded form of
+     * the divided difference
+     */
+    @NonNull
+    private final double[] mPathCoefficients;
+
+    /**
+     * The smallest difference between the decay constants of each path
+     */
+    @NonNull
+    private final double[] mPathGaps;
+
+    /**
+     * The reciprocal factorials used by the Taylor series
+     */
+    @NonNull
+    private final double[] mInverseFactorials;
+
+    /**
+     * Working space for the exponential of each member at the current time
+     */
+    @NonNull
+    private final double[] mExponentials;
+
+    /**
+     * Working space for evaluating divided differences
+     */
+    @NonNull
+    private final double[] mDifferences;
+    @NonNull
+    private final double[] mLeftSeries;
+    @NonNull
+    private final double[] mRightSeries;
+    @NonNull
+    private final int[] mSeriesEnds;
+    @NonNull
+    private final int[] mSeriesStarts;
+    @NonNull
+    private final double[] mTerms = new double[SERIES_TERMS];
+
+    /**
+     * @param table  The NuclideTable
+     * @param parent The index of the parent nuclide
+     */
+    public DecayChain(@NonNull NuclideTable table, int parent) {
+        final Builder builder = new Builder(table);
+        builder.addPath(parent, 1, new int[] {parent}, 1);
+
+        mMembers = Arrays.copyOf(builder.members, builder.memberCount);
+        mDecayConstants = new double[mMembers.length];
+        for(int i = 0; i < mMembers.length; i++) {
+            mDecayConstants[i] = table.getDecayConstant(mMembers[i]);
+        }
+
+        mPathMembers = Arrays.copyOf(builder.pathMembers, builder.pathCount);
+        mPathFactors = Arrays.copyOf(builder.pathFactors, builder.pathCount);
+        mPathOffsets = Arrays.copyOf(builder.pathOffsets, builder.pathCount + 1);
+        mPathConstantMembers = Arrays.copyOf(builder.constantMembers, builder.constantCount);
+        mPathConstants = new double[builder.constantCount];
+        mPathCoefficients = new double[builder.constantCount];
+        mPathGaps = new double[builder.pathCount];
+
+        int maxLength = 0;
+        for(int i = 0; i < builder.pathCount; i++) {
+            final int start = mPathOffsets[i];
+            final int end = mPathOffsets[i + 1];
+            maxLength = Math.max(maxLength, end - start);
+            for(int j = start + 1; j < end; j++) {
+                final int member = mPathConstantMembers[j];
+                int k = j;
+                while(k > start && mDecayConstants[mPathConstantMembers[k - 1]]
+                        > mDecayConstants[member]) {
+                    mPathConstantMembers[k] = mPathConstantMembers[k - 1];
+                    k--;
+                }
+                mPathConstantMembers[k] = member;
+            }
+            for(int j = start; j < end; j++) {
+                mPathConstants[j] = mDecayConstants[mPathConstantMembers[j]];
+            }
+
+            mPathGaps[i] = Double.POSITIVE_INFINITY;
+            for(int j = start; j < end; j++) {
+                double product = 1;
+                for(int k = start; k < end; k++) {
+                    if(k != j) {
+                        product *= mPathConstants[k] - mPathConstants[j];
+                    }
+                }
+                mPathCoefficients[j] = 1 / product;
+                if(j > start) {
+                    final double gap = mPathConstants[j] - mPathConstants[j - 1];
+                    mPathGaps[i] = Math.min(mPathGaps[i], gap);
+                }
+            }
+        }
+        mExponentials = new double[mMembers.length];
+        mDifferences = new double[maxLength];
+        mLeftSeries = new double[maxLength];
+        mRightSeries = new double[maxLength];
+        mSeriesEnds = new int[maxLength];
+        mSeriesStarts = new int[maxLength];
+        mInverseFactorials = new double[maxLength + SERIES_TERMS];
+        mInverseFactorials[0] = 1;
+        for(int i = 1; i < mInverseFactorials.length; i++) {
+            mInverseFactorials[i] = mInverseFactorials[i - 1] / i;
+        }
+    }
+
+    /**
+     * Get the number of members of the chain, including the parent.
+     *
+     * @return The number of members
+     */
+    public int size() {
+        return mMembers.length;
+    }
+
+    /**
+     * Get the nuclide of a member of the chain.
+     *
+     * @param member The index of the member
+     * @return The index of the nuclide in the NuclideTable
+     */
+    public int getNuclide(int member) {
+        return mMembers[member];
+    }
+
+    /**
+     * Get the decay constant of a member of the chain.
+     *
+     * @param member The index of the member
+     * @return The decay constant in inverse seconds, which is 0 for stable members
+     */
+    public double getDecayConstant(int member) {
+        return mDecayConstants[member];
+    }
+
+    /**
+     * Calculate the amount of a member of the chain over time.
+     *
+     * @param member The index of the member
+     * @param times  The times in seconds
+     * @return The amount at each time, as a fraction of the initial amount of the parent
+     */
+    @NonNull
+    public double[] evaluate(int member, @NonNull double[] times) {
+        final double[] amounts = new double[times.length];
+        evaluate(member, times, amounts);
+        return amounts;
+    }
+
+    /**
+     * Calculate the amount of a member of the chain over time into an existing array.
+     *
+     * @param member  The index of the member
+     * @param times   The times in seconds
+     * @param amounts The array to receive the amount at each time, as a fraction of the initial
+     *                amount of the parent
+     */
+    public void evaluate(int member, @NonNull double[] times, @NonNull double[] amounts) {
+        for(int i = 0; i < times.length; i++) {
+            updateExponentials(times[i]);
+            double amount = 0;
+            for(int path = 0; path < mPathMembers.length; path++) {
+                if(mPathMembers[path] == member) {
+                    amount += mPathFactors[path] * getDividedDifference(path, times[i]);
+                }
+            }
+            amounts[i] = amount;
+        }
+    }
+
+    /**
+     * Calculate the amounts of all members of the chain over time into existing arrays.
+     *
+     * @param times   The times in seconds
+     * @param amounts The arrays to receive the amount of each member at each time, indexed by
+     *                member, as a fraction of the initial amount of the parent
+     */
+    public void evaluate(@NonNull double[] times, @NonNull double[][] amounts) {
+        for(int i = 0; i < times.length; i++) {
+            updateExponentials(times[i]);
+            for(double[] memberAmounts : amounts) {
+                memberAmounts[i] = 0;
+            }
+            for(int path = 0; path < mPathMembers.length; path++) {
+                amounts[mPathMembers[path]][i] +=
+                        mPathFactors[path] * getDividedDifference(path, times[i]);
+            }
+        }
+    }
+
+    /**
+     * Calculate exp(-λt) for the decay constant of each member.
+     *
+     * @param t The time in seconds
+     */
+    private void updateExponentials(double t) {
+        for(int i = 0; i < mDecayConstants.length; i++) {
+            mExponentials[i] = Math.exp(-mDecayConstants[i] * t);
+        }
+    }
+
+    /**
+     * Calculate the divided difference of exp(-λt) over the decay constants of a path, with the
+     * sign chosen so the result is positive. The exponentials must be up to date for the time.
+     * <p>
+     * The expanded form is used when the decay constants are far enough apart. Otherwise, the
+     * recurrence skips the ranges narrow enough for the Taylor series, and the widest of those
+     * ranges are evaluated beforehand in groups that share an end.
+     *
+     * @param path The index of the path
+     * @param t    The time in seconds
+     * @return The divided difference
+     */
+    private double getDividedDifference(int path, double t) {
+        final int offset = mPathOffsets[path];
+        final int length = mPathOffsets[path + 1] - offset;
+        if(mPathGaps[path] * t > SERIES_SPREAD) {
+            double sum = 0;
+            for(int i = offset; i < offset + length; i++) {
+                sum += mPathCoefficients[i] * mExponentials[mPathConstantMembers[i]];
+            }
+            return sum;
+        }
+
+        final double[] diffs = mDifferences;
+        for(int i = 0; i < length; i++) {
+            diffs[i] = mExponentials[mPathConstantMembers[offset + i]];
+        }
+        if(length == 1) {
+            return diffs[0];
+        }
+        if(t <= 0) {
+            return 0;
+        }
+
+        final double[] lambdas = mPathConstants;
+        final double limit = SERIES_SPREAD / t;
+        if(lambdas[offset + length - 1] - lambdas[offset] <= limit) {
+            getSeries(offset, offset, offset + length - 1, offset + length - 1, t, diffs);
+            return diffs[length - 1];
+        }
+
+        final int[] ends = mSeriesEnds;
+        final int[] starts = mSeriesStarts;
+        for(int i = 0, j = 0; i < length; i++) {
+            j = Math.max(i, j);
+            while(j + 1 < length && lambdas[offset + j + 1] - lambdas[offset + i] <= limit) {
+                j++;
+            }
+            ends[i] = j;
+        }
+        for(int i = 0, j = 0; j < length; j++) {
+            while(lambdas[offset + j] - lambdas[offset + i] > limit) {
+                i++;
+            }
+            starts[j] = i;
+        }
+
+        for(int last = length - 1; last >= 0; ) {
+            final int end = ends[last];
+            int first = last;
+            while(first > 0 && ends[first - 1] == end) {
+                first--;
+            }
+            if(end < length - 1 && first < end) {
+                getSeries(offset, offset + end, offset + Math.min(last, end - 1), offset + first,
+                        t, mLeftSeries);
+            }
+            last = first - 1;
+        }
+        for(int first = 0; first < length; ) {
+            final int start = starts[first];
+            int last = first;
+            while(last < length - 1 && starts[last + 1] == start) {
+                last++;
+            }
+            if(start > 0 && last > start) {
+                getSeries(offset, offset + start, offset + Math.max(first, start + 1),
+                        offset + last, t, mRightSeries);
+            }
+            first = last + 1;
+        }
+
+        for(int k = 1; k < length; k++) {
+            for(int i = 0; i < length - k; i++) {
+                final int high = i + k;
+                if(high <= ends[i]) {
+                    continue;
+                }
+                final double left = k > 1 && high - 1 == ends[i] ? mLeftSeries[i] : diffs[i];
+                final double right =
+                        k > 1 && i + 1 == starts[high] ? mRightSeries[high] : diffs[i + 1];
+                diffs[i] = (left - right) / (lambdas[offset + high] - lambdas[offset + i]);
+            }
+        }
+        return diffs[0];
+    }
+
+    /**
+     * Calculate the divided differences of exp(-λt) over a group of ranges of closely spaced
+     * decay constants that share one end, from their Taylor series around the shared end. The
+     * ranges run from the anchor to each offset from first to last, where first is nearer the
+     * anchor.
+     *
+     * @param offset The offset of the decay constants of the path
+     * @param anchor The offset of the shared end of the ranges
+     * @param first  The offset of the other end of the shortest range
+     * @param last   The offset of the other end of the longest range
+     * @param t      The time in seconds, which must be positive
+     * @param out    The array to receive the divided differences, indexed by the offset of the
+     *               other end of each range relative to the path offset
+     */
+    private void getSeries(int offset, int anchor, int first, int last, double t,
+                           @NonNull double[] out) {
+        final double[] lambdas = mPathConstants;
+        final double spread = Math.abs(lambdas[last] - lambdas[anchor]) * t;
+        int terms = 1;
+        for(double bound = spread; bound > SERIES_EPSILON && terms < SERIES_TERMS; ) {
+            bound *= spread / ++terms;
+        }
+
+        final double[] h = mTerms;
+        Arrays.fill(h, 0, terms, 0);
+        h[0] = 1;
+        final double logT = Math.log(t);
+        final int step = last > anchor ? 1 : -1;
+        for(int i = anchor + step, k = 1; ; i += step, k++) {
+            final double z = (lambdas[i] - lambdas[anchor]) * t;
+            for(int r = 1; r < terms; r++) {
+                h[r] += z * h[r - 1];
+            }
+
+            if((i - first) * step >= 0) {
+                double sum = 0;
+                for(int r = terms - 1; r >= 0; r--) {
+                    final double term = h[r] * mInverseFactorials[r + k];
+                    sum += (r & 1) == 0 ? term : -term;
+                }
+                out[i - offset] = sum * Math.exp(k * logT - lambdas[anchor] * t);
+            }
+            if(i == last) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Helper for enumerating the paths through the chain.
+     */
+    private static class Builder {
+        /**
+         * The NuclideTable
+         */
+        @NonNull
+        final NuclideTable table;
+
+        /**
+         * The members found so far
+         */
+        @NonNull
+        int[] members = new int[16];
+        int memberCount;
+
+        /**
+         * The paths found so far
+         */
+        @NonNull
+        int[] pathMembers = new int[16];
+        @NonNull
+        double[] pathFactors = new double[16];
+        @NonNull
+        int[] pathOffsets = new int[17];
+        int pathCount;
+
+        /**
+         * The members of the nuclides of the paths found so far
+         */
+        @NonNull
+        int[] constantMembers = new int[64];
+        int constantCount;
+
+        /**
+         * @param table The NuclideTable
+         */
+        Builder(@NonNull NuclideTable table) {
+            this.table = table;
+        }
+
+        /**
+         * Add a path and all the paths that continue it.
+         *
+         * @param nuclide The index of the last nuclide of the path
+         * @param factor  The product of the branching ratios and decay constants of all but the
+         *                last nuclide of the path
+         * @param path    The nuclides of the path
+         * @param length  The number of nuclides of the path
+         */
+        void addPath(int nuclide, double factor, @NonNull int[] path, int length) {
+            if(pathCount == MAX_PATHS) {
+                return;
+            }
+
+            int member = 0;
+            while(member < memberCount && members[member] != nuclide) {
+                member++;
+            }
+            if(member == memberCount) {
+                if(memberCount == members.length) {
+                    members = Arrays.copyOf(members, memberCount * 2);
+                }
+                members[memberCount++] = nuclide;
+            }
+
+            if(pathCount == pathMembers.length) {
+                pathMembers = Arrays.copyOf(pathMembers, pathCount * 2);
+                pathFactors = Arrays.copyOf(pathFactors, pathCount * 2);
+                pathOffsets = Arrays.copyOf(pathOffsets, pathCount * 2 + 1);
+            }
+            if(constantCount + length > constantMembers.length) {
+                constantMembers = Arrays.copyOf(constantMembers, (constantCount + length) * 2);
+            }
+            pathMembers[pathCount] = member;
+            pathFactors[pathCount] = factor;
+            for(int i = 0; i < length; i++) {
+                int pathMember = 0;
+                while(members[pathMember] != path[i]) {
+                    pathMember++;
+                }
+                constantMembers[constantCount++] = pathMember;
+            }
+            pathOffsets[++pathCount] = constantCount;
+
+            final double lambda = table.getDecayConstant(nuclide);
+            if(lambda == 0) {
+                return;
+            }
+            final int[] daughters = new int[MODES.length];
+            for(int i = 0; i < MODES.length; i++) {
+                daughters[i] = (table.getDecayModes(nuclide) & MODES[i]) != 0
+                        ? table.getDaughter(nuclide, MODES[i]) : -1;
+            }
+            for(int i = 0; i < MODES.length; i++) {
+                final int daughter = daughters[i];
+                if(daughter == -1 || contains(daughters, i, daughter)
+                        || contains(path, length, daughter)) {
+                    continue;
+                }
+
+                double ratio = 0;
+                for(int j = i; j < MODES.length; j++) {
+                    if(daughters[j] == daughter) {
+                        ratio += table.getBranchingRatio(nuclide, MODES[j]);
+                    }
+                }
+                final int[] next = length < path.length ? path : Arrays.copyOf(path, length * 2);
+                next[length] = daughter;
+                addPath(daughter, factor * lambda * ratio, next, length + 1);
+            }
+        }
+
+        /**
+         * Check whether the start of an array of nuclides contains a nuclide.
+         *
+         * @param path    The nuclides
+         * @param length  The number of nuclides to check
+         * @param nuclide The index of the nuclide
+         * @return Whether the nuclides contain the nuclide
+         */
+        private static boolean contains(@NonNull int[] path, int length, int nuclide) {
+            for(int i = 0; i < length; i++) {
+                if(path[i] == nuclide) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A balanced chemical equation, consisting of the species on each side and their coefficients.
+ *
+ * @author Steve Guidetti
+ */
+public class Equation {
+    /**
+     * The species, with the reactants first
+     */
+    @NonNull
+    private final String[] mSpecies;
+
+    /**
+     * The coefficient of each species
+     */
+    @NonNull
+    private final long[] mCoefficients;
+
+    /**
+     * The number of reactants
+     */
+    private final int mReactantCount;
+
+    /**
+     * @param species       The species, with the reactants first
+     * @param coefficients  The coefficient of each species
+     * @param reactantCount The number of reactants
+     */
+    Equation(@NonNull String[] species, @NonNull long[] coefficients, int reactantCount) {
+        mSpecies = species;
+        mCoefficients = coefficients;
+        mReactantCount = reactantCount;
+    }
+
+    /**
+     * Get the total number of species.
+     *
+     * @return The number of species
+     */
+    public int size() {
+        return mSpecies.length;
+    }
+
+    /**
+     * Get the number of reactants. Reactants are the species before the products.
+     *
+     * @return The number of reactants
+     */
+    public int getReactantCount() {
+        return mReactantCount;
+    }
+
+    /**
+     * Get the formula of a species.
+     *
+     * @param index The index of the species
+     * @return The formula
+     */
+    @NonNull
+    public String getSpecies(int index) {
+        return mSpecies[index];
+    }
+
+    /**
+     * Get the coefficient of a species.
+     *
+     * @param index The index of the species
+     * @return The coefficient
+     */
+    public long getCoefficient(int index) {
+        return mCoefficients[index];
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < mSpecies.length; i++) {
+            if(i == mReactantCount) {
+                builder.append(" → ");
+            } else if(i > 0) {
+                builder.append(" + ");
+            }
+            if(mCoefficients[i] != 1) {
+                builder.append(mCoefficients[i]).append(' ');
+            }
+            builder.append(mSpecies[i]);
+        }
+        return builder.toString();
+    }
+}
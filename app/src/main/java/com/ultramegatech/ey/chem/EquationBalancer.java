@@ -0,0 +1,494 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Balances chemical equations such as {@code Fe + O2 -> Fe2O3}. The sides are separated by an
+ * arrow (->, =>, <->, <=>, →, ⇌, or =) and the species on each side by +. A + directly after a
+ * species and followed by a space or the arrow is read as a charge, so ionic equations such as
+ * {@code Fe^3+ + e- -> Fe^2+} work, with e- representing an electron. Coefficients typed before a
+ * species are ignored.
+ * <p>
+ * Each species is parsed by FormulaEngine, and a matrix of the amount of each element and the
+ * charge in each species is reduced using fraction-free Gaussian elimination to find the smallest
+ * positive integer coefficients. The elimination uses long arithmetic and is repeated using
+ * BigInteger if an intermediate value overflows. Results are cached by the normalized equation.
+ *
+ * @author Steve Guidetti
+ */
+public class EquationBalancer {
+    /**
+     * The maximum number of balanced equations to cache
+     */
+    private static final int CACHE_SIZE = 32;
+
+    /**
+     * The supported arrows, with longer arrows before their prefixes
+     */
+    private static final String[] ARROWS = {"<=>", "<->", "->", "=>", "→", "⇌", "⟶", "="};
+
+    /**
+     * The symbol for an electron
+     */
+    private static final String ELECTRON = "e";
+
+    /**
+     * Placeholder cached for equations that cannot be balanced
+     */
+    private static final Equation INVALID = new Equation(new String[0], new long[0], 0);
+
+    /**
+     * The cache of balanced equations, in order of access
+     */
+    private static final LinkedHashMap<String, Equation> sCache =
+            new LinkedHashMap<String, Equation>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Equation> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    /**
+     * Balance an equation, or get it from the cache if it was balanced before.
+     *
+     * @param text The equation
+     * @return The balanced equation, or null if the equation is invalid or has no unique
+     * solution
+     */
+    @Nullable
+    public static Equation balance(@NonNull CharSequence text) {
+        final List<String> species = new ArrayList<>();
+        final int reactantCount = split(text.toString(), species);
+        if(reactantCount < 1 || reactantCount == species.size()) {
+            return null;
+        }
+
+        final StringBuilder keyBuilder = new StringBuilder();
+        for(int i = 0; i < species.size(); i++) {
+            keyBuilder.append(i == reactantCount ? " = " : i > 0 ? " + " : "")
+                    .append(species.get(i));
+        }
+        final String key = keyBuilder.toString();
+        synchronized(sCache) {
+            final Equation cached = sCache.get(key);
+            if(cached != null) {
+                return cached == INVALID ? null : cached;
+            }
+        }
+
+        Equation equation = solve(species.toArray(new String[0]), reactantCount);
+        if(equation == null) {
+            equation = INVALID;
+        }
+        synchronized(sCache) {
+            sCache.put(key, equation);
+        }
+        return equation == INVALID ? null : equation;
+    }
+
+    /**
+     * Split an equation into species.
+     *
+     * @param text    The equation
+     * @param species The list to receive the normalized species, with the reactants first
+     * @return The number of reactants, or -1 if the equation is invalid
+     */
+    private static int split(@NonNull String text, @NonNull List<String> species) {
+        int arrow = -1;
+        int arrowLength = 0;
+        for(int i = 0; i < text.length() && arrow == -1; i++) {
+            for(String candidate : ARROWS) {
+                if(text.startsWith(candidate, i)) {
+                    arrow = i;
+                    arrowLength = candidate.length();
+                    break;
+                }
+            }
+        }
+        if(arrow == -1) {
+            return -1;
+        }
+
+        if(!splitSide(text, 0, arrow, species)) {
+            return -1;
+        }
+        final int reactantCount = species.size();
+        if(!splitSide(text, arrow + arrowLength, text.length(), species)) {
+            return -1;
+        }
+        return reactantCount;
+    }
+
+    /**
+     * Split one side of an equation into species.
+     *
+     * @param text    The equation
+     * @param start   The start of the side
+     * @param end     The end of the side
+     * @param species The list to receive the normalized species
+     * @return Whether every species is non-empty
+     */
+    private static boolean splitSide(@NonNull String text, int start, int end,
+                                     @NonNull List<String> species) {
+        final StringBuilder builder = new StringBuilder();
+        for(int i = start; i <= end; i++) {
+            final char c = i < end ? text.charAt(i) : 0;
+            if(c == '+' && i > start && !Character.isWhitespace(text.charAt(i - 1))
+                    && (i + 1 == end || Character.isWhitespace(text.charAt(i + 1)))) {
+                builder.append(c);
+            } else if(c == '+' || i == end) {
+                final String item = normalize(builder);
+                if(item.isEmpty()) {
+                    return false;
+                }
+                species.add(item);
+                builder.setLength(0);
+            } else {
+                builder.append(c);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Normalize a species by removing any coefficient and collapsing whitespace.
+     *
+     * @param text The species
+     * @return The normalized species
+     */
+    @NonNull
+    private static String normalize(@NonNull CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while(start < end && (Character.isWhitespace(text.charAt(start))
+                || (text.charAt(start) >= '0' && text.charAt(start) <= '9'))) {
+            start++;
+        }
+        while(end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        final StringBuilder builder = new StringBuilder(end - start);
+        for(int i = start; i < end; i++) {
+            final char c = text.charAt(i);
+            if(!Character.isWhitespace(c)) {
+                builder.append(c);
+            } else if(!Character.isWhitespace(text.charAt(i - 1))) {
+                builder.append(' ');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Find the coefficients of an equation.
+     *
+     * @param species       The species, with the reactants first
+     * @param reactantCount The number of reactants
+     * @return The balanced equation, or null if the equation is invalid or has no unique
+     * solution
+     */
+    @Nullable
+    private static Equation solve(@NonNull String[] species, int reactantCount) {
+        final List<Integer> codes = new ArrayList<>();
+        final Formula[] formulas = new Formula[species.length];
+        boolean charged = false;
+        for(int i = 0; i < species.length; i++) {
+            if(species[i].equals(ELECTRON + "-") || species[i].equals(ELECTRON)) {
+                charged = true;
+                continue;
+            }
+            formulas[i] = FormulaEngine.parse(species[i]);
+            if(formulas[i] == null) {
+                return null;
+            }
+            charged |= formulas[i].getCharge() != 0;
+            for(int j = 0; j < formulas[i].size(); j++) {
+                if(!codes.contains(formulas[i].getCode(j))) {
+                    codes.add(formulas[i].getCode(j));
+                }
+            }
+        }
+
+        final int rows = codes.size() + (charged ? 1 : 0);
+        final long[][] matrix = new long[rows][species.length];
+        for(int i = 0; i < species.length; i++) {
+            final int sign = i < reactantCount ? 1 : -1;
+            if(formulas[i] == null) {
+                matrix[rows - 1][i] = -sign;
+                continue;
+            }
+            for(int j = 0; j < formulas[i].size(); j++) {
+                matrix[codes.indexOf(formulas[i].getCode(j))][i] =
+                        sign * formulas[i].getCount(j);
+            }
+            if(charged) {
+                matrix[rows - 1][i] = sign * formulas[i].getCharge();
+            }
+        }
+
+        BigInteger[] solution;
+        try {
+            solution = solveLong(matrix);
+        } catch(ArithmeticException e) {
+            solution = solveBig(matrix);
+        }
+        if(solution == null) {
+            return null;
+        }
+
+        final long[] coefficients = new long[solution.length];
+        for(int i = 0; i < solution.length; i++) {
+            if(solution[i].signum() <= 0 || solution[i].bitLength() > 62) {
+                return null;
+            }
+            coefficients[i] = solution[i].longValue();
+        }
+        return new Equation(species, coefficients, reactantCount);
+    }
+
+    /**
+     * Find the null space vector of a matrix using long arithmetic.
+     *
+     * @param source The matrix, which is not modified
+     * @return The smallest integer solution with a positive first value, or null if there is no
+     * unique solution
+     * @throws ArithmeticException If an intermediate value overflows
+     */
+    @Nullable
+    private static BigInteger[] solveLong(@NonNull long[][] source) {
+        final int rows = source.length;
+        final int cols = source[0].length;
+        final long[][] matrix = new long[rows][];
+        for(int i = 0; i < rows; i++) {
+            matrix[i] = source[i].clone();
+        }
+
+        final int[] pivots = new int[cols];
+        int rank = 0;
+        for(int col = 0; col < cols && rank < rows; col++) {
+            int pivot = rank;
+            while(pivot < rows && matrix[pivot][col] == 0) {
+                pivot++;
+            }
+            if(pivot == rows) {
+                continue;
+            }
+            final long[] swap = matrix[pivot];
+            matrix[pivot] = matrix[rank];
+            matrix[rank] = swap;
+
+            for(int i = 0; i < rows; i++) {
+                if(i == rank || matrix[i][col] == 0) {
+                    continue;
+                }
+                final long p = matrix[rank][col];
+                final long f = matrix[i][col];
+                long gcd = 0;
+                for(int j = 0; j < cols; j++) {
+                    matrix[i][j] = subtract(multiply(p, matrix[i][j]),
+                            multiply(f, matrix[rank][j]));
+                    gcd = gcd(gcd, matrix[i][j]);
+                }
+                if(gcd > 1) {
+                    for(int j = 0; j < cols; j++) {
+                        matrix[i][j] /= gcd;
+                    }
+                }
+            }
+            pivots[rank++] = col;
+        }
+        if(cols - rank != 1) {
+            return null;
+        }
+
+        int free = 0;
+        for(int i = 0; i < rank && pivots[i] == free; i++) {
+            free++;
+        }
+
+        long lcm = 1;
+        for(int i = 0; i < rank; i++) {
+            final long p = Math.abs(matrix[i][pivots[i]]);
+            lcm = multiply(lcm / gcd(lcm, p), p);
+        }
+        final long[] solution = new long[cols];
+        solution[free] = lcm;
+        long gcd = lcm;
+        for(int i = 0; i < rank; i++) {
+            solution[pivots[i]] = multiply(-matrix[i][free], lcm / matrix[i][pivots[i]]);
+            gcd = gcd(gcd, solution[pivots[i]]);
+        }
+
+        final BigInteger[] result = new BigInteger[cols];
+        final long sign = solution[0] < 0 ? -1 : 1;
+        for(int i = 0; i < cols; i++) {
+            result[i] = BigInteger.valueOf(solution[i] / gcd * sign);
+        }
+        return result;
+    }
+
+    /**
+     * Find the null space vector of a matrix using BigInteger arithmetic.
+     *
+     * @param source The matrix
+     * @return The smallest integer solution with a positive first value, or null if there is no
+     * unique solution
+     */
+    @Nullable
+    private static BigInteger[] solveBig(@NonNull long[][] source) {
+        final int rows = source.length;
+        final int cols = source[0].length;
+        final BigInteger[][] matrix = new BigInteger[rows][cols];
+        for(int i = 0; i < rows; i++) {
+            for(int j = 0; j < cols; j++) {
+                matrix[i][j] = BigInteger.valueOf(source[i][j]);
+            }
+        }
+
+        final int[] pivots = new int[cols];
+        int rank = 0;
+        for(int col = 0; col < cols && rank < rows; col++) {
+            int pivot = rank;
+            while(pivot < rows && matrix[pivot][col].signum() == 0) {
+                pivot++;
+            }
+            if(pivot == rows) {
+                continue;
+            }
+            final BigInteger[] swap = matrix[pivot];
+            matrix[pivot] = matrix[rank];
+            matrix[rank] = swap;
+
+            for(int i = 0; i < rows; i++) {
+                if(i == rank || matrix[i][col].signum() == 0) {
+                    continue;
+                }
+                final BigInteger p = matrix[rank][col];
+                final BigInteger f = matrix[i][col];
+                BigInteger gcd = BigInteger.ZERO;
+                for(int j = 0; j < cols; j++) {
+                    matrix[i][j] = p.multiply(matrix[i][j]).subtract(f.multiply(matrix[rank][j]));
+                    gcd = gcd.gcd(matrix[i][j]);
+                }
+                if(gcd.compareTo(BigInteger.ONE) > 0) {
+                    for(int j = 0; j < cols; j++) {
+                        matrix[i][j] = matrix[i][j].divide(gcd);
+                    }
+                }
+            }
+            pivots[rank++] = col;
+        }
+        if(cols - rank != 1) {
+            return null;
+        }
+
+        int free = 0;
+        for(int i = 0; i < rank && pivots[i] == free; i++) {
+            free++;
+        }
+
+        BigInteger lcm = BigInteger.ONE;
+        for(int i = 0; i < rank; i++) {
+            final BigInteger p = matrix[i][pivots[i]].abs();
+            lcm = lcm.divide(lcm.gcd(p)).multiply(p);
+        }
+        final BigInteger[] solution = new BigInteger[cols];
+        solution[free] = lcm;
+        BigInteger gcd = lcm;
+        for(int i = 0; i < rank; i++) {
+            solution[pivots[i]] =
+                    matrix[i][free].negate().multiply(lcm.divide(matrix[i][pivots[i]]));
+            gcd = gcd.gcd(solution[pivots[i]]);
+        }
+
+        final boolean negate = solution[0].signum() < 0;
+        for(int i = 0; i < cols; i++) {
+            solution[i] = solution[i].divide(gcd);
+            if(negate) {
+                solution[i] = solution[i].negate();
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * Multiply two values, checking for overflow.
+     *
+     * @param a The first value
+     * @param b The second value
+     * @return The product
+     * @throws ArithmeticException If the result overflows
+     */
+    private static long multiply(long a, long b) {
+        final long result = a * b;
+        if(((Math.abs(a) | Math.abs(b)) >>> 31 != 0)
+                && ((b != 0 && result / b != a) || (a == Long.MIN_VALUE && b == -1))) {
+            throw new ArithmeticException("long overflow");
+        }
+        return result;
+    }
+
+    /**
+     * Subtract two values, checking for overflow.
+     *
+     * @param a The first value
+     * @param b The second value
+     * @return The difference
+     * @throws ArithmeticException If the result overflows
+     */
+    private static long subtract(long a, long b) {
+        final long result = a - b;
+        if(((a ^ b) & (a ^ result)) < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+        return result;
+    }
+
+    /**
+     * Calculate the greatest common divisor of two values.
+     *
+     * @param a The first value
+     * @param b The second value
+     * @return The non-negative greatest common divisor
+     */
+    private static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while(b != 0) {
+            final long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.Symbols;
+
+import java.util.Arrays;
+
+/**
+ * The result of parsing a chemical formula. Each distinct element or isotope in the formula is an
+ * entry, in order of first appearance, with its atom count and the mass it contributes. The mass
+ * composition combines the entries of each element, so isotopes such as D count as their element.
+ *
+ * @author Steve Guidetti
+ */
+public class Formula {
+    /**
+     * The symbol code of each entry, as returned by Symbols.lookup
+     */
+    @NonNull
+    private final int[] mCodes;
+
+    /**
+     * The number of atoms of each entry
+     */
+    @NonNull
+    private final int[] mCounts;
+
+    /**
+     * The mass contributed by each entry
+     */
+    @NonNull
+    private final double[] mMasses;
+
+    /**
+     * The net charge
+     */
+    private final int mCharge;
+
+    /**
+     * The molar mass
+     */
+    private final double mMolarMass;
+
+    /**
+     * The atomic number of each element of the composition, in order of first appearance
+     */
+    @NonNull
+    private final int[] mElementNumbers;
+
+    /**
+     * The number of atoms of each element of the composition
+     */
+    @NonNull
+    private final int[] mElementCounts;
+
+    /**
+     * The mass contributed by each element of the composition
+     */
+    @NonNull
+    private final double[] mElementMasses;
+
+    /**
+     * The molar mass of the neutral formula
+     */
+    private final double mNeutralMass;
+
+    /**
+     * @param codes     The symbol code of each entry
+     * @param counts    The number of atoms of each entry
+     * @param masses    The mass contributed by each entry
+     * @param charge    The net charge
+     * @param molarMass The molar mass
+     */
+    Formula(@NonNull int[] codes, @NonNull int[] counts, @NonNull double[] masses, int charge,
+            double molarMass) {
+        mCodes = codes;
+        mCounts = counts;
+        mMasses = masses;
+        mCharge = charge;
+        mMolarMass = molarMass;
+
+        final int[] numbers = new int[codes.length];
+        final int[] elementCounts = new int[codes.length];
+        final double[] elementMasses = new double[codes.length];
+        int elements = 0;
+        double neutralMass = 0;
+        for(int i = 0; i < codes.length; i++) {
+            final int number = Symbols.getNumber(codes[i]);
+            int j = 0;
+            while(j < elements && numbers[j] != number) {
+                j++;
+            }
+            if(j == elements) {
+                numbers[elements++] = number;
+            }
+            elementCounts[j] += counts[i];
+            elementMasses[j] += masses[i];
+            neutralMass += masses[i];
+        }
+        mElementNumbers = Arrays.copyOf(numbers, elements);
+        mElementCounts = Arrays.copyOf(elementCounts, elements);
+        mElementMasses = Arrays.copyOf(elementMasses, elements);
+        mNeutralMass = neutralMass;
+    }
+
+    /**
+     * Get the number of distinct elements and isotopes in the formula.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return mCodes.length;
+    }
+
+    /**
+     * Get the symbol code of an entry.
+     *
+     * @param index The index of the entry
+     * @return The symbol code
+     */
+    int getCode(int index) {
+        return mCodes[index];
+    }
+
+    /**
+     * Get the atomic number of an entry.
+     *
+     * @param index The index of the entry
+     * @return The atomic number
+     */
+    public int getNumber(int index) {
+        return Symbols.getNumber(mCodes[index]);
+    }
+
+    /**
+     * Get the mass number of an entry that represents a specific isotope, such as D.
+     *
+     * @param index The index of the entry
+     * @return The mass number, or 0 if the entry represents an element
+     */
+    public int getMassNumber(int index) {
+        return Symbols.getMassNumber(mCodes[index]);
+    }
+
+    /**
+     * Get the number of atoms of an entry.
+     *
+     * @param index The index of the entry
+     * @return The number of atoms
+     */
+    public int getCount(int index) {
+        return mCounts[index];
+    }
+
+    /**
+     * Get the total number of atoms.
+     *
+     * @return The number of atoms
+     */
+    public long getAtomCount() {
+        long count = 0;
+        for(int c : mCounts) {
+            count += c;
+        }
+        return count;
+    }
+
+    /**
+     * Get the mass contributed by an entry.
+     *
+     * @param index The index of the entry
+     * @return The mass in g/mol
+     */
+    public double getMass(int index) {
+        return mMasses[index];
+    }
+
+    /**
+     * Get the number of distinct elements in the mass composition.
+     *
+     * @return The number of elements
+     */
+    public int getElementCount() {
+        return mElementNumbers.length;
+    }
+
+    /**
+     * Get the atomic number of an element of the mass composition.
+     *
+     * @param index The index of the element
+     * @return The atomic number
+     */
+    public int getElementNumber(int index) {
+        return mElementNumbers[index];
+    }
+
+    /**
+     * Get the number of atoms of an element of the mass composition, including all of its
+     * isotopes.
+     *
+     * @param index The index of the element
+     * @return The number of atoms
+     */
+    public int getElementAtomCount(int index) {
+        return mElementCounts[index];
+    }
+
+    /**
+     * Get the mass contributed by an element of the mass composition, including all of its
+     * isotopes.
+     *
+     * @param index The index of the element
+     * @return The mass in g/mol
+     */
+    public double getElementMass(int index) {
+        return mElementMasses[index];
+    }
+
+    /**
+     * Get the percentage of the mass of the neutral formula contributed by an element of the mass
+     * composition. Electrons added or removed by the charge are not counted.
+     *
+     * @param index The index of the element
+     * @return The mass percentage
+     */
+    public double getElementMassPercent(int index) {
+        return mNeutralMass > 0 ? mElementMasses[index] / mNeutralMass * 100 : 0;
+    }
+
+    /**
+     * Get the net charge.
+     *
+     * @return The net charge
+     */
+    public int getCharge() {
+        return mCharge;
+    }
+
+    /**
+     * Get the molar mass, which accounts for the electrons added or removed by the charge.
+     *
+     * @return The molar mass in g/mol
+     */
+    public double getMolarMass() {
+        return mMolarMass;
+    }
+
+    /**
+     * Get the molar mass of the neutral formula, without the electrons added or removed by the
+     * charge.
+     *
+     * @return The molar mass in g/mol
+     */
+    public double getNeutralMass() {
+        return mNeutralMass;
+    }
+}
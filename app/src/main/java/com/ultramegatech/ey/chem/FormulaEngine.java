@@ -0,0 +1,478 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.provider.ElementTable;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.IsotopeTable;
+import com.ultramegatech.ey.provider.Isotopes;
+import com.ultramegatech.ey.provider.Symbols;
+
+/**
+ * Parses chemical formulas and calculates their molar mass and composition. Formulas may contain
+ * nested groups using (), [], or {}, hydrate separators (·, •, *, or .) with optional
+ * coefficients, isotope symbols such as D, and a trailing charge. A charge is written as a sign
+ * optionally preceded by a magnitude, and the magnitude must follow a closing bracket, a caret, or
+ * a space to distinguish it from an atom count. For example: {@code Ca(OH)2},
+ * {@code CuSO4·5H2O}, {@code [Fe(CN)6]4-}, {@code SO4^2-}, {@code Fe^3+}, and {@code NH4+}. Digits
+ * directly before the sign are always an atom count, so {@code H2+} is the dihydrogen cation
+ * rather than H with a charge of 2.
+ * <p>
+ * The tokenizer works directly on the input characters using reusable buffers, and parsed
+ * formulas are kept in a bounded LRU cache keyed by the input text. Looking up a cached formula
+ * does not allocate.
+ *
+ * @author Steve Guidetti
+ */
+public class FormulaEngine {
+    /**
+     * The mass of an electron in g/mol
+     */
+    public static final double ELECTRON_MASS = 0.000548579909;
+
+    /**
+     * The maximum number of parsed formulas to cache
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * The maximum number of atoms of a single entry
+     */
+    private static final int MAX_COUNT = 1000000;
+
+    /**
+     * Placeholder cached for text that is not a valid formula
+     */
+    private static final Formula INVALID =
+            new Formula(new int[0], new int[0], new double[0], 0, 0);
+
+    /**
+     * The text of each cached formula
+     */
+    private static final String[] sCacheKeys = new String[CACHE_SIZE];
+
+    /**
+     * The hash of the text of each cached formula
+     */
+    private static final int[] sCacheHashes = new int[CACHE_SIZE];
+
+    /**
+     * The cached formulas
+     */
+    private static final Formula[] sCacheValues = new Formula[CACHE_SIZE];
+
+    /**
+     * The time each cached formula was last used
+     */
+    private static final long[] sCacheTimes = new long[CACHE_SIZE];
+
+    /**
+     * The counter used to track the use of cached formulas
+     */
+    private static long sClock;
+
+    /**
+     * The symbol codes of the parsed atoms
+     */
+    private static int[] sCodes = new int[32];
+
+    /**
+     * The counts of the parsed atoms
+     */
+    private static int[] sCounts = new int[32];
+
+    /**
+     * The number of parsed atoms
+     */
+    private static int sSize;
+
+    /**
+     * The start positions of the open groups in the parsed atoms
+     */
+    private static int[] sGroups = new int[8];
+
+    /**
+     * The closing characters of the open groups
+     */
+    private static char[] sGroupEnds = new char[8];
+
+    /**
+     * The current parsing position
+     */
+    private static int sPos;
+
+    /**
+     * Parse a formula, or get it from the cache if it was parsed before.
+     *
+     * @param text The formula
+     * @return The parsed Formula, or null if the text is not a valid formula
+     */
+    @Nullable
+    public static synchronized Formula parse(@NonNull CharSequence text) {
+        final int hash = hash(text);
+        int slot = 0;
+        for(int i = 0; i < CACHE_SIZE; i++) {
+            if(sCacheKeys[i] != null && sCacheHashes[i] == hash
+                    && contentEquals(sCacheKeys[i], text)) {
+                sCacheTimes[i] = ++sClock;
+                return sCacheValues[i] == INVALID ? null : sCacheValues[i];
+            }
+            if(sCacheTimes[i] < sCacheTimes[slot]) {
+                slot = i;
+            }
+        }
+
+        Formula formula = parseFormula(text);
+        if(formula == null) {
+            formula = INVALID;
+        }
+        sCacheKeys[slot] = text.toString();
+        sCacheHashes[slot] = hash;
+        sCacheValues[slot] = formula;
+        sCacheTimes[slot] = ++sClock;
+        return formula == INVALID ? null : formula;
+    }
+
+    /**
+     * Parse a formula without using the cache.
+     *
+     * @param text The formula
+     * @return The parsed Formula, or null if the text is not a valid formula
+     */
+    @Nullable
+    private static Formula parseFormula(@NonNull CharSequence text) {
+        int end = text.length();
+        while(end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        int charge = 0;
+        if(end > 0 && (text.charAt(end - 1) == '+' || text.charAt(end - 1) == '-')) {
+            final int sign = text.charAt(end - 1) == '+' ? 1 : -1;
+            end--;
+            int start = end;
+            while(start > 0 && isDigit(text.charAt(start - 1))) {
+                start--;
+            }
+            final char before = start > 0 ? text.charAt(start - 1) : 0;
+            if(start < end && (before == ')' || before == ']' || before == '}' || before == '^'
+                    || Character.isWhitespace(before))) {
+                if(end - start > 3) {
+                    return null;
+                }
+                charge = sign * parseInt(text, start, end);
+                end = start;
+            } else {
+                charge = sign;
+            }
+            if(end > 0 && (text.charAt(end - 1) == '^'
+                    || Character.isWhitespace(text.charAt(end - 1)))) {
+                end--;
+            }
+        }
+
+        sSize = 0;
+        sPos = 0;
+        while(sPos < end) {
+            final int segment = sSize;
+            skipSpace(text, end);
+            final int coefficient = readCount(text, end);
+            if(!parseSegment(text, end) || sSize == segment) {
+                return null;
+            }
+            if(!multiply(segment, coefficient)) {
+                return null;
+            }
+        }
+        if(sSize == 0) {
+            return null;
+        }
+
+        return build(charge);
+    }
+
+    /**
+     * Parse a segment of a formula up to a hydrate separator or the end.
+     *
+     * @param text The formula
+     * @param end  The end of the formula, excluding any charge
+     * @return Whether the segment is valid
+     */
+    private static boolean parseSegment(@NonNull CharSequence text, int end) {
+        int depth = 0;
+        while(sPos < end) {
+            final char c = text.charAt(sPos);
+            if(c >= 'A' && c <= 'Z') {
+                final int start = sPos++;
+                while(sPos < end && text.charAt(sPos) >= 'a' && text.charAt(sPos) <= 'z') {
+                    sPos++;
+                }
+                final int code = Symbols.lookup(text, start, sPos);
+                if(code == 0) {
+                    return false;
+                }
+                final int count = readCount(text, end);
+                if(count == 0) {
+                    return false;
+                }
+                append(code, count);
+            } else if(c == '(' || c == '[' || c == '{') {
+                if(depth == sGroups.length) {
+                    sGroups = grow(sGroups);
+                    final char[] ends = new char[sGroupEnds.length * 2];
+                    System.arraycopy(sGroupEnds, 0, ends, 0, sGroupEnds.length);
+                    sGroupEnds = ends;
+                }
+                sGroups[depth] = sSize;
+                sGroupEnds[depth] = c == '(' ? ')' : c == '[' ? ']' : '}';
+                depth++;
+                sPos++;
+            } else if(c == ')' || c == ']' || c == '}') {
+                if(depth == 0 || sGroupEnds[depth - 1] != c) {
+                    return false;
+                }
+                depth--;
+                sPos++;
+                final int count = readCount(text, end);
+                if(count == 0 || sSize == sGroups[depth] || !multiply(sGroups[depth], count)) {
+                    return false;
+                }
+            } else if(c == '·' || c == '•' || c == '*' || c == '.') {
+                sPos++;
+                return depth == 0 && sPos < end;
+            } else if(Character.isWhitespace(c)) {
+                sPos++;
+            } else {
+                return false;
+            }
+        }
+        return depth == 0;
+    }
+
+    /**
+     * Combine the parsed atoms into a Formula.
+     *
+     * @param charge The net charge
+     * @return The Formula, or null if the mass of an isotope is unknown
+     */
+    @Nullable
+    private static Formula build(int charge) {
+        int distinct = 0;
+        for(int i = 0; i < sSize; i++) {
+            int j = 0;
+            while(j < distinct && sCodes[j] != sCodes[i]) {
+                j++;
+            }
+            if(j == distinct) {
+                sCodes[distinct] = sCodes[i];
+                sCounts[distinct++] = sCounts[i];
+            } else {
+                sCounts[j] += sCounts[i];
+                if(sCounts[j] > MAX_COUNT) {
+                    return null;
+                }
+            }
+        }
+
+        final int[] codes = new int[distinct];
+        final int[] counts = new int[distinct];
+        final double[] masses = new double[distinct];
+        double molarMass = -charge * ELECTRON_MASS;
+        for(int i = 0; i < distinct; i++) {
+            final double mass = getMass(sCodes[i]);
+            if(Double.isNaN(mass)) {
+                return null;
+            }
+            codes[i] = sCodes[i];
+            counts[i] = sCounts[i];
+            masses[i] = mass * counts[i];
+            molarMass += masses[i];
+        }
+        return new Formula(codes, counts, masses, charge, molarMass);
+    }
+
+    /**
+     * Get the mass of an element or isotope.
+     *
+     * @param code The symbol code
+     * @return The atomic weight of the element or the mass of the isotope, or NaN if unknown
+     */
+    public static double getMass(int code) {
+        final int number = Symbols.getNumber(code);
+        final int massNumber = Symbols.getMassNumber(code);
+        if(massNumber == 0) {
+            return Elements.getTable().getDouble(ElementTable.WEIGHT, number);
+        }
+
+        final IsotopeTable isotopes = Isotopes.getTable();
+        final int offset = isotopes.getOffset(number);
+        for(int i = 0; i < isotopes.getIsotopeCount(number); i++) {
+            if(isotopes.getMassNumber(offset + i) == massNumber) {
+                return isotopes.getMass(offset + i);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Add a parsed atom.
+     *
+     * @param code  The symbol code
+     * @param count The number of atoms
+     */
+    private static void append(int code, int count) {
+        if(sSize == sCodes.length) {
+            sCodes = grow(sCodes);
+            sCounts = grow(sCounts);
+        }
+        sCodes[sSize] = code;
+        sCounts[sSize++] = count;
+    }
+
+    /**
+     * Multiply the counts of a range of parsed atoms.
+     *
+     * @param start  The index of the first atom in the range
+     * @param factor The multiplier
+     * @return Whether the counts are within the limit
+     */
+    private static boolean multiply(int start, int factor) {
+        for(int i = start; i < sSize; i++) {
+            final long count = (long)sCounts[i] * factor;
+            if(count > MAX_COUNT) {
+                return false;
+            }
+            sCounts[i] = (int)count;
+        }
+        return true;
+    }
+
+    /**
+     * Read an optional count at the current position.
+     *
+     * @param text The formula
+     * @param end  The end of the formula, excluding any charge
+     * @return The count, 1 if there is no count, or 0 if the count is invalid
+     */
+    private static int readCount(@NonNull CharSequence text, int end) {
+        final int start = sPos;
+        while(sPos < end && isDigit(text.charAt(sPos))) {
+            sPos++;
+        }
+        if(sPos == start) {
+            return 1;
+        }
+        if(sPos - start > 7) {
+            return 0;
+        }
+        final int count = parseInt(text, start, sPos);
+        return count > MAX_COUNT ? 0 : count;
+    }
+
+    /**
+     * Advance past any whitespace.
+     *
+     * @param text The formula
+     * @param end  The end of the formula, excluding any charge
+     */
+    private static void skipSpace(@NonNull CharSequence text, int end) {
+        while(sPos < end && Character.isWhitespace(text.charAt(sPos))) {
+            sPos++;
+        }
+    }
+
+    /**
+     * Parse a sequence of ASCII digits.
+     *
+     * @param text  The text
+     * @param start The index of the first digit
+     * @param end   The index after the last digit
+     * @return The value
+     */
+    private static int parseInt(@NonNull CharSequence text, int start, int end) {
+        int value = 0;
+        for(int i = start; i < end; i++) {
+            value = value * 10 + text.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * Check whether a character is an ASCII digit.
+     *
+     * @param c The character
+     * @return Whether the character is a digit
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Double the size of an array.
+     *
+     * @param array The array
+     * @return The new array containing the values of the original
+     */
+    @NonNull
+    private static int[] grow(@NonNull int[] array) {
+        final int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Calculate the hash of a sequence of characters, which matches String.hashCode.
+     *
+     * @param text The text
+     * @return The hash
+     */
+    private static int hash(@NonNull CharSequence text) {
+        int hash = 0;
+        for(int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Check whether a String has the same characters as a CharSequence.
+     *
+     * @param string The String
+     * @param text   The CharSequence
+     * @return Whether the characters are equal
+     */
+    private static boolean contentEquals(@NonNull String string, @NonNull CharSequence text) {
+        if(string.length() != text.length()) {
+            return false;
+        }
+        for(int i = 0; i < string.length(); i++) {
+            if(string.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
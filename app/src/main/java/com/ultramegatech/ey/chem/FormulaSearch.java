@@ -0,0 +1,923 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.IsotopeTable;
+import com.ultramegatech.ey.provider.Isotopes;
+import com.ultramegatech.ey.provider.Symbols;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches for elemental formulas matching a measured monoisotopic mass within a tolerance in
+ * parts per million. The number of atoms of each element is limited to a range.
+ * <p>
+ * The search is a depth-first branch and bound over the elements ordered by descending mass. At
+ * each level the range of counts for the current element is calculated directly from the minimum
+ * and maximum mass the remaining elements can contribute, so only combinations that can still
+ * reach the target are visited, and the count of the last element is solved for. When the
+ * valences of all elements are known, the range is also limited by the minimum and maximum ring
+ * and double bond equivalents (RDBE) the remaining elements can contribute. A count is skipped
+ * when no whole nominal mass of the remaining elements is consistent with both the remaining
+ * mass and the range of mass defect per nominal mass unit of those elements.
+ * <p>
+ * The work is split by the count of the heaviest element and run on a thread pool sized to the
+ * number of processors. Results are delivered to the listener on the main thread in batches as
+ * they are found. Once more than MAX_RESULTS candidates are found, only the MAX_RESULTS closest
+ * to the target are kept, and the window of the search narrows to the error of the worst of
+ * them. The final results do not depend on the order in which the parts of the search finish.
+ *
+ * @author Steve Guidetti
+ */
+public class FormulaSearch {
+    /**
+     * The maximum number of candidates a search keeps
+     */
+    public static final int MAX_RESULTS = 1000;
+
+    /**
+     * The number of candidates collected by a part of the search before they are delivered
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Margin for rounding errors in the nominal mass bound and the narrowed search window
+     */
+    private static final double EPSILON = 1e-6;
+
+    /**
+     * Callback interface for search events.
+     */
+    public interface SearchListener {
+        /**
+         * Called when new candidates are found.
+         *
+         * @param candidates The new candidates
+         */
+        void onResults(@NonNull List<Candidate> candidates);
+
+        /**
+         * Called when the search is finished.
+         *
+         * @param cancelled Whether the search was cancelled
+         */
+        void onComplete(boolean cancelled);
+    }
+
+    /**
+     * The target mass
+     */
+    private final double mMass;
+
+    /**
+     * The tolerance in parts per million
+     */
+    private final double mPpm;
+
+    /**
+     * The atomic numbers of the elements to search, sorted by descending mass
+     */
+    @NonNull
+    private int[] mNumbers = new int[0];
+
+    /**
+     * The monoisotopic mass of each element
+     */
+    @NonNull
+    private double[] mMasses = new double[0];
+
+    /**
+     * The minimum count of each element
+     */
+    @NonNull
+    private int[] mMin = new int[0];
+
+    /**
+     * The maximum count of each element
+     */
+    @NonNull
+    private int[] mMax = new int[0];
+
+    /**
+     * The minimum RDBE of a candidate
+     */
+    private double mMinRdbe = 0;
+
+    /**
+     * The maximum RDBE of a candidate
+     */
+    private double mMaxRdbe = Double.POSITIVE_INFINITY;
+
+    /**
+     * Whether the RDBE of a candidate must be a whole number, as for even-electron ions and
+     * neutral molecules
+     */
+    private boolean mWholeRdbe = true;
+
+    /**
+     * The minimum mass the elements after each index can contribute
+     */
+    private double[] mRestMin;
+
+    /**
+     * The maximum mass the elements after each index can contribute
+     */
+    private double[] mRestMax;
+
+    /**
+     * The RDBE contributed by one atom of each element, or null if the valence of an element is
+     * unknown
+     */
+    private double[] mAtomRdbe;
+
+    /**
+     * The minimum RDBE the elements after each index can contribute
+     */
+    private double[] mRestRdbeMin;
+
+    /**
+     * The maximum RDBE the elements after each index can contribute
+     */
+    private double[] mRestRdbeMax;
+
+    /**
+     * The minimum mass defect per nominal mass unit of the elements after each index
+     */
+    private double[] mRestDefectMin;
+
+    /**
+     * The maximum mass defect per nominal mass unit of the elements after each index
+     */
+    private double[] mRestDefectMax;
+
+    /**
+     * The Handler for delivering results on the main thread
+     */
+    private Handler mHandler;
+
+    /**
+     * The listener receiving the results
+     */
+    private SearchListener mListener;
+
+    /**
+     * The minimum total mass of a candidate
+     */
+    private double mLow;
+
+    /**
+     * The maximum total mass of a candidate
+     */
+    private double mHigh;
+
+    /**
+     * The range of counts of the first element
+     */
+    private int mFirst;
+    private int mLast;
+
+    /**
+     * The best candidates found, with the worst at the head
+     */
+    private final PriorityQueue<Candidate> mBest =
+            new PriorityQueue<>(MAX_RESULTS + 1, (a, b) -> compare(b, a));
+
+    /**
+     * The largest absolute error in parts per million a new candidate can have to be kept
+     */
+    private volatile double mLimit = Double.POSITIVE_INFINITY;
+
+    /**
+     * Whether more than MAX_RESULTS candidates were found
+     */
+    private volatile boolean mTruncated;
+
+    /**
+     * The thread pool running the search
+     */
+    private ExecutorService mExecutor;
+
+    /**
+     * Whether the search has been cancelled
+     */
+    private volatile boolean mCancelled;
+
+    /**
+     * @param mass The measured monoisotopic mass
+     * @param ppm  The tolerance in parts per million
+     */
+    public FormulaSearch(double mass, double ppm) {
+        mMass = mass;
+        mPpm = ppm;
+    }
+
+    /**
+     * Add an element to the search. Adding an element again replaces its limits.
+     *
+     * @param number The atomic number
+     * @param min    The minimum number of atoms
+     * @param max    The maximum number of atoms, or -1 to be limited only by the target mass
+     * @throws IllegalArgumentException If the element has no stable isotopes
+     */
+    public void addElement(int number, int min, int max) {
+        final double mass = getMonoisotopicMass(number);
+        if(Double.isNaN(mass)) {
+            throw new IllegalArgumentException("No stable isotopes for element " + number);
+        }
+        if(max < 0) {
+            max = (int)((mMass + getTolerance()) / mass);
+        }
+
+        int index = 0;
+        while(index < mNumbers.length && mNumbers[index] != number) {
+            index++;
+        }
+        if(index == mNumbers.length) {
+            mNumbers = grow(mNumbers);
+            mMin = grow(mMin);
+            mMax = grow(mMax);
+            final double[] masses = new double[index + 1];
+            System.arraycopy(mMasses, 0, masses, 0, index);
+            mMasses = masses;
+        }
+        mNumbers[index] = number;
+        mMasses[index] = mass;
+        mMin[index] = min;
+        mMax[index] = max;
+
+        for(int i = index; i > 0 && mMasses[i - 1] < mMasses[i]; i--) {
+            swap(mNumbers, i);
+            swap(mMin, i);
+            swap(mMax, i);
+            final double swap = mMasses[i];
+            mMasses[i] = mMasses[i - 1];
+            mMasses[i - 1] = swap;
+        }
+    }
+
+    /**
+     * Add elements using a list of symbols with optional ranges, such as
+     * "C0-100 H0-200 N0-10 O0-20 P S". Elements without a range are limited only by the target
+     * mass, and a single number sets the maximum.
+     *
+     * @param text The list of elements
+     * @return Whether the list is valid
+     */
+    public boolean addElements(@NonNull CharSequence text) {
+        final int length = text.length();
+        int pos = 0;
+        while(pos < length) {
+            final char c = text.charAt(pos);
+            if(c == ' ' || c == ',') {
+                pos++;
+                continue;
+            }
+            if(c < 'A' || c > 'Z') {
+                return false;
+            }
+
+            final int start = pos++;
+            while(pos < length && text.charAt(pos) >= 'a' && text.charAt(pos) <= 'z') {
+                pos++;
+            }
+            final int code = Symbols.lookup(text, start, pos);
+            if(code == 0 || Symbols.getMassNumber(code) != 0) {
+                return false;
+            }
+
+            int min = 0;
+            int max = -1;
+            int digits = pos;
+            while(pos < length && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if(pos > digits) {
+                max = parseInt(text, digits, pos);
+                if(pos < length && text.charAt(pos) == '-') {
+                    digits = ++pos;
+                    while(pos < length && Character.isDigit(text.charAt(pos))) {
+                        pos++;
+                    }
+                    if(pos == digits) {
+                        return false;
+                    }
+                    min = max;
+                    max = parseInt(text, digits, pos);
+                }
+            }
+            if(min > max && max >= 0) {
+                return false;
+            }
+
+            final int number = Symbols.getNumber(code);
+            if(Double.isNaN(getMonoisotopicMass(number))) {
+                return false;
+            }
+            addElement(number, min, max);
+        }
+        return mNumbers.length > 0;
+    }
+
+    /**
+     * Set the allowed range of ring and double bond equivalents.
+     *
+     * @param min   The minimum RDBE
+     * @param max   The maximum RDBE
+     * @param whole Whether the RDBE must be a whole number
+     */
+    public void setRdbe(double min, double max, boolean whole) {
+        mMinRdbe = min;
+        mMaxRdbe = max;
+        mWholeRdbe = whole;
+    }
+
+    /**
+     * Start the search in the background.
+     *
+     * @param listener The listener to receive the results on the main thread
+     */
+    public void start(@NonNull final SearchListener listener) {
+        prepare();
+
+        final Handler handler = new Handler(Looper.getMainLooper());
+        mHandler = handler;
+        mListener = listener;
+        if(mFirst > mLast) {
+            handler.post(() -> listener.onComplete(false));
+            return;
+        }
+
+        final int parts = mLast - mFirst + 1;
+        mExecutor = Executors.newFixedThreadPool(
+                Math.min(Runtime.getRuntime().availableProcessors(), parts));
+        final AtomicInteger remaining = new AtomicInteger(parts);
+        for(int i = mFirst; i <= mLast; i++) {
+            final int firstCount = i;
+            mExecutor.execute(() -> {
+                if(!mCancelled) {
+                    searchPart(firstCount);
+                }
+                if(remaining.decrementAndGet() == 0) {
+                    mExecutor.shutdown();
+                    handler.post(() -> listener.onComplete(mCancelled));
+                }
+            });
+        }
+    }
+
+    /**
+     * Run the entire search on the calling thread without a listener.
+     *
+     * @return The candidates sorted by their absolute error
+     */
+    @NonNull
+    List<Candidate> run() {
+        prepare();
+        for(int i = mFirst; i <= mLast; i++) {
+            searchPart(i);
+        }
+        return getResults();
+    }
+
+    /**
+     * Calculate the bounds used to prune the search and the range of counts of the first
+     * element.
+     */
+    private void prepare() {
+        final int count = mNumbers.length;
+        mRestMin = new double[count + 1];
+        mRestMax = new double[count + 1];
+        mRestDefectMin = new double[count + 1];
+        mRestDefectMax = new double[count + 1];
+        mAtomRdbe = new double[count];
+        for(int i = count - 1; i >= 0; i--) {
+            mRestMin[i] = mRestMin[i + 1] + mMin[i] * mMasses[i];
+            mRestMax[i] = mRestMax[i + 1] + mMax[i] * mMasses[i];
+
+            final double nominal = Math.round(mMasses[i]);
+            final double defect = (mMasses[i] - nominal) / nominal;
+            mRestDefectMin[i] = i == count - 1 ? defect : Math.min(mRestDefectMin[i + 1], defect);
+            mRestDefectMax[i] = i == count - 1 ? defect : Math.max(mRestDefectMax[i + 1], defect);
+
+            final int valence = getValence(mNumbers[i]);
+            if(valence == 0) {
+                mAtomRdbe = null;
+            } else if(mAtomRdbe != null) {
+                mAtomRdbe[i] = (valence - 2) / 2.0;
+            }
+        }
+        if(mAtomRdbe != null) {
+            mRestRdbeMin = new double[count + 1];
+            mRestRdbeMax = new double[count + 1];
+            for(int i = count - 1; i >= 0; i--) {
+                final double low = mMin[i] * mAtomRdbe[i];
+                final double high = mMax[i] * mAtomRdbe[i];
+                mRestRdbeMin[i] = mRestRdbeMin[i + 1] + Math.min(low, high);
+                mRestRdbeMax[i] = mRestRdbeMax[i + 1] + Math.max(low, high);
+            }
+        }
+
+        mLow = mMass - getTolerance();
+        mHigh = mMass + getTolerance();
+        if(count == 0) {
+            mFirst = 0;
+            mLast = -1;
+            return;
+        }
+        mFirst = Math.max(mMin[0], (int)Math.ceil((mLow - mRestMax[1]) / mMasses[0]));
+        mLast = Math.min(mMax[0], (int)Math.floor((mHigh - mRestMin[1]) / mMasses[0]));
+    }
+
+    /**
+     * Search the part of the search with a given count of the first element and deliver the
+     * candidates found.
+     *
+     * @param firstCount The count of the first element
+     */
+    private void searchPart(int firstCount) {
+        final List<Candidate> results = new ArrayList<>();
+        final int[] counts = new int[mNumbers.length];
+        counts[0] = firstCount;
+        final double rdbe = mAtomRdbe == null ? 0 : 1 + firstCount * mAtomRdbe[0];
+        search(counts, 1, firstCount * mMasses[0], rdbe, results);
+        deliver(results);
+    }
+
+    /**
+     * Cancel the search. The listener receives no further results.
+     */
+    public void cancel() {
+        mCancelled = true;
+        if(mExecutor != null) {
+            mExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Check whether more than MAX_RESULTS candidates were found, so only the closest were kept.
+     *
+     * @return Whether the results are incomplete
+     */
+    public boolean isTruncated() {
+        return mTruncated;
+    }
+
+    /**
+     * Get the candidates kept by a finished search. If the search was truncated, these are the
+     * MAX_RESULTS candidates closest to the target mass.
+     *
+     * @return The candidates sorted by their absolute error
+     */
+    @NonNull
+    public List<Candidate> getResults() {
+        final List<Candidate> results;
+        synchronized(mBest) {
+            results = new ArrayList<>(mBest);
+        }
+        Collections.sort(results, FormulaSearch::compare);
+        return results;
+    }
+
+    /**
+     * Recursively search the counts of the elements from an index.
+     *
+     * @param counts  The counts of the elements before the index
+     * @param index   The index of the element to search
+     * @param mass    The mass of the elements before the index
+     * @param rdbe    The RDBE of the elements before the index, if the valences are known
+     * @param results The list to receive the candidates
+     */
+    private void search(@NonNull int[] counts, int index, double mass, double rdbe,
+                        @NonNull List<Candidate> results) {
+        double low = mLow;
+        double high = mHigh;
+        final double limit = mLimit;
+        if(limit < mPpm) {
+            low = Math.max(low, mMass - mMass * limit / 1e6 - EPSILON);
+            high = Math.min(high, mMass + mMass * limit / 1e6 + EPSILON);
+        }
+
+        if(index == counts.length) {
+            if(mass >= low && mass <= high) {
+                addCandidate(counts, mass, results);
+            }
+            return;
+        }
+        if(mCancelled) {
+            return;
+        }
+
+        final double elementMass = mMasses[index];
+        int first = Math.max(mMin[index],
+                (int)Math.ceil((low - mass - mRestMax[index + 1]) / elementMass));
+        int last = Math.min(mMax[index],
+                (int)Math.floor((high - mass - mRestMin[index + 1]) / elementMass));
+
+        double atomRdbe = 0;
+        if(mAtomRdbe != null) {
+            atomRdbe = mAtomRdbe[index];
+            final double min = mMinRdbe - rdbe - mRestRdbeMax[index + 1];
+            final double max = mMaxRdbe - rdbe - mRestRdbeMin[index + 1];
+            if(atomRdbe > 0) {
+                first = Math.max(first, (int)Math.ceil(min / atomRdbe));
+                last = Math.min(last, (int)Math.floor(max / atomRdbe));
+            } else if(atomRdbe < 0) {
+                first = Math.max(first, (int)Math.ceil(max / atomRdbe));
+                last = Math.min(last, (int)Math.floor(min / atomRdbe));
+            } else if(min > 0 || max < 0) {
+                return;
+            }
+        }
+
+        for(int i = first; i <= last; i++) {
+            final double next = mass + i * elementMass;
+            if(!hasNominalMass(index + 1, low - next, high - next)) {
+                continue;
+            }
+            counts[index] = i;
+            search(counts, index + 1, next, rdbe + i * atomRdbe, results);
+        }
+        counts[index] = 0;
+    }
+
+    /**
+     * Check whether the elements from an index can have a whole nominal mass consistent with a
+     * range of remaining mass. The mass of atoms with a total nominal mass N is between
+     * N(1 + d) and N(1 + D), where d and D are the minimum and maximum mass defects per nominal
+     * mass unit of the elements.
+     *
+     * @param index The index of the first remaining element
+     * @param low   The minimum remaining mass
+     * @param high  The maximum remaining mass
+     * @return Whether any whole nominal mass is possible
+     */
+    private boolean hasNominalMass(int index, double low, double high) {
+        if(index == mNumbers.length) {
+            return true;
+        }
+        final double min = Math.ceil(low / (1 + mRestDefectMax[index]) - EPSILON);
+        final double max = Math.floor(high / (1 + mRestDefectMin[index]) + EPSILON);
+        return min <= max;
+    }
+
+    /**
+     * Deliver the collected candidates to the listener on the main thread and clear the list.
+     *
+     * @param results The collected candidates
+     */
+    private void deliver(@NonNull List<Candidate> results) {
+        if(results.isEmpty() || mCancelled || mHandler == null) {
+            results.clear();
+            return;
+        }
+        final List<Candidate> batch = new ArrayList<>(results);
+        results.clear();
+        mHandler.post(() -> {
+            if(!mCancelled) {
+                mListener.onResults(batch);
+            }
+        });
+    }
+
+    /**
+     * Add a candidate to the results if it passes the RDBE filter. Once MAX_RESULTS candidates
+     * are kept, a new candidate replaces the worst one if it is closer to the target, and it is
+     * no longer delivered until the search is finished.
+     *
+     * @param counts  The counts of the elements
+     * @param mass    The monoisotopic mass
+     * @param results The list to receive the candidate
+     */
+    private void addCandidate(@NonNull int[] counts, double mass,
+                              @NonNull List<Candidate> results) {
+        double rdbe = 1;
+        for(int i = 0; i < counts.length; i++) {
+            final int valence = getValence(mNumbers[i]);
+            if(valence == 0) {
+                rdbe = Double.NaN;
+                break;
+            }
+            rdbe += counts[i] * (valence - 2) / 2.0;
+        }
+        if(!Double.isNaN(rdbe)) {
+            if(rdbe < mMinRdbe || rdbe > mMaxRdbe || (mWholeRdbe && rdbe != Math.floor(rdbe))) {
+                return;
+            }
+        }
+
+        final double error = (mass - mMass) / mMass * 1e6;
+        if(Math.abs(error) > mLimit) {
+            mTruncated = true;
+            return;
+        }
+
+        final Candidate candidate = new Candidate(mNumbers, counts.clone(), mass, error, rdbe);
+        synchronized(mBest) {
+            if(mBest.size() == MAX_RESULTS) {
+                mTruncated = true;
+                if(compare(candidate, mBest.peek()) < 0) {
+                    mBest.poll();
+                    mBest.add(candidate);
+                    mLimit = Math.abs(mBest.peek().mError);
+                }
+                return;
+            }
+            mBest.add(candidate);
+        }
+
+        results.add(candidate);
+        if(results.size() == BATCH_SIZE) {
+            deliver(results);
+        }
+    }
+
+    /**
+     * Compare two candidates by their absolute error. Ties are broken by the counts of the
+     * elements, so the order does not depend on when the candidates were found.
+     *
+     * @param a The first candidate
+     * @param b The second candidate
+     * @return A negative number if a is closer to the target, or a positive number if b is
+     */
+    private static int compare(@NonNull Candidate a, @NonNull Candidate b) {
+        final int result = Double.compare(Math.abs(a.mError), Math.abs(b.mError));
+        if(result != 0) {
+            return result;
+        }
+        for(int i = 0; i < a.mCounts.length; i++) {
+            if(a.mCounts[i] != b.mCounts[i]) {
+                return a.mCounts[i] - b.mCounts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the allowed difference from the target mass.
+     *
+     * @return The tolerance
+     */
+    private double getTolerance() {
+        return mMass * mPpm / 1e6;
+    }
+
+    /**
+     * Get the monoisotopic mass of an element, which is the mass of its most abundant isotope.
+     *
+     * @param number The atomic number
+     * @return The mass, or NaN if the element has no known isotopic composition
+     */
+    public static double getMonoisotopicMass(int number) {
+        final IsotopeTable isotopes = Isotopes.getTable();
+        final int offset = isotopes.getOffset(number);
+        double mass = Double.NaN;
+        double composition = 0;
+        for(int i = offset; i < offset + isotopes.getIsotopeCount(number); i++) {
+            if(isotopes.hasComposition(i) && isotopes.getComposition(i) > composition) {
+                composition = isotopes.getComposition(i);
+                mass = isotopes.getMass(i);
+            }
+        }
+        return mass;
+    }
+
+    /**
+     * Get the default valence of an element used to calculate RDBE.
+     *
+     * @param number The atomic number
+     * @return The valence, or 0 if unknown
+     */
+    private static int getValence(int number) {
+        switch(number) {
+            case 1: // H
+            case 3: // Li
+            case 9: // F
+            case 11: // Na
+            case 17: // Cl
+            case 19: // K
+            case 35: // Br
+            case 53: // I
+                return 1;
+            case 4: // Be
+            case 8: // O
+            case 12: // Mg
+            case 16: // S
+            case 20: // Ca
+            case 34: // Se
+                return 2;
+            case 5: // B
+            case 7: // N
+            case 13: // Al
+            case 15: // P
+            case 33: // As
+                return 3;
+            case 6: // C
+            case 14: // Si
+            case 32: // Ge
+                return 4;
+        }
+        return 0;
+    }
+
+    /**
+     * Parse a sequence of ASCII digits.
+     *
+     * @param text  The text
+     * @param start The index of the first digit
+     * @param end   The index after the last digit
+     * @return The value
+     */
+    private static int parseInt(@NonNull CharSequence text, int start, int end) {
+        int value = 0;
+        for(int i = start; i < end && value < 100000; i++) {
+            value = value * 10 + text.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * Add an element to the end of an array.
+     *
+     * @param array The array
+     * @return The new array with one more element
+     */
+    @NonNull
+    private static int[] grow(@NonNull int[] array) {
+        final int[] grown = new int[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Swap an element of an array with the one before it.
+     *
+     * @param array The array
+     * @param index The index of the element
+     */
+    private static void swap(@NonNull int[] array, int index) {
+        final int swap = array[index];
+        array[index] = array[index - 1];
+        array[index - 1] = swap;
+    }
+
+    /**
+     * A formula matching the search.
+     */
+    public static class Candidate {
+        /**
+         * The atomic numbers of the elements, shared by all candidates of a search
+         */
+        @NonNull
+        private final int[] mNumbers;
+
+        /**
+         * The count of each element
+         */
+        @NonNull
+        private final int[] mCounts;
+
+        /**
+         * The monoisotopic mass
+         */
+        private final double mMass;
+
+        /**
+         * The difference from the target mass in parts per million
+         */
+        private final double mError;
+
+        /**
+         * The ring and double bond equivalents
+         */
+        private final double mRdbe;
+
+        /**
+         * @param numbers The atomic numbers of the elements
+         * @param counts  The count of each element
+         * @param mass    The monoisotopic mass
+         * @param error   The difference from the target mass in parts per million
+         * @param rdbe    The ring and double bond equivalents
+         */
+        Candidate(@NonNull int[] numbers, @NonNull int[] counts, double mass, double error,
+                  double rdbe) {
+            mNumbers = numbers;
+            mCounts = counts;
+            mMass = mass;
+            mError = error;
+            mRdbe = rdbe;
+        }
+
+        /**
+         * Get the formula in Hill order, with carbon and hydrogen first if carbon is present and
+         * the other elements in alphabetical order.
+         *
+         * @return The formula
+         */
+        @NonNull
+        public String getFormula() {
+            final String[] symbols = new String[mNumbers.length];
+            final int[] order = new int[mNumbers.length];
+            boolean carbon = false;
+            for(int i = 0; i < mNumbers.length; i++) {
+                symbols[i] = Elements.getElement(mNumbers[i]).symbol;
+                carbon |= mNumbers[i] == 6 && mCounts[i] > 0;
+            }
+            for(int i = 0; i < mNumbers.length; i++) {
+                int j = i;
+                for(; j > 0 && compare(symbols[i], symbols[order[j - 1]], carbon) < 0; j--) {
+                    order[j] = order[j - 1];
+                }
+                order[j] = i;
+            }
+
+            final StringBuilder builder = new StringBuilder();
+            for(int index : order) {
+                if(mCounts[index] > 0) {
+                    builder.append(symbols[index]);
+                    if(mCounts[index] > 1) {
+                        builder.append(mCounts[index]);
+                    }
+                }
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Compare two symbols in Hill order.
+         *
+         * @param a      The first symbol
+         * @param b      The second symbol
+         * @param carbon Whether the formula contains carbon
+         * @return A negative number if a comes first, or a positive number if b comes first
+         */
+        private static int compare(@NonNull String a, @NonNull String b, boolean carbon) {
+            if(carbon) {
+                final int rankA = a.equals("C") ? 0 : a.equals("H") ? 1 : 2;
+                final int rankB = b.equals("C") ? 0 : b.equals("H") ? 1 : 2;
+                if(rankA != rankB) {
+                    return rankA - rankB;
+                }
+            }
+            return a.compareTo(b);
+        }
+
+        /**
+         * Get the monoisotopic mass.
+         *
+         * @return The mass
+         */
+        public double getMass() {
+            return mMass;
+        }
+
+        /**
+         * Get the difference from the target mass.
+         *
+         * @return The difference in parts per million
+         */
+        public double getError() {
+            return mError;
+        }
+
+        /**
+         * Get the ring and double bond equivalents.
+         *
+         * @return The RDBE, or NaN if the valence of an element is unknown
+         */
+        public double getRdbe() {
+            return mRdbe;
+        }
+    }
+}
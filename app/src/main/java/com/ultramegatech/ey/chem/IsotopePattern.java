@@ -0,0 +1,373 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.ElementTable;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.IsotopeTable;
+import com.ultramegatech.ey.provider.Isotopes;
+
+/**
+ * The theoretical isotopic distribution of a formula, as a list of peaks sorted by mass with
+ * intensities relative to the most intense peak.
+ * <p>
+ * The distribution of each element is built from the distribution of a single atom by repeated
+ * squaring, so an element with n atoms takes about log2(n) convolutions. After every convolution,
+ * peaks closer together than the resolution are merged into their intensity-weighted mean, and
+ * peaks below the threshold relative to the most intense peak are dropped. This keeps the number
+ * of peaks small even for formulas with thousands of atoms. When the fine structure of heavy,
+ * polyisotopic elements still leaves more than MAX_PEAKS peaks, the merge is repeated with a
+ * doubled resolution until it fits, which bounds the cost of every convolution. All intermediate
+ * distributions are kept in primitive arrays.
+ *
+ * @author Steve Guidetti
+ */
+public class IsotopePattern {
+    /**
+     * The default relative intensity below which peaks are dropped
+     */
+    public static final double DEFAULT_THRESHOLD = 1e-4;
+
+    /**
+     * The default mass difference below which peaks are merged
+     */
+    public static final double DEFAULT_RESOLUTION = 0.01;
+
+    /**
+     * The maximum number of atoms in a formula that can be calculated
+     */
+    public static final int MAX_ATOMS = 10000;
+
+    /**
+     * The maximum number of peaks kept after each convolution
+     */
+    private static final int MAX_PEAKS = 256;
+
+    /**
+     * The mass of each peak
+     */
+    @NonNull
+    private final double[] mMasses;
+
+    /**
+     * The relative intensity of each peak
+     */
+    @NonNull
+    private final double[] mIntensities;
+
+    /**
+     * @param masses      The mass of each peak
+     * @param intensities The relative intensity of each peak
+     */
+    private IsotopePattern(@NonNull double[] masses, @NonNull double[] intensities) {
+        mMasses = masses;
+        mIntensities = intensities;
+    }
+
+    /**
+     * Calculate the isotopic distribution of a formula using the default threshold and
+     * resolution.
+     *
+     * @param formula The formula
+     * @return The isotopic distribution
+     */
+    @NonNull
+    public static IsotopePattern calculate(@NonNull Formula formula) {
+        return calculate(formula, DEFAULT_THRESHOLD, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Calculate the isotopic distribution of a formula. For charged formulas, the masses are
+     * mass-to-charge ratios.
+     *
+     * @param formula    The formula
+     * @param threshold  The relative intensity below which peaks are dropped
+     * @param resolution The mass difference below which peaks are merged
+     * @return The isotopic distribution
+     * @throws IllegalArgumentException If the formula has more than MAX_ATOMS atoms
+     */
+    @NonNull
+    public static IsotopePattern calculate(@NonNull Formula formula, double threshold,
+                                           double resolution) {
+        if(formula.getAtomCount() > MAX_ATOMS) {
+            throw new IllegalArgumentException("Too many atoms: " + formula.getAtomCount());
+        }
+
+        Distribution result = new Distribution(new double[] {0}, new double[] {1}, 1);
+        for(int i = 0; i < formula.size(); i++) {
+            Distribution atom = getAtomDistribution(formula.getNumber(i),
+                    formula.getMassNumber(i));
+            for(int n = formula.getCount(i); ; ) {
+                if((n & 1) != 0) {
+                    result = convolve(result, atom, threshold, resolution);
+                }
+                n >>= 1;
+                if(n == 0) {
+                    break;
+                }
+                atom = convolve(atom, atom, threshold, resolution);
+            }
+        }
+
+        final int charge = formula.getCharge();
+        final double divisor = charge == 0 ? 1 : Math.abs(charge);
+        double max = 0;
+        for(int i = 0; i < result.size; i++) {
+            max = Math.max(max, result.intensities[i]);
+        }
+        final double[] masses = new double[result.size];
+        final double[] intensities = new double[result.size];
+        for(int i = 0; i < result.size; i++) {
+            masses[i] = (result.masses[i] - charge * FormulaEngine.ELECTRON_MASS) / divisor;
+            intensities[i] = result.intensities[i] / max;
+        }
+        return new IsotopePattern(masses, intensities);
+    }
+
+    /**
+     * Get the number of peaks.
+     *
+     * @return The number of peaks
+     */
+    public int size() {
+        return mMasses.length;
+    }
+
+    /**
+     * Get the mass of a peak.
+     *
+     * @param index The index of the peak
+     * @return The mass
+     */
+    public double getMass(int index) {
+        return mMasses[index];
+    }
+
+    /**
+     * Get the intensity of a peak relative to the most intense peak.
+     *
+     * @param index The index of the peak
+     * @return The relative intensity, from 0 to 1
+     */
+    public double getIntensity(int index) {
+        return mIntensities[index];
+    }
+
+    /**
+     * Get the isotopic distribution of a single atom. Specific isotopes and elements without
+     * known isotopic compositions are represented by a single peak.
+     *
+     * @param number     The atomic number
+     * @param massNumber The mass number, or 0 for the natural element
+     * @return The distribution
+     */
+    @NonNull
+    private static Distribution getAtomDistribution(int number, int massNumber) {
+        final IsotopeTable isotopes = Isotopes.getTable();
+        final int offset = isotopes.getOffset(number);
+        final int count = isotopes.getIsotopeCount(number);
+        final double[] masses = new double[Math.max(count, 1)];
+        final double[] intensities = new double[Math.max(count, 1)];
+        int size = 0;
+        for(int i = offset; i < offset + count; i++) {
+            if(massNumber == 0 ? isotopes.hasComposition(i) && isotopes.getComposition(i) > 0
+                    : isotopes.getMassNumber(i) == massNumber) {
+                masses[size] = isotopes.getMass(i);
+                intensities[size++] = massNumber == 0 ? isotopes.getComposition(i) : 1;
+            }
+        }
+        if(size == 0) {
+            masses[0] = Elements.getTable().getDouble(ElementTable.WEIGHT, number);
+            intensities[0] = 1;
+            size = 1;
+        }
+        sort(masses, intensities, 0, size - 1);
+        return new Distribution(masses, intensities, size);
+    }
+
+    /**
+     * Convolve two distributions, then merge and prune the peaks of the result.
+     *
+     * @param a          The first distribution
+     * @param b          The second distribution
+     * @param threshold  The relative intensity below which peaks are dropped
+     * @param resolution The mass difference below which peaks are merged
+     * @return The resulting distribution
+     */
+    @NonNull
+    private static Distribution convolve(@NonNull Distribution a, @NonNull Distribution b,
+                                         double threshold, double resolution) {
+        final int capacity = a.size * b.size;
+        final double[] masses = new double[capacity];
+        final double[] intensities = new double[capacity];
+        int size = 0;
+        for(int i = 0; i < a.size; i++) {
+            for(int j = 0; j < b.size; j++) {
+                masses[size] = a.masses[i] + b.masses[j];
+                intensities[size++] = a.intensities[i] * b.intensities[j];
+            }
+        }
+        sort(masses, intensities, 0, size - 1);
+
+        int merged = merge(masses, intensities, size, resolution);
+        for(double r = resolution * 2; merged > MAX_PEAKS; r *= 2) {
+            merged = merge(masses, intensities, merged, r);
+        }
+
+        double max = 0;
+        for(int i = 0; i < merged; i++) {
+            max = Math.max(max, intensities[i]);
+        }
+        final double min = max * threshold;
+        int pruned = 0;
+        for(int i = 0; i < merged; i++) {
+            if(intensities[i] >= min) {
+                masses[pruned] = masses[i];
+                intensities[pruned++] = intensities[i];
+            }
+        }
+        return new Distribution(masses, intensities, pruned);
+    }
+
+    /**
+     * Merge sorted peaks closer together than the resolution into their intensity-weighted mean,
+     * in place.
+     *
+     * @param masses      The masses of the peaks, sorted
+     * @param intensities The intensities of the peaks
+     * @param size        The number of peaks
+     * @param resolution  The mass difference below which peaks are merged
+     * @return The number of peaks after merging
+     */
+    private static int merge(@NonNull double[] masses, @NonNull double[] intensities, int size,
+                             double resolution) {
+        int merged = 0;
+        for(int i = 0; i < size; ) {
+            final double start = masses[i];
+            double intensity = 0;
+            double weightedMass = 0;
+            for(; i < size && masses[i] - start <= resolution; i++) {
+                intensity += intensities[i];
+                weightedMass += masses[i] * intensities[i];
+            }
+            masses[merged] = weightedMass / intensity;
+            intensities[merged++] = intensity;
+        }
+        return merged;
+    }
+
+    /**
+     * Sort a range of peaks by mass.
+     *
+     * @param masses      The masses of the peaks
+     * @param intensities The intensities of the peaks
+     * @param left        The index of the first peak in the range
+     * @param right       The index of the last peak in the range
+     */
+    private static void sort(@NonNull double[] masses, @NonNull double[] intensities, int left,
+                             int right) {
+        while(right - left > 16) {
+            final double pivot = masses[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while(i <= j) {
+                while(masses[i] < pivot) {
+                    i++;
+                }
+                while(masses[j] > pivot) {
+                    j--;
+                }
+                if(i <= j) {
+                    swap(masses, intensities, i++, j--);
+                }
+            }
+            if(j - left < right - i) {
+                sort(masses, intensities, left, j);
+                left = i;
+            } else {
+                sort(masses, intensities, i, right);
+                right = j;
+            }
+        }
+
+        for(int i = left + 1; i <= right; i++) {
+            for(int j = i; j > left && masses[j - 1] > masses[j]; j--) {
+                swap(masses, intensities, j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Swap two peaks.
+     *
+     * @param masses      The masses of the peaks
+     * @param intensities The intensities of the peaks
+     * @param i           The index of the first peak
+     * @param j           The index of the second peak
+     */
+    private static void swap(@NonNull double[] masses, @NonNull double[] intensities, int i,
+                             int j) {
+        final double mass = masses[i];
+        masses[i] = masses[j];
+        masses[j] = mass;
+        final double intensity = intensities[i];
+        intensities[i] = intensities[j];
+        intensities[j] = intensity;
+    }
+
+    /**
+     * A working distribution stored in primitive arrays that may be larger than the number of
+     * peaks.
+     */
+    private static class Distribution {
+        /**
+         * The masses of the peaks
+         */
+        @NonNull
+        final double[] masses;
+
+        /**
+         * The intensities of the peaks
+         */
+        @NonNull
+        final double[] intensities;
+
+        /**
+         * The number of peaks
+         */
+        final int size;
+
+        /**
+         * @param masses      The masses of the peaks
+         * @param intensities The intensities of the peaks
+         * @param size        The number of peaks
+         */
+        Distribution(@NonNull double[] masses, @NonNull double[] intensities, int size) {
+            this.masses = masses;
+            this.intensities = intensities;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import androidx.annotation.NonNull;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Provides access to the binary element dataset asset. The asset is generated at build time from
+ * the files in src/data by the generateDataset task. It is stored uncompressed so it can be
+ * memory-mapped, and each section is only decoded by its consumer when first needed.
+ * <p>
+ * The file starts with a header containing the magic number, the format version, and the number
+ * of sections, followed by a directory entry for each section containing its ID, offset, and
+ * length. All values are big-endian.
+ *
+ * @author Steve Guidetti
+ */
+public class Dataset {
+    /**
+     * The name of the asset file
+     */
+    private static final String ASSET_NAME = "elements.dat";
+
+    /**
+     * The magic number identifying the file ("ELMT")
+     */
+    private static final int MAGIC = 0x454c4d54;
+
+    /**
+     * The supported format version
+     */
+    private static final int VERSION = 7;
+
+    /**
+     * Section IDs
+     */
+    static final int SECTION_ELEMENTS = 1;
+    static final int SECTION_CONFIGURATIONS = 2;
+    static final int SECTION_ISOTOPES = 3;
+    static final int SECTION_EXTENDED = 4;
+    static final int SECTION_NUCLIDES = 5;
+    static final int SECTION_SPECTRA = 6;
+
+    /**
+     * The AssetManager used to open the file
+     */
+    private static AssetManager sAssets;
+
+    /**
+     * The contents of the file
+     */
+    private static ByteBuffer sBuffer;
+
+    /**
+     * Perform initial setup. This does not open the file.
+     *
+     * @param context The Context
+     */
+    public static void setup(@NonNull Context context) {
+        sAssets = context.getApplicationContext().getAssets();
+    }
+
+    /**
+     * Use the contents of a dataset file directly instead of opening the asset. This is used by
+     * local unit tests, which have no AssetManager.
+     *
+     * @param buffer The contents of the file
+     */
+    static synchronized void setBuffer(@NonNull ByteBuffer buffer) {
+        validate(buffer);
+        sBuffer = buffer;
+    }
+
+    /**
+     * Get the contents of a section of the file. The file is opened on the first call.
+     *
+     * @param id The section ID
+     * @return A buffer positioned at the start of the section and limited to its length
+     */
+    @NonNull
+    static synchronized ByteBuffer getSection(int id) {
+        if(sBuffer == null) {
+            sBuffer = open();
+        }
+        return getSection(sBuffer, id);
+    }
+
+    /**
+     * Get the contents of a section of a dataset file.
+     *
+     * @param file The contents of the file
+     * @param id   The section ID
+     * @return A buffer positioned at the start of the section and limited to its length
+     */
+    @NonNull
+    static ByteBuffer getSection(@NonNull ByteBuffer file, int id) {
+        final ByteBuffer buffer = file.duplicate();
+        buffer.position(8);
+        final int count = file.getShort(6) & 0xffff;
+        for(int i = 0; i < count; i++) {
+            final int sectionId = buffer.getShort() & 0xffff;
+            final int offset = buffer.getInt();
+            final int length = buffer.getInt();
+            if(sectionId == id) {
+                buffer.limit(offset + length);
+                buffer.position(offset);
+                return buffer.slice();
+            }
+        }
+
+        throw new IllegalStateException("Missing dataset section " + id);
+    }
+
+    /**
+     * Open the file and validate the header.
+     *
+     * @return The contents of the file
+     */
+    @NonNull
+    private static ByteBuffer open() {
+        if(sAssets == null) {
+            throw new IllegalStateException("Dataset.setup has not been called");
+        }
+
+        ByteBuffer buffer;
+        try {
+            buffer = map();
+        } catch(IOException e) {
+            try {
+                buffer = read();
+            } catch(IOException e2) {
+                throw new IllegalStateException("Unable to read " + ASSET_NAME, e2);
+            }
+        }
+
+        validate(buffer);
+        return buffer;
+    }
+
+    /**
+     * Validate the header of the file.
+     *
+     * @param buffer The contents of the file
+     * @throws IllegalStateException If the file is invalid or has an unsupported version
+     */
+    private static void validate(@NonNull ByteBuffer buffer) {
+        if(buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Invalid dataset file");
+        }
+        if((buffer.getShort(4) & 0xffff) != VERSION) {
+            throw new IllegalStateException("Unsupported dataset version");
+        }
+    }
+
+    /**
+     * Memory-map the file. This only works if the asset is stored uncompressed.
+     *
+     * @return The mapped contents of the file
+     * @throws IOException If the file cannot be mapped
+     */
+    @NonNull
+    private static ByteBuffer map() throws IOException {
+        final AssetFileDescriptor afd = sAssets.openFd(ASSET_NAME);
+        try {
+            final FileInputStream stream = afd.createInputStream();
+            try {
+                return stream.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                        afd.getStartOffset(), afd.getLength());
+            } finally {
+                stream.close();
+            }
+        } finally {
+            afd.close();
+        }
+    }
+
+    /**
+     * Read the entire file into memory.
+     *
+     * @return The contents of the file
+     * @throws IOException If the file cannot be read
+     */
+    @NonNull
+    private static ByteBuffer read() throws IOException {
+        final InputStream stream = sAssets.open(ASSET_NAME, AssetManager.ACCESS_BUFFER);
+        try {
+            byte[] data = new byte[Math.max(stream.available(), 4096)];
+            int length = 0;
+            int read;
+            while((read = stream.read(data, length, data.length - length)) != -1) {
+                length += read;
+                if(length == data.length) {
+                    final byte[] grown = new byte[data.length * 2];
+                    System.arraycopy(data, 0, grown, 0, length);
+                    data = grown;
+                }
+            }
+            return ByteBuffer.wrap(data, 0, length).slice();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Read a length-prefixed ASCII string from a buffer.
+     *
+     * @param buffer The buffer
+     * @return The string
+     */
+    @NonNull
+    static String readString(@NonNull ByteBuffer buffer) {
+        final char[] chars = new char[buffer.get() & 0xff];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = (char)(buffer.get() & 0xff);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import android.text.SpannableString;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.SuperscriptSpan;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Formats electron configurations as rich text. Each element's configuration can be rendered in
+ * the noble gas shorthand, such as [Ne] 3s¹, or fully expanded with the orbitals of the core.
+ * The electron counts are superscripted using spans rather than HTML, and each rendering is
+ * built once per element and cached.
+ *
+ * @author Steve Guidetti
+ */
+public class ElectronConfiguration {
+    /**
+     * The relative size of superscript text
+     */
+    private static final float SUPERSCRIPT_SIZE = 0.7f;
+
+    /**
+     * The cached shorthand configurations, indexed by atomic number
+     */
+    private static SpannableString[] sShorthand;
+
+    /**
+     * The cached expanded configurations, indexed by atomic number
+     */
+    private static SpannableString[] sFull;
+
+    /**
+     * Get the electron configuration of an element in the noble gas shorthand.
+     *
+     * @param number The atomic number
+     * @return The configuration
+     */
+    @NonNull
+    public static synchronized CharSequence getShorthand(int number) {
+        if(sShorthand == null) {
+            sShorthand = new SpannableString[Elements.getCount() + 1];
+        }
+        if(sShorthand[number] == null) {
+            final ElementTable table = Elements.getTable();
+            final SpannableStringBuilder builder = new SpannableStringBuilder();
+            final Element core = table.getElement(table.getConfigurationCore(number));
+            if(core != null) {
+                builder.append('[').append(core.symbol).append(']');
+            }
+            for(int i = 0; i < table.getOrbitalCount(number); i++) {
+                appendOrbital(builder, table.getOrbital(number, i));
+            }
+            sShorthand[number] = new SpannableString(builder);
+        }
+        return sShorthand[number];
+    }
+
+    /**
+     * Get the fully expanded electron configuration of an element, including the orbitals of
+     * the noble gas core.
+     *
+     * @param number The atomic number
+     * @return The configuration
+     */
+    @NonNull
+    public static synchronized CharSequence getFull(int number) {
+        if(sFull == null) {
+            sFull = new SpannableString[Elements.getCount() + 1];
+        }
+        if(sFull[number] == null) {
+            final SpannableStringBuilder builder = new SpannableStringBuilder();
+            for(int orbital : Elements.getTable().getFullConfiguration(number)) {
+                appendOrbital(builder, orbital);
+            }
+            sFull[number] = new SpannableString(builder);
+        }
+        return sFull[number];
+    }
+
+    /**
+     * Get a description of the electron configuration of an element suitable for accessibility
+     * services.
+     *
+     * @param number   The atomic number
+     * @param coreName The name of the noble gas core, or null to describe the expanded
+     *                 configuration
+     * @return The description
+     */
+    @NonNull
+    public static String getDescription(int number, @Nullable CharSequence coreName) {
+        final ElementTable table = Elements.getTable();
+        final StringBuilder builder = new StringBuilder();
+        final int[] orbitals;
+        if(coreName != null && table.getConfigurationCore(number) != 0) {
+            builder.append(coreName);
+            orbitals = new int[table.getOrbitalCount(number)];
+            for(int i = 0; i < orbitals.length; i++) {
+                orbitals[i] = table.getOrbital(number, i);
+            }
+        } else {
+            orbitals = table.getFullConfiguration(number);
+        }
+
+        for(int orbital : orbitals) {
+            if(builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(Orbital.getShell(orbital)).append(' ')
+                    .append(Character.toUpperCase(Orbital.getSubshell(orbital))).append(' ')
+                    .append(Orbital.getElectrons(orbital));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Append an orbital to a configuration.
+     *
+     * @param builder The configuration
+     * @param orbital The packed orbital
+     */
+    private static void appendOrbital(@NonNull SpannableStringBuilder builder, int orbital) {
+        if(builder.length() > 0) {
+            builder.append(' ');
+        }
+        builder.append(String.valueOf(Orbital.getShell(orbital)))
+                .append(Orbital.getSubshell(orbital));
+
+        final int start = builder.length();
+        builder.append(String.valueOf(Orbital.getElectrons(orbital)));
+        builder.setSpan(new SuperscriptSpan(), start, builder.length(),
+                Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        builder.setSpan(new RelativeSizeSpan(SUPERSCRIPT_SIZE), start, builder.length(),
+                Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+    }
+}
@@ -23,10 +23,10 @@
 package com.ultramegatech.ey.provider;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 
 /**
- * Container for a single element.
+ * Container for a single element. The numeric properties are read from the backing
+ * ElementTable.
  *
  * @author Steve Guidetti
  */
@@ -63,159 +63,150 @@ public class Element {
     public final double weight;
 
     /**
-     * The density in g/cm³
+     * The category
      */
-    @Nullable
-    public final Double density;
+    public final int category;
 
     /**
-     * The melting point in K
+     * Whether the element is unstable
      */
-    @Nullable
-    public final Double melt;
+    public final boolean unstable;
 
     /**
-     * The boiling point in K
+     * The table holding the property values
      */
-    @Nullable
-    public final Double boil;
+    @NonNull
+    private final ElementTable mTable;
 
     /**
-     * The specific heat in J/g·K
+     * @param table         The table holding the property values
+     * @param number        The element number
+     * @param symbol        The element symbol
+     * @param group         The group
+     * @param period        The period
+     * @param block         The block
+     * @param weight        The atomic weight
+     * @param category      The category
+     * @param unstable      Whether the element is unstable
      */
-    @Nullable
-    public final Double heat;
+    Element(@NonNull ElementTable table, int number, @NonNull String symbol, int group,
+            int period, char block, double weight, int category, boolean unstable) {
+        mTable = table;
+        this.number = number;
+        this.symbol = symbol;
+        this.group = group;
+        this.period = period;
+        this.block = block;
+        this.weight = weight;
+        this.category = category;
+        this.unstable = unstable;
+    }
 
     /**
-     * The electronegativity on the Pauling scale
+     * Check whether the value of a property is known.
+     *
+     * @param property One of the ElementTable property ID constants
+     * @return Whether the value is known
      */
-    @Nullable
-    public final Double negativity;
+    public boolean hasValue(int property) {
+        return mTable.hasValue(property, number);
+    }
 
     /**
-     * The abundance in mg/kg
+     * Get the value of a property.
+     *
+     * @param property One of the ElementTable property ID constants
+     * @return The value, or NaN if the value is unknown
      */
-    @Nullable
-    public final Double abundance;
+    public double getValue(int property) {
+        return mTable.getDouble(property, number);
+    }
 
     /**
-     * The category
+     * Get the atomic number of the noble gas core of the electron configuration.
+     *
+     * @return The atomic number of the core, or 0 if there is none
      */
-    public final int category;
+    public int getConfigurationCore() {
+        return mTable.getConfigurationCore(number);
+    }
 
     /**
-     * The electron configuration
+     * Get the number of orbitals in the electron configuration, excluding the core.
+     *
+     * @return The number of orbitals
      */
-    @NonNull
-    public final Configuration configuration;
+    public int getOrbitalCount() {
+        return mTable.getOrbitalCount(number);
+    }
 
     /**
-     * The number of electrons per shell
+     * Get an orbital of the electron configuration, excluding the core.
+     *
+     * @param index The index of the orbital
+     * @return The packed orbital
+     * @see Orbital
+     */
+    public int getOrbital(int index) {
+        return mTable.getOrbital(number, index);
+    }
+
+    /**
+     * Get the full electron configuration, including the orbitals of the core.
+     *
+     * @return The packed orbitals
+     * @see Orbital
      */
     @NonNull
-    public final Integer[] electrons;
+    public int[] getFullConfiguration() {
+        return mTable.getFullConfiguration(number);
+    }
 
     /**
-     * Whether the element is unstable
+     * Get the number of known successive ionization energies.
+     *
+     * @return The number of ionization energies
      */
-    public final boolean unstable;
+    public int getIonizationCount() {
+        return mTable.getIonizationCount(number);
+    }
 
     /**
-     * @param number        The element number
-     * @param symbol        The element symbol
-     * @param group         The group
-     * @param period        The period
-     * @param block         The block
-     * @param weight        The atomic weight
-     * @param density       The density in g/cm³
-     * @param melt          The melting point in K
-     * @param boil          The boiling point in K
-     * @param heat          The specific heat in J/g·K
-     * @param negativity    The electronegativity on the Pauling scale
-     * @param abundance     The abundance in mg/kg
-     * @param category      The category
-     * @param configuration The electron configuration
-     * @param electrons     The number of electrons per shell
-     * @param unstable      Whether the element is unstable
+     * Get a successive ionization energy.
+     *
+     * @param index The index of the energy, starting at 0 for the first ionization
+     * @return The ionization energy in kJ/mol
      */
-    Element(int number, @NonNull String symbol, int group, int period, char block, double weight,
-            @Nullable Double density, @Nullable Double melt, @Nullable Double boil,
-            @Nullable Double heat, @Nullable Double negativity, @Nullable Double abundance,
-            int category, @NonNull Configuration configuration, @NonNull Integer[] electrons,
-            boolean unstable) {
-        this.number = number;
-        this.symbol = symbol;
-        this.group = group;
-        this.period = period;
-        this.block = block;
-        this.weight = weight;
-        this.density = density;
-        this.melt = melt;
-        this.boil = boil;
-        this.heat = heat;
-        this.negativity = negativity;
-        this.abundance = abundance;
-        this.category = category;
-        this.configuration = configuration;
-        this.electrons = electrons;
-        this.unstable = unstable;
+    public double getIonizationEnergy(int index) {
+        return mTable.getIonizationEnergy(number, index);
     }
 
     /**
-     * Represents the electron configuration of an element.
-     */
-    public static class Configuration {
-        /**
-         * The symbol of the base element that this configuration is built upon, if any
-         */
-        @Nullable
-        public final String baseElement;
-
-        /**
-         * The list of orbitals
-         */
-        @NonNull
-        public final Orbital[] orbitals;
-
-        /**
-         * @param baseElement The symbol of the base element that this configuration is built upon,
-         *                    if any
-         * @param orbitals    The list of orbitals
-         */
-        Configuration(@Nullable String baseElement, @NonNull Orbital[] orbitals) {
-            this.baseElement = baseElement;
-            this.orbitals = orbitals;
-        }
+     * Get the common oxidation states.
+     *
+     * @return The bitmask of oxidation states, with bit 0 representing
+     * ElementTable.OXIDATION_MIN
+     */
+    public int getOxidationStates() {
+        return mTable.getOxidationStates(number);
     }
 
     /**
-     * Represents an orbital in an electron configuration.
-     */
-    public static class Orbital {
-        /**
-         * The shell number
-         */
-        public final int shell;
-
-        /**
-         * The orbital type
-         */
-        public final char orbital;
-
-        /**
-         * The number of electrons in this orbital
-         */
-        public final int electrons;
-
-        /**
-         * @param shell     The shell number
-         * @param orbital   The orbital type
-         * @param electrons The number of electrons in this orbital
-         */
-        Orbital(int shell, char orbital, int electrons) {
-            this.shell = shell;
-            this.orbital = orbital;
-            this.electrons = electrons;
-        }
+     * Get the number of electron shells.
+     *
+     * @return The number of shells
+     */
+    public int getShellCount() {
+        return mTable.getShellCount(number);
+    }
+
+    /**
+     * Get the number of electrons in a shell.
+     *
+     * @param shell The index of the shell, starting at 0
+     * @return The number of electrons
+     */
+    public int getElectrons(int shell) {
+        return mTable.getElectrons(number, shell);
     }
 }
@@ -0,0 +1,195 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * A precomputed ordering of the elements by a sort key. Elements with unknown values for the key
+ * are placed last in both directions, so walking the order in reverse only reverses the elements
+ * with known values.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementOrder {
+    /**
+     * The order by atomic number
+     */
+    private static ElementOrder sNumberOrder;
+
+    /**
+     * The orders by each numeric property, indexed by property ID
+     */
+    private static final ElementOrder[] sPropertyOrders =
+            new ElementOrder[ElementTable.PROPERTY_COUNT];
+
+    /**
+     * The order by name
+     */
+    private static ElementOrder sNameOrder;
+
+    /**
+     * The Locale used for the order by name
+     */
+    private static Locale sNameLocale;
+
+    /**
+     * The atomic numbers in sorted order, with unknown values at the end
+     */
+    @NonNull
+    private final short[] mNumbers;
+
+    /**
+     * The number of elements with known values
+     */
+    private final int mKnownCount;
+
+    /**
+     * @param numbers    The atomic numbers in sorted order, with unknown values at the end
+     * @param knownCount The number of elements with known values
+     */
+    private ElementOrder(@NonNull short[] numbers, int knownCount) {
+        mNumbers = numbers;
+        mKnownCount = knownCount;
+    }
+
+    /**
+     * Get the order by atomic number.
+     *
+     * @return The ElementOrder
+     */
+    @NonNull
+    public static synchronized ElementOrder byNumber() {
+        if(sNumberOrder == null) {
+            final short[] numbers = new short[Elements.getCount()];
+            for(int i = 0; i < numbers.length; i++) {
+                numbers[i] = (short)(i + 1);
+            }
+            sNumberOrder = new ElementOrder(numbers, numbers.length);
+        }
+        return sNumberOrder;
+    }
+
+    /**
+     * Get the order by the value of a numeric property.
+     *
+     * @param property One of the ElementTable property ID constants
+     * @return The ElementOrder
+     */
+    @NonNull
+    public static synchronized ElementOrder byProperty(int property) {
+        if(sPropertyOrders[property] == null) {
+            final ElementTable table = Elements.getTable();
+            sPropertyOrders[property] = sort((l, r) -> Double.compare(
+                    table.getDouble(property, l), table.getDouble(property, r)), property);
+        }
+        return sPropertyOrders[property];
+    }
+
+    /**
+     * Get the order by name. The order is cached for the most recent Locale.
+     *
+     * @param names  The element names, indexed by atomic number minus one
+     * @param locale The Locale of the names
+     * @return The ElementOrder
+     */
+    @NonNull
+    public static synchronized ElementOrder byName(@NonNull String[] names,
+                                                   @NonNull Locale locale) {
+        if(sNameOrder == null || !locale.equals(sNameLocale)) {
+            final Collator collator = Collator.getInstance(locale);
+            sNameOrder = sort((l, r) -> collator.compare(names[l - 1], names[r - 1]), -1);
+            sNameLocale = locale;
+        }
+        return sNameOrder;
+    }
+
+    /**
+     * Sort the elements using a Comparator. This only runs once per key.
+     *
+     * @param comparator The Comparator for atomic numbers with known values
+     * @param property   The ElementTable property ID used to check for unknown values, or -1 if
+     *                   all values are known
+     * @return The ElementOrder
+     */
+    @NonNull
+    private static ElementOrder sort(@NonNull Comparator<Integer> comparator, int property) {
+        final ElementTable table = Elements.getTable();
+        final Integer[] known = new Integer[table.getCount()];
+        final short[] unknown = new short[table.getCount()];
+        int knownCount = 0;
+        int unknownCount = 0;
+        for(int i = 1; i <= table.getCount(); i++) {
+            if(property == -1 || table.hasValue(property, i)) {
+                known[knownCount++] = i;
+            } else {
+                unknown[unknownCount++] = (short)i;
+            }
+        }
+
+        Arrays.sort(known, 0, knownCount, comparator);
+        final short[] numbers = new short[table.getCount()];
+        for(int i = 0; i < knownCount; i++) {
+            numbers[i] = known[i].shortValue();
+        }
+        System.arraycopy(unknown, 0, numbers, knownCount, unknownCount);
+        return new ElementOrder(numbers, knownCount);
+    }
+
+    /**
+     * Get the number of elements in the order.
+     *
+     * @return The number of elements
+     */
+    public int size() {
+        return mNumbers.length;
+    }
+
+    /**
+     * Get the number of elements with known values, which are at the start of the order.
+     *
+     * @return The number of elements with known values
+     */
+    public int getKnownCount() {
+        return mKnownCount;
+    }
+
+    /**
+     * Get the atomic number at a position in the order.
+     *
+     * @param position The position
+     * @param reverse  Whether to reverse the order of the elements with known values
+     * @return The atomic number
+     */
+    public int get(int position, boolean reverse) {
+        if(reverse && position < mKnownCount) {
+            return mNumbers[mKnownCount - 1 - position];
+        }
+        return mNumbers[position];
+    }
+}
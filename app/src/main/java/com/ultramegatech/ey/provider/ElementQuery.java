@@ -0,0 +1,845 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A compiled query over the element data. Queries consist of comparisons such as
+ * {@code melt>1000}, {@code block=d}, or {@code group:1..2}, combined with {@code and}, {@code or},
+ * {@code not}, and parentheses. Adjacent terms without an operator are combined with
+ * {@code and}, so {@code group:1..2 period>=4} is a valid query. Numeric properties can also
+ * select the elements with the highest or lowest values, as in {@code melt:top5} or
+ * {@code density:bottom3}, or the elements with the values closest to a value, as in
+ * {@code weight~55}. The {@code isotope} field matches elements with an isotope of a given mass,
+ * as in {@code isotope:55.9..56}.
+ * <p>
+ * Queries are parsed once into a tree of predicates over the primitive values in the
+ * ElementTable, and compiled queries are cached by their text. Comparisons of numeric
+ * properties, rankings, and nearest values are resolved to a set of elements when compiled,
+ * using the PropertyIndex of the property. Isotope masses are resolved using the mass index of
+ * the IsotopeTable.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementQuery {
+    /**
+     * The maximum number of compiled queries to cache
+     */
+    private static final int CACHE_SIZE = 32;
+
+    /**
+     * The number of elements matched by a nearest value comparison
+     */
+    private static final int NEAR_COUNT = 5;
+
+    /**
+     * Field IDs
+     */
+    private static final int FIELD_NUMBER = -1;
+    private static final int FIELD_GROUP = -2;
+    private static final int FIELD_PERIOD = -3;
+    private static final int FIELD_BLOCK = -4;
+    private static final int FIELD_ISOTOPE = -5;
+
+    /**
+     * Comparison operators
+     */
+    private static final int OP_EQ = 0;
+    private static final int OP_NE = 1;
+    private static final int OP_LT = 2;
+    private static final int OP_LE = 3;
+    private static final int OP_GT = 4;
+    private static final int OP_GE = 5;
+    private static final int OP_NEAR = 6;
+
+    /**
+     * Map of field names to field IDs. Numeric properties use the ElementTable property IDs.
+     */
+    private static final Map<String, Integer> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("number", FIELD_NUMBER);
+        FIELDS.put("group", FIELD_GROUP);
+        FIELDS.put("period", FIELD_PERIOD);
+        FIELDS.put("block", FIELD_BLOCK);
+        FIELDS.put("isotope", FIELD_ISOTOPE);
+        FIELDS.put("weight", ElementTable.WEIGHT);
+        FIELDS.put("w", ElementTable.WEIGHT);
+        FIELDS.put("density", ElementTable.DENSITY);
+        FIELDS.put("dens", ElementTable.DENSITY);
+        FIELDS.put("melt", ElementTable.MELT);
+        FIELDS.put("boil", ElementTable.BOIL);
+        FIELDS.put("heat", ElementTable.HEAT);
+        FIELDS.put("negativity", ElementTable.NEGATIVITY);
+        FIELDS.put("neg", ElementTable.NEGATIVITY);
+        FIELDS.put("abundance", ElementTable.ABUNDANCE);
+        FIELDS.put("ab", ElementTable.ABUNDANCE);
+        FIELDS.put("radius", ElementTable.RADIUS);
+        FIELDS.put("rad", ElementTable.RADIUS);
+        FIELDS.put("covalent", ElementTable.COVALENT_RADIUS);
+        FIELDS.put("cov", ElementTable.COVALENT_RADIUS);
+        FIELDS.put("vdw", ElementTable.VDW_RADIUS);
+        FIELDS.put("affinity", ElementTable.AFFINITY);
+        FIELDS.put("ea", ElementTable.AFFINITY);
+        FIELDS.put("ionization", ElementTable.IONIZATION);
+        FIELDS.put("ie", ElementTable.IONIZATION);
+    }
+
+    /**
+     * Placeholder cached for text that is not a valid query
+     */
+    private static final ElementQuery INVALID = new ElementQuery(null);
+
+    /**
+     * The text of each cached query, or null for unused cache slots
+     */
+    private static final String[] sCacheKeys = new String[CACHE_SIZE];
+
+    /**
+     * The hash code of the text of each cached query
+     */
+    private static final int[] sCacheHashes = new int[CACHE_SIZE];
+
+    /**
+     * The compiled query in each cache slot
+     */
+    private static final ElementQuery[] sCacheQueries = new ElementQuery[CACHE_SIZE];
+
+    /**
+     * The value of the access counter when each cache slot was last used
+     */
+    private static final long[] sCacheTimes = new long[CACHE_SIZE];
+
+    /**
+     * The counter incremented on each cache access
+     */
+    private static long sCacheClock;
+
+    /**
+     * The root of the predicate tree
+     */
+    @Nullable
+    private final Node mRoot;
+
+    /**
+     * @param root The root of the predicate tree
+     */
+    private ElementQuery(@Nullable Node root) {
+        mRoot = root;
+    }
+
+    /**
+     * Compile a query, or get it from the cache if it was compiled before.
+     *
+     * @param text The text of the query
+     * @return The compiled query, or null if the text is not a valid query
+     */
+    @Nullable
+    public static ElementQuery compile(@NonNull CharSequence text) {
+        int hash = 0;
+        for(int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+
+        synchronized(sCacheKeys) {
+            for(int i = 0; i < CACHE_SIZE; i++) {
+                if(sCacheHashes[i] == hash && sCacheKeys[i] != null
+                        && sCacheKeys[i].contentEquals(text)) {
+                    sCacheTimes[i] = ++sCacheClock;
+                    return sCacheQueries[i] == INVALID ? null : sCacheQueries[i];
+                }
+            }
+        }
+
+        final String key = text.toString();
+        ElementQuery query;
+        try {
+            query = new ElementQuery(new Parser(key).parse());
+        } catch(IllegalArgumentException e) {
+            query = INVALID;
+        }
+
+        synchronized(sCacheKeys) {
+            int slot = 0;
+            for(int i = 1; i < CACHE_SIZE && sCacheKeys[slot] != null; i++) {
+                if(sCacheKeys[i] == null || sCacheTimes[i] < sCacheTimes[slot]) {
+                    slot = i;
+                }
+            }
+            sCacheKeys[slot] = key;
+            sCacheHashes[slot] = hash;
+            sCacheQueries[slot] = query;
+            sCacheTimes[slot] = ++sCacheClock;
+        }
+        return query == INVALID ? null : query;
+    }
+
+    /**
+     * Check whether text contains an operator or parenthesis, so it is meant as a query rather
+     * than as a prefix of an element symbol or name.
+     *
+     * @param text The text
+     * @return Whether the text contains query syntax
+     */
+    public static boolean hasOperator(@NonNull CharSequence text) {
+        for(int i = 0; i < text.length(); i++) {
+            switch(text.charAt(i)) {
+                case '=':
+                case '!':
+                case '<':
+                case '>':
+                case ':':
+                case '~':
+                case '(':
+                case ')':
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the elements matching the query.
+     *
+     * @param result The set to fill with the matching elements
+     */
+    public void evaluate(@NonNull ElementSet result) {
+        result.clear();
+        if(mRoot == null) {
+            return;
+        }
+
+        final ElementTable table = Elements.getTable();
+        for(int i = 1; i <= table.getCount(); i++) {
+            if(mRoot.matches(table, i)) {
+                result.add(i);
+            }
+        }
+    }
+
+    /**
+     * Find the elements matching the query.
+     *
+     * @return The set of matching elements
+     */
+    @NonNull
+    public ElementSet evaluate() {
+        final ElementSet result = new ElementSet();
+        evaluate(result);
+        return result;
+    }
+
+    /**
+     * A node of the predicate tree.
+     */
+    private interface Node {
+        /**
+         * Check whether an element matches this node.
+         *
+         * @param table  The ElementTable
+         * @param number The atomic number
+         * @return Whether the element matches
+         */
+        boolean matches(@NonNull ElementTable table, int number);
+    }
+
+    /**
+     * Node that matches when all of its children match.
+     */
+    private static class AndNode implements Node {
+        /**
+         * The child nodes
+         */
+        @NonNull
+        private final Node[] mChildren;
+
+        /**
+         * @param children The child nodes
+         */
+        AndNode(@NonNull Node[] children) {
+            mChildren = children;
+        }
+
+        @Override
+        public boolean matches(@NonNull ElementTable table, int number) {
+            for(Node child : mChildren) {
+                if(!child.matches(table, number)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Node that matches when any of its children match.
+     */
+    private static class OrNode implements Node {
+        /**
+         * The child nodes
+         */
+        @NonNull
+        private final Node[] mChildren;
+
+        /**
+         * @param children The child nodes
+         */
+        OrNode(@NonNull Node[] children) {
+            mChildren = children;
+        }
+
+        @Override
+        public boolean matches(@NonNull ElementTable table, int number) {
+            for(Node child : mChildren) {
+                if(child.matches(table, number)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Node that matches when its child does not match.
+     */
+    private static class NotNode implements Node {
+        /**
+         * The child node
+         */
+        @NonNull
+        private final Node mChild;
+
+        /**
+         * @param child The child node
+         */
+        NotNode(@NonNull Node child) {
+            mChild = child;
+        }
+
+        @Override
+        public boolean matches(@NonNull ElementTable table, int number) {
+            return !mChild.matches(table, number);
+        }
+    }
+
+    /**
+     * Node that compares a numeric field to a range of values. Elements with unknown values never
+     * match. For ElementTable properties, the matching elements are found once using the
+     * PropertyIndex. For isotope masses, they are found once using the mass index, and an element
+     * matches if any of its isotopes does.
+     */
+    private static class RangeNode implements Node {
+        /**
+         * The field ID
+         */
+        private final int mField;
+
+        /**
+         * The lower bound
+         */
+        private final double mMin;
+
+        /**
+         * Whether the lower bound is included
+         */
+        private final boolean mMinInclusive;
+
+        /**
+         * The upper bound
+         */
+        private final double mMax;
+
+        /**
+         * Whether the upper bound is included
+         */
+        private final boolean mMaxInclusive;
+
+        /**
+         * Whether to match values outside the range instead
+         */
+        private final boolean mExclude;
+
+        /**
+         * The matching elements if the field is an ElementTable property or the isotope mass,
+         * otherwise null
+         */
+        @Nullable
+        private final ElementSet mMatches;
+
+        /**
+         * @param field        The field ID
+         * @param min          The lower bound
+         * @param minInclusive Whether the lower bound is included
+         * @param max          The upper bound
+         * @param maxInclusive Whether the upper bound is included
+         * @param exclude      Whether to match values outside the range instead
+         */
+        RangeNode(int field, double min, boolean minInclusive, double max, boolean maxInclusive,
+                  boolean exclude) {
+            mField = field;
+            mMin = min;
+            mMinInclusive = minInclusive;
+            mMax = max;
+            mMaxInclusive = maxInclusive;
+            mExclude = exclude;
+
+            if(field >= 0) {
+                final PropertyIndex index = PropertyIndex.get(field);
+                if(exclude) {
+                    mMatches = index.range(Double.NEGATIVE_INFINITY, true, min, !minInclusive);
+                    mMatches.addAll(index.range(max, !maxInclusive, Double.POSITIVE_INFINITY,
+                            true));
+                } else {
+                    mMatches = index.range(min, minInclusive, max, maxInclusive);
+                }
+            } else if(field == FIELD_ISOTOPE) {
+                if(exclude) {
+                    mMatches = findIsotopes(Double.NEGATIVE_INFINITY, true, min, !minInclusive);
+                    mMatches.addAll(findIsotopes(max, !maxInclusive, Double.POSITIVE_INFINITY,
+                            true));
+                } else {
+                    mMatches = findIsotopes(min, minInclusive, max, maxInclusive);
+                }
+            } else {
+                mMatches = null;
+            }
+        }
+
+        /**
+         * Find the elements with an isotope with a mass within a range.
+         *
+         * @param min          The lower bound
+         * @param minInclusive Whether the lower bound is included
+         * @param max          The upper bound
+         * @param maxInclusive Whether the upper bound is included
+         * @return The set of matching elements
+         */
+        @NonNull
+        private static ElementSet findIsotopes(double min, boolean minInclusive, double max,
+                                               boolean maxInclusive) {
+            final IsotopeTable isotopes = Isotopes.getTable();
+            final ElementSet matches = new ElementSet();
+            for(int i = isotopes.findMassPosition(min); i < isotopes.getCount(); i++) {
+                final int index = isotopes.getByMass(i);
+                final double mass = isotopes.getMass(index);
+                if(maxInclusive ? mass > max : mass >= max) {
+                    break;
+                }
+                if(minInclusive || mass > min) {
+                    matches.add(isotopes.getElement(index));
+                }
+            }
+            return matches;
+        }
+
+        @Override
+        public boolean matches(@NonNull ElementTable table, int number) {
+            if(mMatches != null) {
+                return mMatches.contains(number);
+            }
+
+            final double value;
+            switch(mField) {
+                case FIELD_NUMBER:
+                    value = number;
+                    break;
+                case FIELD_GROUP:
+                    value = table.getElement(number).group;
+                    break;
+                default:
+                    value = table.getElement(number).period;
+            }
+
+            final boolean inRange = (mMinInclusive ? value >= mMin : value > mMin)
+                    && (mMaxInclusive ? value <= mMax : value < mMax);
+            return inRange != mExclude;
+        }
+    }
+
+    /**
+     * Node that matches a set of elements found when the query is compiled.
+     */
+    private static class SetNode implements Node {
+        /**
+         * The matching elements
+         */
+        @NonNull
+        private final ElementSet mMatches;
+
+        /**
+         * @param matches The matching elements
+         */
+        SetNode(@NonNull ElementSet matches) {
+            mMatches = matches;
+        }
+
+        @Override
+        public boolean matches(@NonNull ElementTable table, int number) {
+            return mMatches.contains(number);
+        }
+    }
+
+    /**
+     * Node that compares the block of an element.
+     */
+    private static class BlockNode implements Node {
+        /**
+         * The block
+         */
+        private final char mBlock;
+
+        /**
+         * Whether to match other blocks instead
+         */
+        private final boolean mExclude;
+
+        /**
+         * @param block   The block
+         * @param exclude Whether to match other blocks instead
+         */
+        BlockNode(char block, boolean exclude) {
+            mBlock = block;
+            mExclude = exclude;
+        }
+
+        @Override
+        public boolean matches(@NonNull ElementTable table, int number) {
+            return (table.getElement(number).block == mBlock) != mExclude;
+        }
+    }
+
+    /**
+     * Recursive descent parser for queries.
+     */
+    private static class Parser {
+        /**
+         * The text of the query
+         */
+        @NonNull
+        private final String mText;
+
+        /**
+         * The current position in the text
+         */
+        private int mPos;
+
+        /**
+         * @param text The text of the query
+         */
+        Parser(@NonNull String text) {
+            mText = text;
+        }
+
+        /**
+         * Parse the entire query.
+         *
+         * @return The root of the predicate tree
+         * @throws IllegalArgumentException If the text is not a valid query
+         */
+        @NonNull
+        Node parse() {
+            final Node root = parseOr();
+            skipSpace();
+            if(mPos < mText.length()) {
+                throw new IllegalArgumentException("Unexpected character at " + mPos);
+            }
+            return root;
+        }
+
+        /**
+         * Parse terms separated by {@code or}.
+         *
+         * @return The node
+         */
+        @NonNull
+        private Node parseOr() {
+            final ArrayList<Node> children = new ArrayList<>();
+            children.add(parseAnd());
+            while(acceptKeyword("or")) {
+                children.add(parseAnd());
+            }
+            return children.size() == 1 ? children.get(0)
+                    : new OrNode(children.toArray(new Node[0]));
+        }
+
+        /**
+         * Parse terms separated by {@code and} or by whitespace.
+         *
+         * @return The node
+         */
+        @NonNull
+        private Node parseAnd() {
+            final ArrayList<Node> children = new ArrayList<>();
+            children.add(parseTerm());
+            while(true) {
+                if(acceptKeyword("and")) {
+                    children.add(parseTerm());
+                    continue;
+                }
+                skipSpace();
+                if(mPos == mText.length() || peek() == ')' || isKeyword("or")) {
+                    break;
+                }
+                children.add(parseTerm());
+            }
+            return children.size() == 1 ? children.get(0)
+                    : new AndNode(children.toArray(new Node[0]));
+        }
+
+        /**
+         * Parse a negation, a parenthesized expression, or a comparison.
+         *
+         * @return The node
+         */
+        @NonNull
+        private Node parseTerm() {
+            if(acceptKeyword("not")) {
+                return new NotNode(parseTerm());
+            }
+            skipSpace();
+            if(peek() == '(') {
+                mPos++;
+                final Node node = parseOr();
+                skipSpace();
+                expect(')');
+                return node;
+            }
+            return parseComparison();
+        }
+
+        /**
+         * Parse a comparison of a field to a value or range.
+         *
+         * @return The node
+         */
+        @NonNull
+        private Node parseComparison() {
+            final String name = readWord().toLowerCase(Locale.US);
+            final Integer field = FIELDS.get(name);
+            if(field == null) {
+                throw new IllegalArgumentException("Unknown field " + name);
+            }
+
+            skipSpace();
+            final boolean range = peek() == ':';
+            final int op = range ? OP_EQ : readOperator();
+            if(range) {
+                mPos++;
+            }
+            skipSpace();
+
+            if(field == FIELD_BLOCK) {
+                final String block = readWord().toLowerCase(Locale.US);
+                if(block.length() != 1 || "spdf".indexOf(block.charAt(0)) == -1
+                        || (op != OP_EQ && op != OP_NE)) {
+                    throw new IllegalArgumentException("Invalid block comparison");
+                }
+                return new BlockNode(block.charAt(0), op == OP_NE);
+            }
+
+            if(range && Character.isLetter(peek())) {
+                final String rank = readWord().toLowerCase(Locale.US);
+                if(field < 0 || !(rank.equals("top") || rank.equals("bottom"))) {
+                    throw new IllegalArgumentException("Invalid ranking " + rank);
+                }
+                return new SetNode(PropertyIndex.get(field).top(readCount(), rank.equals("top")));
+            }
+
+            final double value = readNumber();
+            if(op == OP_NEAR) {
+                if(field < 0) {
+                    throw new IllegalArgumentException("Invalid nearest value comparison");
+                }
+                return new SetNode(PropertyIndex.get(field).nearest(value, NEAR_COUNT));
+            }
+            if(range && mText.startsWith("..", mPos)) {
+                mPos += 2;
+                return new RangeNode(field, value, true, readNumber(), true, false);
+            }
+
+            final double inf = Double.POSITIVE_INFINITY;
+            switch(op) {
+                case OP_NE:
+                    return new RangeNode(field, value, true, value, true, true);
+                case OP_LT:
+                    return new RangeNode(field, -inf, true, value, false, false);
+                case OP_LE:
+                    return new RangeNode(field, -inf, true, value, true, false);
+                case OP_GT:
+                    return new RangeNode(field, value, false, inf, true, false);
+                case OP_GE:
+                    return new RangeNode(field, value, true, inf, true, false);
+            }
+            return new RangeNode(field, value, true, value, true, false);
+        }
+
+        /**
+         * Read a comparison operator.
+         *
+         * @return One of the OP_ constants
+         */
+        private int readOperator() {
+            final char c = peek();
+            final boolean equals = mPos + 1 < mText.length() && mText.charAt(mPos + 1) == '=';
+            switch(c) {
+                case '=':
+                    mPos += equals ? 2 : 1;
+                    return OP_EQ;
+                case '!':
+                    if(equals) {
+                        mPos += 2;
+                        return OP_NE;
+                    }
+                    break;
+                case '<':
+                    mPos += equals ? 2 : 1;
+                    return equals ? OP_LE : OP_LT;
+                case '>':
+                    mPos += equals ? 2 : 1;
+                    return equals ? OP_GE : OP_GT;
+                case '~':
+                    mPos++;
+                    return OP_NEAR;
+            }
+            throw new IllegalArgumentException("Expected operator at " + mPos);
+        }
+
+        /**
+         * Read a number.
+         *
+         * @return The number
+         */
+        private double readNumber() {
+            skipSpace();
+            final int start = mPos;
+            if(peek() == '-') {
+                mPos++;
+            }
+            while(mPos < mText.length() && (Character.isDigit(mText.charAt(mPos))
+                    || (mText.charAt(mPos) == '.' && !mText.startsWith("..", mPos)))) {
+                mPos++;
+            }
+            try {
+                return Double.parseDouble(mText.substring(start, mPos));
+            } catch(NumberFormatException e) {
+                throw new IllegalArgumentException("Expected number at " + start);
+            }
+        }
+
+        /**
+         * Read a count, which must be a positive whole number.
+         *
+         * @return The count
+         */
+        private int readCount() {
+            final int start = mPos;
+            final double count = readNumber();
+            if(count < 1 || count != Math.rint(count)) {
+                throw new IllegalArgumentException("Expected count at " + start);
+            }
+            return (int)Math.min(count, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Read a word made of letters.
+         *
+         * @return The word
+         */
+        @NonNull
+        private String readWord() {
+            skipSpace();
+            final int start = mPos;
+            while(mPos < mText.length() && Character.isLetter(mText.charAt(mPos))) {
+                mPos++;
+            }
+            if(start == mPos) {
+                throw new IllegalArgumentException("Expected word at " + start);
+            }
+            return mText.substring(start, mPos);
+        }
+
+        /**
+         * Consume a keyword if it is next in the text.
+         *
+         * @param keyword The keyword
+         * @return Whether the keyword was consumed
+         */
+        private boolean acceptKeyword(@NonNull String keyword) {
+            skipSpace();
+            if(isKeyword(keyword)) {
+                mPos += keyword.length();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Check whether a keyword is at the current position.
+         *
+         * @param keyword The keyword
+         * @return Whether the keyword is next in the text
+         */
+        private boolean isKeyword(@NonNull String keyword) {
+            final int end = mPos + keyword.length();
+            return mText.regionMatches(true, mPos, keyword, 0, keyword.length())
+                    && (end == mText.length() || !Character.isLetter(mText.charAt(end)));
+        }
+
+        /**
+         * Consume a character, which must be next in the text.
+         *
+         * @param c The character
+         */
+        private void expect(char c) {
+            if(peek() != c) {
+                throw new IllegalArgumentException("Expected " + c + " at " + mPos);
+            }
+            mPos++;
+        }
+
+        /**
+         * Get the character at the current position.
+         *
+         * @return The character, or 0 at the end of the text
+         */
+        private char peek() {
+            return mPos < mText.length() ? mText.charAt(mPos) : 0;
+        }
+
+        /**
+         * Advance past any whitespace.
+         */
+        private void skipSpace() {
+            while(mPos < mText.length() && Character.isWhitespace(mText.charAt(mPos))) {
+                mPos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * A set of elements stored as a bitset of atomic numbers.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementSet {
+    /**
+     * The bits representing the atomic numbers in the set
+     */
+    @NonNull
+    private final long[] mWords;
+
+    /**
+     * Create an empty set with room for all of the elements.
+     */
+    public ElementSet() {
+        mWords = new long[(Elements.getCount() >> 6) + 1];
+    }
+
+    /**
+     * Add an element to the set.
+     *
+     * @param number The atomic number
+     */
+    public void add(int number) {
+        mWords[number >> 6] |= 1L << number;
+    }
+
+    /**
+     * Add all of the elements to the set.
+     */
+    public void addAll() {
+        for(int i = 1; i <= Elements.getCount(); i++) {
+            add(i);
+        }
+    }
+
+    /**
+     * Remove an element from the set.
+     *
+     * @param number The atomic number
+     */
+    public void remove(int number) {
+        mWords[number >> 6] &= ~(1L << number);
+    }
+
+    /**
+     * Remove all of the elements from the set.
+     */
+    public void clear() {
+        Arrays.fill(mWords, 0);
+    }
+
+    /**
+     * Check whether an element is in the set.
+     *
+     * @param number The atomic number
+     * @return Whether the element is in the set
+     */
+    public boolean contains(int number) {
+        return number >= 0 && number >> 6 < mWords.length
+                && (mWords[number >> 6] & (1L << number)) != 0;
+    }
+
+    /**
+     * Get the number of elements in the set.
+     *
+     * @return The number of elements
+     */
+    public int size() {
+        int size = 0;
+        for(long word : mWords) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Check whether the set is empty.
+     *
+     * @return Whether the set is empty
+     */
+    public boolean isEmpty() {
+        for(long word : mWords) {
+            if(word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove all elements that are not also in another set.
+     *
+     * @param other The other set
+     */
+    public void retainAll(@NonNull ElementSet other) {
+        for(int i = 0; i < mWords.length; i++) {
+            mWords[i] &= other.mWords[i];
+        }
+    }
+
+    /**
+     * Add all elements that are in another set.
+     *
+     * @param other The other set
+     */
+    public void addAll(@NonNull ElementSet other) {
+        for(int i = 0; i < mWords.length; i++) {
+            mWords[i] |= other.mWords[i];
+        }
+    }
+
+    /**
+     * Get the next element in the set, in order of atomic number.
+     *
+     * @param from The atomic number to start from, inclusive
+     * @return The atomic number of the next element, or -1 if there are no more elements
+     */
+    public int next(int from) {
+        int index = from >> 6;
+        if(from < 0 || index >= mWords.length) {
+            return -1;
+        }
+
+        long word = mWords[index] & (-1L << from);
+        while(word == 0) {
+            if(++index == mWords.length) {
+                return -1;
+            }
+            word = mWords[index];
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Finds the elements most similar to an element by their distance in a space of standardized
+ * properties. Each dimension is converted to a z-score so that properties with large ranges do
+ * not dominate, and each has a configurable weight. A dimension known for only one of the two
+ * elements counts as the distance of the known value from the mean, but at least
+ * MISSING_DIFFERENCE, so that elements with few known properties do not appear close to
+ * everything. Dimensions unknown for both elements are skipped and the distance is scaled by the
+ * total weight of the remaining dimensions.
+ * <p>
+ * The vectors of all elements are computed once and stored in a single primitive array, and the
+ * closest elements are selected using a bounded heap rather than sorting every distance.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementSimilarity {
+    /**
+     * Dimension IDs
+     */
+    public static final int DIM_WEIGHT = 0;
+    public static final int DIM_DENSITY = 1;
+    public static final int DIM_MELT = 2;
+    public static final int DIM_BOIL = 3;
+    public static final int DIM_HEAT = 4;
+    public static final int DIM_NEGATIVITY = 5;
+    public static final int DIM_GROUP = 6;
+    public static final int DIM_PERIOD = 7;
+    public static final int DIM_BLOCK = 8;
+
+    /**
+     * The number of dimensions
+     */
+    public static final int DIMENSION_COUNT = 9;
+
+    /**
+     * The ElementTable property ID of each numeric property dimension
+     */
+    private static final int[] PROPERTIES = {
+            ElementTable.WEIGHT,
+            ElementTable.DENSITY,
+            ElementTable.MELT,
+            ElementTable.BOIL,
+            ElementTable.HEAT,
+            ElementTable.NEGATIVITY
+    };
+
+    /**
+     * The minimum difference in standard deviations for a dimension known for only one element
+     */
+    private static final float MISSING_DIFFERENCE = 1;
+
+    /**
+     * The blocks in order
+     */
+    private static final String BLOCKS = "spdf";
+
+    /**
+     * The shared instance using equal weights
+     */
+    private static ElementSimilarity sDefault;
+
+    /**
+     * The standardized vectors of all elements, indexed by atomic number times the number of
+     * dimensions plus the dimension ID. Unknown values are NaN.
+     */
+    private static float[] sVectors;
+
+    /**
+     * The weight of each dimension
+     */
+    @NonNull
+    private final float[] mWeights;
+
+    /**
+     * @param weights The weight of each dimension, indexed by dimension ID
+     */
+    public ElementSimilarity(@NonNull float[] weights) {
+        if(weights.length != DIMENSION_COUNT) {
+            throw new IllegalArgumentException("Expected " + DIMENSION_COUNT + " weights");
+        }
+        mWeights = weights.clone();
+    }
+
+    /**
+     * Get the shared instance that weights all dimensions equally.
+     *
+     * @return The ElementSimilarity
+     */
+    @NonNull
+    public static synchronized ElementSimilarity getDefault() {
+        if(sDefault == null) {
+            final float[] weights = new float[DIMENSION_COUNT];
+            for(int i = 0; i < DIMENSION_COUNT; i++) {
+                weights[i] = 1;
+            }
+            sDefault = new ElementSimilarity(weights);
+        }
+        return sDefault;
+    }
+
+    /**
+     * Find the elements most similar to an element.
+     *
+     * @param number The atomic number
+     * @param k      The maximum number of elements to find
+     * @return The atomic numbers of the most similar elements, closest first
+     */
+    @NonNull
+    public int[] findSimilar(int number, int k) {
+        final float[] vectors = getVectors();
+        final int count = Elements.getCount();
+        k = Math.max(0, Math.min(k, count - 1));
+
+        final int[] heap = new int[k];
+        final float[] distances = new float[k];
+        int size = 0;
+        for(int other = 1; other <= count; other++) {
+            if(other == number) {
+                continue;
+            }
+            final float distance = getDistance(vectors, number, other);
+            if(Float.isNaN(distance)) {
+                continue;
+            }
+            if(size < k) {
+                heap[size] = other;
+                distances[size] = distance;
+                siftUp(heap, distances, size++);
+            } else if(k > 0 && distance < distances[0]) {
+                heap[0] = other;
+                distances[0] = distance;
+                siftDown(heap, distances, size);
+            }
+        }
+
+        final int[] result = new int[size];
+        for(int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[i];
+            distances[0] = distances[i];
+            siftDown(heap, distances, i);
+        }
+        return result;
+    }
+
+    /**
+     * Get the distance between two elements.
+     *
+     * @param a The atomic number of the first element
+     * @param b The atomic number of the second element
+     * @return The distance, or NaN if no dimension is known for either element
+     */
+    public float getDistance(int a, int b) {
+        return getDistance(getVectors(), a, b);
+    }
+
+    /**
+     * Get the distance between two elements.
+     *
+     * @param vectors The standardized vectors
+     * @param a       The atomic number of the first element
+     * @param b       The atomic number of the second element
+     * @return The distance, or NaN if no dimension is known for either element
+     */
+    private float getDistance(@NonNull float[] vectors, int a, int b) {
+        final int offsetA = a * DIMENSION_COUNT;
+        final int offsetB = b * DIMENSION_COUNT;
+        float sum = 0;
+        float weight = 0;
+        for(int i = 0; i < DIMENSION_COUNT; i++) {
+            final float valueA = vectors[offsetA + i];
+            final float valueB = vectors[offsetB + i];
+            if(mWeights[i] <= 0 || (Float.isNaN(valueA) && Float.isNaN(valueB))) {
+                continue;
+            }
+            final float difference;
+            if(Float.isNaN(valueA) || Float.isNaN(valueB)) {
+                final float known = Float.isNaN(valueA) ? valueB : valueA;
+                difference = Math.max(MISSING_DIFFERENCE, Math.abs(known));
+            } else {
+                difference = valueA - valueB;
+            }
+            sum += mWeights[i] * difference * difference;
+            weight += mWeights[i];
+        }
+        return weight > 0 ? (float)Math.sqrt(sum / weight) : Float.NaN;
+    }
+
+    /**
+     * Get the standardized vectors, computing them on the first call.
+     *
+     * @return The standardized vectors
+     */
+    @NonNull
+    private static synchronized float[] getVectors() {
+        if(sVectors == null) {
+            final ElementTable table = Elements.getTable();
+            final int count = table.getCount();
+            final float[] vectors = new float[(count + 1) * DIMENSION_COUNT];
+            for(int i = 0; i < PROPERTIES.length; i++) {
+                final PropertyStats stats = PropertyStats.get(PROPERTIES[i]);
+                final double deviation = stats.getStandardDeviation();
+                for(int n = 0; n <= count; n++) {
+                    final double value = n == 0 ? Double.NaN : table.getDouble(PROPERTIES[i], n);
+                    vectors[n * DIMENSION_COUNT + i] = deviation > 0
+                            ? (float)((value - stats.getMean()) / deviation) : Float.NaN;
+                }
+            }
+
+            final float[] raw = new float[count + 1];
+            for(int n = 1; n <= count; n++) {
+                final int group = table.getElement(n).group;
+                raw[n] = group == 0 ? Float.NaN : group;
+            }
+            standardize(vectors, raw, DIM_GROUP);
+            for(int n = 1; n <= count; n++) {
+                raw[n] = table.getElement(n).period;
+            }
+            standardize(vectors, raw, DIM_PERIOD);
+            for(int n = 1; n <= count; n++) {
+                final int block = BLOCKS.indexOf(table.getElement(n).block);
+                raw[n] = block == -1 ? Float.NaN : block;
+            }
+            standardize(vectors, raw, DIM_BLOCK);
+
+            sVectors = vectors;
+        }
+        return sVectors;
+    }
+
+    /**
+     * Convert raw values to z-scores and store them in a dimension of the vectors.
+     *
+     * @param vectors   The vectors
+     * @param raw       The raw values indexed by atomic number, with NaN for unknown values
+     * @param dimension The dimension ID
+     */
+    private static void standardize(@NonNull float[] vectors, @NonNull float[] raw,
+                                    int dimension) {
+        double sum = 0;
+        int known = 0;
+        for(int n = 1; n < raw.length; n++) {
+            if(!Float.isNaN(raw[n])) {
+                sum += raw[n];
+                known++;
+            }
+        }
+        final double mean = sum / known;
+        double squares = 0;
+        for(int n = 1; n < raw.length; n++) {
+            if(!Float.isNaN(raw[n])) {
+                squares += (raw[n] - mean) * (raw[n] - mean);
+            }
+        }
+        final double deviation = Math.sqrt(squares / known);
+
+        vectors[dimension] = Float.NaN;
+        for(int n = 1; n < raw.length; n++) {
+            vectors[n * DIMENSION_COUNT + dimension] =
+                    deviation > 0 ? (float)((raw[n] - mean) / deviation) : Float.NaN;
+        }
+    }
+
+    /**
+     * Move an entry up a max-heap of distances until the heap is ordered.
+     *
+     * @param heap      The atomic numbers
+     * @param distances The distances
+     * @param index     The index of the entry
+     */
+    private static void siftUp(@NonNull int[] heap, @NonNull float[] distances, int index) {
+        while(index > 0) {
+            final int parent = (index - 1) / 2;
+            if(distances[parent] >= distances[index]) {
+                break;
+            }
+            swap(heap, distances, parent, index);
+            index = parent;
+        }
+    }
+
+    /**
+     * Move the root of a max-heap of distances down until the heap is ordered.
+     *
+     * @param heap      The atomic numbers
+     * @param distances The distances
+     * @param size      The number of entries in the heap
+     */
+    private static void siftDown(@NonNull int[] heap, @NonNull float[] distances, int size) {
+        int index = 0;
+        while(true) {
+            final int left = index * 2 + 1;
+            if(left >= size) {
+                break;
+            }
+            int largest = left;
+            if(left + 1 < size && distances[left + 1] > distances[left]) {
+                largest = left + 1;
+            }
+            if(distances[index] >= distances[largest]) {
+                break;
+            }
+            swap(heap, distances, index, largest);
+            index = largest;
+        }
+    }
+
+    /**
+     * Swap two entries of a heap.
+     *
+     * @param heap      The atomic numbers
+     * @param distances The distances
+     * @param i         The index of the first entry
+     * @param j         The index of the second entry
+     */
+    private static void swap(@NonNull int[] heap, @NonNull float[] distances, int i, int j) {
+        final int number = heap[i];
+        heap[i] = heap[j];
+        heap[j] = number;
+        final float distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Columnar store for the element data. Each numeric property is kept in a primitive array indexed
+ * by atomic number, with a bitset marking which values are known.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementTable {
+    /**
+     * Numeric property IDs
+     */
+    public static final int WEIGHT = 0;
+    public static final int DENSITY = 1;
+    public static final int MELT = 2;
+    public static final int BOIL = 3;
+    public static final int HEAT = 4;
+    public static final int NEGATIVITY = 5;
+    public static final int ABUNDANCE = 6;
+    public static final int RADIUS = 7;
+    public static final int COVALENT_RADIUS = 8;
+    public static final int VDW_RADIUS = 9;
+    public static final int AFFINITY = 10;
+    public static final int IONIZATION = 11;
+
+    /**
+     * The number of numeric properties
+     */
+    public static final int PROPERTY_COUNT = 12;
+
+    /**
+     * The oxidation state represented by bit 0 of the oxidation state bitmasks
+     */
+    public static final int OXIDATION_MIN = -5;
+
+    /**
+     * The number of elements
+     */
+    private final int mCount;
+
+    /**
+     * The Element views, indexed by atomic number
+     */
+    @NonNull
+    private final Element[] mElements;
+
+    /**
+     * The property values, indexed by property ID and atomic number
+     */
+    @NonNull
+    private final double[][] mValues;
+
+    /**
+     * The bitsets of known values, indexed by property ID
+     */
+    @NonNull
+    private final long[][] mValid;
+
+    /**
+     * The number of electrons per shell for all elements
+     */
+    @NonNull
+    private final byte[] mElectrons;
+
+    /**
+     * The offset of each element into the electron array, indexed by atomic number
+     */
+    @NonNull
+    private final short[] mElectronOffsets;
+
+    /**
+     * The electron configurations. These are decoded on first use.
+     */
+    @Nullable
+    private Configurations mConfigurations;
+
+    /**
+     * The ionization energies and oxidation states. These are decoded on first use.
+     */
+    @Nullable
+    private Extended mExtended;
+
+    /**
+     * Decode the table from the elements section of the dataset. The section contains the
+     * element count, then for each element the symbol, group, period, block, category, and flags,
+     * then for each property a validity bitset followed by the values, and finally the electron
+     * offsets followed by the number of electrons per shell.
+     *
+     * @param data The elements section of the dataset
+     */
+    ElementTable(@NonNull ByteBuffer data) {
+        mCount = data.getShort() & 0xffff;
+        mElements = new Element[mCount + 1];
+        mValues = new double[PROPERTY_COUNT][mCount + 1];
+        mValid = new long[PROPERTY_COUNT][(mCount >> 6) + 1];
+        mElectronOffsets = new short[mCount + 2];
+
+        final String[] symbols = new String[mCount + 1];
+        final byte[] attributes = new byte[(mCount + 1) * 5];
+        for(int i = 1; i <= mCount; i++) {
+            symbols[i] = Dataset.readString(data);
+            data.get(attributes, i * 5, 5);
+        }
+
+        for(int i = 0; i < PROPERTY_COUNT; i++) {
+            for(int j = 0; j < mValid[i].length; j++) {
+                mValid[i][j] = data.getLong();
+            }
+            mValues[i][0] = Double.NaN;
+            data.asDoubleBuffer().get(mValues[i], 1, mCount);
+            data.position(data.position() + mCount * 8);
+        }
+
+        data.asShortBuffer().get(mElectronOffsets, 1, mCount + 1);
+        data.position(data.position() + (mCount + 1) * 2);
+        mElectrons = new byte[mElectronOffsets[mCount + 1]];
+        data.get(mElectrons);
+
+        for(int i = 1; i <= mCount; i++) {
+            final int offset = i * 5;
+            mElements[i] = new Element(this, i, symbols[i], attributes[offset],
+                    attributes[offset + 1], (char)attributes[offset + 2], mValues[WEIGHT][i],
+                    attributes[offset + 3], (attributes[offset + 4] & 1) != 0);
+        }
+    }
+
+    /**
+     * Get the number of elements in the table.
+     *
+     * @return The number of elements
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Get the Element with the specified atomic number.
+     *
+     * @param number The atomic number
+     * @return The Element, or null if the number is out of range
+     */
+    @Nullable
+    public Element getElement(int number) {
+        if(number < 1 || number > mCount) {
+            return null;
+        }
+        return mElements[number];
+    }
+
+    /**
+     * Check whether a property value is known for an element.
+     *
+     * @param property One of the property ID constants
+     * @param number   The atomic number
+     * @return Whether the value is known
+     */
+    public boolean hasValue(int property, int number) {
+        return (mValid[property][number >> 6] & (1L << number)) != 0;
+    }
+
+    /**
+     * Get the value of a property for an element.
+     *
+     * @param property One of the property ID constants
+     * @param number   The atomic number
+     * @return The value, or NaN if the value is unknown
+     */
+    public double getDouble(int property, int number) {
+        return mValues[property][number];
+    }
+
+    /**
+     * Get the number of electron shells of an element.
+     *
+     * @param number The atomic number
+     * @return The number of shells
+     */
+    public int getShellCount(int number) {
+        return mElectronOffsets[number + 1] - mElectronOffsets[number];
+    }
+
+    /**
+     * Get the number of electrons in a shell of an element.
+     *
+     * @param number The atomic number
+     * @param shell  The index of the shell, starting at 0
+     * @return The number of electrons
+     */
+    public int getElectrons(int number, int shell) {
+        return mElectrons[mElectronOffsets[number] + shell];
+    }
+
+    /**
+     * Get the atomic number of the noble gas core of the electron configuration of an element.
+     *
+     * @param number The atomic number
+     * @return The atomic number of the core, or 0 if there is none
+     */
+    public int getConfigurationCore(int number) {
+        return getConfigurations().cores[number];
+    }
+
+    /**
+     * Get the number of orbitals in the electron configuration of an element, excluding the core.
+     *
+     * @param number The atomic number
+     * @return The number of orbitals
+     */
+    public int getOrbitalCount(int number) {
+        final short[] offsets = getConfigurations().offsets;
+        return offsets[number + 1] - offsets[number];
+    }
+
+    /**
+     * Get an orbital of the electron configuration of an element, excluding the core.
+     *
+     * @param number The atomic number
+     * @param index  The index of the orbital
+     * @return The packed orbital
+     * @see Orbital
+     */
+    public int getOrbital(int number, int index) {
+        final Configurations configurations = getConfigurations();
+        return configurations.orbitals[configurations.offsets[number] + index];
+    }
+
+    /**
+     * Get the full electron configuration of an element, including the orbitals of the core.
+     *
+     * @param number The atomic number
+     * @return The packed orbitals
+     * @see Orbital
+     */
+    @NonNull
+    public int[] getFullConfiguration(int number) {
+        final Configurations configurations = getConfigurations();
+        final int core = configurations.cores[number];
+        final int coreOffset = configurations.coreOffsets[core];
+        final int coreLength = configurations.coreLengths[core];
+        final int offset = configurations.offsets[number];
+        final int length = configurations.offsets[number + 1] - offset;
+
+        final int[] orbitals = new int[coreLength + length];
+        System.arraycopy(configurations.orbitals, coreOffset, orbitals, 0, coreLength);
+        System.arraycopy(configurations.orbitals, offset, orbitals, coreLength, length);
+        return orbitals;
+    }
+
+    /**
+     * Get the number of known successive ionization energies of an element.
+     *
+     * @param number The atomic number
+     * @return The number of ionization energies
+     */
+    public int getIonizationCount(int number) {
+        final short[] offsets = getExtended().offsets;
+        return offsets[number + 1] - offsets[number];
+    }
+
+    /**
+     * Get a successive ionization energy of an element.
+     *
+     * @param number The atomic number
+     * @param index  The index of the energy, starting at 0 for the first ionization
+     * @return The ionization energy in kJ/mol
+     */
+    public double getIonizationEnergy(int number, int index) {
+        final Extended extended = getExtended();
+        return extended.energies[extended.offsets[number] + index];
+    }
+
+    /**
+     * Get the common oxidation states of an element.
+     *
+     * @param number The atomic number
+     * @return The bitmask of oxidation states, with bit 0 representing OXIDATION_MIN
+     */
+    public int getOxidationStates(int number) {
+        return getExtended().oxidation[number] & 0xffff;
+    }
+
+    /**
+     * Get the extended data, decoding it from the dataset on the first call.
+     *
+     * @return The extended data
+     */
+    @NonNull
+    private synchronized Extended getExtended() {
+        if(mExtended == null) {
+            mExtended = new Extended(Dataset.getSection(Dataset.SECTION_EXTENDED));
+        }
+        return mExtended;
+    }
+
+    /**
+     * Get the electron configurations, decoding them from the dataset on the first call.
+     *
+     * @return The electron configurations
+     */
+    @NonNull
+    private synchronized Configurations getConfigurations() {
+        if(mConfigurations == null) {
+            mConfigurations =
+                    new Configurations(Dataset.getSection(Dataset.SECTION_CONFIGURATIONS));
+        }
+        return mConfigurations;
+    }
+
+    /**
+     * The electron configurations of all elements. The orbitals of every configuration are packed
+     * into a single pool, with each element referencing a range of the pool and the atomic number
+     * of its noble gas core. The fully expanded orbitals of each core are stored once in the same
+     * pool.
+     */
+    private static class Configurations {
+        /**
+         * The pool of packed orbitals
+         */
+        @NonNull
+        final int[] orbitals;
+
+        /**
+         * The offset of each element into the pool, indexed by atomic number
+         */
+        @NonNull
+        final short[] offsets;
+
+        /**
+         * The atomic number of the core of each element, indexed by atomic number
+         */
+        @NonNull
+        final byte[] cores;
+
+        /**
+         * The offset of the expanded orbitals of each core, indexed by atomic number
+         */
+        @NonNull
+        final short[] coreOffsets;
+
+        /**
+         * The number of expanded orbitals of each core, indexed by atomic number
+         */
+        @NonNull
+        final short[] coreLengths;
+
+        /**
+         * Decode the configurations section of the dataset. The section contains the element
+         * count, the pool offsets, the atomic number of the core of each element (0 for none),
+         * then the core count followed by the atomic number, offset, and length of the expanded
+         * orbitals of each core, and finally the size of the pool followed by the pool.
+         *
+         * @param data The configurations section of the dataset
+         */
+        Configurations(@NonNull ByteBuffer data) {
+            final int count = data.getShort() & 0xffff;
+            offsets = new short[count + 2];
+            data.asShortBuffer().get(offsets, 1, count + 1);
+            data.position(data.position() + (count + 1) * 2);
+
+            cores = new byte[count + 1];
+            data.get(cores, 1, count);
+
+            coreOffsets = new short[count + 1];
+            coreLengths = new short[count + 1];
+            final int coreCount = data.get() & 0xff;
+            for(int i = 0; i < coreCount; i++) {
+                final int number = data.get() & 0xff;
+                coreOffsets[number] = data.getShort();
+                coreLengths[number] = data.getShort();
+            }
+
+            orbitals = new int[data.getShort() & 0xffff];
+            for(int i = 0; i < orbitals.length; i++) {
+                orbitals[i] = data.getShort() & 0xffff;
+            }
+        }
+    }
+
+    /**
+     * The successive ionization energies and oxidation states of all elements. The energies of
+     * every element are packed into a single array, with each element referencing a range of the
+     * array.
+     */
+    private static class Extended {
+        /**
+         * The successive ionization energies of all elements
+         */
+        @NonNull
+        final double[] energies;
+
+        /**
+         * The offset of each element into the energy array, indexed by atomic number
+         */
+        @NonNull
+        final short[] offsets;
+
+        /**
+         * The oxidation state bitmasks, indexed by atomic number
+         */
+        @NonNull
+        final short[] oxidation;
+
+        /**
+         * Decode the extended section of the dataset. The section contains the element count,
+         * the energy offsets, the energies, and the oxidation state bitmasks.
+         *
+         * @param data The extended section of the dataset
+         */
+        Extended(@NonNull ByteBuffer data) {
+            final int count = data.getShort() & 0xffff;
+            offsets = new short[count + 2];
+            data.asShortBuffer().get(offsets, 1, count + 1);
+            data.position(data.position() + (count + 1) * 2);
+
+            energies = new double[offsets[count + 1]];
+            data.asDoubleBuffer().get(energies);
+            data.position(data.position() + energies.length * 8);
+
+            oxidation = new short[count + 1];
+            data.asShortBuffer().get(oxidation, 1, count);
+        }
+    }
+}
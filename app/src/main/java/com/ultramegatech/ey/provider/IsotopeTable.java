@@ -0,0 +1,284 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Columnar store for the isotope data. All isotopes are kept in parallel primitive arrays grouped
+ * by element, with a table of offsets indexed by atomic number and a secondary index sorted by
+ * exact mass.
+ *
+ * @author Steve Guidetti
+ */
+public class IsotopeTable {
+    /**
+     * The offset of each element's isotopes, indexed by atomic number
+     */
+    @NonNull
+    private final short[] mOffsets;
+
+    /**
+     * The atomic number of the element of each isotope
+     */
+    @NonNull
+    private final byte[] mElements;
+
+    /**
+     * The mass number of each isotope
+     */
+    @NonNull
+    private final short[] mMassNumbers;
+
+    /**
+     * The relative atomic mass of each isotope
+     */
+    @NonNull
+    private final double[] mMasses;
+
+    /**
+     * The isotopic composition of each isotope, which is NaN if unknown
+     */
+    @NonNull
+    private final double[] mCompositions;
+
+    /**
+     * The bitset of known compositions
+     */
+    @NonNull
+    private final long[] mValid;
+
+    /**
+     * The symbols of isotopes that use a symbol other than that of their element
+     */
+    @NonNull
+    private final String[] mAliases;
+
+    /**
+     * The isotope indices sorted by mass
+     */
+    @NonNull
+    private final short[] mMassOrder;
+
+    /**
+     * Decode the table from the isotopes section of the dataset. The section contains the element
+     * count and the offset of each element's isotopes, followed by the mass numbers, the masses,
+     * a bitset of known compositions, the compositions, and finally the list of isotopes that use
+     * a symbol other than that of their element.
+     *
+     * @param data The isotopes section of the dataset
+     */
+    IsotopeTable(@NonNull ByteBuffer data) {
+        final int elementCount = data.getShort() & 0xffff;
+        mOffsets = new short[elementCount + 2];
+        data.asShortBuffer().get(mOffsets, 1, elementCount + 1);
+        data.position(data.position() + (elementCount + 1) * 2);
+
+        final int count = mOffsets[elementCount + 1];
+        mMassNumbers = new short[count];
+        data.asShortBuffer().get(mMassNumbers);
+        data.position(data.position() + count * 2);
+
+        mMasses = new double[count];
+        data.asDoubleBuffer().get(mMasses);
+        data.position(data.position() + count * 8);
+
+        mValid = new long[(count >> 6) + 1];
+        data.asLongBuffer().get(mValid);
+        data.position(data.position() + mValid.length * 8);
+
+        mCompositions = new double[count];
+        data.asDoubleBuffer().get(mCompositions);
+        data.position(data.position() + count * 8);
+
+        mAliases = new String[count];
+        final int aliasCount = data.get() & 0xff;
+        for(int i = 0; i < aliasCount; i++) {
+            final int index = data.getShort() & 0xffff;
+            mAliases[index] = Dataset.readString(data);
+        }
+
+        mElements = new byte[count];
+        for(int i = 1; i <= elementCount; i++) {
+            for(int j = mOffsets[i]; j < mOffsets[i + 1]; j++) {
+                mElements[j] = (byte)i;
+            }
+        }
+
+        mMassOrder = sortByMass(mMasses);
+    }
+
+    /**
+     * Create the index of isotopes sorted by mass. The isotopes are stored grouped by element,
+     * which is nearly in order of mass, so an insertion sort is used.
+     *
+     * @param masses The mass of each isotope
+     * @return The isotope indices sorted by mass
+     */
+    @NonNull
+    private static short[] sortByMass(@NonNull double[] masses) {
+        final short[] order = new short[masses.length];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = (short)i;
+        }
+
+        for(int i = 1; i < order.length; i++) {
+            final short index = order[i];
+            int j = i - 1;
+            while(j >= 0 && masses[order[j]] > masses[index]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+        return order;
+    }
+
+    /**
+     * Get the total number of isotopes.
+     *
+     * @return The number of isotopes
+     */
+    public int getCount() {
+        return mMasses.length;
+    }
+
+    /**
+     * Get the index of the first isotope of an element.
+     *
+     * @param number The atomic number
+     * @return The index of the first isotope
+     */
+    public int getOffset(int number) {
+        return mOffsets[number];
+    }
+
+    /**
+     * Get the number of isotopes of an element.
+     *
+     * @param number The atomic number
+     * @return The number of isotopes
+     */
+    public int getIsotopeCount(int number) {
+        if(number < 1 || number >= mOffsets.length - 1) {
+            return 0;
+        }
+        return mOffsets[number + 1] - mOffsets[number];
+    }
+
+    /**
+     * Get the atomic number of the element of an isotope.
+     *
+     * @param index The index of the isotope
+     * @return The atomic number
+     */
+    public int getElement(int index) {
+        return mElements[index] & 0xff;
+    }
+
+    /**
+     * Get the mass number of an isotope.
+     *
+     * @param index The index of the isotope
+     * @return The mass number
+     */
+    public int getMassNumber(int index) {
+        return mMassNumbers[index];
+    }
+
+    /**
+     * Get the relative atomic mass of an isotope.
+     *
+     * @param index The index of the isotope
+     * @return The relative atomic mass
+     */
+    public double getMass(int index) {
+        return mMasses[index];
+    }
+
+    /**
+     * Check whether the isotopic composition of an isotope is known.
+     *
+     * @param index The index of the isotope
+     * @return Whether the composition is known
+     */
+    public boolean hasComposition(int index) {
+        return (mValid[index >> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Get the isotopic composition of an isotope.
+     *
+     * @param index The index of the isotope
+     * @return The isotopic composition, or NaN if unknown
+     */
+    public double getComposition(int index) {
+        return mCompositions[index];
+    }
+
+    /**
+     * Get the symbol of an isotope that uses a symbol other than that of its element, such as D
+     * or T.
+     *
+     * @param index The index of the isotope
+     * @return The symbol, or null if the isotope uses the symbol of its element
+     */
+    @Nullable
+    public String getAlias(int index) {
+        return mAliases[index];
+    }
+
+    /**
+     * Get an isotope by its position in order of mass.
+     *
+     * @param position The position in order of mass
+     * @return The index of the isotope
+     */
+    public int getByMass(int position) {
+        return mMassOrder[position];
+    }
+
+    /**
+     * Find the position in order of mass of the first isotope with a mass greater than or equal
+     * to a value.
+     *
+     * @param mass The mass
+     * @return The position in order of mass
+     */
+    public int findMassPosition(double mass) {
+        int low = 0;
+        int high = mMassOrder.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(mMasses[mMassOrder[mid]] < mass) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Columnar store for the nuclide data. All nuclides are kept in parallel primitive arrays sorted
+ * by proton number and then neutron number, with a table of offsets indexed by proton number.
+ *
+ * @author Steve Guidetti
+ */
+public class NuclideTable {
+    /**
+     * Decay mode bits
+     */
+    public static final int DECAY_ALPHA = 1;
+    public static final int DECAY_BETA_MINUS = 1 << 1;
+    public static final int DECAY_BETA_PLUS = 1 << 2;
+    public static final int DECAY_ELECTRON_CAPTURE = 1 << 3;
+    public static final int DECAY_FISSION = 1 << 4;
+    public static final int DECAY_ISOMERIC = 1 << 5;
+    public static final int DECAY_PROTON = 1 << 6;
+    public static final int DECAY_NEUTRON = 1 << 7;
+
+    /**
+     * The value of the spin field for an unknown spin and parity
+     */
+    private static final int SPIN_UNKNOWN = 0x7f;
+
+    /**
+     * The number of protons of each nuclide
+     */
+    @NonNull
+    private final byte[] mProtons;
+
+    /**
+     * The number of neutrons of each nuclide
+     */
+    @NonNull
+    private final short[] mNeutrons;
+
+    /**
+     * The half-life of each nuclide in seconds, which is infinite if stable or NaN if unknown
+     */
+    @NonNull
+    private final double[] mHalfLives;
+
+    /**
+     * The decay mode bitmask of each nuclide
+     */
+    @NonNull
+    private final byte[] mDecayModes;
+
+    /**
+     * Twice the ground state spin of each nuclide in the low 7 bits, with the high bit set for
+     * negative parity
+     */
+    @NonNull
+    private final byte[] mSpins;
+
+    /**
+     * The index of the nuclide of each branching ratio entry, in ascending order
+     */
+    @NonNull
+    private final short[] mBranchNuclides;
+
+    /**
+     * The decay mode bit number of each branching ratio entry
+     */
+    @NonNull
+    private final byte[] mBranchModes;
+
+    /**
+     * The value of each branching ratio entry
+     */
+    @NonNull
+    private final double[] mBranchRatios;
+
+    /**
+     * The offset of each element's nuclides, indexed by proton number
+     */
+    @NonNull
+    private final short[] mOffsets;
+
+    /**
+     * The largest number of neutrons of any nuclide
+     */
+    private final int mMaxNeutrons;
+
+    /**
+     * Decode the table from the nuclides section of the dataset. The section contains the
+     * nuclide count, followed by the proton numbers, the neutron numbers, the half-lives, the
+     * decay mode bitmasks, and the spins. These are followed by the branching ratios of the
+     * nuclides with more than one decay mode, each containing the nuclide index, the decay mode
+     * bit number, and the ratio.
+     *
+     * @param data The nuclides section of the dataset
+     */
+    NuclideTable(@NonNull ByteBuffer data) {
+        final int count = data.getShort() & 0xffff;
+        mProtons = new byte[count];
+        data.get(mProtons);
+
+        mNeutrons = new short[count];
+        data.asShortBuffer().get(mNeutrons);
+        data.position(data.position() + count * 2);
+
+        mHalfLives = new double[count];
+        data.asDoubleBuffer().get(mHalfLives);
+        data.position(data.position() + count * 8);
+
+        mDecayModes = new byte[count];
+        data.get(mDecayModes);
+        mSpins = new byte[count];
+        data.get(mSpins);
+
+        final int branches = data.getShort() & 0xffff;
+        mBranchNuclides = new short[branches];
+        mBranchModes = new byte[branches];
+        mBranchRatios = new double[branches];
+        for(int i = 0; i < branches; i++) {
+            mBranchNuclides[i] = data.getShort();
+            mBranchModes[i] = data.get();
+            mBranchRatios[i] = data.getDouble();
+        }
+
+        final int maxProtons = count > 0 ? mProtons[count - 1] & 0xff : 0;
+        mOffsets = new short[maxProtons + 2];
+        int maxNeutrons = 0;
+        for(int i = 0; i < count; i++) {
+            mOffsets[(mProtons[i] & 0xff) + 1]++;
+            maxNeutrons = Math.max(maxNeutrons, mNeutrons[i]);
+        }
+        for(int i = 1; i < mOffsets.length; i++) {
+            mOffsets[i] += mOffsets[i - 1];
+        }
+        mMaxNeutrons = maxNeutrons;
+    }
+
+    /**
+     * Get the number of nuclides.
+     *
+     * @return The number of nuclides
+     */
+    public int getCount() {
+        return mProtons.length;
+    }
+
+    /**
+     * Get the largest number of protons of any nuclide.
+     *
+     * @return The largest proton number
+     */
+    public int getMaxProtons() {
+        return mOffsets.length - 2;
+    }
+
+    /**
+     * Get the largest number of neutrons of any nuclide.
+     *
+     * @return The largest neutron number
+     */
+    public int getMaxNeutrons() {
+        return mMaxNeutrons;
+    }
+
+    /**
+     * Find the index of a nuclide.
+     *
+     * @param protons  The number of protons
+     * @param neutrons The number of neutrons
+     * @return The index of the nuclide, or -1 if it is not in the table
+     */
+    public int find(int protons, int neutrons) {
+        if(protons < 0 || protons > getMaxProtons()) {
+            return -1;
+        }
+        int low = mOffsets[protons];
+        int high = mOffsets[protons + 1] - 1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            if(mNeutrons[mid] < neutrons) {
+                low = mid + 1;
+            } else if(mNeutrons[mid] > neutrons) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of protons of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return The number of protons
+     */
+    public int getProtons(int index) {
+        return mProtons[index] & 0xff;
+    }
+
+    /**
+     * Get the number of neutrons of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return The number of neutrons
+     */
+    public int getNeutrons(int index) {
+        return mNeutrons[index];
+    }
+
+    /**
+     * Get the mass number of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return The mass number
+     */
+    public int getMassNumber(int index) {
+        return getProtons(index) + mNeutrons[index];
+    }
+
+    /**
+     * Check whether a nuclide is stable.
+     *
+     * @param index The index of the nuclide
+     * @return Whether the nuclide is stable
+     */
+    public boolean isStable(int index) {
+        return mHalfLives[index] == Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the half-life of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return The half-life in seconds, which is infinite if the nuclide is stable or NaN if
+     * unknown
+     */
+    public double getHalfLife(int index) {
+        return mHalfLives[index];
+    }
+
+    /**
+     * Get the decay constant of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return The decay constant in inverse seconds, which is 0 if the nuclide is stable or its
+     * half-life is unknown
+     */
+    public double getDecayConstant(int index) {
+        final double halfLife = mHalfLives[index];
+        if(Double.isNaN(halfLife) || halfLife == Double.POSITIVE_INFINITY) {
+            return 0;
+        }
+        return Math.log(2) / halfLife;
+    }
+
+    /**
+     * Get the decay modes of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return The bitmask of DECAY_ constants
+     */
+    public int getDecayModes(int index) {
+        return mDecayModes[index] & 0xff;
+    }
+
+    /**
+     * Get the fraction of decays of a nuclide that occur by a decay mode.
+     *
+     * @param index The index of the nuclide
+     * @param mode  One of the DECAY_ constants
+     * @return The branching ratio, between 0 and 1
+     */
+    public double getBranchingRatio(int index, int mode) {
+        final int modes = getDecayModes(index);
+        if((modes & mode) == 0) {
+            return 0;
+        }
+        if(modes == mode) {
+            return 1;
+        }
+
+        int low = 0;
+        int high = mBranchNuclides.length - 1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            if(mBranchNuclides[mid] < index) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        final int bit = Integer.numberOfTrailingZeros(mode);
+        for(int i = low; i < mBranchNuclides.length && mBranchNuclides[i] == index; i++) {
+            if(mBranchModes[i] == bit) {
+                return mBranchRatios[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Find the ground state nuclide produced by a decay mode of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @param mode  One of the DECAY_ constants
+     * @return The index of the daughter nuclide, or -1 if the decay mode does not produce a
+     * single ground state nuclide or the daughter is not in the table
+     */
+    public int getDaughter(int index, int mode) {
+        final int protons = getProtons(index);
+        final int neutrons = mNeutrons[index];
+        switch(mode) {
+            case DECAY_ALPHA:
+                return find(protons - 2, neutrons - 2);
+            case DECAY_BETA_MINUS:
+                return find(protons + 1, neutrons - 1);
+            case DECAY_BETA_PLUS:
+            case DECAY_ELECTRON_CAPTURE:
+                return find(protons - 1, neutrons + 1);
+            case DECAY_PROTON:
+                return find(protons - 1, neutrons);
+            case DECAY_NEUTRON:
+                return find(protons, neutrons - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether the ground state spin and parity of a nuclide are known.
+     *
+     * @param index The index of the nuclide
+     * @return Whether the spin and parity are known
+     */
+    public boolean hasSpin(int index) {
+        return (mSpins[index] & SPIN_UNKNOWN) != SPIN_UNKNOWN;
+    }
+
+    /**
+     * Get twice the ground state spin of a nuclide, so that half-integer spins are represented
+     * exactly.
+     *
+     * @param index The index of the nuclide
+     * @return Twice the spin
+     */
+    public int getDoubleSpin(int index) {
+        return mSpins[index] & SPIN_UNKNOWN;
+    }
+
+    /**
+     * Get the ground state parity of a nuclide.
+     *
+     * @param index The index of the nuclide
+     * @return 1 for positive parity or -1 for negative parity
+     */
+    public int getParity(int index) {
+        return (mSpins[index] & 0x80) != 0 ? -1 : 1;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Provides access to the chart of nuclides. The data is loaded from the dataset asset the first
+ * time it is accessed.
+ *
+ * @author Steve Guidetti
+ */
+public class Nuclides {
+    /**
+     * Holds the nuclide data, which is decoded from the dataset the first time it is accessed.
+     */
+    private static class Holder {
+        /**
+         * The table of all of the nuclides
+         */
+        static final NuclideTable TABLE =
+                new NuclideTable(Dataset.getSection(Dataset.SECTION_NUCLIDES));
+    }
+
+    /**
+     * Get the table containing all of the nuclides.
+     *
+     * @return The NuclideTable
+     */
+    @NonNull
+    public static NuclideTable getTable() {
+        return Holder.TABLE;
+    }
+}
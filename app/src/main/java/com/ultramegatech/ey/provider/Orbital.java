@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+/**
+ * Utility methods for orbitals of an electron configuration, which are packed into a single int.
+ * The shell number is stored in bits 12-15, the subshell in bits 8-11, and the number of
+ * electrons in bits 0-7.
+ *
+ * @author Steve Guidetti
+ */
+public class Orbital {
+    /**
+     * The subshell types in order of angular momentum
+     */
+    private static final String SUBSHELLS = "spdf";
+
+    /**
+     * Get the shell number of an orbital.
+     *
+     * @param orbital The packed orbital
+     * @return The shell number
+     */
+    public static int getShell(int orbital) {
+        return orbital >>> 12 & 0xf;
+    }
+
+    /**
+     * Get the subshell type of an orbital.
+     *
+     * @param orbital The packed orbital
+     * @return The subshell type
+     */
+    public static char getSubshell(int orbital) {
+        return SUBSHELLS.charAt(orbital >>> 8 & 0xf);
+    }
+
+    /**
+     * Get the number of electrons in an orbital.
+     *
+     * @param orbital The packed orbital
+     * @return The number of electrons
+     */
+    public static int getElectrons(int orbital) {
+        return orbital & 0xff;
+    }
+
+    /**
+     * Get the number of boxes in an orbital diagram of a subshell, which is the number of
+     * orbitals in the subshell.
+     *
+     * @param orbital The packed orbital
+     * @return The number of boxes
+     */
+    public static int getBoxCount(int orbital) {
+        return (orbital >>> 8 & 0xf) * 2 + 1;
+    }
+
+    /**
+     * Get the number of electrons in a box of an orbital diagram of a subshell. Following Hund's
+     * rule, each box is singly occupied before any is paired.
+     *
+     * @param orbital The packed orbital
+     * @param box     The index of the box
+     * @return The number of electrons in the box, from 0 to 2
+     */
+    public static int getBoxElectrons(int orbital, int box) {
+        final int electrons = getElectrons(orbital);
+        final int boxes = getBoxCount(orbital);
+        return (box < electrons ? 1 : 0) + (box < electrons - boxes ? 1 : 0);
+    }
+}
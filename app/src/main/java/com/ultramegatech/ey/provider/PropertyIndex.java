@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Index over the known values of a numeric element property, sorted by value. Range, top-k, and
+ * nearest-value queries are answered by binary search and return the matching elements as an
+ * ElementSet.
+ *
+ * @author Steve Guidetti
+ */
+public class PropertyIndex {
+    /**
+     * The cached indexes, indexed by property ID
+     */
+    private static final PropertyIndex[] sIndexes = new PropertyIndex[ElementTable.PROPERTY_COUNT];
+
+    /**
+     * The known values in ascending order
+     */
+    @NonNull
+    private final double[] mValues;
+
+    /**
+     * The atomic numbers paired with the values
+     */
+    @NonNull
+    private final short[] mNumbers;
+
+    /**
+     * @param property One of the ElementTable property ID constants
+     */
+    private PropertyIndex(int property) {
+        final ElementTable table = Elements.getTable();
+        final ElementOrder order = ElementOrder.byProperty(property);
+        mValues = new double[order.getKnownCount()];
+        mNumbers = new short[order.getKnownCount()];
+        for(int i = 0; i < mValues.length; i++) {
+            mNumbers[i] = (short)order.get(i, false);
+            mValues[i] = table.getDouble(property, mNumbers[i]);
+        }
+    }
+
+    /**
+     * Get the index for a numeric property. The index is built on the first call.
+     *
+     * @param property One of the ElementTable property ID constants
+     * @return The PropertyIndex
+     */
+    @NonNull
+    public static synchronized PropertyIndex get(int property) {
+        if(sIndexes[property] == null) {
+            sIndexes[property] = new PropertyIndex(property);
+        }
+        return sIndexes[property];
+    }
+
+    /**
+     * Get the number of elements with known values.
+     *
+     * @return The number of elements in the index
+     */
+    public int size() {
+        return mValues.length;
+    }
+
+    /**
+     * Find the elements with values within a range. Use infinite bounds for open ranges.
+     *
+     * @param min          The lower bound
+     * @param minInclusive Whether the lower bound is included
+     * @param max          The upper bound
+     * @param maxInclusive Whether the upper bound is included
+     * @return The set of matching elements
+     */
+    @NonNull
+    public ElementSet range(double min, boolean minInclusive, double max, boolean maxInclusive) {
+        final int start = minInclusive ? lowerBound(min) : upperBound(min);
+        final int end = maxInclusive ? upperBound(max) : lowerBound(max);
+        return toSet(start, end);
+    }
+
+    /**
+     * Find the elements with values within an inclusive range.
+     *
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return The set of matching elements
+     */
+    @NonNull
+    public ElementSet range(double min, double max) {
+        return range(min, true, max, true);
+    }
+
+    /**
+     * Find the elements with the highest or lowest values.
+     *
+     * @param k       The maximum number of elements to find
+     * @param highest Whether to find the highest values rather than the lowest
+     * @return The set of matching elements
+     */
+    @NonNull
+    public ElementSet top(int k, boolean highest) {
+        k = Math.max(0, Math.min(k, mValues.length));
+        return highest ? toSet(mValues.length - k, mValues.length) : toSet(0, k);
+    }
+
+    /**
+     * Find the elements with the values closest to a value.
+     *
+     * @param value The value
+     * @param k     The maximum number of elements to find
+     * @return The set of matching elements
+     */
+    @NonNull
+    public ElementSet nearest(double value, int k) {
+        k = Math.max(0, Math.min(k, mValues.length));
+        int start = lowerBound(value);
+        int end = start;
+        while(end - start < k) {
+            if(start > 0 && (end == mValues.length
+                    || value - mValues[start - 1] <= mValues[end] - value)) {
+                start--;
+            } else {
+                end++;
+            }
+        }
+        return toSet(start, end);
+    }
+
+    /**
+     * Find the first position with a value greater than or equal to a value.
+     *
+     * @param value The value
+     * @return The position
+     */
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = mValues.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(mValues[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the first position with a value greater than a value.
+     *
+     * @param value The value
+     * @return The position
+     */
+    private int upperBound(double value) {
+        int low = 0;
+        int high = mValues.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(mValues[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Create a set of the elements within a range of positions.
+     *
+     * @param start The first position, inclusive
+     * @param end   The last position, exclusive
+     * @return The set of elements
+     */
+    @NonNull
+    private ElementSet toSet(int start, int end) {
+        final ElementSet set = new ElementSet();
+        for(int i = start; i < end; i++) {
+            set.add(mNumbers[i]);
+        }
+        return set;
+    }
+}
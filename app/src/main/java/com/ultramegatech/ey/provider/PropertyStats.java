@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Summary statistics of a numeric element property over the elements with known values. The
+ * statistics of each property are computed once from the dataset and cached. Values are in the
+ * units of the dataset, such as kelvin for temperatures, so the statistics do not depend on the
+ * display units. Percentile ranks are unitless.
+ *
+ * @author Steve Guidetti
+ */
+public class PropertyStats {
+    /**
+     * The cached statistics, indexed by property ID
+     */
+    private static final PropertyStats[] sStats = new PropertyStats[ElementTable.PROPERTY_COUNT];
+
+    /**
+     * The number of known values
+     */
+    private final int mCount;
+
+    /**
+     * The smallest value
+     */
+    private final double mMin;
+
+    /**
+     * The largest value
+     */
+    private final double mMax;
+
+    /**
+     * The arithmetic mean of the values
+     */
+    private final double mMean;
+
+    /**
+     * The population standard deviation of the values
+     */
+    private final double mStandardDeviation;
+
+    /**
+     * The percentile rank of each element, indexed by atomic number, which is NaN if unknown
+     */
+    @NonNull
+    private final float[] mPercentiles;
+
+    /**
+     * @param property One of the ElementTable property ID constants
+     */
+    private PropertyStats(int property) {
+        final ElementTable table = Elements.getTable();
+        final ElementOrder order = ElementOrder.byProperty(property);
+        mCount = order.getKnownCount();
+        mPercentiles = new float[table.getCount() + 1];
+        Arrays.fill(mPercentiles, Float.NaN);
+
+        final double[] values = new double[mCount];
+        double sum = 0;
+        for(int i = 0; i < mCount; i++) {
+            values[i] = table.getDouble(property, order.get(i, false));
+            sum += values[i];
+        }
+
+        if(mCount == 0) {
+            mMin = mMax = mMean = mStandardDeviation = Double.NaN;
+            return;
+        }
+
+        mMin = values[0];
+        mMax = values[mCount - 1];
+        mMean = sum / mCount;
+
+        double squares = 0;
+        for(double value : values) {
+            squares += (value - mMean) * (value - mMean);
+        }
+        mStandardDeviation = Math.sqrt(squares / mCount);
+
+        for(int i = 0; i < mCount; ) {
+            int end = i + 1;
+            while(end < mCount && values[end] == values[i]) {
+                end++;
+            }
+            final float percentile = (i + (end - i) / 2f) / mCount * 100;
+            for(int j = i; j < end; j++) {
+                mPercentiles[order.get(j, false)] = percentile;
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Get the statistics for a numeric property. The statistics are computed on the first call.
+     *
+     * @param property One of the ElementTable property ID constants
+     * @return The PropertyStats
+     */
+    @NonNull
+    public static synchronized PropertyStats get(int property) {
+        if(sStats[property] == null) {
+            sStats[property] = new PropertyStats(property);
+        }
+        return sStats[property];
+    }
+
+    /**
+     * Get the number of elements with known values.
+     *
+     * @return The number of known values
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Get the smallest known value.
+     *
+     * @return The minimum, or NaN if no values are known
+     */
+    public double getMin() {
+        return mMin;
+    }
+
+    /**
+     * Get the largest known value.
+     *
+     * @return The maximum, or NaN if no values are known
+     */
+    public double getMax() {
+        return mMax;
+    }
+
+    /**
+     * Get the arithmetic mean of the known values.
+     *
+     * @return The mean, or NaN if no values are known
+     */
+    public double getMean() {
+        return mMean;
+    }
+
+    /**
+     * Get the population standard deviation of the known values.
+     *
+     * @return The standard deviation, or NaN if no values are known
+     */
+    public double getStandardDeviation() {
+        return mStandardDeviation;
+    }
+
+    /**
+     * Get the percentile rank of an element's value, which is the percentage of known values
+     * below it, counting equal values as half.
+     *
+     * @param number The atomic number
+     * @return The percentile rank from 0 to 100, or NaN if the value is unknown
+     */
+    public float getPercentile(int number) {
+        return mPercentiles[number];
+    }
+}
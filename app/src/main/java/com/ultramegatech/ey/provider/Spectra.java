@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Provides access to the emission line spectra of the elements. The lines of each element are
+ * stored in a separately compressed block of the dataset asset, which is only decoded when the
+ * spectrum of that element is requested. Blocks too small to benefit from compression are stored
+ * uncompressed.
+ *
+ * @author Steve Guidetti
+ */
+public class Spectra {
+    /**
+     * The size in bytes of each entry of the directory of blocks
+     */
+    private static final int ENTRY_SIZE = 16;
+
+    /**
+     * The maximum value of an encoded intensity
+     */
+    private static final float INTENSITY_SCALE = 0xffff;
+
+    /**
+     * Holds the spectra section, which is located the first time it is accessed.
+     */
+    private static class Holder {
+        /**
+         * The spectra section of the dataset
+         */
+        static final ByteBuffer SECTION = Dataset.getSection(Dataset.SECTION_SPECTRA);
+    }
+
+    /**
+     * The atomic number of the most recently decoded spectrum
+     */
+    private static int sCachedNumber;
+
+    /**
+     * The most recently decoded spectrum
+     */
+    @Nullable
+    private static Spectrum sCachedSpectrum;
+
+    /**
+     * Get the emission line spectrum of an element.
+     *
+     * @param number The atomic number of the element
+     * @return The Spectrum, or null if no lines are available
+     */
+    @Nullable
+    public static synchronized Spectrum getSpectrum(int number) {
+        if(number == sCachedNumber && sCachedSpectrum != null) {
+            return sCachedSpectrum;
+        }
+
+        final Spectrum spectrum = readSpectrum(Holder.SECTION, number);
+        if(spectrum != null) {
+            sCachedNumber = number;
+            sCachedSpectrum = spectrum;
+        }
+        return spectrum;
+    }
+
+    /**
+     * Decode the emission line spectrum of an element from a spectra section.
+     *
+     * @param section The spectra section of a dataset
+     * @param number  The atomic number of the element
+     * @return The Spectrum, or null if no lines are available
+     */
+    @Nullable
+    static Spectrum readSpectrum(@NonNull ByteBuffer section, int number) {
+        final int count = section.getShort(0) & 0xffff;
+        if(number < 1 || number > count) {
+            return null;
+        }
+        final int entry = 2 + (number - 1) * ENTRY_SIZE;
+        final int lines = section.getInt(entry + 12);
+        if(lines == 0) {
+            return null;
+        }
+
+        final byte[] block = new byte[section.getInt(entry + 4)];
+        final ByteBuffer buffer = section.duplicate();
+        buffer.position(2 + count * ENTRY_SIZE + section.getInt(entry));
+        buffer.get(block);
+
+        final int length = section.getInt(entry + 8);
+        final byte[] data = block.length == length ? block : inflate(block, length);
+        return decode(data, lines);
+    }
+
+    /**
+     * Decompress a block of lines.
+     *
+     * @param block  The compressed block
+     * @param length The length of the uncompressed block
+     * @return The uncompressed block
+     */
+    private static byte[] inflate(byte[] block, int length) {
+        final byte[] data = new byte[length];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            int offset = 0;
+            while(offset < length && !inflater.finished()) {
+                final int read = inflater.inflate(data, offset, length - offset);
+                if(read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if(offset != length) {
+                throw new IllegalStateException("Truncated spectrum data");
+            }
+        } catch(DataFormatException e) {
+            throw new IllegalStateException("Invalid spectrum data", e);
+        } finally {
+            inflater.end();
+        }
+        return data;
+    }
+
+    /**
+     * Decode an uncompressed block of lines.
+     *
+     * @param data  The uncompressed block
+     * @param lines The number of lines
+     * @return The Spectrum
+     */
+    private static Spectrum decode(byte[] data, int lines) {
+        final float[] wavelengths = new float[lines];
+        final float[] intensities = new float[lines];
+
+        int position = 0;
+        int picometers = 0;
+        for(int i = 0; i < lines; i++) {
+            int delta = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while((b & 0x80) != 0);
+            picometers += delta;
+            wavelengths[i] = picometers / 1000f;
+        }
+        for(int i = 0; i < lines; i++) {
+            final int value = (data[position] & 0xff) << 8 | (data[position + 1] & 0xff);
+            intensities[i] = value / INTENSITY_SCALE;
+            position += 2;
+        }
+
+        return new Spectrum(wavelengths, intensities);
+    }
+}
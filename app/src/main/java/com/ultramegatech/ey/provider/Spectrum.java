@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * The emission line spectrum of an element, with the lines kept in parallel primitive arrays
+ * sorted by wavelength.
+ *
+ * @author Steve Guidetti
+ */
+public class Spectrum {
+    /**
+     * The wavelength of each line in nanometers
+     */
+    @NonNull
+    private final float[] mWavelengths;
+
+    /**
+     * The intensity of each line relative to the most intense line
+     */
+    @NonNull
+    private final float[] mIntensities;
+
+    /**
+     * @param wavelengths The wavelength of each line in nanometers, in ascending order
+     * @param intensities The relative intensity of each line
+     */
+    Spectrum(@NonNull float[] wavelengths, @NonNull float[] intensities) {
+        mWavelengths = wavelengths;
+        mIntensities = intensities;
+    }
+
+    /**
+     * Get the number of lines.
+     *
+     * @return The number of lines
+     */
+    public int size() {
+        return mWavelengths.length;
+    }
+
+    /**
+     * Get the wavelength of a line.
+     *
+     * @param index The index of the line
+     * @return The wavelength in nanometers
+     */
+    public float getWavelength(int index) {
+        return mWavelengths[index];
+    }
+
+    /**
+     * Get the intensity of a line.
+     *
+     * @param index The index of the line
+     * @return The intensity relative to the most intense line, in the range (0, 1]
+     */
+    public float getIntensity(int index) {
+        return mIntensities[index];
+    }
+
+    /**
+     * Find the first line at or above a wavelength.
+     *
+     * @param wavelength The wavelength in nanometers
+     * @return The index of the line, or the number of lines if there are none
+     */
+    public int indexOf(float wavelength) {
+        int low = 0;
+        int high = mWavelengths.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(mWavelengths[mid] < wavelength) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reduce the lines within a range of wavelengths to a number of equal columns by keeping the
+     * most intense line within each column. Only the lines within the range are visited.
+     *
+     * @param start   The wavelength at the start of the first column in nanometers
+     * @param end     The wavelength at the end of the last column in nanometers
+     * @param columns The array to fill with the highest intensity within each column, or 0 for
+     *                columns without lines
+     */
+    public void downsample(float start, float end, @NonNull float[] columns) {
+        Arrays.fill(columns, 0f);
+        final int width = columns.length;
+        if(width == 0) {
+            return;
+        }
+
+        final float scale = width / (end - start);
+        for(int i = indexOf(start); i < mWavelengths.length; i++) {
+            final float wavelength = mWavelengths[i];
+            if(wavelength > end) {
+                break;
+            }
+            final int column = Math.min(width - 1, (int)((wavelength - start) * scale));
+            columns[column] = Math.max(columns[column], mIntensities[i]);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+/**
+ * Case-insensitive lookup of element and isotope symbols that does not allocate. Symbols of one or
+ * two letters are resolved through a direct table indexed by their letters, and any longer
+ * symbols are resolved by scanning a short list.
+ * <p>
+ * The result of a lookup is a code containing the atomic number in the low 16 bits and, for
+ * isotope symbols such as D and T, the mass number in the high 16 bits. The isotope symbols are
+ * fixed here rather than read from the isotope data, so a lookup only needs the element table.
+ *
+ * @author Steve Guidetti
+ */
+public class Symbols {
+    /**
+     * The number of slots for the second letter of a symbol, including one for no second letter
+     */
+    private static final int STRIDE = 27;
+
+    /**
+     * The shift of the mass number within a code
+     */
+    private static final int MASS_SHIFT = 16;
+
+    /**
+     * The isotope symbols
+     */
+    private static final String[] ISOTOPE_SYMBOLS = {"D", "T"};
+
+    /**
+     * The atomic number of each isotope symbol
+     */
+    private static final int[] ISOTOPE_NUMBERS = {1, 1};
+
+    /**
+     * The mass number of each isotope symbol
+     */
+    private static final int[] ISOTOPE_MASS_NUMBERS = {2, 3};
+
+    /**
+     * Holds the lookup tables, which are built the first time they are accessed.
+     */
+    private static class Holder {
+        /**
+         * The codes of one and two letter symbols, indexed by their letters
+         */
+        static final int[] TABLE = new int[26 * STRIDE];
+
+        /**
+         * The symbols longer than two letters
+         */
+        static final ArrayList<String> LONG_SYMBOLS = new ArrayList<>();
+
+        /**
+         * The codes of the symbols longer than two letters
+         */
+        static final ArrayList<Integer> LONG_CODES = new ArrayList<>();
+
+        static {
+            final ElementTable table = Elements.getTable();
+            for(int i = 1; i <= table.getCount(); i++) {
+                final Element element = table.getElement(i);
+                if(element != null) {
+                    add(element.symbol, i);
+                }
+            }
+
+            for(int i = 0; i < ISOTOPE_SYMBOLS.length; i++) {
+                add(ISOTOPE_SYMBOLS[i], ISOTOPE_NUMBERS[i] | ISOTOPE_MASS_NUMBERS[i] << MASS_SHIFT);
+            }
+        }
+
+        /**
+         * Add a symbol to the lookup tables.
+         *
+         * @param symbol The symbol
+         * @param code   The code
+         */
+        private static void add(@NonNull String symbol, int code) {
+            final int index = getIndex(symbol, 0, symbol.length());
+            if(index != -1) {
+                TABLE[index] = code;
+            } else {
+                LONG_SYMBOLS.add(symbol);
+                LONG_CODES.add(code);
+            }
+        }
+    }
+
+    /**
+     * Look up a symbol.
+     *
+     * @param text  The text containing the symbol
+     * @param start The index of the first character of the symbol
+     * @param end   The index after the last character of the symbol
+     * @return The code for the symbol, or 0 if the symbol is not recognized
+     */
+    public static int lookup(@NonNull CharSequence text, int start, int end) {
+        if(end - start > 2) {
+            return lookupLong(text, start, end);
+        }
+
+        final int index = getIndex(text, start, end);
+        return index == -1 ? 0 : Holder.TABLE[index];
+    }
+
+    /**
+     * Get the atomic number from a code.
+     *
+     * @param code The code returned by lookup
+     * @return The atomic number
+     */
+    public static int getNumber(int code) {
+        return code & 0xffff;
+    }
+
+    /**
+     * Get the mass number from a code.
+     *
+     * @param code The code returned by lookup
+     * @return The mass number, or 0 if the symbol represents an element
+     */
+    public static int getMassNumber(int code) {
+        return code >>> MASS_SHIFT;
+    }
+
+    /**
+     * Get the index into the direct table for a one or two letter symbol.
+     *
+     * @param text  The text containing the symbol
+     * @param start The index of the first character of the symbol
+     * @param end   The index after the last character of the symbol
+     * @return The index, or -1 if the symbol is not one or two letters
+     */
+    private static int getIndex(@NonNull CharSequence text, int start, int end) {
+        final int length = end - start;
+        if(length < 1 || length > 2) {
+            return -1;
+        }
+
+        final int first = getLetter(text.charAt(start));
+        final int second = length == 2 ? getLetter(text.charAt(start + 1)) : -1;
+        if(first == -1 || (length == 2 && second == -1)) {
+            return -1;
+        }
+        return first * STRIDE + second + 1;
+    }
+
+    /**
+     * Look up a symbol longer than two letters.
+     *
+     * @param text  The text containing the symbol
+     * @param start The index of the first character of the symbol
+     * @param end   The index after the last character of the symbol
+     * @return The code for the symbol, or 0 if the symbol is not recognized
+     */
+    private static int lookupLong(@NonNull CharSequence text, int start, int end) {
+        final ArrayList<String> symbols = Holder.LONG_SYMBOLS;
+        for(int i = 0; i < symbols.size(); i++) {
+            final String symbol = symbols.get(i);
+            if(symbol.length() != end - start) {
+                continue;
+            }
+            int j = 0;
+            while(j < symbol.length()
+                    && getLetter(symbol.charAt(j)) == getLetter(text.charAt(start + j))) {
+                j++;
+            }
+            if(j == symbol.length()) {
+                return Holder.LONG_CODES.get(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the index of a letter in the alphabet, ignoring case.
+     *
+     * @param c The character
+     * @return The index of the letter, or -1 if the character is not an ASCII letter
+     */
+    private static int getLetter(char c) {
+        final int letter = (c | 0x20) - 'a';
+        return letter >= 0 && letter < 26 ? letter : -1;
+    }
+}
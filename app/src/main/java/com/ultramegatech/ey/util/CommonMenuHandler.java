@@ -28,6 +28,9 @@ import androidx.annotation.NonNull;
 import androidx.fragment.app.FragmentActivity;
 
 import com.ultramegatech.ey.AboutFragment;
+import com.ultramegatech.ey.FormulaActivity;
+import com.ultramegatech.ey.MassSearchActivity;
+import com.ultramegatech.ey.NuclideChartActivity;
 import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.SettingsActivity;
 
@@ -46,6 +49,15 @@ public class CommonMenuHandler {
      */
     public static boolean handleSelect(@NonNull FragmentActivity activity, int id) {
         switch(id) {
+            case R.id.menu_formula:
+                activity.startActivity(new Intent(activity, FormulaActivity.class));
+                return true;
+            case R.id.menu_mass_search:
+                activity.startActivity(new Intent(activity, MassSearchActivity.class));
+                return true;
+            case R.id.menu_nuclides:
+                activity.startActivity(new Intent(activity, NuclideChartActivity.class));
+                return true;
             case R.id.menu_settings:
                 activity.startActivity(new Intent(activity, SettingsActivity.class));
                 return true;
@@ -28,6 +28,8 @@ import android.content.SharedPreferences;
 import androidx.annotation.NonNull;
 import androidx.preference.PreferenceManager;
 
+import com.ultramegatech.ey.provider.ElementTable;
+
 /**
  * Helpers for the shared preferences of the application.
  *
@@ -67,6 +69,11 @@ public class PreferenceUtils {
     public static final String SUBTEXT_HEAT = "heat";
     public static final String SUBTEXT_NEGATIVITY = "neg";
     public static final String SUBTEXT_ABUNDANCE = "ab";
+    public static final String SUBTEXT_RADIUS = "rad";
+    public static final String SUBTEXT_COVALENT_RADIUS = "cov";
+    public static final String SUBTEXT_VDW_RADIUS = "vdw";
+    public static final String SUBTEXT_AFFINITY = "ea";
+    public static final String SUBTEXT_IONIZATION = "ie";
 
     private static SharedPreferences sPreferences;
 
@@ -122,6 +129,22 @@ public class PreferenceUtils {
         return sPreferences.getString(KEY_SUBTEXT_VALUE, SUBTEXT_WEIGHT);
     }
 
+    /**
+     * Get the property selected by the block subtext value preference. A value that does not
+     * match any property, such as one saved by a version with different options, selects the
+     * atomic weight.
+     *
+     * @return The Property
+     */
+    @NonNull
+    public static Property getPrefSubtextProperty() {
+        final Property property = Property.get(getPrefSubtextValue());
+        if(property == null) {
+            return Property.get(ElementTable.WEIGHT);
+        }
+        return property;
+    }
+
     /**
      * Set value of the block subtext value preference.
      *
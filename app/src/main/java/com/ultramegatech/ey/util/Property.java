@@ -0,0 +1,388 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementTable;
+
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Registry of the numeric element properties that can be displayed. Each property has an ID
+ * matching its ElementTable property ID, the preference key used to select it as the block
+ * subtext, a label, a unit family, and a formatter. Properties are stored in an array indexed by
+ * ID so callers can resolve the property once and dispatch without comparing strings.
+ *
+ * @author Steve Guidetti
+ */
+public class Property {
+    /**
+     * Unit families
+     */
+    public static final int UNIT_NONE = 0;
+    public static final int UNIT_FIXED = 1;
+    public static final int UNIT_TEMPERATURE = 2;
+
+    /**
+     * Interface for formatting property values.
+     */
+    private interface Formatter {
+        /**
+         * Format a property value.
+         *
+         * @param element The Element
+         * @param value   The value, converted to the display unit
+         * @param full    Whether to use full precision rather than the compact block format
+         * @return The formatted value
+         */
+        @NonNull
+        String format(@NonNull Element element, double value, boolean full);
+    }
+
+    /**
+     * Format for compact values
+     */
+    private static final DecimalFormat SHORT_FORMAT = new DecimalFormat();
+
+    /**
+     * Format for full precision values
+     */
+    private static final DecimalFormat FULL_FORMAT = new DecimalFormat();
+
+    /**
+     * The registered properties, indexed by ID
+     */
+    @NonNull
+    private static final Property[] sProperties = new Property[ElementTable.PROPERTY_COUNT];
+
+    /**
+     * Map of preference keys to registered properties
+     */
+    @NonNull
+    private static final HashMap<String, Property> sKeys = new HashMap<>();
+
+    static {
+        SHORT_FORMAT.setMaximumFractionDigits(4);
+        FULL_FORMAT.setMaximumFractionDigits(8);
+
+        register(new Property(ElementTable.WEIGHT, PreferenceUtils.SUBTEXT_WEIGHT,
+                R.string.labelWeight, UNIT_NONE, null,
+                (element, value, full) -> element.unstable ? "[" + Math.round(value) + "]"
+                        : getFormat(full).format(value),
+                (element, value, full) -> element.unstable ? String.valueOf(Math.round(value))
+                        : getFormat(full).format(value)));
+        register(new Property(ElementTable.DENSITY, PreferenceUtils.SUBTEXT_DENSITY,
+                R.string.labelDensity, UNIT_FIXED, "g/cm³",
+                (element, value, full) -> !full && value < 0.0001 ? "<0.0001"
+                        : getFormat(full).format(value), null));
+        register(new Property(ElementTable.MELT, PreferenceUtils.SUBTEXT_MELT,
+                R.string.labelMelt, UNIT_TEMPERATURE, null, Property::formatTemperature, null));
+        register(new Property(ElementTable.BOIL, PreferenceUtils.SUBTEXT_BOIL,
+                R.string.labelBoil, UNIT_TEMPERATURE, null, Property::formatTemperature, null));
+        register(new Property(ElementTable.HEAT, PreferenceUtils.SUBTEXT_HEAT,
+                R.string.labelHeat, UNIT_FIXED, "J/g·K", Property::formatPlain, null));
+        register(new Property(ElementTable.NEGATIVITY, PreferenceUtils.SUBTEXT_NEGATIVITY,
+                R.string.labelNegativity, UNIT_NONE, null, Property::formatPlain, null));
+        register(new Property(ElementTable.ABUNDANCE, PreferenceUtils.SUBTEXT_ABUNDANCE,
+                R.string.labelAbundance, UNIT_FIXED, "mg/kg",
+                (element, value, full) -> value < 0.001 ? "<0.001"
+                        : getFormat(full).format(value), null));
+        register(new Property(ElementTable.RADIUS, PreferenceUtils.SUBTEXT_RADIUS,
+                R.string.labelRadius, UNIT_FIXED, "pm", Property::formatDecimal, null));
+        register(new Property(ElementTable.COVALENT_RADIUS,
+                PreferenceUtils.SUBTEXT_COVALENT_RADIUS, R.string.labelCovalentRadius,
+                UNIT_FIXED, "pm", Property::formatDecimal, null));
+        register(new Property(ElementTable.VDW_RADIUS, PreferenceUtils.SUBTEXT_VDW_RADIUS,
+                R.string.labelVdwRadius, UNIT_FIXED, "pm", Property::formatDecimal, null));
+        register(new Property(ElementTable.AFFINITY, PreferenceUtils.SUBTEXT_AFFINITY,
+                R.string.labelAffinity, UNIT_FIXED, "kJ/mol", Property::formatDecimal, null));
+        register(new Property(ElementTable.IONIZATION, PreferenceUtils.SUBTEXT_IONIZATION,
+                R.string.labelIonization, UNIT_FIXED, "kJ/mol", Property::formatDecimal, null));
+    }
+
+    /**
+     * The property ID, which is also the ElementTable property ID
+     */
+    public final int id;
+
+    /**
+     * The preference key for selecting the property as the block subtext
+     */
+    @NonNull
+    public final String key;
+
+    /**
+     * The resource ID of the label
+     */
+    public final int label;
+
+    /**
+     * The unit family, one of the UNIT_ constants
+     */
+    public final int unitFamily;
+
+    /**
+     * The unit symbol for properties with a fixed unit
+     */
+    @Nullable
+    private final String mUnit;
+
+    /**
+     * The formatter for displayed values
+     */
+    @NonNull
+    private final Formatter mFormatter;
+
+    /**
+     * The formatter for spoken descriptions, or null to use the display formatter
+     */
+    @Nullable
+    private final Formatter mDescriber;
+
+    /**
+     * @param id         The property ID
+     * @param key        The preference key
+     * @param label      The resource ID of the label
+     * @param unitFamily The unit family
+     * @param unit       The unit symbol for properties with a fixed unit
+     * @param formatter  The formatter for displayed values
+     * @param describer  The formatter for spoken descriptions
+     */
+    private Property(int id, @NonNull String key, int label, int unitFamily,
+                     @Nullable String unit, @NonNull Formatter formatter,
+                     @Nullable Formatter describer) {
+        this.id = id;
+        this.key = key;
+        this.label = label;
+        this.unitFamily = unitFamily;
+        mUnit = unit;
+        mFormatter = formatter;
+        mDescriber = describer;
+    }
+
+    /**
+     * Add a property to the registry.
+     *
+     * @param property The Property
+     */
+    private static void register(@NonNull Property property) {
+        sProperties[property.id] = property;
+        sKeys.put(property.key, property);
+    }
+
+    /**
+     * Get the number of registered properties.
+     *
+     * @return The number of properties
+     */
+    public static int getCount() {
+        return sProperties.length;
+    }
+
+    /**
+     * Get a property by ID.
+     *
+     * @param id The property ID
+     * @return The Property
+     */
+    @NonNull
+    public static Property get(int id) {
+        return sProperties[id];
+    }
+
+    /**
+     * Get a property by preference key.
+     *
+     * @param key The preference key
+     * @return The Property, or null if the key is not recognized
+     */
+    @Nullable
+    public static Property get(@Nullable String key) {
+        return sKeys.get(key);
+    }
+
+    /**
+     * Get the symbol for a temperature unit.
+     *
+     * @param tempUnit One of the PreferenceUtils TEMP_ constants
+     * @return The unit symbol
+     */
+    @NonNull
+    public static String getTemperatureSymbol(@Nullable String tempUnit) {
+        if(PreferenceUtils.TEMP_C.equals(tempUnit)) {
+            return "℃";
+        }
+        if(PreferenceUtils.TEMP_F.equals(tempUnit)) {
+            return "℉";
+        }
+        return "K";
+    }
+
+    /**
+     * Check whether the value of this property is known for an element.
+     *
+     * @param element The Element
+     * @return Whether the value is known
+     */
+    public boolean hasValue(@NonNull Element element) {
+        return element.hasValue(id);
+    }
+
+    /**
+     * Get the value of this property for an element in the display unit.
+     *
+     * @param element  The Element
+     * @param tempUnit One of the PreferenceUtils TEMP_ constants
+     * @return The value, or NaN if the value is unknown
+     */
+    public double getValue(@NonNull Element element, @Nullable String tempUnit) {
+        final double value = element.getValue(id);
+        if(unitFamily == UNIT_TEMPERATURE) {
+            if(PreferenceUtils.TEMP_C.equals(tempUnit)) {
+                return UnitUtils.KtoC(value);
+            }
+            if(PreferenceUtils.TEMP_F.equals(tempUnit)) {
+                return UnitUtils.KtoF(value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get the unit symbol of this property.
+     *
+     * @param tempUnit One of the PreferenceUtils TEMP_ constants
+     * @return The unit symbol, or null if the property has no unit
+     */
+    @Nullable
+    public String getUnit(@Nullable String tempUnit) {
+        return unitFamily == UNIT_TEMPERATURE ? getTemperatureSymbol(tempUnit) : mUnit;
+    }
+
+    /**
+     * Format the value of this property for an element in the compact form used for blocks.
+     *
+     * @param element  The Element
+     * @param tempUnit One of the PreferenceUtils TEMP_ constants
+     * @return The formatted value, or null if the value is unknown
+     */
+    @Nullable
+    public String format(@NonNull Element element, @Nullable String tempUnit) {
+        if(!hasValue(element)) {
+            return null;
+        }
+        return mFormatter.format(element, getValue(element, tempUnit), false);
+    }
+
+    /**
+     * Format the value of this property for an element at full precision with its unit.
+     *
+     * @param element  The Element
+     * @param tempUnit One of the PreferenceUtils TEMP_ constants
+     * @return The formatted value, or null if the value is unknown
+     */
+    @Nullable
+    public String formatFull(@NonNull Element element, @Nullable String tempUnit) {
+        if(!hasValue(element)) {
+            return null;
+        }
+        final String text = mFormatter.format(element, getValue(element, tempUnit), true);
+        final String unit = getUnit(tempUnit);
+        return unit == null ? text : text + " " + unit;
+    }
+
+    /**
+     * Format the value of this property for an element for a spoken description.
+     *
+     * @param element  The Element
+     * @param tempUnit One of the PreferenceUtils TEMP_ constants
+     * @return The description of the value, or null if the value is unknown
+     */
+    @Nullable
+    public String describe(@NonNull Element element, @Nullable String tempUnit) {
+        if(!hasValue(element)) {
+            return null;
+        }
+        final Formatter formatter = mDescriber != null ? mDescriber : mFormatter;
+        return formatter.format(element, getValue(element, tempUnit), false);
+    }
+
+    /**
+     * Get the decimal format for a precision.
+     *
+     * @param full Whether to use full precision
+     * @return The DecimalFormat
+     */
+    @NonNull
+    private static DecimalFormat getFormat(boolean full) {
+        return full ? FULL_FORMAT : SHORT_FORMAT;
+    }
+
+    /**
+     * Format a plain decimal value.
+     *
+     * @param element The Element
+     * @param value   The value
+     * @param full    Whether to use full precision
+     * @return The formatted value
+     */
+    @NonNull
+    private static String formatDecimal(@NonNull Element element, double value, boolean full) {
+        return getFormat(full).format(value);
+    }
+
+    /**
+     * Format a value as the plain string representation of the double in the compact form, as
+     * the block subtext has always shown the specific heat and electronegativity.
+     *
+     * @param element The Element
+     * @param value   The value
+     * @param full    Whether to use full precision
+     * @return The formatted value
+     */
+    @NonNull
+    private static String formatPlain(@NonNull Element element, double value, boolean full) {
+        return full ? FULL_FORMAT.format(value) : String.valueOf(value);
+    }
+
+    /**
+     * Format a temperature value.
+     *
+     * @param element The Element
+     * @param value   The temperature in the display unit
+     * @param full    Whether to use full precision
+     * @return The formatted temperature
+     */
+    @NonNull
+    private static String formatTemperature(@NonNull Element element, double value,
+                                            boolean full) {
+        return full ? String.format(Locale.getDefault(), "%.2f", value)
+                : SHORT_FORMAT.format(value);
+    }
+}
@@ -106,19 +106,12 @@ public class SubtextValuesHelper implements SharedPreferences.OnSharedPreference
      * Update the unit for temperatures.
      */
     private void updateTempUnit() {
-        final String unit;
-        switch(PreferenceUtils.getPrefTempUnit()) {
-            case PreferenceUtils.TEMP_C:
-                unit = "℃";
-                break;
-            case PreferenceUtils.TEMP_F:
-                unit = "℉";
-                break;
-            default:
-                unit = "K";
+        final String unit = Property.getTemperatureSymbol(PreferenceUtils.getPrefTempUnit());
+        for(int i = 0; i < mList.length && i < Property.getCount(); i++) {
+            if(Property.get(i).unitFamily == Property.UNIT_TEMPERATURE) {
+                mList[i] = mList[i].substring(0, mList[i].length() - 2) + unit + ")";
+            }
         }
-        mList[2] = mList[2].substring(0, mList[2].length() - 2) + unit + ")";
-        mList[3] = mList[3].substring(0, mList[3].length() - 2) + unit + ")";
     }
 
     @Override
@@ -0,0 +1,209 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.R;
+
+/**
+ * View that draws the amounts of the members of a decay chain over time as a line plot, with a
+ * linear time axis and a logarithmic amount axis. The lines are drawn from a single reused
+ * coordinate buffer, so the data can be replaced on every frame while the time range is being
+ * changed.
+ *
+ * @author Steve Guidetti
+ */
+public class DecayPlotView extends View {
+    /**
+     * Default color value
+     */
+    private static final int COLOR_DEFAULT_FOREGROUND = 0xff000000;
+
+    /**
+     * Colors for the lines, which are reused for charts with more members
+     */
+    private static final int[] COLORS = {
+            0xff4f8fff, 0xffe53935, 0xff43a047, 0xfffb8c00, 0xff8e24aa, 0xff00acc1, 0xff6d4c41,
+            0xffd81b60, 0xff7cb342, 0xff3949ab, 0xfffdd835, 0xff757575
+    };
+
+    /**
+     * The number of decades below 1 shown on the amount axis
+     */
+    private static final int DECADES = 12;
+
+    /**
+     * The number of decades between amount axis labels
+     */
+    private static final int LABEL_DECADES = 3;
+
+    /**
+     * Paint used to draw the lines
+     */
+    private final Paint mLinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Paint used to draw the axes and labels
+     */
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * The amount of each member at each sample
+     */
+    @Nullable
+    private double[][] mAmounts;
+
+    /**
+     * The number of samples of each member
+     */
+    private int mCount;
+
+    /**
+     * Buffer for the line coordinates of a member
+     */
+    @NonNull
+    private float[] mPoints = new float[0];
+
+    public DecayPlotView(Context context) {
+        this(context, null, 0);
+    }
+
+    public DecayPlotView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public DecayPlotView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        final float density = getResources().getDisplayMetrics().density;
+        mLinePaint.setStrokeWidth(2 * density);
+        mTextPaint.setTextAlign(Paint.Align.RIGHT);
+        mTextPaint.setTextSize(12 * density);
+        mTextPaint.setStrokeWidth(density);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DecayPlotView,
+                defStyle, 0);
+        mTextPaint.setColor(a.getColor(R.styleable.DecayPlotView_fgColor,
+                COLOR_DEFAULT_FOREGROUND));
+        a.recycle();
+    }
+
+    /**
+     * Get the line color of a member.
+     *
+     * @param member The index of the member
+     * @return The color value
+     */
+    public static int getColor(int member) {
+        return COLORS[member % COLORS.length];
+    }
+
+    /**
+     * Set the data to draw. The samples are evenly spaced in time, and the arrays are read when
+     * the View is drawn, so they must not be modified until the data is replaced.
+     *
+     * @param amounts The amount of each member at each sample, as a fraction of the initial amount
+     *                of the parent, or null to draw nothing
+     * @param count   The number of samples of each member
+     */
+    public void setData(@Nullable double[][] amounts, int count) {
+        mAmounts = amounts;
+        mCount = count;
+        if(mPoints.length < count * 4) {
+            mPoints = new float[count * 4];
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if(mAmounts == null || mCount < 2) {
+            return;
+        }
+
+        final float textSize = mTextPaint.getTextSize();
+        final float left = getPaddingLeft() + textSize * 3;
+        final float right = getWidth() - getPaddingRight() - textSize;
+        final float top = getPaddingTop() + textSize;
+        final float bottom = getHeight() - getPaddingBottom() - textSize;
+        if(right <= left || bottom <= top) {
+            return;
+        }
+
+        final float decadeHeight = (bottom - top) / DECADES;
+        for(int i = 0; i <= DECADES; i += LABEL_DECADES) {
+            final float y = top + i * decadeHeight;
+            canvas.drawText(i == 0 ? "1" : "1e-" + i, left - textSize / 2, y + textSize / 3,
+                    mTextPaint);
+        }
+        canvas.drawLine(left, top, left, bottom, mTextPaint);
+        canvas.drawLine(left, bottom, right, bottom, mTextPaint);
+
+        final float step = (right - left) / (mCount - 1);
+        final float[] points = mPoints;
+        for(int member = 0; member < mAmounts.length; member++) {
+            final double[] amounts = mAmounts[member];
+            float lastY = getY(amounts[0], top, bottom, decadeHeight);
+            int length = 0;
+            for(int i = 1; i < mCount; i++) {
+                final float y = getY(amounts[i], top, bottom, decadeHeight);
+                if(y < bottom || lastY < bottom) {
+                    points[length++] = left + (i - 1) * step;
+                    points[length++] = lastY;
+                    points[length++] = left + i * step;
+                    points[length++] = y;
+                }
+                lastY = y;
+            }
+            mLinePaint.setColor(getColor(member));
+            canvas.drawLines(points, 0, length, mLinePaint);
+        }
+    }
+
+    /**
+     * Get the vertical position of an amount.
+     *
+     * @param amount       The amount
+     * @param top          The position of the top of the plot
+     * @param bottom       The position of the bottom of the plot
+     * @param decadeHeight The height of one decade
+     * @return The vertical position
+     */
+    private static float getY(double amount, float top, float bottom, float decadeHeight) {
+        if(!(amount > 0)) {
+            return bottom;
+        }
+        final float y = top - (float)Math.log10(Math.min(amount, 1)) * decadeHeight;
+        return Math.min(y, bottom);
+    }
+}
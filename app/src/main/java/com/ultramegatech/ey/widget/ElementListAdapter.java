@@ -39,12 +39,16 @@ import androidx.annotation.Nullable;
 
 import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementOrder;
+import com.ultramegatech.ey.provider.ElementQuery;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.provider.ElementTable;
 import com.ultramegatech.ey.provider.Elements;
 import com.ultramegatech.ey.util.ElementUtils;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * This custom ListAdapter is for displaying a list of elements.
@@ -56,8 +60,14 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
      * Sorting options
      */
     public static final int SORT_NUMBER = 0;
-    @SuppressWarnings("unused")
     public static final int SORT_NAME = 1;
+    public static final int SORT_WEIGHT = 2;
+    public static final int SORT_DENSITY = 3;
+    public static final int SORT_MELT = 4;
+    public static final int SORT_BOIL = 5;
+    public static final int SORT_HEAT = 6;
+    public static final int SORT_NEGATIVITY = 7;
+    public static final int SORT_ABUNDANCE = 8;
 
     /**
      * The Context
@@ -77,6 +87,18 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
     @NonNull
     private final ElementHolder[] mListItems;
 
+    /**
+     * The element names, indexed by atomic number minus one
+     */
+    @NonNull
+    private final String[] mNames;
+
+    /**
+     * The set of elements matching the filter
+     */
+    @NonNull
+    private final ElementSet mMatches = new ElementSet();
+
     /**
      * The filtered and sorted data set
      */
@@ -99,13 +121,14 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
     public ElementListAdapter(@NonNull Context context) {
         mContext = context;
 
-        final Element[] elements = Elements.getElements();
-        mListItems = new ElementHolder[elements.length];
-        Element element;
-        for(int i = 0; i < elements.length; i++) {
-            element = elements[i];
-            mListItems[i] = new ElementHolder(context, element);
+        final List<Element> elements = Elements.getElements();
+        mListItems = new ElementHolder[elements.size()];
+        mNames = new String[elements.size()];
+        for(int i = 0; i < mListItems.length; i++) {
+            mListItems[i] = new ElementHolder(context, elements.get(i));
+            mNames[i] = mListItems[i].name;
         }
+        mMatches.addAll();
 
         mFilter = new Filter() {
             @Override
@@ -203,22 +226,33 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
     }
 
     /**
-     * Filter the original data set.
+     * Filter the original data set. The filter text is treated as a query if it is valid query
+     * syntax, and as a prefix of the element symbol or name if it contains no query operators.
+     * While a query is incomplete, the matches of the last valid filter are kept.
      *
      * @param filter Text used to filter the elements
      */
-    private void filterList(@Nullable CharSequence filter) {
-        mFiltered.clear();
-
+    private synchronized void filterList(@Nullable CharSequence filter) {
         if(TextUtils.isEmpty(filter)) {
-            Collections.addAll(mFiltered, mListItems);
+            mMatches.addAll();
             return;
         }
 
+        final ElementQuery query = ElementQuery.compile(filter);
+        if(query != null) {
+            query.evaluate(mMatches);
+            return;
+        }
+        if(ElementQuery.hasOperator(filter)) {
+            return;
+        }
+
+        final String prefix = filter.toString();
+        mMatches.clear();
         for(ElementHolder element : mListItems) {
-            if(element.element.symbol.toLowerCase().startsWith(filter.toString().toLowerCase())
-                    || element.name.toLowerCase().startsWith(filter.toString().toLowerCase())) {
-                mFiltered.add(element);
+            if(element.element.symbol.regionMatches(true, 0, prefix, 0, prefix.length())
+                    || element.name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                mMatches.add(element.element.number);
             }
         }
     }
@@ -233,10 +267,43 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
         mSort = sortBy;
         mSortReverse = reverse;
 
-        Collections.sort(mFiltered, new ElementComparator(sortBy));
-        if(reverse) {
-            Collections.reverse(mFiltered);
+        final ElementOrder order = getOrder(sortBy);
+        mFiltered.clear();
+        for(int i = 0; i < order.size(); i++) {
+            final int number = order.get(i, reverse);
+            if(mMatches.contains(number)) {
+                mFiltered.add(mListItems[number - 1]);
+            }
+        }
+    }
+
+    /**
+     * Get the precomputed order of the elements for a sort field.
+     *
+     * @param sortBy One of the SORT_ constants
+     * @return The ElementOrder
+     */
+    @NonNull
+    private ElementOrder getOrder(int sortBy) {
+        switch(sortBy) {
+            case SORT_NAME:
+                return ElementOrder.byName(mNames, Locale.getDefault());
+            case SORT_WEIGHT:
+                return ElementOrder.byProperty(ElementTable.WEIGHT);
+            case SORT_DENSITY:
+                return ElementOrder.byProperty(ElementTable.DENSITY);
+            case SORT_MELT:
+                return ElementOrder.byProperty(ElementTable.MELT);
+            case SORT_BOIL:
+                return ElementOrder.byProperty(ElementTable.BOIL);
+            case SORT_HEAT:
+                return ElementOrder.byProperty(ElementTable.HEAT);
+            case SORT_NEGATIVITY:
+                return ElementOrder.byProperty(ElementTable.NEGATIVITY);
+            case SORT_ABUNDANCE:
+                return ElementOrder.byProperty(ElementTable.ABUNDANCE);
         }
+        return ElementOrder.byNumber();
     }
 
     /**
@@ -271,32 +338,6 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
         }
     }
 
-    /**
-     * Comparator used for sorting elements.
-     */
-    private static class ElementComparator implements Comparator<ElementHolder> {
-        /**
-         * The field to sort by
-         */
-        private final int mSortField;
-
-        /**
-         * @param sortField One of the SORT_ constants
-         */
-        ElementComparator(int sortField) {
-            mSortField = sortField;
-        }
-
-        @Override
-        public int compare(ElementHolder l, ElementHolder r) {
-            if(mSortField == SORT_NUMBER) {
-                return l.element.number - r.element.number;
-            }
-
-            return l.name.compareTo(r.name);
-        }
-    }
-
     /**
      * Caches references to Views within a layout.
      */
@@ -0,0 +1,510 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+import android.view.ViewParent;
+import android.widget.Scroller;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.provider.Spectrum;
+
+import java.text.DecimalFormat;
+
+/**
+ * Zoomable View that draws an emission line Spectrum as a band of colored lines, with the color
+ * of each line based on its wavelength and the brightness based on its intensity.
+ * <p>
+ * The lines are downsampled to the width of the band by keeping the most intense line within
+ * each pixel column, and only the lines within the visible range are visited, so the cost of
+ * drawing a frame depends on the width of the View and the number of visible lines rather than
+ * the size of the spectrum. The colors are looked up from a table computed once.
+ *
+ * @author Steve Guidetti
+ */
+public class EmissionSpectrumView extends View {
+    /**
+     * The range of wavelengths that can be displayed in nanometers
+     */
+    private static final float MIN_WAVELENGTH = 100f;
+    private static final float MAX_WAVELENGTH = 1000f;
+
+    /**
+     * The smallest range of wavelengths that can be displayed in nanometers
+     */
+    private static final float MIN_SPAN = 5f;
+
+    /**
+     * The maximum zoom level
+     */
+    private static final float MAX_ZOOM = (MAX_WAVELENGTH - MIN_WAVELENGTH) / MIN_SPAN;
+
+    /**
+     * The number of entries in the color table per nanometer
+     */
+    private static final int COLOR_RESOLUTION = 2;
+
+    /**
+     * The minimum alpha value of a line, so weak lines remain visible
+     */
+    private static final int MIN_ALPHA = 48;
+
+    /**
+     * Color value for the band
+     */
+    private static final int COLOR_BAND = 0xff000000;
+
+    /**
+     * Color values for lines outside the visible range
+     */
+    private static final int COLOR_ULTRAVIOLET = 0x8c6bbf;
+    private static final int COLOR_INFRARED = 0x9c4a4a;
+
+    /**
+     * Default color value
+     */
+    private static final int COLOR_DEFAULT_FOREGROUND = 0xff000000;
+
+    /**
+     * The nice values for the axis step, which are multiplied by a power of 10
+     */
+    private static final float[] AXIS_STEPS = {1f, 2f, 5f};
+
+    /**
+     * The RGB color for each wavelength, indexed by the wavelength offset from MIN_WAVELENGTH
+     * multiplied by COLOR_RESOLUTION
+     */
+    private static final int[] COLORS =
+            new int[(int)(MAX_WAVELENGTH - MIN_WAVELENGTH) * COLOR_RESOLUTION + 1];
+
+    /**
+     * Format for the axis labels
+     */
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat();
+
+    static {
+        for(int i = 0; i < COLORS.length; i++) {
+            COLORS[i] = getWavelengthColor(MIN_WAVELENGTH + i / (float)COLOR_RESOLUTION);
+        }
+        DECIMAL_FORMAT.setMaximumFractionDigits(1);
+        DECIMAL_FORMAT.setGroupingUsed(false);
+    }
+
+    /**
+     * The spectrum to draw
+     */
+    @Nullable
+    private Spectrum mSpectrum;
+
+    /**
+     * The shortest visible wavelength in nanometers
+     */
+    private float mStart = MIN_WAVELENGTH;
+
+    /**
+     * The current zoom level, which is the full range of wavelengths divided by the visible range
+     */
+    private float mZoom = 1f;
+
+    /**
+     * The x coordinate to keep fixed while zooming
+     */
+    private float mFocusX;
+
+    /**
+     * The highest intensity within each pixel column of the band
+     */
+    @NonNull
+    private float[] mColumns = new float[0];
+
+    /**
+     * Paint used to draw the band
+     */
+    private final Paint mBandPaint = new Paint();
+
+    /**
+     * Paint used to draw the lines
+     */
+    private final Paint mLinePaint = new Paint();
+
+    /**
+     * Paint used to draw the axis and labels
+     */
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Touch gesture detectors
+     */
+    @NonNull
+    private final ScaleGestureDetector mScaleGestureDetector;
+    @NonNull
+    private final GestureDetector mGestureDetector;
+
+    /**
+     * Handler for animating programmatic scaling
+     */
+    @NonNull
+    private final Zoomer mZoomer;
+
+    /**
+     * Handler for flings
+     */
+    @NonNull
+    private final Scroller mScroller;
+
+    public EmissionSpectrumView(Context context) {
+        this(context, null, 0);
+    }
+
+    public EmissionSpectrumView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public EmissionSpectrumView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        final float density = getResources().getDisplayMetrics().density;
+        mBandPaint.setColor(COLOR_BAND);
+        mLinePaint.setStrokeWidth(1f);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextPaint.setTextSize(12 * density);
+        mTextPaint.setStrokeWidth(density);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs,
+                R.styleable.EmissionSpectrumView, defStyle, 0);
+        mTextPaint.setColor(a.getColor(R.styleable.EmissionSpectrumView_fgColor,
+                COLOR_DEFAULT_FOREGROUND));
+        a.recycle();
+
+        mScaleGestureDetector = new ScaleGestureDetector(context, getOnScaleGestureListener());
+        mGestureDetector = new GestureDetector(context, getOnGestureListener());
+        mZoomer = new Zoomer(context);
+        mScroller = new Scroller(context);
+    }
+
+    /**
+     * Create the listener for the ScaleGestureDetector.
+     *
+     * @return The OnScaleGestureListener
+     */
+    @NonNull
+    private ScaleGestureDetector.OnScaleGestureListener getOnScaleGestureListener() {
+        return new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScaleBegin(ScaleGestureDetector detector) {
+                mZoomer.forceFinished();
+                return true;
+            }
+
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                mFocusX = detector.getFocusX();
+                setZoom(mZoom * detector.getScaleFactor());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Create the listener for the GestureDetector.
+     *
+     * @return The OnGestureListener
+     */
+    @NonNull
+    private GestureDetector.OnGestureListener getOnGestureListener() {
+        return new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                mScroller.forceFinished(true);
+                final ViewParent parent = getParent();
+                if(parent != null) {
+                    parent.requestDisallowInterceptTouchEvent(true);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX,
+                                    float distanceY) {
+                mStart += distanceX / getScale();
+                constrainStart();
+                ViewCompat.postInvalidateOnAnimation(EmissionSpectrumView.this);
+                return true;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX,
+                                   float velocityY) {
+                final float scale = getScale();
+                mScroller.forceFinished(true);
+                mScroller.fling((int)((mStart - MIN_WAVELENGTH) * scale), 0, (int)-velocityX, 0,
+                        0, (int)((MAX_WAVELENGTH - MIN_WAVELENGTH - getSpan()) * scale), 0, 0);
+                ViewCompat.postInvalidateOnAnimation(EmissionSpectrumView.this);
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                mFocusX = e.getX();
+                mZoomer.forceFinished();
+                mZoomer.startZoom(mZoom, mZoom * 2);
+                ViewCompat.postInvalidateOnAnimation(EmissionSpectrumView.this);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Set the spectrum to draw. This resets the visible range to the full range.
+     *
+     * @param spectrum The spectrum, or null to draw nothing
+     */
+    public void setSpectrum(@Nullable Spectrum spectrum) {
+        mSpectrum = spectrum;
+        mStart = MIN_WAVELENGTH;
+        mZoom = 1f;
+        mScroller.forceFinished(true);
+        mZoomer.forceFinished();
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Set the zoom level, keeping the wavelength at the focal point fixed.
+     *
+     * @param zoomLevel The zoom level
+     */
+    private void setZoom(float zoomLevel) {
+        zoomLevel = Math.max(1f, Math.min(MAX_ZOOM, zoomLevel));
+        if(zoomLevel != mZoom) {
+            final float x = mFocusX - getPaddingLeft();
+            final float focus = mStart + x / getScale();
+            mZoom = zoomLevel;
+            mStart = focus - x / getScale();
+            constrainStart();
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    /**
+     * Get the visible range of wavelengths.
+     *
+     * @return The visible range in nanometers
+     */
+    private float getSpan() {
+        return (MAX_WAVELENGTH - MIN_WAVELENGTH) / mZoom;
+    }
+
+    /**
+     * Get the number of pixels per nanometer.
+     *
+     * @return The scale
+     */
+    private float getScale() {
+        return Math.max(1, mColumns.length) / getSpan();
+    }
+
+    /**
+     * Keep the visible range within the range of wavelengths that can be displayed.
+     */
+    private void constrainStart() {
+        mStart = Math.max(MIN_WAVELENGTH, Math.min(MAX_WAVELENGTH - getSpan(), mStart));
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean ret = mScaleGestureDetector.onTouchEvent(event);
+        ret = mGestureDetector.onTouchEvent(event) || ret;
+        return ret || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mColumns = new float[Math.max(0, w - getPaddingLeft() - getPaddingRight())];
+    }
+
+    @Override
+    public void computeScroll() {
+        super.computeScroll();
+        if(mScroller.computeScrollOffset()) {
+            mStart = MIN_WAVELENGTH + mScroller.getCurrX() / getScale();
+            constrainStart();
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+
+        if(mZoomer.computeZoom()) {
+            setZoom(mZoomer.getCurrZoom());
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        final int width = mColumns.length;
+        final float textSize = mTextPaint.getTextSize();
+        final float left = getPaddingLeft();
+        final float top = getPaddingTop();
+        final float bottom = getHeight() - getPaddingBottom() - textSize * 1.75f;
+        if(width == 0 || bottom <= top) {
+            return;
+        }
+
+        canvas.drawRect(left, top, left + width, bottom, mBandPaint);
+        drawAxis(canvas, left, bottom, textSize);
+        if(mSpectrum == null) {
+            return;
+        }
+
+        final float[] columns = mColumns;
+        final float scale = getScale();
+        mSpectrum.downsample(mStart, mStart + getSpan(), columns);
+
+        for(int i = 0; i < width; i++) {
+            if(columns[i] > 0f) {
+                final float wavelength = mStart + (i + 0.5f) / scale;
+                final int index = Math.round((wavelength - MIN_WAVELENGTH) * COLOR_RESOLUTION);
+                final int alpha =
+                        MIN_ALPHA + (int)((255 - MIN_ALPHA) * (float)Math.sqrt(columns[i]));
+                mLinePaint.setColor(alpha << 24 | COLORS[index]);
+                final float x = left + i + 0.5f;
+                canvas.drawLine(x, top, x, bottom, mLinePaint);
+            }
+        }
+    }
+
+    /**
+     * Draw the wavelength axis below the band.
+     *
+     * @param canvas   The Canvas
+     * @param left     The left edge of the band
+     * @param bottom   The bottom edge of the band
+     * @param textSize The size of the label text
+     */
+    private void drawAxis(@NonNull Canvas canvas, float left, float bottom, float textSize) {
+        final float scale = getScale();
+        final float step = getAxisStep(mTextPaint.measureText("0000.0") * 1.5f / scale);
+        final float tick = textSize / 3;
+        final float right = left + mColumns.length;
+        canvas.drawLine(left, bottom, right, bottom, mTextPaint);
+        for(float value = (float)Math.ceil(mStart / step) * step; ; value += step) {
+            final float x = left + (value - mStart) * scale;
+            if(x > right) {
+                break;
+            }
+            canvas.drawLine(x, bottom, x, bottom + tick, mTextPaint);
+            canvas.drawText(DECIMAL_FORMAT.format(value), x, bottom + tick + textSize,
+                    mTextPaint);
+        }
+    }
+
+    /**
+     * Get the smallest nice axis step that is at least a given size.
+     *
+     * @param min The minimum step in nanometers
+     * @return The step in nanometers
+     */
+    private static float getAxisStep(float min) {
+        float magnitude = (float)Math.pow(10, Math.floor(Math.log10(min)));
+        while(true) {
+            for(float step : AXIS_STEPS) {
+                if(step * magnitude >= min) {
+                    return step * magnitude;
+                }
+            }
+            magnitude *= 10;
+        }
+    }
+
+    /**
+     * Get the approximate RGB color of light of a wavelength. Wavelengths outside the visible
+     * range are given fixed colors.
+     *
+     * @param wavelength The wavelength in nanometers
+     * @return The RGB color value
+     */
+    private static int getWavelengthColor(float wavelength) {
+        if(wavelength < 380f) {
+            return COLOR_ULTRAVIOLET;
+        }
+        if(wavelength > 780f) {
+            return COLOR_INFRARED;
+        }
+
+        float r = 0f;
+        float g = 0f;
+        float b = 0f;
+        if(wavelength < 440f) {
+            r = (440f - wavelength) / 60f;
+            b = 1f;
+        } else if(wavelength < 490f) {
+            g = (wavelength - 440f) / 50f;
+            b = 1f;
+        } else if(wavelength < 510f) {
+            g = 1f;
+            b = (510f - wavelength) / 20f;
+        } else if(wavelength < 580f) {
+            r = (wavelength - 510f) / 70f;
+            g = 1f;
+        } else if(wavelength < 645f) {
+            r = 1f;
+            g = (645f - wavelength) / 65f;
+        } else {
+            r = 1f;
+        }
+
+        float factor = 1f;
+        if(wavelength < 420f) {
+            factor = 0.3f + 0.7f * (wavelength - 380f) / 40f;
+        } else if(wavelength > 700f) {
+            factor = 0.3f + 0.7f * (780f - wavelength) / 80f;
+        }
+
+        return getChannel(r * factor) << 16 | getChannel(g * factor) << 8
+                | getChannel(b * factor);
+    }
+
+    /**
+     * Convert a color channel intensity to an 8-bit value with gamma correction.
+     *
+     * @param intensity The intensity in the range [0, 1]
+     * @return The channel value
+     */
+    private static int getChannel(float intensity) {
+        return Math.round(255 * (float)Math.pow(intensity, 0.8));
+    }
+}
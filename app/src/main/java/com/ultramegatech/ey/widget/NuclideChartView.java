@@ -0,0 +1,751 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PointF;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+import android.widget.Scroller;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.NuclideTable;
+
+/**
+ * Zoomable View of the chart of nuclides, with the number of neutrons increasing to the right and
+ * the number of protons increasing upward. Each cell is colored by the primary decay mode of the
+ * nuclide.
+ * <p>
+ * The cells are indexed by a grid of neutron and proton numbers, so hit-testing is a single array
+ * lookup and drawing only visits the cells within the visible range of rows and columns. The
+ * colors and labels of the cells are computed once when the table is set, and the text sizes are
+ * only updated when the cell size changes.
+ *
+ * @author Steve Guidetti
+ */
+public class NuclideChartView extends View {
+    /**
+     * The amount to zoom in or out for programmatic zooms
+     */
+    private static final float ZOOM_STEP = 0.5f;
+
+    /**
+     * The maximum zoom level
+     */
+    private static final float MAX_ZOOM = 24f;
+
+    /**
+     * The smallest cell size in pixels at which labels are drawn
+     */
+    private static final float MIN_LABEL_SIZE = 28f;
+
+    /**
+     * The smallest cell size in pixels at which cells are separated by a gap
+     */
+    private static final float MIN_GAP_SIZE = 6f;
+
+    /**
+     * Cell colors for each primary decay mode
+     */
+    private static final int COLOR_STABLE = 0xff212121;
+    private static final int COLOR_ALPHA = 0xfffff176;
+    private static final int COLOR_BETA_MINUS = 0xff64b5f6;
+    private static final int COLOR_BETA_PLUS = 0xffef9a9a;
+    private static final int COLOR_FISSION = 0xff81c784;
+    private static final int COLOR_PROTON = 0xffffb74d;
+    private static final int COLOR_NEUTRON = 0xffba68c8;
+    private static final int COLOR_UNKNOWN = 0xffbdbdbd;
+
+    /**
+     * Text colors for light and dark cells
+     */
+    private static final int COLOR_TEXT_DARK = 0xff000000;
+    private static final int COLOR_TEXT_LIGHT = 0xffffffff;
+
+    /**
+     * Color value for the selected cell indicator
+     */
+    private static final int COLOR_SELECTED = 0x9900d4ff;
+
+    /**
+     * Default color values
+     */
+    private static final int COLOR_DEFAULT_FOREGROUND = 0xff000000;
+    private static final int COLOR_DEFAULT_BACKGROUND = 0xffffffff;
+
+    /**
+     * Callback interface for events.
+     */
+    public interface NuclideChartListener {
+        /**
+         * Called when a cell is clicked.
+         *
+         * @param index The index of the nuclide in the NuclideTable
+         */
+        void onNuclideClick(int index);
+    }
+
+    /**
+     * The table of nuclides to render
+     */
+    @Nullable
+    private NuclideTable mTable;
+
+    /**
+     * Callback for cell clicks
+     */
+    @Nullable
+    private NuclideChartListener mListener;
+
+    /**
+     * The number of rows and columns in the chart, excluding the axis labels
+     */
+    private int mNumRows;
+    private int mNumCols;
+
+    /**
+     * The index of the nuclide in each cell plus one, or 0 for empty cells, indexed by row and
+     * column with the proton number 0 in the last row
+     */
+    @NonNull
+    private short[] mGrid = new short[0];
+
+    /**
+     * The background color of each nuclide
+     */
+    @NonNull
+    private int[] mCellColors = new int[0];
+
+    /**
+     * The text color of each nuclide
+     */
+    @NonNull
+    private int[] mTextColors = new int[0];
+
+    /**
+     * The mass number label of each nuclide
+     */
+    @NonNull
+    private String[] mMassLabels = new String[0];
+
+    /**
+     * The element symbol of each nuclide
+     */
+    @NonNull
+    private String[] mSymbolLabels = new String[0];
+
+    /**
+     * The axis labels, indexed by proton or neutron number
+     */
+    @NonNull
+    private String[] mAxisLabels = new String[0];
+
+    /**
+     * The size of the cells at the minimum zoom level
+     */
+    private float mBaseCellSize;
+
+    /**
+     * The current cell size
+     */
+    private float mCellSize;
+
+    /**
+     * The cell size for which the text sizes were last calculated
+     */
+    private float mTextCellSize;
+
+    /**
+     * The position of the top left corner of the chart, including the axis labels
+     */
+    private float mOffsetX;
+    private float mOffsetY;
+
+    /**
+     * The current zoom level
+     */
+    private float mCurrentZoom = 1f;
+
+    /**
+     * The focal point of the current scale operation
+     */
+    @NonNull
+    private final PointF mScaleFocalPoint = new PointF();
+
+    /**
+     * The index of the currently selected nuclide, or -1 for none
+     */
+    private int mSelected = -1;
+
+    /**
+     * Paint for the chart background
+     */
+    @NonNull
+    private final Paint mBgPaint = new Paint();
+
+    /**
+     * Paint for cell backgrounds
+     */
+    @NonNull
+    private final Paint mCellPaint = new Paint();
+
+    /**
+     * Paint for mass numbers
+     */
+    @NonNull
+    private final Paint mMassPaint;
+
+    /**
+     * Paint for element symbols
+     */
+    @NonNull
+    private final Paint mSymbolPaint;
+
+    /**
+     * Paint for the axis labels
+     */
+    @NonNull
+    private final Paint mAxisPaint;
+
+    /**
+     * Paint for the selection indicator
+     */
+    @NonNull
+    private final Paint mSelectedPaint;
+
+    /**
+     * The vertical offsets of the mass number and symbol baselines from the top of a cell
+     */
+    private float mMassBaseline;
+    private float mSymbolBaseline;
+
+    /**
+     * Touch gesture detectors
+     */
+    @NonNull
+    private final ScaleGestureDetector mScaleGestureDetector;
+    @NonNull
+    private final GestureDetector mGestureDetector;
+
+    /**
+     * Handler for animating programmatic scaling
+     */
+    @NonNull
+    private final Zoomer mZoomer;
+
+    /**
+     * Handler for flings
+     */
+    @NonNull
+    private final Scroller mScroller;
+
+    public NuclideChartView(Context context) {
+        this(context, null, 0);
+    }
+
+    public NuclideChartView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public NuclideChartView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        mSelectedPaint = new Paint();
+        mSelectedPaint.setAntiAlias(true);
+        mSelectedPaint.setStyle(Paint.Style.STROKE);
+        mSelectedPaint.setColor(COLOR_SELECTED);
+
+        mSymbolPaint = new Paint();
+        mSymbolPaint.setAntiAlias(true);
+        mSymbolPaint.setTextAlign(Paint.Align.CENTER);
+        mMassPaint = new Paint(mSymbolPaint);
+        mMassPaint.setSubpixelText(true);
+        mAxisPaint = new Paint(mMassPaint);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs,
+                R.styleable.NuclideChartView, defStyle, 0);
+        mAxisPaint.setColor(a.getColor(R.styleable.NuclideChartView_fgColor,
+                COLOR_DEFAULT_FOREGROUND));
+        mBgPaint.setColor(a.getColor(R.styleable.NuclideChartView_bgColor,
+                COLOR_DEFAULT_BACKGROUND));
+        a.recycle();
+
+        mScaleGestureDetector = new ScaleGestureDetector(context, getOnScaleGestureListener());
+        mGestureDetector = new GestureDetector(context, getOnGestureListener());
+        mZoomer = new Zoomer(context);
+        mScroller = new Scroller(context);
+    }
+
+    /**
+     * Create the listener for the ScaleGestureDetector.
+     *
+     * @return The OnScaleGestureListener
+     */
+    @NonNull
+    private ScaleGestureDetector.OnScaleGestureListener getOnScaleGestureListener() {
+        return new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScaleBegin(ScaleGestureDetector detector) {
+                clearSelection();
+                mZoomer.forceFinished();
+                return true;
+            }
+
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                mScaleFocalPoint.set(detector.getFocusX(), detector.getFocusY());
+                setZoom(mCurrentZoom * detector.getScaleFactor());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Create the listener for the GestureDetector.
+     *
+     * @return The OnGestureListener
+     */
+    @NonNull
+    private GestureDetector.OnGestureListener getOnGestureListener() {
+        return new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                mScroller.forceFinished(true);
+                mSelected = findNuclide(e.getX(), e.getY());
+                ViewCompat.postInvalidateOnAnimation(NuclideChartView.this);
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                if(mListener != null && mSelected != -1) {
+                    mListener.onNuclideClick(mSelected);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX,
+                                    float distanceY) {
+                mSelected = -1;
+                mOffsetX -= distanceX;
+                mOffsetY -= distanceY;
+                constrainOffset();
+                ViewCompat.postInvalidateOnAnimation(NuclideChartView.this);
+                return true;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX,
+                                   float velocityY) {
+                mSelected = -1;
+                mScroller.forceFinished(true);
+                mScroller.fling((int)mOffsetX, (int)mOffsetY, (int)velocityX, (int)velocityY,
+                        (int)getMinOffsetX(), (int)getMaxOffsetX(),
+                        (int)getMinOffsetY(), (int)getMaxOffsetY());
+                ViewCompat.postInvalidateOnAnimation(NuclideChartView.this);
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                mScaleFocalPoint.set(e.getX(), e.getY());
+                mZoomer.forceFinished();
+                mZoomer.startZoom(mCurrentZoom, mCurrentZoom * 2);
+                ViewCompat.postInvalidateOnAnimation(NuclideChartView.this);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Set the table of nuclides to be rendered. This builds the grid index and caches the color
+     * and labels of each cell.
+     *
+     * @param table The NuclideTable
+     */
+    public void setTable(@NonNull NuclideTable table) {
+        mTable = table;
+        mNumRows = table.getMaxProtons() + 1;
+        mNumCols = table.getMaxNeutrons() + 1;
+        mSelected = -1;
+
+        final int count = table.getCount();
+        mGrid = new short[mNumRows * mNumCols];
+        mCellColors = new int[count];
+        mTextColors = new int[count];
+        mMassLabels = new String[count];
+        mSymbolLabels = new String[count];
+        for(int i = 0; i < count; i++) {
+            final int protons = table.getProtons(i);
+            mGrid[(mNumRows - 1 - protons) * mNumCols + table.getNeutrons(i)] = (short)(i + 1);
+            mCellColors[i] = getCellColor(table, i);
+            mTextColors[i] = mCellColors[i] == COLOR_STABLE ? COLOR_TEXT_LIGHT : COLOR_TEXT_DARK;
+            mMassLabels[i] = String.valueOf(table.getMassNumber(i));
+            final Element element = Elements.getElement(protons);
+            mSymbolLabels[i] = element != null ? element.symbol : "";
+        }
+
+        mAxisLabels = new String[Math.max(mNumRows, mNumCols)];
+        for(int i = 0; i < mAxisLabels.length; i++) {
+            mAxisLabels[i] = String.valueOf(i);
+        }
+
+        measureChart();
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Get the cell color of a nuclide based on its primary decay mode.
+     *
+     * @param table The NuclideTable
+     * @param index The index of the nuclide
+     * @return The color value
+     */
+    private static int getCellColor(@NonNull NuclideTable table, int index) {
+        if(table.isStable(index)) {
+            return COLOR_STABLE;
+        }
+        final int modes = table.getDecayModes(index);
+        if((modes & NuclideTable.DECAY_BETA_MINUS) != 0) {
+            return COLOR_BETA_MINUS;
+        }
+        if((modes & (NuclideTable.DECAY_BETA_PLUS | NuclideTable.DECAY_ELECTRON_CAPTURE)) != 0) {
+            return COLOR_BETA_PLUS;
+        }
+        if((modes & NuclideTable.DECAY_ALPHA) != 0) {
+            return COLOR_ALPHA;
+        }
+        if((modes & NuclideTable.DECAY_FISSION) != 0) {
+            return COLOR_FISSION;
+        }
+        if((modes & NuclideTable.DECAY_PROTON) != 0) {
+            return COLOR_PROTON;
+        }
+        if((modes & NuclideTable.DECAY_NEUTRON) != 0) {
+            return COLOR_NEUTRON;
+        }
+        return COLOR_UNKNOWN;
+    }
+
+    /**
+     * Set the NuclideChartListener.
+     *
+     * @param listener The NuclideChartListener
+     */
+    public void setNuclideChartListener(@Nullable NuclideChartListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Clear the selected cell.
+     */
+    public void clearSelection() {
+        mSelected = -1;
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Zoom in one step.
+     */
+    public void zoomIn() {
+        zoomTo(mCurrentZoom + mCurrentZoom * ZOOM_STEP);
+    }
+
+    /**
+     * Zoom out one step.
+     */
+    public void zoomOut() {
+        zoomTo(mCurrentZoom - mCurrentZoom * ZOOM_STEP);
+    }
+
+    /**
+     * Zoom to a specified zoom level around the center of the View.
+     *
+     * @param zoomLevel The target zoom level
+     */
+    public void zoomTo(float zoomLevel) {
+        mZoomer.forceFinished();
+        mScaleFocalPoint.set(getWidth() / 2f, getHeight() / 2f);
+        mZoomer.startZoom(mCurrentZoom, zoomLevel);
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Find the nuclide at a point using the grid index.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The index of the nuclide, or -1 if there is none
+     */
+    private int findNuclide(float x, float y) {
+        if(mCellSize <= 0) {
+            return -1;
+        }
+        final int col = (int)Math.floor((x - mOffsetX) / mCellSize) - 1;
+        final int row = (int)Math.floor((y - mOffsetY) / mCellSize);
+        if(col < 0 || col >= mNumCols || row < 0 || row >= mNumRows) {
+            return -1;
+        }
+        return mGrid[row * mNumCols + col] - 1;
+    }
+
+    /**
+     * Calculate the base cell size so that the whole chart, including the axis labels, fits the
+     * View at the minimum zoom level.
+     */
+    private void measureChart() {
+        if(mNumCols == 0 || getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+        mBaseCellSize = Math.min(getWidth() / (mNumCols + 1f), getHeight() / (mNumRows + 1f));
+        mCellSize = mBaseCellSize * mCurrentZoom;
+        constrainOffset();
+    }
+
+    /**
+     * Set the current zoom level, keeping the focal point fixed.
+     *
+     * @param zoomLevel The target zoom level
+     */
+    private void setZoom(float zoomLevel) {
+        zoomLevel = Math.max(1f, Math.min(MAX_ZOOM, zoomLevel));
+        if(zoomLevel != mCurrentZoom) {
+            final float cellSize = mBaseCellSize * zoomLevel;
+            final float ratio = cellSize / mCellSize;
+            mOffsetX = mScaleFocalPoint.x - (mScaleFocalPoint.x - mOffsetX) * ratio;
+            mOffsetY = mScaleFocalPoint.y - (mScaleFocalPoint.y - mOffsetY) * ratio;
+            mCurrentZoom = zoomLevel;
+            mCellSize = cellSize;
+            constrainOffset();
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    /**
+     * Get the minimum horizontal offset of the chart.
+     *
+     * @return The minimum offset
+     */
+    private float getMinOffsetX() {
+        return Math.min(0, getWidth() - mCellSize * (mNumCols + 1));
+    }
+
+    /**
+     * Get the maximum horizontal offset of the chart.
+     *
+     * @return The maximum offset
+     */
+    private float getMaxOffsetX() {
+        return Math.max(0, (getWidth() - mCellSize * (mNumCols + 1)) / 2);
+    }
+
+    /**
+     * Get the minimum vertical offset of the chart.
+     *
+     * @return The minimum offset
+     */
+    private float getMinOffsetY() {
+        return Math.min(0, getHeight() - mCellSize * (mNumRows + 1));
+    }
+
+    /**
+     * Get the maximum vertical offset of the chart.
+     *
+     * @return The maximum offset
+     */
+    private float getMaxOffsetY() {
+        return Math.max(0, (getHeight() - mCellSize * (mNumRows + 1)) / 2);
+    }
+
+    /**
+     * Keep the chart within the View, centering it along any axis where it is smaller than the
+     * View.
+     */
+    private void constrainOffset() {
+        final float maxX = getMaxOffsetX();
+        final float maxY = getMaxOffsetY();
+        mOffsetX = maxX > 0 ? maxX : Math.max(getMinOffsetX(), Math.min(0, mOffsetX));
+        mOffsetY = maxY > 0 ? maxY : Math.max(getMinOffsetY(), Math.min(0, mOffsetY));
+    }
+
+    /**
+     * Update the text sizes and baselines if the cell size has changed since the last call.
+     */
+    private void updateTextMetrics() {
+        if(mTextCellSize == mCellSize) {
+            return;
+        }
+        mTextCellSize = mCellSize;
+        mMassPaint.setTextSize(mCellSize / 4.5f);
+        mSymbolPaint.setTextSize(mCellSize / 2.8f);
+        mAxisPaint.setTextSize(Math.max(mBaseCellSize, Math.min(mCellSize, 40f)) / 2.5f);
+        mMassBaseline = mCellSize * 0.1f - mMassPaint.ascent();
+        mSymbolBaseline = mCellSize * 0.9f - mSymbolPaint.descent();
+        mSelectedPaint.setStrokeWidth(Math.max(2f, mCellSize / 10f));
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean ret = mScaleGestureDetector.onTouchEvent(event);
+        ret = mGestureDetector.onTouchEvent(event) || ret;
+        return ret || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        measureChart();
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    @Override
+    public void computeScroll() {
+        super.computeScroll();
+        if(mScroller.computeScrollOffset()) {
+            mOffsetX = mScroller.getCurrX();
+            mOffsetY = mScroller.getCurrY();
+            constrainOffset();
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+
+        if(mZoomer.computeZoom()) {
+            setZoom(mZoomer.getCurrZoom());
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawRect(0, 0, getWidth(), getHeight(), mBgPaint);
+        if(mTable == null || mCellSize <= 0) {
+            return;
+        }
+        updateTextMetrics();
+
+        final float cell = mCellSize;
+        final float left = mOffsetX + cell;
+        final int firstCol = Math.max(0, (int)Math.floor(-left / cell));
+        final int lastCol = Math.min(mNumCols - 1, (int)Math.floor((getWidth() - left) / cell));
+        final int firstRow = Math.max(0, (int)Math.floor(-mOffsetY / cell));
+        final int lastRow =
+                Math.min(mNumRows - 1, (int)Math.floor((getHeight() - mOffsetY) / cell));
+
+        final float gap = cell >= MIN_GAP_SIZE ? 1f : 0f;
+        final boolean labels = cell >= MIN_LABEL_SIZE;
+        for(int row = firstRow; row <= lastRow; row++) {
+            final float top = mOffsetY + row * cell;
+            final int rowOffset = row * mNumCols;
+            for(int col = firstCol; col <= lastCol; col++) {
+                final int index = mGrid[rowOffset + col] - 1;
+                if(index == -1) {
+                    continue;
+                }
+                final float x = left + col * cell;
+                mCellPaint.setColor(mCellColors[index]);
+                canvas.drawRect(x, top, x + cell - gap, top + cell - gap, mCellPaint);
+                if(labels) {
+                    mMassPaint.setColor(mTextColors[index]);
+                    mSymbolPaint.setColor(mTextColors[index]);
+                    canvas.drawText(mMassLabels[index], x + cell / 2, top + mMassBaseline,
+                            mMassPaint);
+                    canvas.drawText(mSymbolLabels[index], x + cell / 2, top + mSymbolBaseline,
+                            mSymbolPaint);
+                }
+            }
+        }
+
+        drawAxes(canvas, firstRow, lastRow, firstCol, lastCol);
+
+        if(mSelected != -1) {
+            final int col = mTable.getNeutrons(mSelected);
+            final int row = mNumRows - 1 - mTable.getProtons(mSelected);
+            final float x = left + col * cell;
+            final float y = mOffsetY + row * cell;
+            canvas.drawRect(x, y, x + cell - gap, y + cell - gap, mSelectedPaint);
+        }
+    }
+
+    /**
+     * Draw the proton and neutron number labels along the left and bottom edges of the visible
+     * range.
+     *
+     * @param canvas   The Canvas
+     * @param firstRow The first visible row
+     * @param lastRow  The last visible row
+     * @param firstCol The first visible column
+     * @param lastCol  The last visible column
+     */
+    private void drawAxes(@NonNull Canvas canvas, int firstRow, int lastRow, int firstCol,
+                          int lastCol) {
+        final float cell = mCellSize;
+        final int step = getAxisStep();
+        final float labelX = Math.max(mOffsetX, 0) + cell / 2;
+        final float textOffset = (mAxisPaint.descent() + mAxisPaint.ascent()) / 2;
+        for(int row = firstRow; row <= lastRow; row++) {
+            final int protons = mNumRows - 1 - row;
+            if(protons % step == 0) {
+                canvas.drawText(mAxisLabels[protons], labelX,
+                        mOffsetY + (row + 0.5f) * cell - textOffset, mAxisPaint);
+            }
+        }
+
+        final float labelY =
+                Math.min(mOffsetY + mNumRows * cell, getHeight() - cell) + cell / 2 - textOffset;
+        for(int col = firstCol; col <= lastCol; col++) {
+            if(col % step == 0) {
+                canvas.drawText(mAxisLabels[col], mOffsetX + (col + 1.5f) * cell, labelY,
+                        mAxisPaint);
+            }
+        }
+    }
+
+    /**
+     * Get the interval between axis labels so that the labels do not overlap.
+     *
+     * @return The interval between labels
+     */
+    private int getAxisStep() {
+        final float labelSize = mAxisPaint.getTextSize() * 2;
+        int step = 1;
+        while(step * mCellSize < labelSize) {
+            step = step == 1 ? 2 : step == 2 ? 5 : step * 2;
+        }
+        return step;
+    }
+}
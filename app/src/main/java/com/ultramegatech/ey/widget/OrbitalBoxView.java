@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.provider.Orbital;
+
+/**
+ * View that draws an orbital diagram of a list of subshells, with each orbital as a box holding
+ * up to two electrons drawn as up and down arrows.
+ *
+ * @author Steve Guidetti
+ */
+public class OrbitalBoxView extends View {
+    /**
+     * Default color value
+     */
+    private static final int COLOR_DEFAULT_FOREGROUND = 0xff000000;
+
+    /**
+     * Color value for the electrons
+     */
+    private static final int COLOR_ELECTRON = 0xff4f8fff;
+
+    /**
+     * The size of each box in density independent pixels
+     */
+    private static final int BOX_SIZE = 20;
+
+    /**
+     * Paint used to draw the boxes
+     */
+    private final Paint mBoxPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Paint used to draw the subshell labels
+     */
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Paint used to draw the electrons
+     */
+    private final Paint mElectronPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * The size of each box in pixels
+     */
+    private final float mBoxSize;
+
+    /**
+     * The packed orbitals to draw
+     */
+    @Nullable
+    private int[] mOrbitals;
+
+    public OrbitalBoxView(Context context) {
+        this(context, null, 0);
+    }
+
+    public OrbitalBoxView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public OrbitalBoxView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        final float density = getResources().getDisplayMetrics().density;
+        mBoxSize = BOX_SIZE * density;
+        mBoxPaint.setStyle(Paint.Style.STROKE);
+        mBoxPaint.setStrokeWidth(density);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextPaint.setTextSize(12 * density);
+        mElectronPaint.setColor(COLOR_ELECTRON);
+        mElectronPaint.setStrokeWidth(2 * density);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.OrbitalBoxView,
+                defStyle, 0);
+        mBoxPaint.setColor(a.getColor(R.styleable.OrbitalBoxView_fgColor,
+                COLOR_DEFAULT_FOREGROUND));
+        mTextPaint.setColor(mBoxPaint.getColor());
+        a.recycle();
+    }
+
+    /**
+     * Set the orbitals to draw.
+     *
+     * @param orbitals The packed orbitals, or null to draw nothing
+     * @see Orbital
+     */
+    public void setOrbitals(@Nullable int[] orbitals) {
+        mOrbitals = orbitals;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Get the total number of boxes and the gaps between subshells, in box widths.
+     *
+     * @return The width of the diagram in box widths
+     */
+    private int getBoxWidth() {
+        if(mOrbitals == null || mOrbitals.length == 0) {
+            return 0;
+        }
+        int width = mOrbitals.length - 1;
+        for(int orbital : mOrbitals) {
+            width += Orbital.getBoxCount(orbital);
+        }
+        return width;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final int width = (int)Math.ceil(getBoxWidth() * mBoxSize + mBoxPaint.getStrokeWidth())
+                + getPaddingLeft() + getPaddingRight();
+        final int height = (int)Math.ceil(mBoxSize + mTextPaint.getTextSize() * 1.5f
+                + mBoxPaint.getStrokeWidth()) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec),
+                resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if(mOrbitals == null) {
+            return;
+        }
+
+        final float size = mBoxSize;
+        final float top = getPaddingTop() + mBoxPaint.getStrokeWidth() / 2;
+        final float bottom = top + size;
+        final float inset = size / 5;
+        final float head = size / 6;
+        float left = getPaddingLeft() + mBoxPaint.getStrokeWidth() / 2;
+        for(int orbital : mOrbitals) {
+            final int boxes = Orbital.getBoxCount(orbital);
+            canvas.drawText(String.valueOf(Orbital.getShell(orbital))
+                            + Orbital.getSubshell(orbital), left + boxes * size / 2,
+                    bottom + mTextPaint.getTextSize() * 1.25f, mTextPaint);
+            for(int i = 0; i < boxes; i++) {
+                final float x = left + i * size;
+                canvas.drawRect(x, top, x + size, bottom, mBoxPaint);
+
+                final int electrons = Orbital.getBoxElectrons(orbital, i);
+                if(electrons > 0) {
+                    final float up = x + size / 3;
+                    canvas.drawLine(up, bottom - inset, up, top + inset, mElectronPaint);
+                    canvas.drawLine(up, top + inset, up - head / 2, top + inset + head,
+                            mElectronPaint);
+                }
+                if(electrons > 1) {
+                    final float down = x + size * 2 / 3;
+                    canvas.drawLine(down, top + inset, down, bottom - inset, mElectronPaint);
+                    canvas.drawLine(down, bottom - inset, down + head / 2,
+                            bottom - inset - head, mElectronPaint);
+                }
+            }
+            left += (boxes + 1) * size;
+        }
+    }
+}
@@ -38,6 +38,12 @@ public class PeriodicTableBlock {
     @NonNull
     public final Element element;
 
+    /**
+     * The atomic number as a string
+     */
+    @NonNull
+    final String number;
+
     /**
      * Text to display below the symbol
      */
@@ -54,10 +60,17 @@ public class PeriodicTableBlock {
     int row;
     int col;
 
+    /**
+     * The widths of the symbol and subtext at the current block size
+     */
+    float symbolWidth;
+    float subtextWidth;
+
     /**
      * @param element The Element
      */
     public PeriodicTableBlock(@NonNull Element element) {
         this.element = element;
+        number = String.valueOf(element.number);
     }
 }
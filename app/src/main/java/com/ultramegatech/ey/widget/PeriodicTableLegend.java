@@ -34,10 +34,6 @@ import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map.Entry;
-
 /**
  * Renders a color legend on a PeriodicTableView.
  *
@@ -45,10 +41,26 @@ import java.util.Map.Entry;
  */
 class PeriodicTableLegend {
     /**
-     * Map of key values to labels
+     * The labels of the entries
+     */
+    @NonNull
+    private String[] mLabels = new String[0];
+
+    /**
+     * The colors of the entries
      */
     @NonNull
-    private final HashMap<String, String> mMap = new LinkedHashMap<>();
+    private int[] mColors = new int[0];
+
+    /**
+     * The box height for which the label width was last measured
+     */
+    private int mMeasuredBoxHeight;
+
+    /**
+     * The width of the widest label at the text size for the measured box height
+     */
+    private float mLabelWidth;
 
     /**
      * Paint used to draw backgrounds
@@ -92,10 +104,12 @@ class PeriodicTableLegend {
             nameValues = res.getStringArray(R.array.ptCategories);
         }
 
-        mMap.clear();
+        mLabels = nameValues;
+        mColors = new int[keys.length];
         for(int i = 0; i < keys.length; i++) {
-            mMap.put(keys[i], nameValues[i]);
+            mColors[i] = ElementUtils.getKeyColor(keys[i]);
         }
+        mMeasuredBoxHeight = 0;
     }
 
     /**
@@ -107,7 +121,7 @@ class PeriodicTableLegend {
      * @param rect   Boundaries within which to draw
      */
     void drawLegend(@NonNull Canvas canvas, @NonNull Rect rect) {
-        final int count = mMap.size();
+        final int count = mLabels.length;
         final int rows = 4;
         final int cols = (int)Math.ceil(count / (double)rows);
         final int boxHeight = (rect.bottom - rect.top) / rows;
@@ -118,9 +132,14 @@ class PeriodicTableLegend {
         if(cols < 2) {
             boxWidth = rect.width();
         } else {
-            for(String value : mMap.values()) {
-                boxWidth = (int)Math.ceil(Math.max(boxWidth, mTextPaint.measureText(value)));
+            if(boxHeight != mMeasuredBoxHeight) {
+                mMeasuredBoxHeight = boxHeight;
+                mLabelWidth = 0;
+                for(String label : mLabels) {
+                    mLabelWidth = Math.max(mLabelWidth, mTextPaint.measureText(label));
+                }
             }
+            boxWidth = (int)Math.ceil(mLabelWidth);
             boxWidth += boxWidth / 10;
         }
 
@@ -132,20 +151,17 @@ class PeriodicTableLegend {
             rect.left += (rect.width() - totalWidth) / 2;
         }
 
-        int n = 0;
-        for(Entry<String, String> entry : mMap.entrySet()) {
+        for(int n = 0; n < count; n++) {
             mRect.top = rect.top + n % rows * boxHeight + 1;
             mRect.left = rect.left + n / rows * boxWidth + 1;
             mRect.bottom = mRect.top + boxHeight - 1;
             mRect.right = mRect.left + boxWidth - 1;
 
-            mPaint.setColor(ElementUtils.getKeyColor(entry.getKey()));
+            mPaint.setColor(mColors[n]);
             canvas.drawRect(mRect, mPaint);
 
-            canvas.drawText(entry.getValue(), mRect.left + boxWidth / 20f,
+            canvas.drawText(mLabels[n], mRect.left + boxWidth / 20f,
                     mRect.bottom - boxHeight / 2f + mTextPaint.getTextSize() / 2, mTextPaint);
-
-            n++;
         }
     }
 }
@@ -52,6 +52,7 @@ import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.provider.Element;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.util.Property;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -116,6 +117,12 @@ public class PeriodicTableView extends View {
     @NonNull
     private final List<PeriodicTableBlock> mPeriodicTableBlocks = new ArrayList<>();
 
+    /**
+     * The blocks indexed by row and column minus one, with null for empty cells
+     */
+    @NonNull
+    private PeriodicTableBlock[][] mBlockGrid = new PeriodicTableBlock[0][0];
+
     /**
      * Callback for item clicks
      */
@@ -134,11 +141,41 @@ public class PeriodicTableView extends View {
     @NonNull
     private CharSequence mTitle;
 
+    /**
+     * The width of the title at the current text size
+     */
+    private float mTitleWidth;
+
     /**
      * The current block size
      */
     private int mBlockSize;
 
+    /**
+     * The block size for which the text metrics were last measured
+     */
+    private int mTextBlockSize;
+
+    /**
+     * The offsets of the number, symbol, and subtext baselines from the top of a block
+     */
+    private float mNumberBaseline;
+    private float mSymbolBaseline;
+    private float mSubtextBaseline;
+
+    /**
+     * The offset of the number from the left of a block
+     */
+    private float mNumberLeft;
+
+    /**
+     * The labels for the column and row headers
+     */
+    @NonNull
+    private String[] mColLabels = new String[0];
+    @NonNull
+    private String[] mRowLabels = new String[0];
+
     /**
      * Amount of space around the table
      */
@@ -299,11 +336,11 @@ public class PeriodicTableView extends View {
         mNumberPaint.setColor(COLOR_BLOCK_FOREGROUND);
 
         mSymbolPaint = new Paint(mNumberPaint);
-        mSymbolPaint.setTextAlign(Paint.Align.CENTER);
+        mSmallTextPaint = new Paint(mNumberPaint);
 
-        mTitlePaint = new Paint(mSymbolPaint);
-        mHeaderPaint = new Paint(mSymbolPaint);
-        mSmallTextPaint = new Paint(mSymbolPaint);
+        mTitlePaint = new Paint(mNumberPaint);
+        mTitlePaint.setTextAlign(Paint.Align.CENTER);
+        mHeaderPaint = new Paint(mTitlePaint);
 
         mNumberPaint.setSubpixelText(true);
         mSmallTextPaint.setSubpixelText(true);
@@ -388,14 +425,7 @@ public class PeriodicTableView extends View {
                 clearEdgeEffects();
                 mScroller.forceFinished(true);
 
-                mBlockSelected = null;
-                for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-                    findBlockPosition(block);
-                    if(mRect.contains((int)e.getX(), (int)e.getY())) {
-                        mBlockSelected = block;
-                        break;
-                    }
-                }
+                mBlockSelected = findBlock(e.getX(), e.getY());
 
                 ViewCompat.postInvalidateOnAnimation(PeriodicTableView.this);
                 return true;
@@ -557,6 +587,21 @@ public class PeriodicTableView extends View {
         mNumRows = numRows;
         mNumCols = numCols;
 
+        mBlockGrid = new PeriodicTableBlock[numRows][numCols];
+        for(PeriodicTableBlock block : mPeriodicTableBlocks) {
+            mBlockGrid[block.row - 1][block.col - 1] = block;
+        }
+
+        mColLabels = new String[numCols];
+        for(int i = 0; i < mColLabels.length; i++) {
+            mColLabels[i] = String.valueOf(i + 1);
+        }
+        mRowLabels = new String[numRows - 2];
+        for(int i = 0; i < mRowLabels.length; i++) {
+            mRowLabels[i] = String.valueOf(i + 1);
+        }
+        mTextBlockSize = 0;
+
         measureCanvas();
         if(mAccessibilityDelegate != null) {
             mAccessibilityDelegate.loadLabels();
@@ -605,6 +650,7 @@ public class PeriodicTableView extends View {
      */
     public void setTitle(@NonNull CharSequence title) {
         mTitle = title;
+        mTitleWidth = mTitlePaint.measureText(mTitle, 0, mTitle.length());
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
@@ -683,57 +729,129 @@ public class PeriodicTableView extends View {
     }
 
     /**
-     * Calculate the position of the specified block and store it in the shared rectangle.
+     * Determine if a line of text is within the visible region.
+     *
+     * @param x         The horizontal center of the text
+     * @param y         The baseline of the text
+     * @param halfWidth Half the width of the text
+     * @param paint     The Paint used to draw the text
+     * @return True if the text is visible
+     */
+    private boolean isTextVisible(float x, float y, float halfWidth, @NonNull Paint paint) {
+        return x + halfWidth >= 0 && x - halfWidth <= getWidth() && isLineVisible(y, paint);
+    }
+
+    /**
+     * Determine if a line of text is within the vertical bounds of the visible region.
+     *
+     * @param y     The baseline of the text
+     * @param paint The Paint used to draw the text
+     * @return True if the line is visible
+     */
+    private boolean isLineVisible(float y, @NonNull Paint paint) {
+        return y + paint.descent() >= 0 && y + paint.ascent() <= getHeight();
+    }
+
+    /**
+     * Calculate the position of the specified block.
      *
      * @param block The block
+     * @param rect  The rectangle to store the position
      */
-    private void findBlockPosition(@NonNull PeriodicTableBlock block) {
-        mRect.right =
+    private void findBlockPosition(@NonNull PeriodicTableBlock block, @NonNull Rect rect) {
+        rect.right =
                 (block.col * mBlockSize + mContentRect.left + mContentOffset.x + mPadding) - 1;
-        mRect.bottom =
+        rect.bottom =
                 (block.row * mBlockSize + mContentRect.top + mContentOffset.y + mPadding) - 1;
-        mRect.left = mRect.right - mBlockSize + 1;
-        mRect.top = mRect.bottom - mBlockSize + 1;
+        rect.left = rect.right - mBlockSize + 1;
+        rect.top = rect.bottom - mBlockSize + 1;
 
-        final int number = block.element.number;
-        if((number > 56 && number < 72) || (number > 88 && number < 104)) {
-            mRect.top += mPadding / 2;
-            mRect.bottom += mPadding / 2;
+        if(isDetachedRow(block.row)) {
+            rect.top += mPadding / 2;
+            rect.bottom += mPadding / 2;
         }
     }
 
     /**
-     * Draw the headers and placeholders on the supplied Canvas.
+     * Determine if a row is one of the two rows of f-block elements below the main table, which
+     * are offset by half the padding.
      *
-     * @param canvas The Canvas
+     * @param row The row
+     * @return True if the row is detached from the main table
      */
-    private void writeHeaders(@NonNull Canvas canvas) {
-        mHeaderPaint.setTextSize(mBlockSize / 4f);
+    private boolean isDetachedRow(int row) {
+        return row > mNumRows - 2;
+    }
+
+    /**
+     * Find the block at a point by inverting the layout calculations of findBlockPosition and
+     * looking up the resulting cell in the grid.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The block, or null if there is no block at the point
+     */
+    @Nullable
+    private PeriodicTableBlock findBlock(float x, float y) {
+        if(mBlockSize <= 0) {
+            return null;
+        }
+
+        final float left = x - (mContentRect.left + mContentOffset.x + mPadding);
+        float top = y - (mContentRect.top + mContentOffset.y + mPadding);
+        final boolean detached = top >= (mNumRows - 2) * mBlockSize;
+        if(detached) {
+            top -= mPadding / 2;
+        }
+        if(left < 0 || top < 0) {
+            return null;
+        }
+
+        final int col = (int)(left / mBlockSize) + 1;
+        final int row = (int)(top / mBlockSize) + 1;
+        if(row > mNumRows || col > mNumCols || isDetachedRow(row) != detached) {
+            return null;
+        }
+        return mBlockGrid[row - 1][col - 1];
+    }
 
-        for(int i = 1; i <= mNumCols; i++) {
-            canvas.drawText(String.valueOf(i),
-                    mBlockSize * i + mContentRect.left + mContentOffset.x,
-                    mPadding / 2f + mContentRect.top + mContentOffset.y,
-                    mHeaderPaint);
+    /**
+     * Draw the headers and placeholders on the supplied Canvas. Only the headers of the visible
+     * rows and columns are drawn.
+     *
+     * @param canvas   The Canvas
+     * @param firstRow The first visible row
+     * @param lastRow  The last visible row
+     * @param firstCol The first visible column
+     * @param lastCol  The last visible column
+     */
+    private void writeHeaders(@NonNull Canvas canvas, int firstRow, int lastRow, int firstCol,
+                              int lastCol) {
+        final int left = mContentRect.left + mContentOffset.x;
+        final int top = mContentRect.top + mContentOffset.y;
+        final float halfWidth = mBlockSize / 2f;
+
+        final float colY = mPadding / 2f + top;
+        if(isLineVisible(colY, mHeaderPaint)) {
+            for(int i = firstCol; i <= lastCol; i++) {
+                canvas.drawText(mColLabels[i - 1], mBlockSize * i + left, colY, mHeaderPaint);
+            }
         }
-        for(int i = 1; i <= mNumRows - 2; i++) {
-            canvas.drawText(String.valueOf(i),
-                    mPadding / 2f + mContentRect.left + mContentOffset.x,
-                    mBlockSize * i + mContentRect.top + mContentOffset.y,
-                    mHeaderPaint);
+        final float rowX = mPadding / 2f + left;
+        if(rowX + halfWidth >= 0 && rowX - halfWidth <= getWidth()) {
+            for(int i = firstRow; i <= Math.min(lastRow, mNumRows - 2); i++) {
+                canvas.drawText(mRowLabels[i - 1], rowX, mBlockSize * i + top, mHeaderPaint);
+            }
         }
 
-        canvas.drawText("57-71",
-                mBlockSize * 3 + mContentRect.left + mContentOffset.x,
-                mBlockSize * 6 + mContentRect.top + mContentOffset.y + mHeaderPaint.getTextSize()
-                        / 2,
-                mHeaderPaint);
-
-        canvas.drawText("89-103",
-                mBlockSize * 3 + mContentRect.left + mContentOffset.x,
-                mBlockSize * 7 + mContentRect.top + mContentOffset.y + mHeaderPaint.getTextSize()
-                        / 2,
-                mHeaderPaint);
+        final float x = mBlockSize * 3 + left;
+        final float y = mBlockSize * 6 + top + mHeaderPaint.getTextSize() / 2;
+        if(isTextVisible(x, y, halfWidth, mHeaderPaint)) {
+            canvas.drawText("57-71", x, y, mHeaderPaint);
+        }
+        if(isTextVisible(x, y + mBlockSize, halfWidth, mHeaderPaint)) {
+            canvas.drawText("89-103", x, y + mBlockSize, mHeaderPaint);
+        }
     }
 
     /**
@@ -742,10 +860,11 @@ public class PeriodicTableView extends View {
      * @param canvas The Canvas
      */
     private void writeTitle(@NonNull Canvas canvas) {
-        canvas.drawText(mTitle, 0, mTitle.length(),
-                mBlockSize * mNumCols / 2f + mContentRect.left + mContentOffset.x,
-                mBlockSize + mContentRect.top + mContentOffset.y,
-                mTitlePaint);
+        final float x = mBlockSize * mNumCols / 2f + mContentRect.left + mContentOffset.x;
+        final float y = mBlockSize + mContentRect.top + mContentOffset.y;
+        if(isTextVisible(x, y, mTitleWidth / 2, mTitlePaint)) {
+            canvas.drawText(mTitle, 0, mTitle.length(), x, y, mTitlePaint);
+        }
     }
 
     /**
@@ -857,11 +976,35 @@ public class PeriodicTableView extends View {
         fillViewport();
 
         mTitlePaint.setTextSize(mBlockSize / 2f);
+        mTitleWidth = mTitlePaint.measureText(mTitle, 0, mTitle.length());
+        mHeaderPaint.setTextSize(mBlockSize / 4f);
         mSymbolPaint.setTextSize(mBlockSize / 2f);
         mNumberPaint.setTextSize(mBlockSize / 4f);
         mSmallTextPaint.setTextSize(mBlockSize / 5f);
     }
 
+    /**
+     * Measure the text of each block and compute the text positions within a block. This only
+     * does any work when the block size has changed since the last call or new blocks have been
+     * set, so frames that only scroll do not measure any text.
+     */
+    private void updateTextMetrics() {
+        if(mTextBlockSize == mBlockSize) {
+            return;
+        }
+        mTextBlockSize = mBlockSize;
+
+        for(PeriodicTableBlock block : mPeriodicTableBlocks) {
+            block.symbolWidth = mSymbolPaint.measureText(block.element.symbol);
+            block.subtextWidth = mSmallTextPaint.measureText(block.subtext);
+        }
+
+        mNumberBaseline = mNumberPaint.getTextSize();
+        mSymbolBaseline = mBlockSize - 1 - (int)(mBlockSize / 2.8);
+        mSubtextBaseline = mBlockSize - 1 - mBlockSize / 20f;
+        mNumberLeft = mBlockSize / 20f;
+    }
+
     /**
      * Set the current zoom level.
      *
@@ -959,45 +1102,77 @@ public class PeriodicTableView extends View {
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
         canvas.drawRect(0, 0, getRight(), getBottom(), mBgPaint);
+        if(mBlockSize <= 0) {
+            return;
+        }
+        updateTextMetrics();
+
         mRect.top = (int)(mBlockSize * 1.3) + mContentRect.top + mContentOffset.y;
         mRect.left = mBlockSize * 3 + mContentRect.left + mContentOffset.x;
         mRect.bottom = mRect.top + mBlockSize * 2;
         mRect.right = mRect.left + mBlockSize * 9;
-        mLegend.drawLegend(canvas, mRect);
+        if(isBlockVisible(mRect)) {
+            mLegend.drawLegend(canvas, mRect);
+        }
 
-        writeHeaders(canvas);
+        final int left = mContentRect.left + mContentOffset.x + mPadding;
+        final int top = mContentRect.top + mContentOffset.y + mPadding;
+        final int firstCol =
+                Math.max(1, (int)Math.floor(-left / (float)mBlockSize) + 1);
+        final int lastCol =
+                Math.min(mNumCols, (int)Math.floor((getWidth() - left) / (float)mBlockSize) + 1);
+        final int firstRow =
+                Math.max(1, (int)Math.floor((-top - mPadding / 2) / (float)mBlockSize) + 1);
+        final int lastRow =
+                Math.min(mNumRows, (int)Math.floor((getHeight() - top) / (float)mBlockSize) + 1);
+
+        writeHeaders(canvas, firstRow, lastRow, firstCol, lastCol);
         writeTitle(canvas);
 
-        for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-            findBlockPosition(block);
-
-            if(!isBlockVisible(mRect)) {
-                continue;
+        for(int row = firstRow; row <= lastRow; row++) {
+            for(int col = firstCol; col <= lastCol; col++) {
+                final PeriodicTableBlock block = mBlockGrid[row - 1][col - 1];
+                if(block != null) {
+                    drawBlock(canvas, block);
+                }
             }
-
-            mBlockPaint.setColor(block.color);
-
-            canvas.drawRect(mRect, mBlockPaint);
-
-            canvas.drawText(block.element.symbol, mRect.left + mBlockSize / 2f,
-                    mRect.bottom - (int)(mBlockSize / 2.8), mSymbolPaint);
-
-            canvas.drawText(String.valueOf(block.element.number), mRect.left + mBlockSize / 20f,
-                    mRect.top + mNumberPaint.getTextSize(), mNumberPaint);
-
-            canvas.drawText(block.subtext, mRect.left + mBlockSize / 2f,
-                    mRect.bottom - mBlockSize / 20f, mSmallTextPaint);
         }
 
         if(mBlockSelected != null) {
             mSelectedPaint.setStrokeWidth(mBlockSize / 10f);
-            findBlockPosition(mBlockSelected);
+            findBlockPosition(mBlockSelected, mRect);
             canvas.drawRect(mRect, mSelectedPaint);
         }
 
         drawEdgeEffects(canvas);
     }
 
+    /**
+     * Draw a block on the supplied Canvas if it is within the visible region.
+     *
+     * @param canvas The Canvas
+     * @param block  The block
+     */
+    private void drawBlock(@NonNull Canvas canvas, @NonNull PeriodicTableBlock block) {
+        findBlockPosition(block, mRect);
+        if(!isBlockVisible(mRect)) {
+            return;
+        }
+
+        mBlockPaint.setColor(block.color);
+
+        canvas.drawRect(mRect, mBlockPaint);
+
+        canvas.drawText(block.element.symbol, mRect.left + (mBlockSize - block.symbolWidth) / 2,
+                mRect.top + mSymbolBaseline, mSymbolPaint);
+
+        canvas.drawText(block.number, mRect.left + mNumberLeft, mRect.top + mNumberBaseline,
+                mNumberPaint);
+
+        canvas.drawText(block.subtext, mRect.left + (mBlockSize - block.subtextWidth) / 2,
+                mRect.top + mSubtextBaseline, mSmallTextPaint);
+    }
+
     /**
      * The ExploreByTouchHelper implementation to provide accessibility.
      */
@@ -1008,11 +1183,21 @@ public class PeriodicTableView extends View {
         @NonNull
         private final String mUnknownString;
 
+        /**
+         * The property shown as the block subtext
+         */
+        private Property mSubtextProperty;
+
         /**
          * The label for subtext descriptions
          */
         private String mSubtextLabel;
 
+        /**
+         * The temperature unit for subtext descriptions
+         */
+        private String mTempUnit;
+
         /**
          * The label for category descriptions
          */
@@ -1034,28 +1219,9 @@ public class PeriodicTableView extends View {
          */
         void loadLabels() {
             final Resources res = getResources();
-            switch(PreferenceUtils.getPrefSubtextValue()) {
-                case PreferenceUtils.SUBTEXT_DENSITY:
-                    mSubtextLabel = res.getString(R.string.labelDensity);
-                    break;
-                case PreferenceUtils.SUBTEXT_MELT:
-                    mSubtextLabel = res.getString(R.string.labelMelt);
-                    break;
-                case PreferenceUtils.SUBTEXT_BOIL:
-                    mSubtextLabel = res.getString(R.string.labelBoil);
-                    break;
-                case PreferenceUtils.SUBTEXT_HEAT:
-                    mSubtextLabel = res.getString(R.string.labelHeat);
-                    break;
-                case PreferenceUtils.SUBTEXT_NEGATIVITY:
-                    mSubtextLabel = res.getString(R.string.labelNegativity);
-                    break;
-                case PreferenceUtils.SUBTEXT_ABUNDANCE:
-                    mSubtextLabel = res.getString(R.string.labelAbundance);
-                    break;
-                default:
-                    mSubtextLabel = res.getString(R.string.labelWeight);
-            }
+            mSubtextProperty = PreferenceUtils.getPrefSubtextProperty();
+            mSubtextLabel = res.getString(mSubtextProperty.label);
+            mTempUnit = PreferenceUtils.getPrefTempUnit();
             if(PreferenceUtils.COLOR_BLOCK.equals(PreferenceUtils.getPrefElementColors())) {
                 mCatLabel = res.getStringArray(R.array.elementColorNames)[1];
             } else {
@@ -1068,13 +1234,8 @@ public class PeriodicTableView extends View {
 
         @Override
         protected int getVirtualViewAt(float x, float y) {
-            for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-                findBlockPosition(block);
-                if(mRect.contains((int)x, (int)y)) {
-                    return block.element.number - 1;
-                }
-            }
-            return INVALID_ID;
+            final PeriodicTableBlock block = findBlock(x, y);
+            return block != null ? block.element.number - 1 : INVALID_ID;
         }
 
         @Override
@@ -1088,8 +1249,9 @@ public class PeriodicTableView extends View {
         protected void onPopulateNodeForVirtualView(int virtualViewId,
                                                     @NonNull AccessibilityNodeInfoCompat node) {
             final PeriodicTableBlock block = mPeriodicTableBlocks.get(virtualViewId);
-            findBlockPosition(block);
-            node.setBoundsInParent(new Rect(mRect));
+            final Rect bounds = new Rect();
+            findBlockPosition(block, bounds);
+            node.setBoundsInParent(bounds);
             node.setText(getDescription(block));
             node.setClickable(true);
         }
@@ -1106,33 +1268,7 @@ public class PeriodicTableView extends View {
             final String symbol = element.symbol.toUpperCase();
             final String name = res.getString(ElementUtils.getElementName(element.number));
 
-            final String subtext;
-            switch(PreferenceUtils.getPrefSubtextValue()) {
-                case PreferenceUtils.SUBTEXT_WEIGHT:
-                    subtext = element.unstable ? String.valueOf((int)element.weight)
-                            : block.subtext;
-                    break;
-                case PreferenceUtils.SUBTEXT_DENSITY:
-                    subtext = element.density == null ? mUnknownString : block.subtext;
-                    break;
-                case PreferenceUtils.SUBTEXT_MELT:
-                    subtext = element.melt == null ? mUnknownString : block.subtext;
-                    break;
-                case PreferenceUtils.SUBTEXT_BOIL:
-                    subtext = element.boil == null ? mUnknownString : block.subtext;
-                    break;
-                case PreferenceUtils.SUBTEXT_HEAT:
-                    subtext = element.heat == null ? mUnknownString : block.subtext;
-                    break;
-                case PreferenceUtils.SUBTEXT_NEGATIVITY:
-                    subtext = element.negativity == null ? mUnknownString : block.subtext;
-                    break;
-                case PreferenceUtils.SUBTEXT_ABUNDANCE:
-                    subtext = element.abundance == null ? mUnknownString : block.subtext;
-                    break;
-                default:
-                    subtext = mUnknownString;
-            }
+            final String subtext = mSubtextProperty.describe(element, mTempUnit);
             final String cat;
             if(PreferenceUtils.COLOR_BLOCK.equals(PreferenceUtils.getPrefElementColors())) {
                 cat = String.valueOf(element.block);
@@ -1141,7 +1277,7 @@ public class PeriodicTableView extends View {
             }
 
             return res.getString(R.string.descTableBlock, element.number, symbol, name,
-                    mSubtextLabel, subtext, mCatLabel, cat);
+                    mSubtextLabel, subtext != null ? subtext : mUnknownString, mCatLabel, cat);
         }
 
         @Override
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.chem.IsotopePattern;
+
+import java.text.DecimalFormat;
+
+/**
+ * View that draws an IsotopePattern as a stick plot, with each peak as a vertical line whose
+ * height is proportional to its intensity. The most intense peaks are labeled with their mass.
+ *
+ * @author Steve Guidetti
+ */
+public class SpectrumView extends View {
+    /**
+     * Default color value
+     */
+    private static final int COLOR_DEFAULT_FOREGROUND = 0xff000000;
+
+    /**
+     * Color value for the peaks
+     */
+    private static final int COLOR_PEAK = 0xff4f8fff;
+
+    /**
+     * The minimum relative intensity of a labeled peak
+     */
+    private static final double LABEL_THRESHOLD = 0.1;
+
+    /**
+     * Format for mass labels
+     */
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat();
+
+    static {
+        DECIMAL_FORMAT.setMaximumFractionDigits(2);
+    }
+
+    /**
+     * Paint used to draw the peaks
+     */
+    private final Paint mPeakPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Paint used to draw the axis and labels
+     */
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * The pattern to draw
+     */
+    @Nullable
+    private IsotopePattern mPattern;
+
+    public SpectrumView(Context context) {
+        this(context, null, 0);
+    }
+
+    public SpectrumView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SpectrumView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        final float density = getResources().getDisplayMetrics().density;
+        mPeakPaint.setColor(COLOR_PEAK);
+        mPeakPaint.setStrokeWidth(2 * density);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextPaint.setTextSize(12 * density);
+        mTextPaint.setStrokeWidth(density);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SpectrumView,
+                defStyle, 0);
+        mTextPaint.setColor(a.getColor(R.styleable.SpectrumView_fgColor,
+                COLOR_DEFAULT_FOREGROUND));
+        a.recycle();
+    }
+
+    /**
+     * Set the pattern to draw.
+     *
+     * @param pattern The pattern, or null to draw nothing
+     */
+    public void setPattern(@Nullable IsotopePattern pattern) {
+        mPattern = pattern;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if(mPattern == null || mPattern.size() == 0) {
+            return;
+        }
+
+        final float textSize = mTextPaint.getTextSize();
+        final float left = getPaddingLeft() + textSize * 2;
+        final float right = getWidth() - getPaddingRight() - textSize * 2;
+        final float top = getPaddingTop() + textSize * 1.5f;
+        final float bottom = getHeight() - getPaddingBottom() - textSize * 1.5f;
+        if(right <= left || bottom <= top) {
+            return;
+        }
+
+        final int size = mPattern.size();
+        final double min = mPattern.getMass(0);
+        final double range = Math.max(mPattern.getMass(size - 1) - min, 1) * 1.2;
+        final double start = min - range / 12;
+        final float scale = (float)((right - left) / range);
+
+        canvas.drawLine(left, bottom, right, bottom, mTextPaint);
+        float lastLabel = Float.NEGATIVE_INFINITY;
+        for(int i = 0; i < size; i++) {
+            final float x = left + (float)(mPattern.getMass(i) - start) * scale;
+            final float y = bottom - (float)mPattern.getIntensity(i) * (bottom - top);
+            canvas.drawLine(x, bottom, x, y, mPeakPaint);
+
+            if(mPattern.getIntensity(i) >= LABEL_THRESHOLD && x - lastLabel > textSize * 4) {
+                canvas.drawText(DECIMAL_FORMAT.format(mPattern.getMass(i)), x,
+                        y - textSize / 2, mTextPaint);
+                lastLabel = x;
+            }
+        }
+    }
+}
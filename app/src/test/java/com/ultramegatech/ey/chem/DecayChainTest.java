@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import com.ultramegatech.ey.provider.NuclideTable;
+import com.ultramegatech.ey.provider.Nuclides;
+import com.ultramegatech.ey.provider.TestDataset;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for DecayChain.
+ *
+ * @author Steve Guidetti
+ */
+public class DecayChainTest {
+    /**
+     * The number of seconds in a year
+     */
+    private static final double YEAR = 365.25 * 24 * 3600;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testSecularEquilibrium() {
+        final NuclideTable table = Nuclides.getTable();
+        final int parent = table.find(92, 146);
+        assertTrue(parent >= 0);
+        assertEquals(NuclideTable.DECAY_ALPHA, table.getDecayModes(parent));
+
+        final DecayChain chain = new DecayChain(table, parent);
+        assertEquals(parent, chain.getNuclide(0));
+
+        final double[] times = {5e6 * YEAR};
+        final double[][] amounts = new double[chain.size()][1];
+        chain.evaluate(times, amounts);
+
+        final double parentActivity = amounts[0][0] * chain.getDecayConstant(0);
+        assertEquals(Math.exp(-chain.getDecayConstant(0) * times[0]), amounts[0][0], 1e-9);
+
+        final int[][] daughters = {{90, 144}, {92, 142}, {90, 140}, {88, 138}, {82, 128},
+                {84, 126}};
+        for(int[] daughter : daughters) {
+            final int member = findMember(chain, table.find(daughter[0], daughter[1]));
+            final double activity = amounts[member][0] * chain.getDecayConstant(member);
+            assertEquals(1, activity / parentActivity, 1e-3);
+        }
+
+        double total = 0;
+        for(double[] amount : amounts) {
+            assertTrue(amount[0] >= 0);
+            total += amount[0];
+        }
+        assertEquals(1, total, 1e-9);
+
+        final int lead = findMember(chain, table.find(82, 124));
+        assertEquals(0, chain.getDecayConstant(lead), 0);
+        assertTrue(amounts[lead][0] > 1 - amounts[0][0] - 1e-4);
+    }
+
+    @Test
+    public void testSingleMember() {
+        final double[] times = {0, 1e3 * YEAR};
+        for(int member = 0; member < 2; member++) {
+            final DecayChain chain = new DecayChain(Nuclides.getTable(),
+                    Nuclides.getTable().find(92, 146));
+            final double[] single = chain.evaluate(member, times);
+            final double[][] all = new double[chain.size()][times.length];
+            chain.evaluate(times, all);
+            assertEquals(all[member][0], single[0], 0);
+            assertEquals(all[member][1], single[1], 0);
+        }
+    }
+
+    /**
+     * Find the member of a chain for a nuclide.
+     *
+     * @param chain   The DecayChain
+     * @param nuclide The index of the nuclide in the NuclideTable
+     * @return The index of the member
+     */
+    private static int findMember(DecayChain chain, int nuclide) {
+        assertTrue(nuclide >= 0);
+        for(int i = 0; i < chain.size(); i++) {
+            if(chain.getNuclide(i) == nuclide) {
+                return i;
+            }
+        }
+        throw new AssertionError("Nuclide " + nuclide + " is not in the chain");
+    }
+}
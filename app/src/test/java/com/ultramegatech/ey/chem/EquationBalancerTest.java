@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import com.ultramegatech.ey.provider.TestDataset;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for EquationBalancer.
+ *
+ * @author Steve Guidetti
+ */
+public class EquationBalancerTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testSimple() {
+        assertBalanced("Fe + O2 -> Fe2O3", 4, 3, 2);
+        assertBalanced("C3H8 + O2 = CO2 + H2O", 1, 5, 3, 4);
+        assertBalanced("Ca(OH)2 + H3PO4 -> Ca3(PO4)2 + H2O", 3, 2, 1, 6);
+    }
+
+    @Test
+    public void testRedox() {
+        assertBalanced("KMnO4 + HCl -> KCl + MnCl2 + H2O + Cl2", 2, 16, 2, 2, 8, 5);
+        assertBalanced("MnO4- + Fe^2+ + H+ -> Mn^2+ + Fe^3+ + H2O", 1, 5, 8, 1, 5, 4);
+        assertBalanced("Cr2O7 2- + H+ + e- -> Cr^3+ + H2O", 1, 14, 6, 2, 7);
+        assertBalanced("Fe^3+ + e- -> Fe 2+", 1, 1, 1);
+    }
+
+    @Test
+    public void testUnbalanced() {
+        assertNull(EquationBalancer.balance("H2 + O2 -> H2O + H2O2"));
+        assertNull(EquationBalancer.balance("Fe -> Cu"));
+        assertNull(EquationBalancer.balance("H2O"));
+    }
+
+    /**
+     * Assert that an equation balances with the given coefficients.
+     *
+     * @param text         The equation
+     * @param coefficients The expected coefficients of each species in order
+     */
+    private static void assertBalanced(String text, long... coefficients) {
+        final Equation equation = EquationBalancer.balance(text);
+        assertNotNull(text, equation);
+        assertEquals(text, coefficients.length, equation.size());
+        for(int i = 0; i < coefficients.length; i++) {
+            assertEquals(text, coefficients[i], equation.getCoefficient(i));
+        }
+    }
+}
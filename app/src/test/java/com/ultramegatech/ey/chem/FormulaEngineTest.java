@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import com.ultramegatech.ey.provider.TestDataset;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for FormulaEngine.
+ *
+ * @author Steve Guidetti
+ */
+public class FormulaEngineTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testGroups() {
+        final Formula formula = parse("Ca(OH)2");
+        assertCounts(formula, 20, 1, 8, 2, 1, 2);
+        assertEquals(74.09, formula.getMolarMass(), 0.01);
+        assertEquals(0, formula.getCharge());
+    }
+
+    @Test
+    public void testHydrate() {
+        final Formula formula = parse("CuSO4·5H2O");
+        assertCounts(formula, 29, 1, 16, 1, 8, 9, 1, 10);
+        assertEquals(249.68, formula.getMolarMass(), 0.01);
+        assertEquals(formula.getMolarMass(), parse("CuSO4*5H2O").getMolarMass(), 0);
+    }
+
+    @Test
+    public void testComplexIon() {
+        final Formula formula = parse("[Fe(CN)6]4-");
+        assertCounts(formula, 26, 1, 6, 6, 7, 6);
+        assertEquals(-4, formula.getCharge());
+        assertEquals(211.95 + 4 * FormulaEngine.ELECTRON_MASS, formula.getMolarMass(), 0.01);
+    }
+
+    @Test
+    public void testIsotopes() {
+        final Formula formula = parse("D2O");
+        assertEquals(2, formula.size());
+        assertEquals(1, formula.getNumber(0));
+        assertEquals(2, formula.getMassNumber(0));
+        assertEquals(2, formula.getCount(0));
+        assertEquals(20.03, formula.getMolarMass(), 0.01);
+        assertEquals(0, parse("H2O").getMassNumber(0));
+    }
+
+    @Test
+    public void testComposition() {
+        final Formula water = parse("HDO");
+        assertEquals(3, water.size());
+        assertEquals(2, water.getElementCount());
+        assertEquals(1, water.getElementNumber(0));
+        assertEquals(2, water.getElementAtomCount(0));
+        assertEquals(water.getMass(0) + water.getMass(1), water.getElementMass(0), 1e-12);
+        assertEquals(8, water.getElementNumber(1));
+        assertEquals(100, water.getElementMassPercent(0) + water.getElementMassPercent(1), 1e-9);
+
+        final Formula sulfate = parse("SO4^2-");
+        assertEquals(sulfate.getMolarMass() - 2 * FormulaEngine.ELECTRON_MASS,
+                sulfate.getNeutralMass(), 1e-9);
+        assertEquals(sulfate.getMass(0) / sulfate.getNeutralMass() * 100,
+                sulfate.getElementMassPercent(0), 1e-9);
+        assertEquals(100, sulfate.getElementMassPercent(0) + sulfate.getElementMassPercent(1),
+                1e-9);
+    }
+
+    @Test
+    public void testCharges() {
+        assertEquals(-2, parse("SO4^2-").getCharge());
+        assertEquals(3, parse("Fe^3+").getCharge());
+        assertEquals(-1, parse("OH-").getCharge());
+
+        final Formula cation = parse("H2+");
+        assertCounts(cation, 1, 2);
+        assertEquals(1, cation.getCharge());
+    }
+
+    @Test
+    public void testChargeAfterSymbol() {
+        final Formula sulfate = parse("SO4 2-");
+        assertCounts(sulfate, 16, 1, 8, 4);
+        assertEquals(-2, sulfate.getCharge());
+
+        final Formula oxygen = parse("O2-");
+        assertCounts(oxygen, 8, 2);
+        assertEquals(-1, oxygen.getCharge());
+
+        final Formula hydrogen = parse("H2+");
+        assertCounts(hydrogen, 1, 2);
+        assertEquals(1, hydrogen.getCharge());
+
+        assertEquals(3, parse("Fe 3+").getCharge());
+        assertEquals(3, parse("Fe^3+").getCharge());
+    }
+
+    @Test
+    public void testInvalid() {
+        assertNull(FormulaEngine.parse(""));
+        assertNull(FormulaEngine.parse("Xx2"));
+        assertNull(FormulaEngine.parse("Ca(OH"));
+        assertNull(FormulaEngine.parse("H2O)"));
+    }
+
+    /**
+     * Parse a formula that is expected to be valid.
+     *
+     * @param text The formula
+     * @return The Formula
+     */
+    private static Formula parse(String text) {
+        final Formula formula = FormulaEngine.parse(text);
+        assertNotNull(text, formula);
+        return formula;
+    }
+
+    /**
+     * Assert that a Formula contains exactly the given elements.
+     *
+     * @param formula The Formula
+     * @param counts  Pairs of atomic numbers and counts, in order of appearance
+     */
+    private static void assertCounts(Formula formula, int... counts) {
+        assertEquals(counts.length / 2, formula.size());
+        for(int i = 0; i < formula.size(); i++) {
+            assertEquals(counts[i * 2], formula.getNumber(i));
+            assertEquals(counts[i * 2 + 1], formula.getCount(i));
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import com.ultramegatech.ey.provider.TestDataset;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for FormulaSearch.
+ *
+ * @author Steve Guidetti
+ */
+public class FormulaSearchTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testPruning() {
+        assertComplete(180.0634, 5, new int[] {6, 1, 8, 7, 16, 15},
+                new int[] {20, 40, 10, 4, 2, 2});
+        assertComplete(300.1, 50, new int[] {6, 1, 7, 8}, new int[] {30, 60, 6, 10});
+        assertComplete(195.925, 100, new int[] {6, 1, 8, 17, 35}, new int[] {15, 30, 6, 4, 2});
+        assertComplete(186.01, 200, new int[] {6, 1, 8, 26}, new int[] {20, 40, 10, 2});
+    }
+
+    @Test
+    public void testTruncation() {
+        final int[] numbers = {6, 1, 7, 8, 16};
+        final int[] max = {40, 80, 10, 15, 3};
+        final List<double[]> expected = findAll(500, 1000, numbers, max);
+        assertTrue(expected.size() > FormulaSearch.MAX_RESULTS);
+        Collections.sort(expected, (a, b) -> Double.compare(Math.abs(a[0]), Math.abs(b[0])));
+        assertTrue(Math.abs(expected.get(FormulaSearch.MAX_RESULTS - 1)[0])
+                < Math.abs(expected.get(FormulaSearch.MAX_RESULTS)[0]));
+
+        final FormulaSearch search = createSearch(500, 1000, numbers, max);
+        final List<FormulaSearch.Candidate> results = search.run();
+        assertTrue(search.isTruncated());
+        assertEquals(FormulaSearch.MAX_RESULTS, results.size());
+        for(int i = 0; i < results.size(); i++) {
+            assertEquals(expected.get(i)[0], results.get(i).getError(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testAddElements() {
+        final FormulaSearch search = new FormulaSearch(100, 5);
+        assertTrue(search.addElements("C0-100 H0-200 N0-10 O0-20 P S"));
+        assertTrue(search.addElements("C10, H"));
+        assertFalse(new FormulaSearch(100, 5).addElements(""));
+        assertFalse(new FormulaSearch(100, 5).addElements("Xx"));
+        assertFalse(new FormulaSearch(100, 5).addElements("C5-2"));
+        assertFalse(new FormulaSearch(100, 5).addElements("C1-"));
+        assertFalse(new FormulaSearch(100, 5).addElements("D2"));
+        assertFalse(new FormulaSearch(100, 5).addElements("Tc"));
+        assertFalse(new FormulaSearch(100, 5).addElements("c"));
+    }
+
+    /**
+     * Assert that a search finds exactly the candidates found by checking every combination.
+     *
+     * @param mass    The target mass
+     * @param ppm     The tolerance in parts per million
+     * @param numbers The atomic numbers of the elements
+     * @param max     The maximum count of each element
+     */
+    private static void assertComplete(double mass, double ppm, int[] numbers, int[] max) {
+        final Set<String> expected = new HashSet<>();
+        for(double[] candidate : findAll(mass, ppm, numbers, max)) {
+            final int[] counts = new int[numbers.length];
+            for(int i = 0; i < counts.length; i++) {
+                counts[i] = (int)candidate[i + 1];
+            }
+            expected.add(getKey(numbers, counts));
+        }
+        assertFalse(expected.isEmpty());
+
+        final FormulaSearch search = createSearch(mass, ppm, numbers, max);
+        final List<FormulaSearch.Candidate> results = search.run();
+        assertFalse(search.isTruncated());
+        final Set<String> found = new HashSet<>();
+        for(FormulaSearch.Candidate candidate : results) {
+            final Formula formula = FormulaEngine.parse(candidate.getFormula());
+            assertNotNull(formula);
+            final int[] counts = new int[numbers.length];
+            for(int i = 0; i < formula.size(); i++) {
+                for(int j = 0; j < numbers.length; j++) {
+                    if(numbers[j] == formula.getNumber(i)) {
+                        counts[j] = formula.getCount(i);
+                    }
+                }
+            }
+            found.add(getKey(numbers, counts));
+            assertTrue(Math.abs(candidate.getError()) <= ppm);
+        }
+        assertEquals(expected, found);
+
+        for(int i = 1; i < results.size(); i++) {
+            assertTrue(Math.abs(results.get(i - 1).getError())
+                    <= Math.abs(results.get(i).getError()));
+        }
+    }
+
+    /**
+     * Create a search with each element limited to a maximum count.
+     *
+     * @param mass    The target mass
+     * @param ppm     The tolerance in parts per million
+     * @param numbers The atomic numbers of the elements
+     * @param max     The maximum count of each element
+     * @return The FormulaSearch
+     */
+    private static FormulaSearch createSearch(double mass, double ppm, int[] numbers,
+                                              int[] max) {
+        final FormulaSearch search = new FormulaSearch(mass, ppm);
+        for(int i = 0; i < numbers.length; i++) {
+            search.addElement(numbers[i], 0, max[i]);
+        }
+        return search;
+    }
+
+    /**
+     * Find the matching candidates by checking every combination of counts, using the default
+     * RDBE filter.
+     *
+     * @param mass    The target mass
+     * @param ppm     The tolerance in parts per million
+     * @param numbers The atomic numbers of the elements
+     * @param max     The maximum count of each element
+     * @return The error of each candidate followed by its counts
+     */
+    private static List<double[]> findAll(double mass, double ppm, int[] numbers, int[] max) {
+        final double[] masses = new double[numbers.length];
+        final int[] valences = new int[numbers.length];
+        for(int i = 0; i < numbers.length; i++) {
+            masses[i] = FormulaSearch.getMonoisotopicMass(numbers[i]);
+            valences[i] = getValence(numbers[i]);
+        }
+
+        final List<double[]> results = new ArrayList<>();
+        final int[] counts = new int[numbers.length];
+        while(true) {
+            double total = 0;
+            double rdbe = 1;
+            for(int i = 0; i < counts.length; i++) {
+                total += counts[i] * masses[i];
+                rdbe += valences[i] == 0 ? Double.NaN : counts[i] * (valences[i] - 2) / 2.0;
+            }
+            final double error = (total - mass) / mass * 1e6;
+            if(Math.abs(error) <= ppm && (Double.isNaN(rdbe)
+                    || (rdbe >= 0 && rdbe == Math.floor(rdbe)))) {
+                final double[] candidate = new double[counts.length + 1];
+                candidate[0] = error;
+                for(int i = 0; i < counts.length; i++) {
+                    candidate[i + 1] = counts[i];
+                }
+                results.add(candidate);
+            }
+
+            int i = 0;
+            while(i < counts.length && counts[i] == max[i]) {
+                counts[i++] = 0;
+            }
+            if(i == counts.length) {
+                return results;
+            }
+            counts[i]++;
+        }
+    }
+
+    /**
+     * Get the valence FormulaSearch uses for an element.
+     *
+     * @param number The atomic number
+     * @return The valence, or 0 if unknown
+     */
+    private static int getValence(int number) {
+        switch(number) {
+            case 1:
+            case 17:
+            case 35:
+                return 1;
+            case 8:
+            case 16:
+                return 2;
+            case 7:
+            case 15:
+                return 3;
+            case 6:
+                return 4;
+        }
+        return 0;
+    }
+
+    /**
+     * Get a key identifying a combination of counts.
+     *
+     * @param numbers The atomic numbers of the elements
+     * @param counts  The count of each element
+     * @return The key
+     */
+    private static String getKey(int[] numbers, int[] counts) {
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < numbers.length; i++) {
+            builder.append(numbers[i]).append(':').append(counts[i]).append(' ');
+        }
+        return builder.toString();
+    }
+}
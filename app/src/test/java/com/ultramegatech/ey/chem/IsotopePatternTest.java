@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.chem;
+
+import com.ultramegatech.ey.provider.TestDataset;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for IsotopePattern.
+ *
+ * @author Steve Guidetti
+ */
+public class IsotopePatternTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testChlorine() {
+        final IsotopePattern pattern = calculate("Cl2");
+        assertEquals(3, pattern.size());
+        assertPeak(pattern, 0, 69.938, 1);
+        assertPeak(pattern, 1, 71.935, 0.640);
+        assertPeak(pattern, 2, 73.932, 0.102);
+    }
+
+    @Test
+    public void testWater() {
+        final IsotopePattern pattern = calculate("H2O");
+        assertPeak(pattern, 0, 18.0106, 1);
+        assertEquals(20.0148, pattern.getMass(pattern.size() - 1), 0.001);
+        assertEquals(0.00205, pattern.getIntensity(pattern.size() - 1), 0.0001);
+    }
+
+    @Test
+    public void testCarbon() {
+        final IsotopePattern pattern = calculate("C100");
+        assertPeak(pattern, 0, 1200, 0.925);
+        assertPeak(pattern, 1, 1201.003, 1);
+        assertPeak(pattern, 2, 1202.007, 0.535);
+    }
+
+    @Test
+    public void testFixedIsotope() {
+        final IsotopePattern pattern = calculate("D2");
+        assertEquals(1, pattern.size());
+        assertPeak(pattern, 0, 4.0282, 1);
+    }
+
+    @Test
+    public void testCharge() {
+        final IsotopePattern neutral = calculate("SO4");
+        final IsotopePattern ion = calculate("SO4^2-");
+        assertEquals(neutral.size(), ion.size());
+        for(int i = 0; i < ion.size(); i++) {
+            assertEquals((neutral.getMass(i) + 2 * FormulaEngine.ELECTRON_MASS) / 2,
+                    ion.getMass(i), 1e-9);
+            assertEquals(neutral.getIntensity(i), ion.getIntensity(i), 1e-12);
+        }
+    }
+
+    @Test
+    public void testOrder() {
+        final IsotopePattern pattern = calculate("C6H12O6Br2S");
+        double max = 0;
+        for(int i = 0; i < pattern.size(); i++) {
+            if(i > 0) {
+                assertTrue(pattern.getMass(i) - pattern.getMass(i - 1)
+                        >= IsotopePattern.DEFAULT_RESOLUTION);
+            }
+            assertTrue(pattern.getIntensity(i) >= IsotopePattern.DEFAULT_THRESHOLD);
+            max = Math.max(max, pattern.getIntensity(i));
+        }
+        assertEquals(1, max, 0);
+    }
+
+    /**
+     * Calculate the pattern of a formula.
+     *
+     * @param text The formula
+     * @return The IsotopePattern
+     */
+    private static IsotopePattern calculate(String text) {
+        final Formula formula = FormulaEngine.parse(text);
+        assertNotNull(text, formula);
+        return IsotopePattern.calculate(formula);
+    }
+
+    /**
+     * Assert the mass and relative intensity of a peak.
+     *
+     * @param pattern   The IsotopePattern
+     * @param index     The index of the peak
+     * @param mass      The expected mass
+     * @param intensity The expected intensity relative to the largest peak
+     */
+    private static void assertPeak(IsotopePattern pattern, int index, double mass,
+                                   double intensity) {
+        assertEquals(mass, pattern.getMass(index), 0.001);
+        assertEquals(intensity, pattern.getIntensity(index), 0.005);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for ElementOrder.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementOrderTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testNumber() {
+        final ElementOrder order = ElementOrder.byNumber();
+        assertEquals(Elements.getCount(), order.size());
+        for(int i = 0; i < order.size(); i++) {
+            assertEquals(i + 1, order.get(i, false));
+            assertEquals(order.size() - i, order.get(i, true));
+        }
+        assertSame(order, ElementOrder.byNumber());
+    }
+
+    @Test
+    public void testProperties() {
+        final ElementTable table = Elements.getTable();
+        for(int property = 0; property < ElementTable.PROPERTY_COUNT; property++) {
+            final ElementOrder order = ElementOrder.byProperty(property);
+            assertEquals(table.getCount(), order.size());
+            assertPermutation(order);
+
+            int known = 0;
+            while(known < order.size() && table.hasValue(property, order.get(known, false))) {
+                known++;
+            }
+            for(int i = known; i < order.size(); i++) {
+                assertFalse(table.hasValue(property, order.get(i, false)));
+                assertEquals(order.get(i, false), order.get(i, true));
+            }
+
+            for(int i = 1; i < known; i++) {
+                final int previous = order.get(i - 1, false);
+                final int current = order.get(i, false);
+                final double a = table.getDouble(property, previous);
+                final double b = table.getDouble(property, current);
+                assertTrue(a <= b);
+                if(a == b) {
+                    assertTrue(previous < current);
+                }
+                assertEquals(order.get(known - i, false), order.get(i - 1, true));
+            }
+        }
+    }
+
+    @Test
+    public void testDensity() {
+        final ElementOrder order = ElementOrder.byProperty(ElementTable.DENSITY);
+        assertEquals(1, order.get(0, false));
+        assertEquals(76, order.get(0, true));
+    }
+
+    @Test
+    public void testName() {
+        final String[] names = new String[Elements.getCount()];
+        for(int i = 0; i < names.length; i++) {
+            names[i] = Elements.getTable().getElement(i + 1).symbol;
+        }
+
+        final ElementOrder order = ElementOrder.byName(names, Locale.US);
+        assertPermutation(order);
+        assertEquals("Ac", names[order.get(0, false) - 1]);
+        assertEquals("Zr", names[order.get(0, true) - 1]);
+        for(int i = 1; i < order.size(); i++) {
+            assertTrue(names[order.get(i - 1, false) - 1]
+                    .compareToIgnoreCase(names[order.get(i, false) - 1]) < 0);
+        }
+
+        assertSame(order, ElementOrder.byName(names, Locale.US));
+    }
+
+    /**
+     * Assert that an order contains every element exactly once.
+     *
+     * @param order The ElementOrder
+     */
+    private static void assertPermutation(ElementOrder order) {
+        final boolean[] seen = new boolean[order.size() + 1];
+        for(int i = 0; i < order.size(); i++) {
+            final int number = order.get(i, false);
+            assertFalse(seen[number]);
+            seen[number] = true;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for ElementQuery.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementQueryTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testAdjacentTerms() {
+        assertMatches("group:1..2 period>=4", 19, 20, 37, 38, 55, 56, 87, 88);
+    }
+
+    @Test
+    public void testOperators() {
+        assertMatches("(group=1 or group=17) and period=3", 11, 17);
+        assertMatches("not block=p and group=18", 2);
+        assertMatches("number!=1 and number<4", 2, 3);
+        assertMatches("BLOCK = D AND group = 12", 30, 48, 80, 112);
+    }
+
+    @Test
+    public void testProperties() {
+        final ElementSet dense = evaluate("density>20");
+        assertTrue(dense.contains(76));
+        assertTrue(dense.contains(77));
+        assertFalse(dense.contains(26));
+
+        final ElementSet notIron = evaluate("w!=55.845");
+        assertFalse(notIron.contains(26));
+        assertTrue(notIron.contains(27));
+    }
+
+    @Test
+    public void testRankings() {
+        assertMatches("density:top2", 76, 77);
+        assertMatches("density : bottom 1", 1);
+        assertMatches("melt:top3 or boil:top1", 6, 74, 75);
+        assertMatches("weight~55.8", 24, 25, 26, 27, 28);
+        assertMatches("weight ~ 1 and weight:bottom1", 1);
+        assertEquals(Elements.getCount(), evaluate("weight:top1000").size());
+    }
+
+    @Test
+    public void testIsotopes() {
+        final IsotopeTable isotopes = Isotopes.getTable();
+        final double mass = isotopes.getMass(isotopes.getByMass(isotopes.findMassPosition(55.9)));
+        assertMatches("isotope:55.9..56", 26);
+        assertMatches("isotope=" + mass, 26);
+        assertMatches("isotope:" + mass + ".." + mass + " and not number=26");
+        assertTrue(evaluate("isotope>=" + mass).contains(26));
+        assertMatches("isotope<2", 1);
+        assertEquals(Elements.getCount(), evaluate("isotope>0 or isotope<=0").size()
+                + evaluate("not isotope>0").size());
+        assertNull(ElementQuery.compile("isotope~56"));
+    }
+
+    @Test
+    public void testUnknownValues() {
+        final ElementSet melt = evaluate("melt>0");
+        final ElementSet notMelt = evaluate("not melt>0");
+        for(int i = 1; i <= Elements.getCount(); i++) {
+            assertTrue(melt.contains(i) != notMelt.contains(i));
+        }
+        assertFalse(evaluate("melt<=0 or melt>0").contains(118));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertNull(ElementQuery.compile("melt>"));
+        assertNull(ElementQuery.compile("foo=1"));
+        assertNull(ElementQuery.compile("(group=1"));
+        assertNull(ElementQuery.compile("group:1.."));
+        assertNull(ElementQuery.compile("group:top3"));
+        assertNull(ElementQuery.compile("period~4"));
+        assertNull(ElementQuery.compile("melt:top0"));
+        assertNull(ElementQuery.compile("melt:top2.5"));
+        assertNull(ElementQuery.compile("melt:highest3"));
+        assertNull(ElementQuery.compile("melt~"));
+    }
+
+    @Test
+    public void testCache() {
+        final ElementQuery query = ElementQuery.compile("group:18");
+        assertSame(query, ElementQuery.compile(new StringBuilder("group:18")));
+        for(int i = 0; i < 100; i++) {
+            assertNotNull(ElementQuery.compile("number>" + i));
+            assertSame(query, ElementQuery.compile("group:18"));
+        }
+        assertNull(ElementQuery.compile("group:"));
+        assertNull(ElementQuery.compile(new StringBuilder("group:")));
+        assertMatches("number>99", 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110, 111,
+                112, 113, 114, 115, 116, 117, 118);
+    }
+
+    @Test
+    public void testHasOperator() {
+        assertTrue(ElementQuery.hasOperator("melt>"));
+        assertTrue(ElementQuery.hasOperator("group:1.."));
+        assertTrue(ElementQuery.hasOperator("(block=d"));
+        assertTrue(ElementQuery.hasOperator("weight~"));
+        assertFalse(ElementQuery.hasOperator("iron"));
+        assertFalse(ElementQuery.hasOperator("Fe"));
+    }
+
+    /**
+     * Compile and evaluate a query.
+     *
+     * @param query The query
+     * @return The matching elements
+     */
+    private static ElementSet evaluate(String query) {
+        final ElementQuery compiled = ElementQuery.compile(query);
+        assertNotNull(query, compiled);
+        return compiled.evaluate();
+    }
+
+    /**
+     * Assert that a query matches exactly the given elements.
+     *
+     * @param query   The query
+     * @param numbers The atomic numbers of the expected elements
+     */
+    private static void assertMatches(String query, int... numbers) {
+        final ElementSet result = evaluate(query);
+        assertEquals(query, numbers.length, result.size());
+        for(int number : numbers) {
+            assertTrue(query + " " + number, result.contains(number));
+        }
+    }
+}
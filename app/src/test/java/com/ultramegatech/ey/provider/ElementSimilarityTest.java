@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for ElementSimilarity.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementSimilarityTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testNearest() {
+        final ElementSimilarity similarity = ElementSimilarity.getDefault();
+        final int count = Elements.getCount();
+        for(int number = 1; number <= count; number++) {
+            final int[] similar = similarity.findSimilar(number, 5);
+            assertEquals(5, similar.length);
+
+            final boolean[] found = new boolean[count + 1];
+            for(int i = 0; i < similar.length; i++) {
+                assertTrue(similar[i] != number);
+                found[similar[i]] = true;
+                if(i > 0) {
+                    assertTrue(similarity.getDistance(number, similar[i - 1])
+                            <= similarity.getDistance(number, similar[i]));
+                }
+            }
+
+            final float last = similarity.getDistance(number, similar[similar.length - 1]);
+            for(int other = 1; other <= count; other++) {
+                if(other != number && !found[other]) {
+                    final float distance = similarity.getDistance(number, other);
+                    assertTrue(Float.isNaN(distance) || distance >= last);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDistance() {
+        final ElementSimilarity similarity = ElementSimilarity.getDefault();
+        assertEquals(0, similarity.getDistance(26, 26), 0);
+        assertEquals(similarity.getDistance(26, 79), similarity.getDistance(79, 26), 0);
+        assertTrue(similarity.getDistance(11, 19) < similarity.getDistance(11, 17));
+    }
+
+    @Test
+    public void testWeights() {
+        final float[] weights = new float[ElementSimilarity.DIMENSION_COUNT];
+        weights[ElementSimilarity.DIM_GROUP] = 1;
+        final ElementSimilarity similarity = new ElementSimilarity(weights);
+        final int[] similar = similarity.findSimilar(3, 5);
+        assertEquals(5, similar.length);
+        for(int number : similar) {
+            assertEquals(1, Elements.getTable().getElement(number).group);
+            assertEquals(0, similarity.getDistance(3, number), 0);
+        }
+
+        assertEquals(0, similarity.findSimilar(3, 0).length);
+        assertTrue(similarity.findSimilar(3, 1000).length < Elements.getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWeightCount() {
+        new ElementSimilarity(new float[ElementSimilarity.DIMENSION_COUNT - 1]);
+    }
+}
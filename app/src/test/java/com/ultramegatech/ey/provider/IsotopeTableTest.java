@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for IsotopeTable.
+ *
+ * @author Steve Guidetti
+ */
+public class IsotopeTableTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testOffsets() {
+        final IsotopeTable table = Isotopes.getTable();
+        int total = 0;
+        for(int i = 1; i <= Elements.getCount(); i++) {
+            final List<Isotope> isotopes = Isotopes.getIsotopes(i);
+            assertEquals(isotopes.size(), table.getIsotopeCount(i));
+            assertEquals(total, table.getOffset(i));
+            for(int j = 0; j < isotopes.size(); j++) {
+                final int index = table.getOffset(i) + j;
+                assertEquals(i, table.getElement(index));
+                assertEquals(isotopes.get(j).mass, table.getMass(index), 0);
+            }
+            total += isotopes.size();
+        }
+        assertEquals(total, table.getCount());
+    }
+
+    @Test
+    public void testMassOrder() {
+        final IsotopeTable table = Isotopes.getTable();
+        final boolean[] seen = new boolean[table.getCount()];
+        for(int i = 0; i < table.getCount(); i++) {
+            final int index = table.getByMass(i);
+            assertTrue(!seen[index]);
+            seen[index] = true;
+            if(i > 0) {
+                assertTrue(table.getMass(table.getByMass(i - 1)) <= table.getMass(index));
+            }
+        }
+    }
+
+    @Test
+    public void testFindMassPosition() {
+        final IsotopeTable table = Isotopes.getTable();
+        assertEquals(0, table.findMassPosition(Double.NEGATIVE_INFINITY));
+        assertEquals(0, table.findMassPosition(0));
+        assertEquals(table.getCount(), table.findMassPosition(1000));
+        assertEquals(table.getCount(), table.findMassPosition(Double.POSITIVE_INFINITY));
+
+        for(int i = 0; i < table.getCount(); i++) {
+            final double mass = table.getMass(table.getByMass(i));
+            final int position = table.findMassPosition(mass);
+            assertTrue(position <= i);
+            assertEquals(mass, table.getMass(table.getByMass(position)), 0);
+            if(position > 0) {
+                assertTrue(table.getMass(table.getByMass(position - 1)) < mass);
+            }
+
+            final int above = table.findMassPosition(Math.nextUp(mass));
+            assertTrue(above > i);
+            if(above < table.getCount()) {
+                assertTrue(table.getMass(table.getByMass(above)) > mass);
+            }
+        }
+    }
+
+    @Test
+    public void testWindow() {
+        final IsotopeTable table = Isotopes.getTable();
+        final double iron56 = findMass(table, 26, 56);
+        final double tolerance = 0.01;
+        int count = 0;
+        for(int i = table.findMassPosition(iron56 - tolerance); i < table.getCount(); i++) {
+            final int index = table.getByMass(i);
+            if(table.getMass(index) > iron56 + tolerance) {
+                break;
+            }
+            assertTrue(Math.abs(table.getMass(index) - iron56) <= tolerance);
+            count++;
+        }
+
+        int expected = 0;
+        for(int i = 0; i < table.getCount(); i++) {
+            if(Math.abs(table.getMass(i) - iron56) <= tolerance) {
+                expected++;
+            }
+        }
+        assertEquals(expected, count);
+        assertTrue(count >= 1);
+    }
+
+    /**
+     * Find the mass of an isotope.
+     *
+     * @param table      The IsotopeTable
+     * @param number     The atomic number
+     * @param massNumber The mass number
+     * @return The mass
+     */
+    private static double findMass(IsotopeTable table, int number, int massNumber) {
+        for(int i = 0; i < table.getIsotopeCount(number); i++) {
+            final int index = table.getOffset(number) + i;
+            if(table.getMassNumber(index) == massNumber) {
+                return table.getMass(index);
+            }
+        }
+        throw new AssertionError("Missing isotope " + massNumber + " of " + number);
+    }
+}
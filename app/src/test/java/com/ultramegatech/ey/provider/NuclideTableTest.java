@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for NuclideTable. Besides the shipped data, a generated table with as many nuclides as a
+ * complete evaluated table is compiled and decoded.
+ *
+ * @author Steve Guidetti
+ */
+public class NuclideTableTest {
+    /**
+     * The number of neutron numbers generated for each element
+     */
+    private static final int WIDTH = 28;
+
+    /**
+     * The decay modes in the order of their bits
+     */
+    private static final String[] DECAY_MODES = {"A", "B-", "B+", "EC", "SF", "IT", "P", "N"};
+
+    @ClassRule
+    public static final TemporaryFolder sFolder = new TemporaryFolder();
+
+    /**
+     * The generated nuclides, as the proton number, neutron number, decay mode bitmask and twice
+     * the spin with the parity in the high bit
+     */
+    private static int[][] sNuclides;
+
+    /**
+     * The half-life of each generated nuclide
+     */
+    private static double[] sHalfLives;
+
+    /**
+     * The branching ratio of each decay mode bit of each generated nuclide
+     */
+    private static double[][] sRatios;
+
+    /**
+     * The table decoded from the generated nuclides
+     */
+    private static NuclideTable sTable;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        TestDataset.load();
+
+        final int count = Elements.getCount() * WIDTH;
+        sNuclides = new int[count][];
+        sHalfLives = new double[count];
+        sRatios = new double[count][DECAY_MODES.length];
+        final Random random = new Random(1);
+        final File csv = sFolder.newFile("nuclides.csv");
+        final Writer out = new OutputStreamWriter(new FileOutputStream(csv), "UTF-8");
+        try {
+            out.write("element,number,halflife,decay,spin\n");
+            int index = 0;
+            for(int z = 1; z <= Elements.getCount(); z++) {
+                final int first = Math.max(0, (int)(z + 0.006 * z * z) - WIDTH / 2);
+                for(int n = first; n < first + WIDTH; n++) {
+                    sNuclides[index] = generate(random, z, n, index, out);
+                    index++;
+                }
+            }
+        } finally {
+            out.close();
+        }
+
+        final File dataset = sFolder.newFile("nuclides.dat");
+        sTable = new NuclideTable(Dataset.getSection(TestDataset.compile(csv, null, dataset),
+                Dataset.SECTION_NUCLIDES));
+    }
+
+    @Test
+    public void testShipped() {
+        final NuclideTable table = Nuclides.getTable();
+        final int iron = table.find(26, 30);
+        assertTrue(iron >= 0);
+        assertTrue(table.isStable(iron));
+        assertEquals(0, table.getDecayModes(iron));
+
+        final int uranium = table.find(92, 146);
+        assertTrue(uranium >= 0);
+        assertFalse(table.isStable(uranium));
+        assertTrue((table.getDecayModes(uranium) & NuclideTable.DECAY_ALPHA) != 0);
+
+        assertEquals(-1, table.find(26, 200));
+        assertEquals(-1, table.find(0, 1));
+        assertEquals(-1, table.find(table.getMaxProtons() + 1, 0));
+    }
+
+    @Test
+    public void testLarge() {
+        assertEquals(sNuclides.length, sTable.getCount());
+        assertEquals(Elements.getCount(), sTable.getMaxProtons());
+
+        int maxNeutrons = 0;
+        for(int i = 0; i < sNuclides.length; i++) {
+            final int[] nuclide = sNuclides[i];
+            maxNeutrons = Math.max(maxNeutrons, nuclide[1]);
+
+            final int index = sTable.find(nuclide[0], nuclide[1]);
+            assertEquals(i, index);
+            assertEquals(nuclide[0], sTable.getProtons(index));
+            assertEquals(nuclide[1], sTable.getNeutrons(index));
+            assertEquals(nuclide[0] + nuclide[1], sTable.getMassNumber(index));
+            assertEquals(sHalfLives[i], sTable.getHalfLife(index), 0);
+            assertEquals(sHalfLives[i] == Double.POSITIVE_INFINITY, sTable.isStable(index));
+            assertEquals(nuclide[2], sTable.getDecayModes(index));
+            for(int bit = 0; bit < DECAY_MODES.length; bit++) {
+                assertEquals(sRatios[i][bit], sTable.getBranchingRatio(index, 1 << bit), 1e-12);
+            }
+            if(nuclide[3] < 0) {
+                assertFalse(sTable.hasSpin(index));
+            } else {
+                assertTrue(sTable.hasSpin(index));
+                assertEquals(nuclide[3] & 0x7f, sTable.getDoubleSpin(index));
+                assertEquals((nuclide[3] & 0x80) != 0 ? -1 : 1, sTable.getParity(index));
+            }
+        }
+        assertEquals(maxNeutrons, sTable.getMaxNeutrons());
+
+        for(int z = 1; z <= Elements.getCount(); z++) {
+            final int first = sNuclides[(z - 1) * WIDTH][1];
+            assertEquals(-1, sTable.find(z, first - 1));
+            assertEquals(-1, sTable.find(z, first + WIDTH));
+        }
+    }
+
+    /**
+     * Generate a random nuclide and write it as a row of the data file.
+     *
+     * @param random The random number generator
+     * @param z      The number of protons
+     * @param n      The number of neutrons
+     * @param index  The index of the nuclide
+     * @param out    The data file
+     * @return The proton number, neutron number, decay mode bitmask, and twice the spin with the
+     * parity in the high bit or -1 if unknown
+     * @throws IOException If the row cannot be written
+     */
+    private static int[] generate(Random random, int z, int n, int index, Writer out)
+            throws IOException {
+        final String halfLife;
+        int decay = 0;
+        final StringBuilder modes = new StringBuilder();
+        if(random.nextInt(10) == 0) {
+            halfLife = "stable";
+            sHalfLives[index] = Double.POSITIVE_INFINITY;
+        } else if(random.nextInt(10) == 0) {
+            halfLife = "";
+            sHalfLives[index] = Double.NaN;
+        } else {
+            halfLife = String.format(Locale.US, "%.6g", Math.pow(10, random.nextDouble() * 26 - 9));
+            sHalfLives[index] = Double.parseDouble(halfLife);
+            for(int bit = 0; bit < DECAY_MODES.length; bit++) {
+                if(random.nextInt(4) == 0) {
+                    decay |= 1 << bit;
+                }
+            }
+
+            final int[] weights = new int[DECAY_MODES.length];
+            int total = 0;
+            for(int bit = 0; bit < DECAY_MODES.length; bit++) {
+                if((decay & (1 << bit)) != 0) {
+                    weights[bit] = random.nextInt(9) + 1;
+                    total += weights[bit];
+                }
+            }
+            int remaining = 100;
+            for(int bit = 0; bit < DECAY_MODES.length; bit++) {
+                if((decay & (1 << bit)) != 0) {
+                    modes.append(modes.length() > 0 ? " " : "").append(DECAY_MODES[bit]);
+                    if(Integer.bitCount(decay) > 1) {
+                        final int ratio = (decay >> (bit + 1)) == 0 ? remaining
+                                : 100 * weights[bit] / total;
+                        remaining -= ratio;
+                        modes.append(':').append(ratio);
+                        sRatios[index][bit] = ratio / 100.0;
+                    } else {
+                        sRatios[index][bit] = 1;
+                    }
+                }
+            }
+        }
+
+        int spin = -1;
+        String spinText = "";
+        if(random.nextInt(5) > 0) {
+            final int twice = random.nextInt(20) * 2 + (z + n) % 2;
+            final boolean negative = random.nextBoolean();
+            spin = twice | (negative ? 0x80 : 0);
+            spinText = ((z + n) % 2 == 1 ? twice + "/2" : String.valueOf(twice / 2))
+                    + (negative ? "-" : "+");
+        }
+
+        out.write(z + "," + (z + n) + "," + halfLife + "," + modes + "," + spinText + "\n");
+        return new int[] {z, n, decay, spin};
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for Orbital.
+ *
+ * @author Steve Guidetti
+ */
+public class OrbitalTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testBoxCount() {
+        assertEquals(1, Orbital.getBoxCount(pack(1, 0, 2)));
+        assertEquals(3, Orbital.getBoxCount(pack(2, 1, 4)));
+        assertEquals(5, Orbital.getBoxCount(pack(3, 2, 6)));
+        assertEquals(7, Orbital.getBoxCount(pack(4, 3, 14)));
+    }
+
+    @Test
+    public void testBoxElectrons() {
+        assertBoxes(pack(1, 0, 1), 1);
+        assertBoxes(pack(1, 0, 2), 2);
+        assertBoxes(pack(2, 1, 0), 0, 0, 0);
+        assertBoxes(pack(2, 1, 2), 1, 1, 0);
+        assertBoxes(pack(2, 1, 3), 1, 1, 1);
+        assertBoxes(pack(2, 1, 4), 2, 1, 1);
+        assertBoxes(pack(2, 1, 6), 2, 2, 2);
+        assertBoxes(pack(3, 2, 5), 1, 1, 1, 1, 1);
+        assertBoxes(pack(3, 2, 6), 2, 1, 1, 1, 1);
+        assertBoxes(pack(4, 3, 7), 1, 1, 1, 1, 1, 1, 1);
+        assertBoxes(pack(4, 3, 10), 2, 2, 2, 1, 1, 1, 1);
+    }
+
+    @Test
+    public void testElements() {
+        final ElementTable table = Elements.getTable();
+        for(int n = 1; n <= table.getCount(); n++) {
+            for(int orbital : table.getFullConfiguration(n)) {
+                int electrons = 0;
+                for(int i = 0; i < Orbital.getBoxCount(orbital); i++) {
+                    electrons += Orbital.getBoxElectrons(orbital, i);
+                }
+                assertEquals(Orbital.getElectrons(orbital), electrons);
+            }
+        }
+    }
+
+    /**
+     * Pack an orbital.
+     *
+     * @param shell     The shell number
+     * @param subshell  The index of the subshell type
+     * @param electrons The number of electrons
+     * @return The packed orbital
+     */
+    private static int pack(int shell, int subshell, int electrons) {
+        return shell << 12 | subshell << 8 | electrons;
+    }
+
+    /**
+     * Assert the number of electrons in each box of an orbital diagram of a subshell.
+     *
+     * @param orbital The packed orbital
+     * @param boxes   The expected number of electrons in each box
+     */
+    private static void assertBoxes(int orbital, int... boxes) {
+        assertEquals(boxes.length, Orbital.getBoxCount(orbital));
+        for(int i = 0; i < boxes.length; i++) {
+            assertEquals(boxes[i], Orbital.getBoxElectrons(orbital, i));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for PropertyIndex.
+ *
+ * @author Steve Guidetti
+ */
+public class PropertyIndexTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testRange() {
+        final ElementTable table = Elements.getTable();
+        final double[] bounds = {Double.NEGATIVE_INFINITY, 0, 273.15, 300, 600, 1811, 1e9,
+                Double.POSITIVE_INFINITY};
+        for(int property = 0; property < ElementTable.PROPERTY_COUNT; property++) {
+            final PropertyIndex index = PropertyIndex.get(property);
+            for(double min : bounds) {
+                for(double max : bounds) {
+                    for(int flags = 0; flags < 4; flags++) {
+                        final boolean minInclusive = (flags & 1) != 0;
+                        final boolean maxInclusive = (flags & 2) != 0;
+                        final ElementSet result = index.range(min, minInclusive, max,
+                                maxInclusive);
+                        for(int i = 1; i <= table.getCount(); i++) {
+                            final double value = table.getDouble(property, i);
+                            final boolean expected = table.hasValue(property, i)
+                                    && (minInclusive ? value >= min : value > min)
+                                    && (maxInclusive ? value <= max : value < max);
+                            assertEquals(expected, result.contains(i));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRangeEdges() {
+        final PropertyIndex index = PropertyIndex.get(ElementTable.MELT);
+        final double iron = Elements.getTable().getDouble(ElementTable.MELT, 26);
+        assertTrue(index.range(iron, iron).contains(26));
+        assertFalse(index.range(iron, false, iron, true).contains(26));
+        assertFalse(index.range(iron, true, iron, false).contains(26));
+        assertTrue(index.range(300, 200).isEmpty());
+    }
+
+    @Test
+    public void testTop() {
+        final PropertyIndex index = PropertyIndex.get(ElementTable.DENSITY);
+        final ElementSet highest = index.top(2, true);
+        assertEquals(2, highest.size());
+        assertTrue(highest.contains(76));
+        assertTrue(highest.contains(77));
+
+        final ElementSet lowest = index.top(1, false);
+        assertEquals(1, lowest.size());
+        assertTrue(lowest.contains(1));
+
+        assertEquals(index.size(), index.top(1000, true).size());
+        assertTrue(index.top(0, true).isEmpty());
+        assertTrue(index.top(-1, false).isEmpty());
+    }
+
+    @Test
+    public void testNearest() {
+        final ElementTable table = Elements.getTable();
+        final PropertyIndex index = PropertyIndex.get(ElementTable.WEIGHT);
+        final ElementSet iron = index.nearest(55.9, 1);
+        assertEquals(1, iron.size());
+        assertTrue(iron.contains(26));
+
+        for(int k = 0; k <= 10; k++) {
+            final ElementSet nearest = index.nearest(100, k);
+            assertEquals(k, nearest.size());
+            double farthest = 0;
+            for(int i = 1; i <= table.getCount(); i++) {
+                if(nearest.contains(i)) {
+                    farthest = Math.max(farthest,
+                            Math.abs(table.getDouble(ElementTable.WEIGHT, i) - 100));
+                }
+            }
+            for(int i = 1; i <= table.getCount(); i++) {
+                if(!nearest.contains(i)) {
+                    assertTrue(Math.abs(table.getDouble(ElementTable.WEIGHT, i) - 100)
+                            >= farthest);
+                }
+            }
+        }
+
+        assertTrue(index.nearest(-1000, 1).contains(1));
+        assertEquals(index.size(), index.nearest(0, 1000).size());
+    }
+
+    @Test
+    public void testCache() {
+        assertSame(PropertyIndex.get(ElementTable.BOIL), PropertyIndex.get(ElementTable.BOIL));
+        assertEquals(Elements.getCount(), PropertyIndex.get(ElementTable.WEIGHT).size());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for PropertyStats.
+ *
+ * @author Steve Guidetti
+ */
+public class PropertyStatsTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testSummary() {
+        final ElementTable table = Elements.getTable();
+        for(int property = 0; property < ElementTable.PROPERTY_COUNT; property++) {
+            int count = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            for(int n = 1; n <= table.getCount(); n++) {
+                if(table.hasValue(property, n)) {
+                    final double value = table.getDouble(property, n);
+                    count++;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    sum += value;
+                }
+            }
+
+            final PropertyStats stats = PropertyStats.get(property);
+            assertEquals(count, stats.getCount());
+            assertEquals(min, stats.getMin(), 0);
+            assertEquals(max, stats.getMax(), 0);
+            assertEquals(sum / count, stats.getMean(), Math.abs(sum / count) * 1e-12);
+            assertTrue(stats.getStandardDeviation() > 0);
+            assertSame(stats, PropertyStats.get(property));
+        }
+    }
+
+    @Test
+    public void testPercentile() {
+        final ElementTable table = Elements.getTable();
+        for(int property = 0; property < ElementTable.PROPERTY_COUNT; property++) {
+            final PropertyStats stats = PropertyStats.get(property);
+            for(int n = 1; n <= table.getCount(); n++) {
+                if(table.hasValue(property, n)) {
+                    assertEquals(getPercentile(property, n), stats.getPercentile(n), 1e-4);
+                } else {
+                    assertTrue(Float.isNaN(stats.getPercentile(n)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTies() {
+        final ElementTable table = Elements.getTable();
+        final PropertyStats stats = PropertyStats.get(ElementTable.NEGATIVITY);
+        int ties = 0;
+        for(int a = 1; a <= table.getCount(); a++) {
+            for(int b = a + 1; b <= table.getCount(); b++) {
+                if(table.hasValue(ElementTable.NEGATIVITY, a)
+                        && table.hasValue(ElementTable.NEGATIVITY, b)
+                        && table.getDouble(ElementTable.NEGATIVITY, a)
+                        == table.getDouble(ElementTable.NEGATIVITY, b)) {
+                    assertEquals(stats.getPercentile(a), stats.getPercentile(b), 0);
+                    ties++;
+                }
+            }
+        }
+        assertTrue(ties > 0);
+
+        final float fluorine = stats.getPercentile(9);
+        assertEquals(100 - 50f / stats.getCount(), fluorine, 1e-4);
+    }
+
+    /**
+     * Compute the percentile rank of an element's value by counting the known values.
+     *
+     * @param property The ElementTable property ID
+     * @param number   The atomic number
+     * @return The percentage of known values below the value, counting equal values as half
+     */
+    private static double getPercentile(int property, int number) {
+        final ElementTable table = Elements.getTable();
+        final double value = table.getDouble(property, number);
+        int count = 0;
+        double below = 0;
+        for(int n = 1; n <= table.getCount(); n++) {
+            if(table.hasValue(property, n)) {
+                count++;
+                final double other = table.getDouble(property, n);
+                if(other < value) {
+                    below++;
+                } else if(other == value) {
+                    below += 0.5;
+                }
+            }
+        }
+        return below / count * 100;
+    }
+}
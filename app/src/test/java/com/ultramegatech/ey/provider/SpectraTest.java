@@ -0,0 +1,244 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for Spectra and Spectrum. Besides the shipped data, generated spectra with as many lines
+ * as a complete line list are compiled, decoded and downsampled.
+ *
+ * @author Steve Guidetti
+ */
+public class SpectraTest {
+    /**
+     * The atomic numbers of the elements with generated lines
+     */
+    private static final int[] ELEMENTS = {1, 3, 26, 92};
+
+    /**
+     * The number of generated lines of each element
+     */
+    private static final int[] LINE_COUNTS = {120, 3, 30000, 20000};
+
+    @ClassRule
+    public static final TemporaryFolder sFolder = new TemporaryFolder();
+
+    /**
+     * The generated wavelengths of each element in picometers
+     */
+    private static int[][] sPicometers;
+
+    /**
+     * The generated intensities of each element
+     */
+    private static double[][] sIntensities;
+
+    /**
+     * The spectra section compiled from the generated lines
+     */
+    private static ByteBuffer sSection;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        TestDataset.load();
+
+        sPicometers = new int[ELEMENTS.length][];
+        sIntensities = new double[ELEMENTS.length][];
+        final Random random = new Random(1);
+        final File csv = sFolder.newFile("spectra.csv");
+        final Writer out = new OutputStreamWriter(new FileOutputStream(csv), "UTF-8");
+        try {
+            out.write("element,wavelength,intensity\n");
+            for(int i = 0; i < ELEMENTS.length; i++) {
+                generate(random, i, out);
+            }
+        } finally {
+            out.close();
+        }
+
+        final File dataset = sFolder.newFile("spectra.dat");
+        sSection = Dataset.getSection(TestDataset.compile(null, csv, dataset),
+                Dataset.SECTION_SPECTRA);
+    }
+
+    @Test
+    public void testShipped() {
+        final Spectrum hydrogen = Spectra.getSpectrum(1);
+        assertNotNull(hydrogen);
+        final int alpha = hydrogen.indexOf(656f);
+        assertEquals(656.279f, hydrogen.getWavelength(alpha), 0.01f);
+        assertNull(Spectra.getSpectrum(0));
+        assertNull(Spectra.getSpectrum(Elements.getCount() + 1));
+    }
+
+    @Test
+    public void testLarge() {
+        for(int i = 0; i < ELEMENTS.length; i++) {
+            final Spectrum spectrum = Spectra.readSpectrum(sSection, ELEMENTS[i]);
+            assertNotNull(spectrum);
+            assertEquals(LINE_COUNTS[i], spectrum.size());
+
+            double max = 0;
+            for(double intensity : sIntensities[i]) {
+                max = Math.max(max, intensity);
+            }
+            for(int j = 0; j < spectrum.size(); j++) {
+                assertEquals(sPicometers[i][j] / 1000f, spectrum.getWavelength(j), 0);
+                assertEquals(sIntensities[i][j] / max, spectrum.getIntensity(j), 1.0 / 0xffff);
+                assertTrue(spectrum.getIntensity(j) > 0);
+            }
+        }
+        assertNull(Spectra.readSpectrum(sSection, 2));
+    }
+
+    @Test
+    public void testBlocks() {
+        assertEquals(getStoredLength(3), getUncompressedLength(3));
+        assertTrue(getStoredLength(26) < getUncompressedLength(26));
+        assertTrue(getStoredLength(92) < getUncompressedLength(92));
+    }
+
+    @Test
+    public void testIndexOf() {
+        final Spectrum spectrum = Spectra.readSpectrum(sSection, 26);
+        assertNotNull(spectrum);
+        assertEquals(0, spectrum.indexOf(0f));
+        assertEquals(spectrum.size(), spectrum.indexOf(2000f));
+        for(int i = 0; i < spectrum.size(); i += 97) {
+            final float wavelength = spectrum.getWavelength(i);
+            assertEquals(i, spectrum.indexOf(wavelength));
+            assertEquals(i + 1, spectrum.indexOf(Math.nextUp(wavelength)));
+        }
+    }
+
+    @Test
+    public void testDownsample() {
+        final Spectrum spectrum = Spectra.readSpectrum(sSection, 26);
+        assertNotNull(spectrum);
+        assertDownsampled(spectrum, 100f, 1000f, 1080);
+        assertDownsampled(spectrum, 100f, 1000f, 3);
+        assertDownsampled(spectrum, 400f, 405f, 1080);
+        assertDownsampled(spectrum, spectrum.getWavelength(1000), spectrum.getWavelength(1500),
+                720);
+        assertDownsampled(spectrum, spectrum.getWavelength(20000),
+                spectrum.getWavelength(20001), 2000);
+
+        final float[] empty = new float[0];
+        spectrum.downsample(100f, 1000f, empty);
+    }
+
+    /**
+     * Assert that downsampling a range of a spectrum keeps the most intense line of each column,
+     * by comparing it with a scan of every line.
+     *
+     * @param spectrum The Spectrum
+     * @param start    The wavelength at the start of the range
+     * @param end      The wavelength at the end of the range
+     * @param width    The number of columns
+     */
+    private static void assertDownsampled(Spectrum spectrum, float start, float end,
+                                          int width) {
+        final float[] columns = new float[width];
+        columns[0] = -1f;
+        spectrum.downsample(start, end, columns);
+
+        final float[] expected = new float[width];
+        final float scale = width / (end - start);
+        int visible = 0;
+        for(int i = 0; i < spectrum.size(); i++) {
+            final float wavelength = spectrum.getWavelength(i);
+            if(wavelength >= start && wavelength <= end) {
+                final int column = Math.min(width - 1, (int)((wavelength - start) * scale));
+                expected[column] = Math.max(expected[column], spectrum.getIntensity(i));
+                visible++;
+            }
+        }
+        assertTrue(visible > 0);
+        for(int i = 0; i < width; i++) {
+            assertEquals(expected[i], columns[i], 0f);
+        }
+    }
+
+    /**
+     * Get the stored length of the block of an element in the generated spectra section.
+     *
+     * @param number The atomic number
+     * @return The length in bytes
+     */
+    private static int getStoredLength(int number) {
+        return sSection.getInt(2 + (number - 1) * 16 + 4);
+    }
+
+    /**
+     * Get the uncompressed length of the block of an element in the generated spectra section.
+     *
+     * @param number The atomic number
+     * @return The length in bytes
+     */
+    private static int getUncompressedLength(int number) {
+        return sSection.getInt(2 + (number - 1) * 16 + 8);
+    }
+
+    /**
+     * Generate random lines for an element and write them as rows of the data file.
+     *
+     * @param random The random number generator
+     * @param index  The index of the element in ELEMENTS
+     * @param out    The data file
+     * @throws IOException If the rows cannot be written
+     */
+    private static void generate(Random random, int index, Writer out) throws IOException {
+        final int count = LINE_COUNTS[index];
+        final int[] picometers = new int[count];
+        final double[] intensities = new double[count];
+        final int range = 900000 / count;
+        int wavelength = 100000;
+        for(int i = 0; i < count; i++) {
+            wavelength += 1 + random.nextInt(range - 1);
+            picometers[i] = wavelength;
+            intensities[i] = Math.round(Math.pow(10, random.nextDouble() * 5));
+            out.write(String.format(Locale.US, "%d,%.3f,%.0f\n", ELEMENTS[index],
+                    wavelength / 1000.0, intensities[i]));
+        }
+        sPicometers[index] = picometers;
+        sIntensities[index] = intensities;
+    }
+}
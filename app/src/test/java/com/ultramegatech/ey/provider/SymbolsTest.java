@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for Symbols.
+ *
+ * @author Steve Guidetti
+ */
+public class SymbolsTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testElements() {
+        assertElement("H", 1);
+        assertElement("He", 2);
+        assertElement("Fe", 26);
+        assertElement("Og", 118);
+        assertElement("fE", 26);
+        assertElement("CL", 17);
+    }
+
+    @Test
+    public void testIsotopes() {
+        final int deuterium = Symbols.lookup("D", 0, 1);
+        assertEquals(1, Symbols.getNumber(deuterium));
+        assertEquals(2, Symbols.getMassNumber(deuterium));
+
+        final int tritium = Symbols.lookup("t", 0, 1);
+        assertEquals(1, Symbols.getNumber(tritium));
+        assertEquals(3, Symbols.getMassNumber(tritium));
+
+        assertNull(Elements.getElement("D"));
+        assertEquals(0, Symbols.getMassNumber(Symbols.lookup("H", 0, 1)));
+    }
+
+    @Test
+    public void testRange() {
+        final String text = "K2Cr2O7";
+        assertEquals(19, Symbols.getNumber(Symbols.lookup(text, 0, 1)));
+        assertEquals(24, Symbols.getNumber(Symbols.lookup(text, 2, 4)));
+        assertEquals(8, Symbols.getNumber(Symbols.lookup(text, 5, 6)));
+        assertEquals(24, Elements.getElement(text, 2, 4).number);
+    }
+
+    @Test
+    public void testUnknown() {
+        assertEquals(0, Symbols.lookup("Xx", 0, 2));
+        assertEquals(0, Symbols.lookup("J", 0, 1));
+        assertEquals(0, Symbols.lookup("Fe2", 0, 3));
+        assertEquals(0, Symbols.lookup("Abc", 0, 3));
+        assertEquals(0, Symbols.lookup("", 0, 0));
+        assertEquals(0, Symbols.lookup("1", 0, 1));
+        assertEquals(0, Symbols.lookup("é", 0, 1));
+    }
+
+    /**
+     * Assert that a symbol resolves to an element.
+     *
+     * @param symbol The symbol
+     * @param number The expected atomic number
+     */
+    private static void assertElement(String symbol, int number) {
+        final int code = Symbols.lookup(symbol, 0, symbol.length());
+        assertEquals(symbol, number, Symbols.getNumber(code));
+        assertEquals(symbol, 0, Symbols.getMassNumber(code));
+        assertEquals(symbol, number, Elements.getElement(symbol).number);
+    }
+}
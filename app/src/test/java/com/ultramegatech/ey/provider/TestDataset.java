@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import com.ultramegatech.ey.build.DatasetCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+/**
+ * Loads the generated dataset file for local unit tests, which cannot open the asset. Tests can
+ * also compile datasets from their own data files with the DatasetCompiler from buildSrc.
+ *
+ * @author Steve Guidetti
+ */
+public class TestDataset {
+    /**
+     * The path of the generated dataset file relative to the module directory
+     */
+    private static final String PATH = "build/generated/dataset/assets/elements.dat";
+
+    /**
+     * The directory of the data files relative to the module directory
+     */
+    private static final String DATA_DIR = "src/data";
+
+    /**
+     * Whether the dataset has been loaded
+     */
+    private static boolean sLoaded;
+
+    /**
+     * Load the dataset if it has not been loaded yet.
+     *
+     * @throws IOException If the file cannot be read
+     */
+    public static synchronized void load() throws IOException {
+        if(sLoaded) {
+            return;
+        }
+
+        Dataset.setBuffer(read(new File(PATH)));
+        sLoaded = true;
+    }
+
+    /**
+     * Compile a dataset from the shipped element and isotope data and the given nuclide and
+     * spectral line data. This does not replace the loaded dataset.
+     *
+     * @param nuclidesFile The nuclide data file, or null to use the shipped data
+     * @param spectraFile  The spectral line data file, or null to use the shipped data
+     * @param outputFile   The file to write the dataset to
+     * @return The contents of the compiled file
+     * @throws Exception If the data is invalid or a file cannot be read or written
+     */
+    static ByteBuffer compile(File nuclidesFile, File spectraFile, File outputFile)
+            throws Exception {
+        final DatasetCompiler compiler = new DatasetCompiler(new File(DATA_DIR, "elements.csv"),
+                new File(DATA_DIR, "isotopes.csv"),
+                nuclidesFile != null ? nuclidesFile : new File(DATA_DIR, "nuclides.csv"),
+                spectraFile != null ? spectraFile : new File(DATA_DIR, "spectra.csv"));
+        compiler.writeDataset(outputFile);
+        return read(outputFile);
+    }
+
+    /**
+     * Read the contents of a file.
+     *
+     * @param path The file
+     * @return The contents of the file
+     * @throws IOException If the file cannot be read
+     */
+    private static ByteBuffer read(File path) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            final byte[] data = new byte[(int)file.length()];
+            file.readFully(data);
+            return ByteBuffer.wrap(data);
+        } finally {
+            file.close();
+        }
+    }
+}
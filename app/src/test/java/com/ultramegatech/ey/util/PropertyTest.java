@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementTable;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.provider.TestDataset;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for Property.
+ *
+ * @author Steve Guidetti
+ */
+public class PropertyTest {
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TestDataset.load();
+    }
+
+    @Test
+    public void testKeys() {
+        for(int id = 0; id < Property.getCount(); id++) {
+            final Property property = Property.get(id);
+            assertEquals(id, property.id);
+            assertSame(property, Property.get(property.key));
+        }
+        assertSame(Property.get(ElementTable.HEAT), Property.get(PreferenceUtils.SUBTEXT_HEAT));
+        assertNull(Property.get("unknown"));
+        assertNull(Property.get((String)null));
+    }
+
+    @Test
+    public void testPlainFormat() {
+        final Element iron = Elements.getElement(26);
+        for(int id : new int[] {ElementTable.HEAT, ElementTable.NEGATIVITY}) {
+            final Property property = Property.get(id);
+            final double value = iron.getValue(id);
+            assertEquals(String.valueOf(value), property.format(iron, null));
+            assertEquals(String.valueOf(value), property.describe(iron, null));
+        }
+    }
+}
@@ -0,0 +1,1391 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.build;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+
+/**
+ * Compiles the canonical element data files into the binary dataset asset and the string resource
+ * table used by the app. The data is read from CSV files with a header row naming the columns.
+ * Blank lines and lines starting with # are ignored. Empty cells represent unknown values.
+ *
+ * @author Steve Guidetti
+ */
+public class DatasetCompiler {
+    /**
+     * The magic number identifying the dataset file ("ELMT")
+     */
+    private static final int MAGIC = 0x454c4d54;
+
+    /**
+     * The dataset format version
+     */
+    private static final int VERSION = 7;
+
+    /**
+     * Section IDs
+     */
+    private static final int SECTION_ELEMENTS = 1;
+    private static final int SECTION_CONFIGURATIONS = 2;
+    private static final int SECTION_ISOTOPES = 3;
+    private static final int SECTION_EXTENDED = 4;
+    private static final int SECTION_NUCLIDES = 5;
+    private static final int SECTION_SPECTRA = 6;
+
+    /**
+     * The numeric element property columns, in the order of the property IDs used by the app
+     */
+    private static final String[] PROPERTIES = {
+            "weight", "density", "melt", "boil", "heat", "negativity", "abundance", "radius",
+            "covalent", "vdw", "affinity", "ionization"
+    };
+
+    /**
+     * The index of the first ionization energy property, which is taken from the list of
+     * successive ionization energies
+     */
+    private static final int IONIZATION = 11;
+
+    /**
+     * The range of oxidation states that can be represented in the oxidation state bitmask
+     */
+    private static final int OXIDATION_MIN = -5;
+    private static final int OXIDATION_MAX = 9;
+
+    /**
+     * The orbital types in order of angular momentum
+     */
+    private static final String ORBITALS = "spdf";
+
+    /**
+     * The decay mode names, in the order of the bits of the decay mode bitmask
+     */
+    private static final String[] DECAY_MODES = {"A", "B-", "B+", "EC", "SF", "IT", "P", "N"};
+
+    /**
+     * The maximum difference between the sum of the isotopic compositions of an element and 1
+     */
+    private static final double COMPOSITION_TOLERANCE = 0.002;
+
+    /**
+     * The maximum difference between the sum of the branching ratios of a nuclide and 100%
+     */
+    private static final double BRANCHING_TOLERANCE = 0.01;
+
+    /**
+     * The range of spectral line wavelengths in nanometers
+     */
+    private static final double WAVELENGTH_MIN = 100;
+    private static final double WAVELENGTH_MAX = 1000;
+
+    /**
+     * The maximum value of an encoded spectral line intensity
+     */
+    private static final int INTENSITY_SCALE = 0xffff;
+
+    /**
+     * The element rows, indexed by atomic number minus one
+     */
+    private final List<ElementRow> mElements = new ArrayList<>();
+
+    /**
+     * The isotope rows, in file order
+     */
+    private final List<IsotopeRow> mIsotopes = new ArrayList<>();
+
+    /**
+     * The nuclide rows, in file order
+     */
+    private final List<NuclideRow> mNuclides = new ArrayList<>();
+
+    /**
+     * The spectral line rows, in file order
+     */
+    private final List<LineRow> mLines = new ArrayList<>();
+
+    /**
+     * Map of element symbols to rows
+     */
+    private final Map<String, ElementRow> mSymbols = new HashMap<>();
+
+    /**
+     * Read and validate the data files.
+     *
+     * @param elementsFile The element data file
+     * @param isotopesFile The isotope data file
+     * @param nuclidesFile The nuclide data file
+     * @param spectraFile  The spectral line data file
+     * @throws IOException          If a file cannot be read
+     * @throws InvalidDataException If the data is invalid
+     */
+    public DatasetCompiler(File elementsFile, File isotopesFile, File nuclidesFile,
+                           File spectraFile) throws IOException, InvalidDataException {
+        for(Row row : readCsv(elementsFile)) {
+            final ElementRow element = new ElementRow(row, mElements.size() + 1, mSymbols);
+            mElements.add(element);
+            mSymbols.put(element.symbol, element);
+        }
+        if(mElements.isEmpty()) {
+            throw new InvalidDataException(elementsFile.getName() + ": no elements");
+        }
+
+        for(Row row : readCsv(isotopesFile)) {
+            final IsotopeRow isotope = new IsotopeRow(row, mElements, mSymbols);
+            if(!mIsotopes.isEmpty()) {
+                final IsotopeRow prev = mIsotopes.get(mIsotopes.size() - 1);
+                if(isotope.element < prev.element
+                        || (isotope.element == prev.element && isotope.number <= prev.number)) {
+                    throw row.error("isotopes must be sorted by element and mass number");
+                }
+            }
+            mIsotopes.add(isotope);
+        }
+
+        checkCompositions(isotopesFile);
+
+        for(Row row : readCsv(nuclidesFile)) {
+            final NuclideRow nuclide = new NuclideRow(row, mElements.size());
+            if(!mNuclides.isEmpty()) {
+                final NuclideRow prev = mNuclides.get(mNuclides.size() - 1);
+                if(nuclide.protons < prev.protons || (nuclide.protons == prev.protons
+                        && nuclide.neutrons <= prev.neutrons)) {
+                    throw row.error("nuclides must be sorted by element and mass number");
+                }
+            }
+            mNuclides.add(nuclide);
+        }
+
+        for(Row row : readCsv(spectraFile)) {
+            final LineRow line = new LineRow(row, mElements.size());
+            if(!mLines.isEmpty()) {
+                final LineRow prev = mLines.get(mLines.size() - 1);
+                if(line.element < prev.element || (line.element == prev.element
+                        && line.wavelength <= prev.wavelength)) {
+                    throw row.error("spectral lines must be sorted by element and wavelength");
+                }
+            }
+            mLines.add(line);
+        }
+    }
+
+    /**
+     * Get the number of elements.
+     *
+     * @return The number of elements
+     */
+    public int getElementCount() {
+        return mElements.size();
+    }
+
+    /**
+     * Check that the string resources for every element exist.
+     *
+     * @param names The names of the defined string resources
+     * @throws InvalidDataException If a resource is missing
+     */
+    public void checkResources(Set<String> names) throws InvalidDataException {
+        for(ElementRow element : mElements) {
+            for(String prefix : new String[] {"el", "wiki", "vid"}) {
+                final String name = getResourceName(prefix, element.number);
+                if(!names.contains(name)) {
+                    throw new InvalidDataException("Missing string resource " + name + " for "
+                            + element.symbol);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the binary dataset file.
+     *
+     * @param file The output file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeDataset(File file) throws IOException {
+        final byte[][] sections = {
+                writeElements(), writeConfigurations(), writeIsotopes(), writeExtended(),
+                writeNuclides(), writeSpectra()
+        };
+        final int[] ids = {
+                SECTION_ELEMENTS, SECTION_CONFIGURATIONS, SECTION_ISOTOPES, SECTION_EXTENDED,
+                SECTION_NUCLIDES, SECTION_SPECTRA
+        };
+
+        final DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(sections.length);
+
+            int offset = 8 + sections.length * 10;
+            for(int i = 0; i < sections.length; i++) {
+                out.writeShort(ids[i]);
+                out.writeInt(offset);
+                out.writeInt(sections[i].length);
+                offset += sections[i].length;
+            }
+            for(byte[] section : sections) {
+                out.write(section);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write the Java source file containing the string resource IDs for each element.
+     *
+     * @param sourceDir   The root directory of the generated sources
+     * @param packageName The package of the app's R class and the generated class
+     * @throws IOException If the file cannot be written
+     */
+    public void writeResources(File sourceDir, String packageName) throws IOException {
+        final String resourcePackage = packageName + ".util";
+        final File dir = new File(sourceDir, resourcePackage.replace('.', File.separatorChar));
+        if(!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+
+        final Writer out = new OutputStreamWriter(
+                new FileOutputStream(new File(dir, "ElementResources.java")), "UTF-8");
+        try {
+            out.write("// Generated by the generateDataset task. Do not edit.\n");
+            out.write("package " + resourcePackage + ";\n\n");
+            out.write("import " + packageName + ".R;\n\n");
+            out.write("/**\n * String resource IDs for each element, indexed by atomic number"
+                    + " minus one.\n */\n");
+            out.write("final class ElementResources {\n");
+            writeResourceArray(out, "NAMES", "el");
+            out.write('\n');
+            writeResourceArray(out, "WIKI", "wiki");
+            out.write('\n');
+            writeResourceArray(out, "VIDEO", "vid");
+            out.write("}\n");
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write an array of string resource IDs.
+     *
+     * @param out    The Writer
+     * @param name   The name of the array
+     * @param prefix The prefix of the resource names
+     * @throws IOException If the array cannot be written
+     */
+    private void writeResourceArray(Writer out, String name, String prefix) throws IOException {
+        out.write("    static final int[] " + name + " = {");
+        for(int i = 0; i < mElements.size(); i++) {
+            out.write(i % 4 == 0 ? "\n            " : " ");
+            out.write("R.string." + getResourceName(prefix, i + 1));
+            if(i < mElements.size() - 1) {
+                out.write(',');
+            }
+        }
+        out.write("\n    };\n");
+    }
+
+    /**
+     * Encode the elements section. This contains the element count, then for each element the
+     * symbol, group, period, block, category, and flags, then for each property a validity bitset
+     * followed by the values, and finally the electron offsets followed by the number of
+     * electrons per shell.
+     *
+     * @return The encoded section
+     * @throws IOException If the section cannot be written
+     */
+    private byte[] writeElements() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        final int count = mElements.size();
+
+        out.writeShort(count);
+        for(ElementRow element : mElements) {
+            writeString(out, element.symbol);
+            out.writeByte(element.group);
+            out.writeByte(element.period);
+            out.writeByte(element.block);
+            out.writeByte(element.category);
+            out.writeByte(element.unstable ? 1 : 0);
+        }
+
+        for(int i = 0; i < PROPERTIES.length; i++) {
+            final long[] valid = new long[(count >> 6) + 1];
+            for(ElementRow element : mElements) {
+                if(!Double.isNaN(element.values[i])) {
+                    valid[element.number >> 6] |= 1L << element.number;
+                }
+            }
+            for(long word : valid) {
+                out.writeLong(word);
+            }
+            for(ElementRow element : mElements) {
+                out.writeDouble(element.values[i]);
+            }
+        }
+
+        int offset = 0;
+        for(ElementRow element : mElements) {
+            out.writeShort(offset);
+            offset += element.electrons.length;
+        }
+        out.writeShort(offset);
+        for(ElementRow element : mElements) {
+            for(int electrons : element.electrons) {
+                out.writeByte(electrons);
+            }
+        }
+
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encode the configurations section. The orbitals of every configuration are packed into a
+     * pool of 16-bit words, with the shell number in bits 12-15, the subshell in bits 8-11, and
+     * the number of electrons in bits 0-7. The section contains the element count, the pool
+     * offsets, the atomic number of the core of each element (0 for none), then the core count
+     * followed by the atomic number, offset, and length of the expanded orbitals of each core,
+     * and finally the size of the pool followed by the pool.
+     *
+     * @return The encoded section
+     * @throws IOException If the section cannot be written
+     */
+    private byte[] writeConfigurations() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        final List<Integer> pool = new ArrayList<>();
+        final int[] offsets = new int[mElements.size() + 1];
+        for(ElementRow element : mElements) {
+            offsets[element.number - 1] = pool.size();
+            for(int[] orbital : element.orbitals) {
+                pool.add(orbital[0] << 12 | orbital[1] << 8 | orbital[2]);
+            }
+        }
+        offsets[mElements.size()] = pool.size();
+
+        final Map<Integer, int[]> cores = new TreeMap<>();
+        for(ElementRow element : mElements) {
+            addCore(element.baseElement, pool, offsets, cores);
+        }
+
+        out.writeShort(mElements.size());
+        for(int offset : offsets) {
+            out.writeShort(offset);
+        }
+        for(ElementRow element : mElements) {
+            out.writeByte(element.baseElement);
+        }
+        out.writeByte(cores.size());
+        for(Map.Entry<Integer, int[]> core : cores.entrySet()) {
+            out.writeByte(core.getKey());
+            out.writeShort(core.getValue()[0]);
+            out.writeShort(core.getValue()[1]);
+        }
+        out.writeShort(pool.size());
+        for(int orbital : pool) {
+            out.writeShort(orbital);
+        }
+
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Add the expanded orbitals of a noble gas core to the pool, unless it was already added.
+     * The expansion is the expanded core of the noble gas followed by its own orbitals.
+     *
+     * @param number  The atomic number of the core, or 0 for none
+     * @param pool    The pool of packed orbitals
+     * @param offsets The pool offset of each element's own orbitals
+     * @param cores   Map of core atomic numbers to the offset and length of their expansions
+     */
+    private void addCore(int number, List<Integer> pool, int[] offsets, Map<Integer, int[]> cores) {
+        if(number == 0 || cores.containsKey(number)) {
+            return;
+        }
+
+        final int base = mElements.get(number - 1).baseElement;
+        addCore(base, pool, offsets, cores);
+
+        final int offset = pool.size();
+        if(base != 0) {
+            final int[] baseCore = cores.get(base);
+            pool.addAll(new ArrayList<>(pool.subList(baseCore[0], baseCore[0] + baseCore[1])));
+        }
+        pool.addAll(new ArrayList<>(pool.subList(offsets[number - 1], offsets[number])));
+        cores.put(number, new int[] {offset, pool.size() - offset});
+    }
+
+    /**
+     * Encode the isotopes section. This contains the element count and the offset of each
+     * element's isotopes, followed by the mass numbers, the masses, a bitset of known
+     * compositions, the compositions, and finally the list of isotopes that use a symbol other
+     * than that of their element.
+     *
+     * @return The encoded section
+     * @throws IOException If the section cannot be written
+     */
+    private byte[] writeIsotopes() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        final int count = mIsotopes.size();
+
+        out.writeShort(mElements.size());
+        int index = 0;
+        for(int i = 1; i <= mElements.size(); i++) {
+            out.writeShort(index);
+            while(index < count && mIsotopes.get(index).element == i) {
+                index++;
+            }
+        }
+        out.writeShort(index);
+
+        for(IsotopeRow isotope : mIsotopes) {
+            out.writeShort(isotope.number);
+        }
+        for(IsotopeRow isotope : mIsotopes) {
+            out.writeDouble(isotope.mass);
+        }
+        final long[] valid = new long[(count >> 6) + 1];
+        for(int i = 0; i < count; i++) {
+            if(!Double.isNaN(mIsotopes.get(i).composition)) {
+                valid[i >> 6] |= 1L << i;
+            }
+        }
+        for(long word : valid) {
+            out.writeLong(word);
+        }
+        for(IsotopeRow isotope : mIsotopes) {
+            out.writeDouble(isotope.composition);
+        }
+
+        final List<Integer> aliases = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            final IsotopeRow isotope = mIsotopes.get(i);
+            if(!isotope.symbol.equals(mElements.get(isotope.element - 1).symbol)) {
+                aliases.add(i);
+            }
+        }
+        out.writeByte(aliases.size());
+        for(int i : aliases) {
+            out.writeShort(i);
+            writeString(out, mIsotopes.get(i).symbol);
+        }
+
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encode the extended section. This contains the element count and the offset of each
+     * element's successive ionization energies, followed by the total number of energies, the
+     * energies, and finally the oxidation state bitmask of each element.
+     *
+     * @return The encoded section
+     * @throws IOException If the section cannot be written
+     */
+    private byte[] writeExtended() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeShort(mElements.size());
+        int offset = 0;
+        for(ElementRow element : mElements) {
+            out.writeShort(offset);
+            offset += element.ionization.length;
+        }
+        out.writeShort(offset);
+        for(ElementRow element : mElements) {
+            for(double energy : element.ionization) {
+                out.writeDouble(energy);
+            }
+        }
+        for(ElementRow element : mElements) {
+            out.writeShort(element.oxidation);
+        }
+
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encode the nuclides section. This contains the nuclide count, followed by the proton
+     * numbers, the neutron numbers, the half-lives, the decay mode bitmasks, and the spins.
+     * These are followed by the number of branching ratios and a list of entries containing the
+     * nuclide index, the decay mode bit, and the ratio, for each nuclide with more than one decay
+     * mode.
+     *
+     * @return The encoded section
+     * @throws IOException If the section cannot be written
+     */
+    private byte[] writeNuclides() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeShort(mNuclides.size());
+        for(NuclideRow nuclide : mNuclides) {
+            out.writeByte(nuclide.protons);
+        }
+        for(NuclideRow nuclide : mNuclides) {
+            out.writeShort(nuclide.neutrons);
+        }
+        for(NuclideRow nuclide : mNuclides) {
+            out.writeDouble(nuclide.halfLife);
+        }
+        for(NuclideRow nuclide : mNuclides) {
+            out.writeByte(nuclide.decay);
+        }
+        for(NuclideRow nuclide : mNuclides) {
+            out.writeByte(nuclide.spin);
+        }
+
+        int branches = 0;
+        for(NuclideRow nuclide : mNuclides) {
+            if(nuclide.ratios != null) {
+                branches += Integer.bitCount(nuclide.decay);
+            }
+        }
+        out.writeShort(branches);
+        for(int i = 0; i < mNuclides.size(); i++) {
+            final double[] ratios = mNuclides.get(i).ratios;
+            if(ratios != null) {
+                for(int bit = 0; bit < ratios.length; bit++) {
+                    if(!Double.isNaN(ratios[bit])) {
+                        out.writeShort(i);
+                        out.writeByte(bit);
+                        out.writeDouble(ratios[bit]);
+                    }
+                }
+            }
+        }
+
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encode the spectra section. This contains the element count, then for each element the
+     * offset of its block relative to the end of the directory, the stored and uncompressed
+     * lengths of the block, and the number of lines, followed by the blocks. Each block is
+     * compressed separately so an element's lines can be decoded without touching the others.
+     * Blocks that deflate does not make smaller are stored uncompressed, which is indicated by
+     * equal stored and uncompressed lengths.
+     * An uncompressed block contains the differences between successive wavelengths in
+     * picometers as variable-length integers, followed by the intensities relative to the most
+     * intense line of the element, scaled to 16 bits.
+     *
+     * @return The encoded section
+     * @throws IOException If the section cannot be written
+     */
+    private byte[] writeSpectra() throws IOException {
+        final ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        final byte[] buffer = new byte[4096];
+
+        out.writeShort(mElements.size());
+        int index = 0;
+        for(int i = 1; i <= mElements.size(); i++) {
+            final int start = index;
+            double max = 0;
+            while(index < mLines.size() && mLines.get(index).element == i) {
+                max = Math.max(max, mLines.get(index).intensity);
+                index++;
+            }
+
+            final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            int prev = 0;
+            for(int j = start; j < index; j++) {
+                final int picometers = (int)Math.round(mLines.get(j).wavelength * 1000);
+                writeVarInt(raw, picometers - prev);
+                prev = picometers;
+            }
+            for(int j = start; j < index; j++) {
+                final int value = (int)Math.max(1,
+                        Math.round(mLines.get(j).intensity / max * INTENSITY_SCALE));
+                raw.write(value >> 8);
+                raw.write(value);
+            }
+
+            final int offset = blocks.size();
+            if(index > start) {
+                final byte[] data = raw.toByteArray();
+                compressed.reset();
+                deflater.reset();
+                deflater.setInput(data);
+                deflater.finish();
+                while(!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+                if(compressed.size() < data.length) {
+                    compressed.writeTo(blocks);
+                } else {
+                    blocks.write(data);
+                }
+            }
+            out.writeInt(offset);
+            out.writeInt(blocks.size() - offset);
+            out.writeInt(raw.size());
+            out.writeInt(index - start);
+        }
+        deflater.end();
+        blocks.writeTo(out);
+
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Check that the known isotopic compositions of each element add up to 1.
+     *
+     * @param file The isotope data file
+     * @throws InvalidDataException If the compositions of an element do not add up
+     */
+    private void checkCompositions(File file) throws InvalidDataException {
+        final double[] sums = new double[mElements.size() + 1];
+        final boolean[] known = new boolean[mElements.size() + 1];
+        for(IsotopeRow isotope : mIsotopes) {
+            if(!Double.isNaN(isotope.composition)) {
+                sums[isotope.element] += isotope.composition;
+                known[isotope.element] = true;
+            }
+        }
+        for(int i = 1; i < sums.length; i++) {
+            if(known[i] && Math.abs(sums[i] - 1) > COMPOSITION_TOLERANCE) {
+                throw new InvalidDataException(String.format(Locale.US,
+                        "%s: isotopic compositions of %s add up to %f", file.getName(),
+                        mElements.get(i - 1).symbol, sums[i]));
+            }
+        }
+    }
+
+    /**
+     * Get the name of a string resource for an element.
+     *
+     * @param prefix The prefix of the resource name
+     * @param number The atomic number
+     * @return The resource name
+     */
+    private static String getResourceName(String prefix, int number) {
+        return String.format(Locale.US, "%s%03d", prefix, number);
+    }
+
+    /**
+     * Write a length-prefixed ASCII string.
+     *
+     * @param out   The output stream
+     * @param value The string
+     * @throws IOException If the string cannot be written
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeByte(value.length());
+        out.writeBytes(value);
+    }
+
+    /**
+     * Write an unsigned variable-length integer, 7 bits per byte with the high bit set on all
+     * but the last byte.
+     *
+     * @param out   The output stream
+     * @param value The value
+     */
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Read all the rows from a CSV file.
+     *
+     * @param file The file
+     * @return The list of rows
+     * @throws IOException          If the file cannot be read
+     * @throws InvalidDataException If a row does not match the header
+     */
+    private static List<Row> readCsv(File file) throws IOException, InvalidDataException {
+        final List<Row> rows = new ArrayList<>();
+        final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            Map<String, Integer> columns = null;
+            int lineNumber = 0;
+            String line;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                final String[] cells = line.split(",", -1);
+                if(columns == null) {
+                    columns = new HashMap<>();
+                    for(int i = 0; i < cells.length; i++) {
+                        columns.put(cells[i].trim(), i);
+                    }
+                    continue;
+                }
+
+                final Row row = new Row(file.getName(), lineNumber, columns, cells);
+                if(cells.length != columns.size()) {
+                    throw row.error("expected " + columns.size() + " columns, found "
+                            + cells.length);
+                }
+                rows.add(row);
+            }
+        } finally {
+            reader.close();
+        }
+        return rows;
+    }
+
+    /**
+     * Exception thrown when the data fails validation.
+     */
+    public static class InvalidDataException extends Exception {
+        /**
+         * @param message The description of the problem
+         */
+        InvalidDataException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A row of a CSV file.
+     */
+    private static class Row {
+        /**
+         * The name of the file
+         */
+        private final String mFileName;
+
+        /**
+         * The line number of the row
+         */
+        private final int mLineNumber;
+
+        /**
+         * Map of column names to indices
+         */
+        private final Map<String, Integer> mColumns;
+
+        /**
+         * The cell values
+         */
+        private final String[] mCells;
+
+        /**
+         * @param fileName   The name of the file
+         * @param lineNumber The line number of the row
+         * @param columns    Map of column names to indices
+         * @param cells      The cell values
+         */
+        Row(String fileName, int lineNumber, Map<String, Integer> columns, String[] cells) {
+            mFileName = fileName;
+            mLineNumber = lineNumber;
+            mColumns = columns;
+            mCells = cells;
+        }
+
+        /**
+         * Create an exception describing a problem with this row.
+         *
+         * @param message The description of the problem
+         * @return The exception
+         */
+        InvalidDataException error(String message) {
+            return new InvalidDataException(mFileName + ":" + mLineNumber + ": " + message);
+        }
+
+        /**
+         * Get the value of a cell.
+         *
+         * @param column The column name
+         * @return The trimmed value, which is empty if the value is unknown
+         * @throws InvalidDataException If the column does not exist
+         */
+        String getString(String column) throws InvalidDataException {
+            final Integer index = mColumns.get(column);
+            if(index == null) {
+                throw error("missing column " + column);
+            }
+            return mCells[index].trim();
+        }
+
+        /**
+         * Get the value of a required integer cell.
+         *
+         * @param column The column name
+         * @param min    The minimum value
+         * @param max    The maximum value
+         * @return The value
+         * @throws InvalidDataException If the value is missing, invalid, or out of range
+         */
+        int getInt(String column, int min, int max) throws InvalidDataException {
+            final String value = getString(column);
+            final int result;
+            try {
+                result = Integer.parseInt(value);
+            } catch(NumberFormatException e) {
+                throw error("invalid " + column + " '" + value + "'");
+            }
+            if(result < min || result > max) {
+                throw error(column + " " + result + " is out of range " + min + "-" + max);
+            }
+            return result;
+        }
+
+        /**
+         * Get the value of an optional decimal cell.
+         *
+         * @param column The column name
+         * @param min    The minimum value
+         * @param max    The maximum value
+         * @return The value, or NaN if the value is unknown
+         * @throws InvalidDataException If the value is invalid or out of range
+         */
+        double getDouble(String column, double min, double max) throws InvalidDataException {
+            final String value = getString(column);
+            if(value.isEmpty()) {
+                return Double.NaN;
+            }
+            final double result;
+            try {
+                result = Double.parseDouble(value);
+            } catch(NumberFormatException e) {
+                throw error("invalid " + column + " '" + value + "'");
+            }
+            if(!(result >= min && result <= max)) {
+                throw error(column + " " + value + " is out of range " + min + "-" + max);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The data for an element.
+     */
+    private static class ElementRow {
+        /**
+         * The range of each numeric property, in the order of the property columns
+         */
+        private static final double[][] RANGES = {
+                {0.5, 500}, {0, 50}, {0, 10000}, {0, 10000}, {0, 100}, {0, 4}, {0, 1e6},
+                {10, 500}, {10, 500}, {10, 500}, {0, 500}, {100, 1e7}
+        };
+
+        /**
+         * The atomic number
+         */
+        final int number;
+
+        /**
+         * The element symbol
+         */
+        final String symbol;
+
+        /**
+         * The group, or 0 for none
+         */
+        final int group;
+
+        /**
+         * The period
+         */
+        final int period;
+
+        /**
+         * The block
+         */
+        final char block;
+
+        /**
+         * The category index
+         */
+        final int category;
+
+        /**
+         * Whether the element has no stable isotopes
+         */
+        final boolean unstable;
+
+        /**
+         * The numeric property values, which are NaN if unknown
+         */
+        final double[] values = new double[PROPERTIES.length];
+
+        /**
+         * The successive ionization energies, which may be empty
+         */
+        final double[] ionization;
+
+        /**
+         * The bitmask of common oxidation states, with bit 0 representing OXIDATION_MIN
+         */
+        final int oxidation;
+
+        /**
+         * The number of electrons per shell
+         */
+        final int[] electrons;
+
+        /**
+         * The atomic number of the base element of the configuration, or 0 for none
+         */
+        final int baseElement;
+
+        /**
+         * The shell, orbital type index, and electron count of each orbital
+         */
+        final int[][] orbitals;
+
+        /**
+         * @param row     The CSV row
+         * @param number  The expected atomic number
+         * @param symbols Map of symbols to the previous elements
+         * @throws InvalidDataException If the row is invalid
+         */
+        ElementRow(Row row, int number, Map<String, ElementRow> symbols)
+                throws InvalidDataException {
+            this.number = row.getInt("number", 1, 255);
+            if(this.number != number) {
+                throw row.error("expected element " + number + ", found " + this.number);
+            }
+
+            symbol = row.getString("symbol");
+            if(!symbol.matches("[A-Z][a-z]{0,2}")) {
+                throw row.error("invalid symbol '" + symbol + "'");
+            }
+            if(symbols.containsKey(symbol)) {
+                throw row.error("duplicate symbol " + symbol);
+            }
+
+            group = row.getInt("group", 0, 18);
+            period = row.getInt("period", 1, 7);
+            final String block = row.getString("block");
+            if(block.length() != 1 || ORBITALS.indexOf(block.charAt(0)) == -1) {
+                throw row.error("invalid block '" + block + "'");
+            }
+            this.block = block.charAt(0);
+            category = row.getInt("category", 0, 9);
+            final String unstable = row.getString("unstable");
+            if(!unstable.equals("true") && !unstable.equals("false")) {
+                throw row.error("invalid unstable '" + unstable + "'");
+            }
+            this.unstable = unstable.equals("true");
+
+            for(int i = 0; i < PROPERTIES.length; i++) {
+                if(i != IONIZATION) {
+                    values[i] = row.getDouble(PROPERTIES[i], RANGES[i][0], RANGES[i][1]);
+                }
+            }
+            if(Double.isNaN(values[0])) {
+                throw row.error("missing weight");
+            }
+            ionization = parseIonization(row);
+            values[IONIZATION] = ionization.length > 0 ? ionization[0] : Double.NaN;
+            oxidation = parseOxidation(row);
+
+            electrons = parseElectrons(row);
+            int baseElement = 0;
+            String configuration = row.getString("configuration");
+            if(configuration.startsWith("[")) {
+                final int end = configuration.indexOf(']');
+                final ElementRow base =
+                        end == -1 ? null : symbols.get(configuration.substring(1, end));
+                if(base == null || base.group != 18) {
+                    throw row.error("invalid base element in configuration '" + configuration
+                            + "'");
+                }
+                baseElement = base.number;
+                configuration = configuration.substring(end + 1).trim();
+            }
+            this.baseElement = baseElement;
+            orbitals = parseOrbitals(row, configuration, baseElement);
+        }
+
+        /**
+         * Parse and validate the successive ionization energies.
+         *
+         * @param row The CSV row
+         * @return The ionization energies
+         * @throws InvalidDataException If the value is invalid
+         */
+        private double[] parseIonization(Row row) throws InvalidDataException {
+            final String value = row.getString("ionization");
+            if(value.isEmpty()) {
+                return new double[0];
+            }
+            final String[] parts = value.split(" +");
+            if(parts.length > number) {
+                throw row.error("more ionization energies than electrons");
+            }
+            final double[] energies = new double[parts.length];
+            for(int i = 0; i < parts.length; i++) {
+                try {
+                    energies[i] = Double.parseDouble(parts[i]);
+                } catch(NumberFormatException e) {
+                    throw row.error("invalid ionization '" + value + "'");
+                }
+                final double min = i == 0 ? RANGES[IONIZATION][0] : energies[i - 1];
+                if(!(energies[i] > min && energies[i] <= RANGES[IONIZATION][1])) {
+                    throw row.error("invalid ionization energy " + (i + 1));
+                }
+            }
+            return energies;
+        }
+
+        /**
+         * Parse and validate the common oxidation states.
+         *
+         * @param row The CSV row
+         * @return The bitmask of oxidation states
+         * @throws InvalidDataException If the value is invalid
+         */
+        private int parseOxidation(Row row) throws InvalidDataException {
+            final String value = row.getString("oxidation");
+            if(value.isEmpty()) {
+                return 0;
+            }
+            int mask = 0;
+            for(String part : value.split(" +")) {
+                if(!part.matches("[-+]?\\d")) {
+                    throw row.error("invalid oxidation '" + value + "'");
+                }
+                final int state = Integer.parseInt(part);
+                if(state < OXIDATION_MIN || state > OXIDATION_MAX) {
+                    throw row.error("oxidation state " + part + " is out of range");
+                }
+                mask |= 1 << (state - OXIDATION_MIN);
+            }
+            return mask;
+        }
+
+        /**
+         * Parse and validate the number of electrons per shell.
+         *
+         * @param row The CSV row
+         * @return The number of electrons per shell
+         * @throws InvalidDataException If the value is invalid
+         */
+        private int[] parseElectrons(Row row) throws InvalidDataException {
+            final String[] shells = row.getString("electrons").split(" +");
+            final int[] electrons = new int[shells.length];
+            int total = 0;
+            for(int i = 0; i < shells.length; i++) {
+                try {
+                    electrons[i] = Integer.parseInt(shells[i]);
+                } catch(NumberFormatException e) {
+                    throw row.error("invalid electrons '" + row.getString("electrons") + "'");
+                }
+                if(electrons[i] < 1 || electrons[i] > 2 * (i + 1) * (i + 1)) {
+                    throw row.error("invalid number of electrons in shell " + (i + 1));
+                }
+                total += electrons[i];
+            }
+            if(total != number) {
+                throw row.error("electrons add up to " + total);
+            }
+            return electrons;
+        }
+
+        /**
+         * Parse and validate the orbitals of the electron configuration.
+         *
+         * @param row           The CSV row
+         * @param configuration The orbitals, separated by spaces
+         * @param baseElement   The atomic number of the base element
+         * @return The shell, orbital type index, and electron count of each orbital
+         * @throws InvalidDataException If the value is invalid
+         */
+        private int[][] parseOrbitals(Row row, String configuration, int baseElement)
+                throws InvalidDataException {
+            final String[] parts = configuration.split(" +");
+            final int[][] orbitals = new int[parts.length][];
+            int total = baseElement;
+            for(int i = 0; i < parts.length; i++) {
+                final String part = parts[i];
+                final int type = part.length() < 3 ? -1 : ORBITALS.indexOf(part.charAt(1));
+                if(type == -1 || !part.substring(2).matches("\\d+")) {
+                    throw row.error("invalid orbital '" + part + "'");
+                }
+                final int shell = part.charAt(0) - '0';
+                final int count = Integer.parseInt(part.substring(2));
+                if(shell < 1 || shell > 7 || type >= shell || count < 1 || count > 4 * type + 2) {
+                    throw row.error("invalid orbital '" + part + "'");
+                }
+                orbitals[i] = new int[] {shell, type, count};
+                total += count;
+            }
+            if(total != number) {
+                throw row.error("configuration adds up to " + total + " electrons");
+            }
+            return orbitals;
+        }
+    }
+
+    /**
+     * The data for an isotope.
+     */
+    private static class IsotopeRow {
+        /**
+         * The atomic number of the element
+         */
+        final int element;
+
+        /**
+         * The mass number
+         */
+        final int number;
+
+        /**
+         * The symbol for the isotope
+         */
+        final String symbol;
+
+        /**
+         * The relative atomic mass
+         */
+        final double mass;
+
+        /**
+         * The isotopic composition, which is NaN if unknown
+         */
+        final double composition;
+
+        /**
+         * @param row      The CSV row
+         * @param elements The list of elements
+         * @param symbols  Map of symbols to elements
+         * @throws InvalidDataException If the row is invalid
+         */
+        IsotopeRow(Row row, List<ElementRow> elements, Map<String, ElementRow> symbols)
+                throws InvalidDataException {
+            element = row.getInt("element", 1, elements.size());
+            number = row.getInt("number", element, 65535);
+            symbol = row.getString("symbol");
+            final ElementRow owner = elements.get(element - 1);
+            if(!symbol.equals(owner.symbol)
+                    && (!symbol.matches("[A-Z][a-z]{0,2}") || symbols.containsKey(symbol))) {
+                throw row.error("invalid symbol '" + symbol + "' for " + owner.symbol);
+            }
+            mass = row.getDouble("mass", number - 0.5, number + 0.5);
+            if(Double.isNaN(mass)) {
+                throw row.error("missing mass");
+            }
+            composition = row.getDouble("composition", 0, 1);
+        }
+    }
+
+    /**
+     * The data for a nuclide.
+     */
+    private static class NuclideRow {
+        /**
+         * The value of the spin for an unknown spin and parity
+         */
+        static final int SPIN_UNKNOWN = 0x7f;
+
+        /**
+         * The number of protons
+         */
+        final int protons;
+
+        /**
+         * The number of neutrons
+         */
+        final int neutrons;
+
+        /**
+         * The half-life in seconds, which is infinite if the nuclide is stable or NaN if unknown
+         */
+        final double halfLife;
+
+        /**
+         * The bitmask of decay modes
+         */
+        final int decay;
+
+        /**
+         * The branching ratio of each decay mode bit, or NaN for modes that do not occur, or null
+         * if the nuclide has a single decay mode
+         */
+        final double[] ratios;
+
+        /**
+         * Twice the ground state spin in the low 7 bits, with the high bit set for negative
+         * parity
+         */
+        final int spin;
+
+        /**
+         * @param row          The CSV row
+         * @param elementCount The number of elements
+         * @throws InvalidDataException If the row is invalid
+         */
+        NuclideRow(Row row, int elementCount) throws InvalidDataException {
+            protons = row.getInt("element", 1, elementCount);
+            neutrons = row.getInt("number", protons, 65535) - protons;
+
+            final String halfLife = row.getString("halflife");
+            if(halfLife.equals("stable")) {
+                this.halfLife = Double.POSITIVE_INFINITY;
+            } else {
+                this.halfLife = row.getDouble("halflife", 0, Double.MAX_VALUE);
+            }
+
+            final String decay = row.getString("decay");
+            final String[] tokens = decay.isEmpty() ? new String[0] : decay.split(" +");
+            final double[] ratios = new double[DECAY_MODES.length];
+            Arrays.fill(ratios, Double.NaN);
+            int mask = 0;
+            double sum = 0;
+            for(String token : tokens) {
+                final int split = token.indexOf(':');
+                final String mode = split == -1 ? token : token.substring(0, split);
+                int bit = -1;
+                for(int i = 0; i < DECAY_MODES.length; i++) {
+                    if(DECAY_MODES[i].equals(mode)) {
+                        bit = i;
+                        break;
+                    }
+                }
+                if(bit == -1) {
+                    throw row.error("invalid decay mode '" + mode + "'");
+                }
+                if((mask & (1 << bit)) != 0) {
+                    throw row.error("duplicate decay mode '" + mode + "'");
+                }
+                mask |= 1 << bit;
+
+                if(split == -1) {
+                    if(tokens.length > 1) {
+                        throw row.error("missing branching ratio for '" + mode + "'");
+                    }
+                    continue;
+                }
+                final double ratio;
+                try {
+                    ratio = Double.parseDouble(token.substring(split + 1));
+                } catch(NumberFormatException e) {
+                    throw row.error("invalid branching ratio '" + token + "'");
+                }
+                if(!(ratio > 0 && ratio <= 100)) {
+                    throw row.error("invalid branching ratio '" + token + "'");
+                }
+                ratios[bit] = ratio / 100;
+                sum += ratio;
+            }
+            if(mask != 0 && this.halfLife == Double.POSITIVE_INFINITY) {
+                throw row.error("stable nuclide with decay modes");
+            }
+            if(sum != 0 && Math.abs(sum - 100) > BRANCHING_TOLERANCE) {
+                throw row.error("branching ratios add up to " + sum + "%");
+            }
+            this.decay = mask;
+            this.ratios = tokens.length > 1 ? ratios : null;
+
+            final String spin = row.getString("spin");
+            if(spin.isEmpty()) {
+                this.spin = SPIN_UNKNOWN;
+            } else {
+                if(!spin.matches("\\d+(/2)?[+-]")) {
+                    throw row.error("invalid spin '" + spin + "'");
+                }
+                final boolean half = spin.contains("/");
+                final int value = Integer.parseInt(spin.substring(0, half ? spin.indexOf('/')
+                        : spin.length() - 1));
+                final int twice = half ? value : value * 2;
+                if(twice >= SPIN_UNKNOWN || (half && value % 2 == 0)
+                        || (twice % 2 != (protons + neutrons) % 2)) {
+                    throw row.error("invalid spin '" + spin + "'");
+                }
+                this.spin = twice | (spin.endsWith("-") ? 0x80 : 0);
+            }
+        }
+    }
+
+    /**
+     * The data for a spectral line.
+     */
+    private static class LineRow {
+        /**
+         * The atomic number of the element
+         */
+        final int element;
+
+        /**
+         * The wavelength in nanometers
+         */
+        final double wavelength;
+
+        /**
+         * The relative intensity
+         */
+        final double intensity;
+
+        /**
+         * @param row          The CSV row
+         * @param elementCount The number of elements
+         * @throws InvalidDataException If the row is invalid
+         */
+        LineRow(Row row, int elementCount) throws InvalidDataException {
+            element = row.getInt("element", 1, elementCount);
+            wavelength = row.getDouble("wavelength", WAVELENGTH_MIN, WAVELENGTH_MAX);
+            if(Double.isNaN(wavelength)) {
+                throw row.error("missing wavelength");
+            }
+            intensity = row.getDouble("intensity", Double.MIN_VALUE, 1e9);
+            if(Double.isNaN(intensity)) {
+                throw row.error("missing intensity");
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.build;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Task that generates the element dataset asset and the element string resource table from the
+ * canonical data files. The data is validated first, and the build fails if it is invalid.
+ *
+ * @author Steve Guidetti
+ */
+public class DatasetTask extends DefaultTask {
+    /**
+     * The element data file
+     */
+    private File mElementsFile;
+
+    /**
+     * The isotope data file
+     */
+    private File mIsotopesFile;
+
+    /**
+     * The nuclide data file
+     */
+    private File mNuclidesFile;
+
+    /**
+     * The spectral line data file
+     */
+    private File mSpectraFile;
+
+    /**
+     * The default values resource directory, used to check the element string resources
+     */
+    private File mResourceDir;
+
+    /**
+     * The package of the app's R class
+     */
+    private String mPackageName;
+
+    /**
+     * The directory for the generated assets
+     */
+    private File mAssetsDir;
+
+    /**
+     * The directory for the generated sources
+     */
+    private File mSourceDir;
+
+    @InputFile
+    public File getElementsFile() {
+        return mElementsFile;
+    }
+
+    public void setElementsFile(File elementsFile) {
+        mElementsFile = elementsFile;
+    }
+
+    @InputFile
+    public File getIsotopesFile() {
+        return mIsotopesFile;
+    }
+
+    public void setIsotopesFile(File isotopesFile) {
+        mIsotopesFile = isotopesFile;
+    }
+
+    @InputFile
+    public File getNuclidesFile() {
+        return mNuclidesFile;
+    }
+
+    public void setNuclidesFile(File nuclidesFile) {
+        mNuclidesFile = nuclidesFile;
+    }
+
+    @InputFile
+    public File getSpectraFile() {
+        return mSpectraFile;
+    }
+
+    public void setSpectraFile(File spectraFile) {
+        mSpectraFile = spectraFile;
+    }
+
+    @InputDirectory
+    public File getResourceDir() {
+        return mResourceDir;
+    }
+
+    public void setResourceDir(File resourceDir) {
+        mResourceDir = resourceDir;
+    }
+
+    @Input
+    public String getPackageName() {
+        return mPackageName;
+    }
+
+    public void setPackageName(String packageName) {
+        mPackageName = packageName;
+    }
+
+    @OutputDirectory
+    public File getAssetsDir() {
+        return mAssetsDir;
+    }
+
+    public void setAssetsDir(File assetsDir) {
+        mAssetsDir = assetsDir;
+    }
+
+    @OutputDirectory
+    public File getSourceDir() {
+        return mSourceDir;
+    }
+
+    public void setSourceDir(File sourceDir) {
+        mSourceDir = sourceDir;
+    }
+
+    /**
+     * Validate the data and generate the outputs.
+     */
+    @TaskAction
+    public void generate() {
+        try {
+            final DatasetCompiler compiler = new DatasetCompiler(mElementsFile, mIsotopesFile,
+                    mNuclidesFile, mSpectraFile);
+            compiler.checkResources(readStringNames());
+            compiler.writeDataset(new File(mAssetsDir, "elements.dat"));
+            compiler.writeResources(mSourceDir, mPackageName);
+            getLogger().info("Generated dataset for {} elements", compiler.getElementCount());
+        } catch(DatasetCompiler.InvalidDataException e) {
+            throw new GradleException("Invalid element data: " + e.getMessage(), e);
+        } catch(IOException e) {
+            throw new GradleException("Unable to generate element dataset", e);
+        }
+    }
+
+    /**
+     * Read the names of all the string resources in the values resource directory.
+     *
+     * @return The set of string resource names
+     * @throws IOException If a resource file cannot be read
+     */
+    private Set<String> readStringNames() throws IOException {
+        final Set<String> names = new HashSet<>();
+        final File[] files = mResourceDir.listFiles();
+        if(files == null) {
+            return names;
+        }
+
+        try {
+            final DocumentBuilder builder =
+                    DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            for(File file : files) {
+                if(!file.getName().endsWith(".xml")) {
+                    continue;
+                }
+                final NodeList strings = builder.parse(file).getElementsByTagName("string");
+                for(int i = 0; i < strings.getLength(); i++) {
+                    names.add(((Element)strings.item(i)).getAttribute("name"));
+                }
+            }
+        } catch(ParserConfigurationException | SAXException e) {
+            throw new IOException("Unable to read string resources", e);
+        }
+        return names;
+    }
+}